@@ -16,12 +16,23 @@
 
 package com.alibaba.cloud.ai.example.audio.stt;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
 import java.net.MalformedURLException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
 import java.util.Objects;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
 
 import com.alibaba.cloud.ai.dashscope.api.DashScopeAudioTranscriptionApi;
 import com.alibaba.cloud.ai.dashscope.audio.DashScopeAudioTranscriptionOptions;
@@ -30,14 +41,21 @@ import com.alibaba.cloud.ai.dashscope.common.DashScopeException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.ai.audio.transcription.AudioTranscriptionPrompt;
 import org.springframework.ai.audio.transcription.AudioTranscriptionResponse;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
 /**
  * @author yuluo
@@ -60,8 +78,19 @@ public class STTController {
 
 	private static final String AUDIO_RESOURCES_URL = "https://dashscope.oss-cn-beijing.aliyuncs.com/samples/audio/paraformer/hello_world_female2.wav";
 
+	private static final String SAMPLE_PCM = "stt/count.pcm";
+
+	private static final int SAMPLE_RATE = 16000;
+
+	private static final int SEGMENT_CONCURRENCY = 4;
+
 	private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
 
+	private final AudioSegmenter segmenter = new AudioSegmenter(SAMPLE_RATE, Duration.ofSeconds(10),
+			Duration.ofSeconds(20), Duration.ofMillis(300), Duration.ofMillis(500));
+
+	private final TranscriptStitcher stitcher = new TranscriptStitcher(32);
+
 	public STTController(AudioTranscriptionModel transcriptionModel) {
 
 		this.transcriptionModel = transcriptionModel;
@@ -117,6 +146,81 @@ public class STTController {
 		return stringBuilder.toString();
 	}
 
+	/**
+	 * Split the sample recording at pauses, transcribe the segments concurrently and stream
+	 * the transcript segment by segment, without waiting for the whole recording.
+	 */
+	@GetMapping(value = "/segmented", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public Flux<String> segmentedSTT() throws IOException {
+
+		byte[] pcm = new ClassPathResource(SAMPLE_PCM).getContentAsByteArray();
+		return segmented(toSamples(pcm));
+	}
+
+	/**
+	 * Same as {@link #segmentedSTT()} for an uploaded recording, raw 16 kHz mono pcm or any wav/aiff/au file.
+	 */
+	@PostMapping(value = "/segmented", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public Flux<String> segmentedSTT(@RequestParam("file") MultipartFile file) throws IOException {
+
+		String fileName = Objects.requireNonNullElse(file.getOriginalFilename(), "");
+		if (fileName.toLowerCase().endsWith(".pcm")) {
+			return segmented(toSamples(file.getBytes()));
+		}
+
+		try (AudioInputStream source = AudioSystem.getAudioInputStream(new BufferedInputStream(file.getInputStream()));
+				AudioInputStream pcm = AudioSystem.getAudioInputStream(
+						new AudioFormat(SAMPLE_RATE, 16, 1, true, false), source)) {
+			return segmented(toSamples(pcm.readAllBytes()));
+		}
+		catch (UnsupportedAudioFileException | IllegalArgumentException e) {
+			throw new DashScopeException("Unsupported audio file, upload 16 kHz mono pcm or wav: " + e.getMessage());
+		}
+	}
+
+	private Flux<String> segmented(short[] samples) {
+
+		return Flux.defer(() -> {
+			// segments are emitted in order, each transcript is stitched to everything emitted before it
+			StringBuilder transcript = new StringBuilder();
+			return Flux.fromIterable(segmenter.split(samples))
+					.flatMapSequential(segment -> transcribe(samples, segment), SEGMENT_CONCURRENCY)
+					.map(text -> {
+						String stitched = stitcher.stitch(transcript.toString(), text);
+						transcript.append(stitched);
+						return stitched;
+					});
+		});
+	}
+
+	private Mono<String> transcribe(short[] samples, AudioSegmenter.Segment segment) {
+
+		ByteBuffer pcm = ByteBuffer.allocate((segment.toSample() - segment.fromSample()) * 2)
+				.order(ByteOrder.LITTLE_ENDIAN);
+		pcm.asShortBuffer().put(samples, segment.fromSample(), segment.toSample() - segment.fromSample());
+
+		log.debug("Transcribing segment {} [{} ms, {} ms]", segment.index(), segment.startMillis(), segment.endMillis());
+		return transcriptionModel.stream(
+						new AudioTranscriptionPrompt(
+								new ByteArrayResource(pcm.array()),
+								DashScopeAudioTranscriptionOptions.builder()
+										.withModel(DEFAULT_MODEL_2)
+										.withSampleRate(SAMPLE_RATE)
+										.withFormat(DashScopeAudioTranscriptionOptions.AudioFormat.PCM)
+										.withDisfluencyRemovalEnabled(false)
+										.build()
+						))
+				.map(response -> response.getResult().getOutput())
+				.collect(Collectors.joining());
+	}
+
+	private static short[] toSamples(byte[] pcm) {
+
+		short[] samples = new short[pcm.length / 2];
+		ByteBuffer.wrap(pcm).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().get(samples);
+		return samples;
+	}
+
 	@GetMapping("/async")
 	public String asyncSTT() {
 		StringBuilder stringBuilder = new StringBuilder();
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.example.audio.stt;
+
+import java.util.Arrays;
+
+/**
+ * Join the transcripts of overlapping audio segments.
+ * <p>
+ * The audio shared by two neighbouring segments is usually transcribed by both, the longest run of
+ * letters and digits that ends the previous transcript and starts the next one is removed from the
+ * next one. Punctuation and whitespace are ignored while matching since the model often closes a
+ * segment with a full stop where the other segment has a comma. Appending the returned text to the
+ * previous transcript gives the joined transcript.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+public final class TranscriptStitcher {
+
+	/**
+	 * Shorter matches are more likely a repeated word than a duplicate.
+	 */
+	static final int MIN_OVERLAP = 2;
+
+	private final int maxOverlap;
+
+	/**
+	 * @param maxOverlap the longest duplicate looked for, in letters and digits.
+	 */
+	public TranscriptStitcher(int maxOverlap) {
+		this.maxOverlap = maxOverlap;
+	}
+
+	/**
+	 * @return the part of {@code next} that is not already at the end of {@code previous}.
+	 */
+	public String stitch(String previous, String next) {
+
+		int[] prev = significant(previous);
+		int[] head = significant(next);
+		int limit = Math.min(maxOverlap, Math.min(prev.length, head.length));
+		for (int length = limit; length >= MIN_OVERLAP; length--) {
+			int start = prev.length - length;
+			if (matches(previous, prev, start, next, head, length)
+					&& wordBoundary(previous, prev[start]) && wordBoundary(next, head[length - 1] + 1)) {
+				int end = head[length - 1] + 1;
+				while (end < next.length() && !Character.isLetterOrDigit(next.charAt(end))) {
+					end++;
+				}
+				return separated(previous, next.substring(end));
+			}
+		}
+
+		return separated(previous, next);
+	}
+
+	/**
+	 * Alphabetic words of two segments need a space between them, ideographs do not.
+	 */
+	private static String separated(String previous, String text) {
+
+		if (previous.isEmpty() || text.isEmpty()) {
+			return text;
+		}
+		char last = previous.charAt(previous.length() - 1);
+		char first = text.charAt(0);
+		boolean alphabetic = Character.isLetterOrDigit(last) && !Character.isIdeographic(last)
+				&& Character.isLetterOrDigit(first) && !Character.isIdeographic(first);
+		return alphabetic ? " " + text : text;
+	}
+
+	/**
+	 * Indexes of the letters and digits of the text.
+	 */
+	private static int[] significant(String text) {
+
+		int[] indexes = new int[text.length()];
+		int count = 0;
+		for (int i = 0; i < text.length(); i++) {
+			if (Character.isLetterOrDigit(text.charAt(i))) {
+				indexes[count++] = i;
+			}
+		}
+		return Arrays.copyOf(indexes, count);
+	}
+
+	private static boolean matches(String previous, int[] prev, int start, String next, int[] head, int length) {
+
+		for (int i = 0; i < length; i++) {
+			char a = previous.charAt(prev[start + i]);
+			char b = next.charAt(head[i]);
+			if (Character.toLowerCase(a) != Character.toLowerCase(b)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * A duplicate must not start or end inside a word of an alphabetic script, "at" is no duplicate of "cat".
+	 * Ideographs have no word boundaries and always qualify.
+	 */
+	private static boolean wordBoundary(String text, int index) {
+
+		if (index <= 0 || index >= text.length()) {
+			return true;
+		}
+		char before = text.charAt(index - 1);
+		char after = text.charAt(index);
+		return !Character.isLetterOrDigit(before) || !Character.isLetterOrDigit(after)
+				|| Character.isIdeographic(before) || Character.isIdeographic(after);
+	}
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.cloud.ai.example.audio.tts;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Synthesize long text sentence by sentence and hand out the audio as soon as it is produced.
+ * <p>
+ * The text is split into sentences, the next sentence is synthesized while the audio of the
+ * current one is being sent, chunks are always emitted in text order. Demand is propagated to the
+ * synthesizer: a slow client only ever holds back a bounded number of chunks. The model returns
+ * mp3, mp3 frames are self delimiting so the concatenated chunks of all sentences are one playable
+ * stream.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+public class StreamingSynthesizer {
+
+	/**
+	 * A sentence ends at a Chinese or western end mark, a full stop followed by a space or a line break.
+	 */
+	private static final Pattern SENTENCE = Pattern.compile(".+?(?:[。！？!?；;]+|\\.+(?=\\s|$)|\\n+|$)", Pattern.DOTALL);
+
+	/**
+	 * Sentences shorter than this are synthesized together with the following one.
+	 */
+	static final int MIN_SENTENCE_LENGTH = 8;
+
+	/**
+	 * Longer sentences are wrapped at a comma or hard, the synthesis request has a length limit.
+	 */
+	static final int MAX_SENTENCE_LENGTH = 200;
+
+	/**
+	 * Sentences synthesized ahead of the one being sent.
+	 */
+	static final int LOOKAHEAD = 1;
+
+	/**
+	 * Chunks requested from each sentence at a time.
+	 */
+	static final int PREFETCH = 4;
+
+	private final SentenceSynthesizer synthesizer;
+
+	public StreamingSynthesizer(SentenceSynthesizer synthesizer) {
+		this.synthesizer = synthesizer;
+	}
+
+	/**
+	 * The audio of the text in order, one element per chunk produced by the model.
+	 */
+	public Flux<byte[]> stream(String text) {
+
+		return Flux.fromIterable(sentences(text))
+				.flatMapSequential(sentence -> synthesizer.synthesize(sentence).map(StreamingSynthesizer::toBytes),
+						LOOKAHEAD + 1, PREFETCH);
+	}
+
+	/**
+	 * Write the audio to the stream chunk by chunk, flushing every chunk. The calling thread is blocked
+	 * while the stream is, which slows down the synthesis instead of buffering the audio. The synthesis
+	 * is cancelled when writing fails, for example when the client went away.
+	 */
+	public void writeTo(String text, OutputStream out) throws IOException {
+
+		try (Stream<byte[]> chunks = stream(text).toStream(1)) {
+			Iterator<byte[]> iterator = chunks.iterator();
+			while (iterator.hasNext()) {
+				out.write(iterator.next());
+				out.flush();
+			}
+		}
+	}
+
+	static List<String> sentences(String text) {
+
+		List<String> sentences = new ArrayList<>();
+		StringBuilder pending = new StringBuilder();
+		Matcher matcher = SENTENCE.matcher(text);
+		while (matcher.find()) {
+			pending.append(matcher.group());
+			if (pending.toString().strip().length() >= MIN_SENTENCE_LENGTH) {
+				wrap(pending.toString().strip(), sentences);
+				pending.setLength(0);
+			}
+		}
+		if (!pending.toString().isBlank()) {
+			wrap(pending.toString().strip(), sentences);
+		}
+
+		return sentences;
+	}
+
+	private static void wrap(String sentence, List<String> sentences) {
+
+		String rest = sentence;
+		while (rest.length() > MAX_SENTENCE_LENGTH) {
+			int cut = Math.max(rest.lastIndexOf('，', MAX_SENTENCE_LENGTH - 1), rest.lastIndexOf(',', MAX_SENTENCE_LENGTH - 1));
+			cut = cut < MIN_SENTENCE_LENGTH ? MAX_SENTENCE_LENGTH : cut + 1;
+			sentences.add(rest.substring(0, cut).strip());
+			rest = rest.substring(cut).strip();
+		}
+		if (!rest.isEmpty()) {
+			sentences.add(rest);
+		}
+	}
+
+	private static byte[] toBytes(ByteBuffer buffer) {
+
+		ByteBuffer source = buffer.duplicate();
+		byte[] bytes = new byte[source.remaining()];
+		source.get(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Streams the audio of one sentence.
+	 */
+	@FunctionalInterface
+	public interface SentenceSynthesizer {
+
+		Flux<ByteBuffer> synthesize(String sentence);
+
+	}
+
+}
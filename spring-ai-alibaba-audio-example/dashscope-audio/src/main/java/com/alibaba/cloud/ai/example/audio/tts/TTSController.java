@@ -20,20 +20,23 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.concurrent.CountDownLatch;
 
 import com.alibaba.cloud.ai.dashscope.audio.synthesis.SpeechSynthesisModel;
 import com.alibaba.cloud.ai.dashscope.audio.synthesis.SpeechSynthesisPrompt;
 import com.alibaba.cloud.ai.dashscope.audio.synthesis.SpeechSynthesisResponse;
 import jakarta.annotation.PreDestroy;
 import org.apache.commons.io.FileUtils;
-import reactor.core.publisher.Flux;
 
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * @author yuluo
@@ -50,9 +53,18 @@ public class TTSController implements ApplicationRunner {
 
 	private static final String FILE_PATH = "spring-ai-alibaba-audio-example/dashscope-audio/src/main/resources/gen/tts";
 
+	private static final MediaType AUDIO_MPEG = MediaType.parseMediaType("audio/mpeg");
+
+	private final StreamingSynthesizer streamingSynthesizer;
+
 	public TTSController(SpeechSynthesisModel speechSynthesisModel) {
 
 		this.speechSynthesisModel = speechSynthesisModel;
+		// the websocket pushes audio regardless of demand, buffer it per sentence
+		this.streamingSynthesizer = new StreamingSynthesizer(sentence -> speechSynthesisModel
+				.stream(new SpeechSynthesisPrompt(sentence))
+				.map(response -> response.getResult().getOutput().getAudio())
+				.onBackpressureBuffer());
 	}
 
 	@GetMapping
@@ -72,36 +84,18 @@ public class TTSController implements ApplicationRunner {
 		}
 	}
 
+	/**
+	 * Stream the speech of the text over chunked HTTP while it is synthesized, the first audio
+	 * is sent after the first sentence is ready instead of the whole text.
+	 */
 	@GetMapping("/stream")
-	public void streamTTS() {
-
-		Flux<SpeechSynthesisResponse> response = speechSynthesisModel.stream(
-				new SpeechSynthesisPrompt(TEXT)
-		);
+	public ResponseEntity<StreamingResponseBody> streamTTS(@RequestParam(value = "text", defaultValue = TEXT) String text) {
 
-		CountDownLatch latch = new CountDownLatch(1);
-		File file = new File(FILE_PATH + "/output-stream.mp3");
-		try (FileOutputStream fos = new FileOutputStream(file)) {
-
-			response.doFinally(
-					signal -> latch.countDown()
-			).subscribe(synthesisResponse -> {
-				ByteBuffer byteBuffer = synthesisResponse.getResult().getOutput().getAudio();
-				byte[] bytes = new byte[byteBuffer.remaining()];
-				byteBuffer.get(bytes);
-				try {
-					fos.write(bytes);
-				}
-				catch (IOException e) {
-					throw new RuntimeException(e);
-				}
-			});
-
-			latch.await();
-		}
-		catch (IOException | InterruptedException e) {
-			throw new RuntimeException(e);
-		}
+		StreamingResponseBody body = out -> streamingSynthesizer.writeTo(text, out);
+		return ResponseEntity.ok()
+				.contentType(AUDIO_MPEG)
+				.header(HttpHeaders.CACHE_CONTROL, "no-store")
+				.body(body);
 	}
 
 	@Override
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.cloud.ai.example.audio.tts;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives {@link StreamingSynthesizer} with a mock speech model that produces chunks on demand only,
+ * so every chunk produced but not yet written is visible.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+class StreamingSynthesizerTest {
+
+	private static final String POEM = "白日依山尽，黄河入海流。欲穷千里目，更上一层楼。";
+
+	@Test
+	void splitsTextIntoSentences() {
+
+		assertEquals(List.of("白日依山尽，黄河入海流。", "欲穷千里目，更上一层楼。"), StreamingSynthesizer.sentences(POEM));
+		assertEquals(List.of("好。我们走吧，今天天气真不错！"), StreamingSynthesizer.sentences("好。我们走吧，今天天气真不错！"));
+		assertEquals(List.of("It costs 3.5 dollars.", "Buy it now"), StreamingSynthesizer.sentences("It costs 3.5 dollars. Buy it now"));
+
+		String longSentence = "很长的句子，".repeat(60) + "结束。";
+		List<String> wrapped = StreamingSynthesizer.sentences(longSentence);
+		assertTrue(wrapped.size() > 1);
+		assertTrue(wrapped.stream().allMatch(sentence -> sentence.length() <= StreamingSynthesizer.MAX_SENTENCE_LENGTH));
+		assertEquals(longSentence, String.join("", wrapped));
+	}
+
+	@Test
+	void streamsSentencesInOrderWhileTheNextIsSynthesized() throws IOException {
+
+		String text = "第一句话说完了。第二句话说完了。第三句话说完了。第四句话说完了。";
+		AtomicInteger synthesizing = new AtomicInteger();
+		AtomicInteger maxSynthesizing = new AtomicInteger();
+		AtomicLong lastSentenceStarted = new AtomicLong();
+		// the second sentence is done before the first, the order must still be kept
+		MockSpeechModel model = new MockSpeechModel(3,
+				sentence -> Duration.ofMillis(sentence.startsWith("第二") ? 5 : 40));
+
+		long[] firstWrite = {0};
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		OutputStream recording = new OutputStream() {
+			@Override
+			public void write(int b) {
+				out.write(b);
+			}
+
+			@Override
+			public void write(byte[] bytes, int offset, int length) {
+				if (firstWrite[0] == 0) {
+					firstWrite[0] = System.nanoTime();
+				}
+				out.write(bytes, offset, length);
+			}
+		};
+
+		new StreamingSynthesizer(sentence -> model.synthesize(sentence)
+				.doOnSubscribe(subscription -> {
+					maxSynthesizing.accumulateAndGet(synthesizing.incrementAndGet(), Math::max);
+					if (sentence.startsWith("第四")) {
+						lastSentenceStarted.set(System.nanoTime());
+					}
+				})
+				.doFinally(signal -> synthesizing.decrementAndGet()))
+				.writeTo(text, recording);
+
+		StringBuilder expected = new StringBuilder();
+		for (String sentence : StreamingSynthesizer.sentences(text)) {
+			for (int chunk = 0; chunk < 3; chunk++) {
+				expected.append(MockSpeechModel.chunk(sentence, chunk));
+			}
+		}
+		assertEquals(expected.toString(), out.toString(StandardCharsets.UTF_8));
+		assertEquals(StreamingSynthesizer.LOOKAHEAD + 1, maxSynthesizing.get());
+		assertTrue(firstWrite[0] < lastSentenceStarted.get(), "the first audio waited for the whole text");
+	}
+
+	@Test
+	void slowClientHoldsBackTheSynthesis() throws Exception {
+
+		MockSpeechModel model = new MockSpeechModel(500, sentence -> Duration.ZERO);
+		CountDownLatch firstChunk = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger written = new AtomicInteger();
+		OutputStream slowClient = new OutputStream() {
+			@Override
+			public void write(int b) {
+			}
+
+			@Override
+			public void write(byte[] bytes, int offset, int length) {
+				written.incrementAndGet();
+				firstChunk.countDown();
+				try {
+					release.await();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+
+		Thread writer = new Thread(() -> {
+			try {
+				new StreamingSynthesizer(model::synthesize).writeTo(POEM + POEM, slowClient);
+			}
+			catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		writer.start();
+
+		assertTrue(firstChunk.await(5, TimeUnit.SECONDS));
+		Thread.sleep(200);
+		// the chunks in flight are bounded by the prefetch of the sentences being synthesized
+		int bound = (StreamingSynthesizer.LOOKAHEAD + 1) * StreamingSynthesizer.PREFETCH + 2;
+		assertTrue(model.produced() <= bound, "produced " + model.produced() + " chunks for a blocked client");
+
+		release.countDown();
+		writer.join(10_000);
+		assertEquals(4 * 500, written.get());
+		assertEquals(4 * 500, model.produced());
+	}
+
+	@Test
+	void failingClientCancelsTheSynthesis() {
+
+		MockSpeechModel model = new MockSpeechModel(10_000, sentence -> Duration.ZERO);
+		OutputStream brokenClient = new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				throw new IOException("Broken pipe");
+			}
+
+			@Override
+			public void write(byte[] bytes, int offset, int length) throws IOException {
+				throw new IOException("Broken pipe");
+			}
+		};
+
+		assertThrows(IOException.class, () -> new StreamingSynthesizer(model::synthesize).writeTo(POEM, brokenClient));
+		assertTrue(model.produced() < 100, "produced " + model.produced() + " chunks after the client failed");
+	}
+
+	/**
+	 * Produces {@code chunks} chunks per sentence, only as many as requested, each after the given delay.
+	 */
+	private static final class MockSpeechModel {
+
+		private final int chunks;
+
+		private final Function<String, Duration> delay;
+
+		private final AtomicInteger produced = new AtomicInteger();
+
+		MockSpeechModel(int chunks, Function<String, Duration> delay) {
+
+			this.chunks = chunks;
+			this.delay = delay;
+		}
+
+		Flux<ByteBuffer> synthesize(String sentence) {
+
+			Flux<ByteBuffer> audio = Flux.<ByteBuffer, Integer>generate(() -> 0, (chunk, sink) -> {
+				if (chunk == chunks) {
+					sink.complete();
+				}
+				else {
+					produced.incrementAndGet();
+					sink.next(ByteBuffer.wrap(chunk(sentence, chunk).getBytes(StandardCharsets.UTF_8)));
+				}
+				return chunk + 1;
+			});
+			Duration pause = delay.apply(sentence);
+			return pause.isZero() ? audio : audio.delayElements(pause);
+		}
+
+		int produced() {
+			return produced.get();
+		}
+
+		static String chunk(String sentence, int chunk) {
+			return "[" + sentence.substring(0, 2) + chunk + "]";
+		}
+
+	}
+
+}
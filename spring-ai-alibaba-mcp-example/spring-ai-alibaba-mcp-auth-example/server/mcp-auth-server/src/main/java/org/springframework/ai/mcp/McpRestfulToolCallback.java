@@ -7,11 +7,16 @@ import org.springframework.ai.chat.model.ToolContext;
 import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.definition.ToolDefinition;
 import org.springframework.ai.util.json.JsonParser;
+import io.netty.channel.ChannelOption;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -23,12 +28,36 @@ public class McpRestfulToolCallback implements ToolCallback {
 
     private static final Logger logger = LoggerFactory.getLogger(McpRestfulToolCallback.class);
 
+    /**
+     * Shared by all the restful tools, so the connections to the tool backends are pooled and kept alive
+     * instead of a new client per call.
+     */
+    private static final WebClient SHARED_WEB_CLIENT = WebClient.builder()
+            .clientConnector(new ReactorClientHttpConnector(HttpClient.create(
+                            ConnectionProvider.builder("mcp-restful-tools")
+                                    .maxConnections(50)
+                                    .maxIdleTime(Duration.ofSeconds(30))
+                                    .pendingAcquireTimeout(Duration.ofSeconds(10))
+                                    .build())
+                    .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 5000)
+                    .responseTimeout(Duration.ofSeconds(30))
+                    .compress(true)))
+            .build();
+
     private final RestfulToolDefinition toolDefinition;
+
+    private final WebClient webClient;
     private Map<String, String> headers = new HashMap<>();
 
     public McpRestfulToolCallback(RestfulToolDefinition toolDefinition) {
+        this(toolDefinition, SHARED_WEB_CLIENT);
+    }
+
+    public McpRestfulToolCallback(RestfulToolDefinition toolDefinition, WebClient webClient) {
         Assert.notNull(toolDefinition, "toolDefinition cannot be null");
+        Assert.notNull(webClient, "webClient cannot be null");
         this.toolDefinition = toolDefinition;
+        this.webClient = webClient;
     }
 
     @Override
@@ -56,7 +85,7 @@ public class McpRestfulToolCallback implements ToolCallback {
             });
             String uri = uriBuilder.toString();
 
-            result = WebClient.builder().build().get()
+            result = webClient.get()
                     .uri(toolDefinition.url() + uri)
                     .headers(headers -> {
                         this.headers.forEach(headers::add);
@@ -65,7 +94,7 @@ public class McpRestfulToolCallback implements ToolCallback {
                     .bodyToMono(String.class)
                     .block();
         } else if (HttpMethod.POST.equals(toolDefinition.httpMethod())) {
-            result = WebClient.builder().build().post()
+            result = webClient.post()
                     .uri(toolDefinition.url())
                     .headers(headers -> {
                         this.headers.forEach(headers::add);
@@ -92,6 +121,8 @@ public class McpRestfulToolCallback implements ToolCallback {
 
         private RestfulToolDefinition toolDefinition;
 
+        private WebClient webClient = SHARED_WEB_CLIENT;
+
         private Builder() {
         }
 
@@ -100,9 +131,13 @@ public class McpRestfulToolCallback implements ToolCallback {
             return this;
         }
 
+        public Builder webClient(WebClient webClient) {
+            this.webClient = webClient;
+            return this;
+        }
 
         public McpRestfulToolCallback build() {
-            return new McpRestfulToolCallback(this.toolDefinition);
+            return new McpRestfulToolCallback(this.toolDefinition, this.webClient);
         }
 
     }
@@ -17,6 +17,8 @@
 package com.alibaba.cloud.ai.example.stock.service;
 
 import java.io.Serializable;
+import java.net.http.HttpClient;
+import java.time.Duration;
 import java.time.format.DateTimeFormatter;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
@@ -29,6 +31,7 @@ import org.slf4j.LoggerFactory;
 
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 
@@ -49,7 +52,16 @@ public class StockService {
     private final RestClient restClient;
 
     public StockService() {
+        // Reuse the pooled connections of one HttpClient, with HTTP/2 and bounded connect / read timeouts
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofSeconds(10));
+
         this.restClient = RestClient.builder()
+                .requestFactory(requestFactory)
                 .baseUrl(BASE_URL)
                 .defaultHeader("Accept", MediaType.APPLICATION_JSON_VALUE)
                 .build();
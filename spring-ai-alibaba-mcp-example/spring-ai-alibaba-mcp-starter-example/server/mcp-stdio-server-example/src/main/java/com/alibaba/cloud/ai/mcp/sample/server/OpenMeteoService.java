@@ -18,6 +18,8 @@
 package com.alibaba.cloud.ai.mcp.sample.server;
 
 import java.util.List;
+import java.net.http.HttpClient;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
@@ -27,6 +29,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Service;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestClientException;
 
@@ -43,7 +46,16 @@ public class OpenMeteoService {
     private final RestClient restClient;
 
     public OpenMeteoService() {
+        // 复用同一个 HttpClient 的连接池，支持 HTTP/2，并设置连接与读取超时
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofSeconds(30));
+
         this.restClient = RestClient.builder()
+                .requestFactory(requestFactory)
                 .baseUrl(BASE_URL)
                 .defaultHeader("Accept", "application/json")
                 .defaultHeader("User-Agent", "OpenMeteoClient/1.0")
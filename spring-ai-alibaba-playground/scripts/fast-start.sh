@@ -0,0 +1,133 @@
+#!/usr/bin/env bash
+#
+# Licensed to the Apache Software Foundation (ASF) under one or more
+# contributor license agreements.  See the NOTICE file distributed with
+# this work for additional information regarding copyright ownership.
+# The ASF licenses this file to You under the Apache License, Version 2.0
+# (the "License"); you may not use this file except in compliance with
+# the License.  You may obtain a copy of the License at
+#
+#     http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+#
+
+# Build the fast-start variant of the playground and compare its startup with the plain jar.
+#
+#   scripts/fast-start.sh build     package with -Pfast-start, extract the jar and train the AppCDS archive
+#   scripts/fast-start.sh measure   start every variant RUNS times, report time to readiness and first request
+#   scripts/fast-start.sh run       start the application with AOT and CDS
+#   scripts/fast-start.sh           build, then measure
+#
+# Environment: PORT (8081), RUNS (5), FIRST_REQUEST_PATH (/api/v1/dashscope/getModels),
+# JAVA_OPTS, plus the variables the playground itself needs, e.g. AI_DASHSCOPE_API_KEY.
+
+set -euo pipefail
+
+BASE_DIR=$(cd "$(dirname "$0")/.." && pwd)
+TARGET_DIR="$BASE_DIR/target"
+OUT_DIR="$TARGET_DIR/fast-start"
+ARCHIVE="$OUT_DIR/app.jsa"
+
+PORT=${PORT:-8081}
+RUNS=${RUNS:-5}
+FIRST_REQUEST_PATH=${FIRST_REQUEST_PATH:-/api/v1/dashscope/getModels}
+JAVA_OPTS=${JAVA_OPTS:-}
+
+# sqlite and the rag documents are resolved from the working directory
+cd "$BASE_DIR"
+
+now_millis() {
+	date +%s%3N
+}
+
+build() {
+
+	mvn -B -Pfast-start -DskipTests clean package
+
+	rm -rf "$OUT_DIR"
+	# CDS can not map classes out of nested jars, use the extracted layout
+	java -Djarmode=tools -jar "$TARGET_DIR/app.jar" extract --destination "$OUT_DIR"
+
+	# training run: refresh the context, then exit and dump the loaded classes
+	java $JAVA_OPTS -XX:ArchiveClassesAtExit="$ARCHIVE" \
+		-Dspring.aot.enabled=true \
+		-Dspring.context.exit=onRefresh \
+		-Dserver.port="$PORT" \
+		-jar "$OUT_DIR/app.jar"
+
+	echo "AppCDS archive: $ARCHIVE ($(du -h "$ARCHIVE" | cut -f1))"
+}
+
+variant_command() {
+
+	case "$1" in
+		baseline) echo "java $JAVA_OPTS -jar $TARGET_DIR/app.jar" ;;
+		cds) echo "java $JAVA_OPTS -XX:SharedArchiveFile=$ARCHIVE -jar $OUT_DIR/app.jar" ;;
+		aot-cds) echo "java $JAVA_OPTS -XX:SharedArchiveFile=$ARCHIVE -Dspring.aot.enabled=true -jar $OUT_DIR/app.jar" ;;
+	esac
+}
+
+# prints "<ready millis> <first request millis> <started seconds reported by spring>"
+measure_once() {
+
+	local name=$1 log="$OUT_DIR/$1.log" start pid ready first started
+
+	start=$(now_millis)
+	$(variant_command "$name") --server.port="$PORT" > "$log" 2>&1 &
+	pid=$!
+
+	until curl -sf -o /dev/null "http://localhost:$PORT/actuator/health/liveness"; do
+		if ! kill -0 "$pid" 2>/dev/null; then
+			echo "$name exited before it was ready, see $log" >&2
+			exit 1
+		fi
+		sleep 0.05
+	done
+	ready=$(( $(now_millis) - start ))
+
+	first=$(curl -s -o /dev/null -w '%{time_total}' "http://localhost:$PORT$FIRST_REQUEST_PATH")
+	first=$(awk -v t="$first" 'BEGIN { printf "%d", t * 1000 }')
+
+	kill "$pid"
+	wait "$pid" 2>/dev/null || true
+
+	started=$(grep -o 'Started SAAPlayGroundApplication in [0-9.]* seconds' "$log" | awk '{ print $4 }')
+	echo "$ready $first ${started:-?}"
+}
+
+measure() {
+
+	if [[ ! -f "$ARCHIVE" ]]; then
+		echo "No AppCDS archive found, run '$0 build' first." >&2
+		exit 1
+	fi
+
+	printf '%-10s %6s %14s %18s %16s\n' variant runs "ready(ms)" "first request(ms)" "spring started(s)"
+	for variant in baseline cds aot-cds; do
+		local results=""
+		for _ in $(seq "$RUNS"); do
+			results+="$(measure_once "$variant")"$'\n'
+		done
+		# average over the runs, the first run also pays for a cold page cache
+		printf '%s' "$results" | awk -v name="$variant" -v runs="$RUNS" '
+			{ ready += $1; first += $2; started += $3 }
+			END { printf "%-10s %6d %14d %18d %16.2f\n", name, runs, ready / NR, first / NR, started / NR }'
+	done
+}
+
+run() {
+	exec $(variant_command aot-cds) "$@"
+}
+
+case "${1:-all}" in
+	build) build ;;
+	measure) measure ;;
+	run) shift; run "$@" ;;
+	all) build && measure ;;
+	*) echo "usage: $0 [build|measure|run|all]" >&2; exit 2 ;;
+esac
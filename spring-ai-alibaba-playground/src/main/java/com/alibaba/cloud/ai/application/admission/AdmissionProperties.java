@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.admission;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Admission of the model bound requests, shared by all playground users.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@ConfigurationProperties(AdmissionProperties.PREFIX)
+public class AdmissionProperties {
+
+	public static final String PREFIX = "spring.ai.alibaba.playground.admission";
+
+	private boolean enabled = true;
+
+	/**
+	 * Max admitted requests across all users.
+	 */
+	private int maxConcurrency = 32;
+
+	/**
+	 * Max admitted requests of one user, the others wait in the queue of the user.
+	 */
+	private int maxConcurrencyPerUser = 4;
+
+	/**
+	 * Max waiting requests of one user, more requests are rejected.
+	 */
+	private int maxQueuedPerUser = 32;
+
+	/**
+	 * How long a request may wait in the queue before it is rejected.
+	 */
+	private Duration queueTimeout = Duration.ofSeconds(60);
+
+	/**
+	 * How users are told apart.
+	 */
+	private UserKey userKey = UserKey.IP;
+
+	/**
+	 * Share of the capacity by user key, users not listed have weight 1.
+	 */
+	private Map<String, Double> weights = new HashMap<>();
+
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getMaxConcurrency() {
+		return this.maxConcurrency;
+	}
+
+	public void setMaxConcurrency(int maxConcurrency) {
+		this.maxConcurrency = maxConcurrency;
+	}
+
+	public int getMaxConcurrencyPerUser() {
+		return this.maxConcurrencyPerUser;
+	}
+
+	public void setMaxConcurrencyPerUser(int maxConcurrencyPerUser) {
+		this.maxConcurrencyPerUser = maxConcurrencyPerUser;
+	}
+
+	public int getMaxQueuedPerUser() {
+		return this.maxQueuedPerUser;
+	}
+
+	public void setMaxQueuedPerUser(int maxQueuedPerUser) {
+		this.maxQueuedPerUser = maxQueuedPerUser;
+	}
+
+	public Duration getQueueTimeout() {
+		return this.queueTimeout;
+	}
+
+	public void setQueueTimeout(Duration queueTimeout) {
+		this.queueTimeout = queueTimeout;
+	}
+
+	public UserKey getUserKey() {
+		return this.userKey;
+	}
+
+	public void setUserKey(UserKey userKey) {
+		this.userKey = userKey;
+	}
+
+	public Map<String, Double> getWeights() {
+		return this.weights;
+	}
+
+	public void setWeights(Map<String, Double> weights) {
+		this.weights = weights;
+	}
+
+	public double getWeight(String user) {
+
+		Double weight = this.weights.get(user);
+		return weight == null || weight <= 0 ? 1.0 : weight;
+	}
+
+	public enum UserKey {
+
+		/**
+		 * Remote address of the request.
+		 */
+		IP,
+
+		/**
+		 * Http session id, falls back to the remote address without a session.
+		 */
+		SESSION
+
+	}
+
+}
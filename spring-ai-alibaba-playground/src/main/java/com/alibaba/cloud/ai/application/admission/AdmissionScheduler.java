@@ -0,0 +1,339 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.admission;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.alibaba.cloud.ai.application.exception.SAAAppException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Admit the model bound requests of all users with start time fair queuing.
+ * <p>
+ * Every user has its own queue. A request is tagged with a virtual start time, the later of the system
+ * virtual time and the finish tag of the previous request of the user, its finish tag adds
+ * {@code cost / weight}. Free capacity always goes to the queued request with the smallest start tag whose
+ * user is below its in flight cap, so a user flooding the system only delays its own requests.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@Component
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdmissionScheduler {
+
+	private static final Logger logger = LoggerFactory.getLogger(AdmissionScheduler.class);
+
+	private final AdmissionProperties properties;
+
+	private final Map<String, UserQueue> users = new HashMap<>();
+
+	private final Timer waitTimer;
+
+	private final Counter queueFullCounter;
+
+	private final Counter timeoutCounter;
+
+	private double virtualTime;
+
+	private int inFlight;
+
+	private int queued;
+
+	public AdmissionScheduler(AdmissionProperties properties, MeterRegistry registry) {
+
+		this.properties = properties;
+		this.waitTimer = Timer.builder("playground.admission.wait")
+				.description("Time spent in the admission queue")
+				.register(registry);
+		this.queueFullCounter = rejected(registry, "queue-full");
+		this.timeoutCounter = rejected(registry, "timeout");
+
+		Gauge.builder("playground.admission.in-flight", this, AdmissionScheduler::inFlight)
+				.description("Admitted requests")
+				.register(registry);
+		Gauge.builder("playground.admission.queued", this, AdmissionScheduler::queued)
+				.description("Requests waiting for admission")
+				.register(registry);
+		Gauge.builder("playground.admission.queued.users", this, AdmissionScheduler::queuedUsers)
+				.description("Users with waiting requests")
+				.register(registry);
+		Gauge.builder("playground.admission.queue.max-depth", this, AdmissionScheduler::maxQueueDepth)
+				.description("Waiting requests of the user with the longest queue")
+				.register(registry);
+	}
+
+	public boolean isEnabled() {
+		return properties.isEnabled();
+	}
+
+	/**
+	 * Wait until the request is admitted.
+	 * @throws SAAAppException when the queue of the user is full or the request waited too long.
+	 */
+	public Permit acquire(String user, double cost) {
+
+		Ticket ticket = enqueue(user, cost);
+		try {
+			return ticket.future.get();
+		}
+		catch (InterruptedException e) {
+			ticket.future.cancel(false);
+			Thread.currentThread().interrupt();
+			throw new SAAAppException("Interrupted while waiting for admission.");
+		}
+		catch (ExecutionException e) {
+			// the waiter may wake up before the timeout callback, leave the queue right now
+			abandon(ticket, e.getCause());
+			throw new SAAAppException("Too many requests, please retry later.");
+		}
+	}
+
+	/**
+	 * Queue the request, the future completes with the permit once admitted. Cancel the future to leave the queue.
+	 * @throws SAAAppException when the queue of the user is full.
+	 */
+	public CompletableFuture<Permit> submit(String user, double cost) {
+
+		return enqueue(user, cost).future;
+	}
+
+	private Ticket enqueue(String user, double cost) {
+
+		List<Ticket> granted;
+		Ticket ticket;
+		synchronized (this) {
+			UserQueue queue = users.computeIfAbsent(user, UserQueue::new);
+			if (queue.waiting.size() >= properties.getMaxQueuedPerUser()) {
+				queueFullCounter.increment();
+				logger.warn("Admission queue of user {} is full, reject the request.", user);
+				throw new SAAAppException("Too many requests, please retry later.");
+			}
+
+			double start = Math.max(virtualTime, queue.lastFinish);
+			queue.lastFinish = start + Math.max(cost, 0) / properties.getWeight(user);
+			ticket = new Ticket(queue, start, new CompletableFuture<>(), System.nanoTime());
+			queue.waiting.add(ticket);
+			queued++;
+
+			granted = dispatch();
+		}
+		grant(granted);
+
+		if (!ticket.future.isDone()) {
+			ticket.future.orTimeout(properties.getQueueTimeout().toMillis(), TimeUnit.MILLISECONDS)
+					.whenComplete((permit, ex) -> {
+						if (ex != null) {
+							abandon(ticket, ex);
+						}
+					});
+		}
+
+		return ticket;
+	}
+
+	public synchronized int inFlight() {
+		return inFlight;
+	}
+
+	public synchronized int queued() {
+		return queued;
+	}
+
+	public synchronized int queuedUsers() {
+		return (int) users.values().stream().filter(queue -> !queue.waiting.isEmpty()).count();
+	}
+
+	public synchronized int maxQueueDepth() {
+		return users.values().stream().mapToInt(queue -> queue.waiting.size()).max().orElse(0);
+	}
+
+	public synchronized int queued(String user) {
+
+		UserQueue queue = users.get(user);
+		return queue == null ? 0 : queue.waiting.size();
+	}
+
+	public synchronized int inFlight(String user) {
+
+		UserQueue queue = users.get(user);
+		return queue == null ? 0 : queue.inFlight;
+	}
+
+	private void release(UserQueue queue) {
+
+		List<Ticket> granted;
+		synchronized (this) {
+			inFlight--;
+			queue.inFlight--;
+			granted = dispatch();
+		}
+		grant(granted);
+	}
+
+	private void abandon(Ticket ticket, Throwable ex) {
+
+		synchronized (this) {
+			if (!ticket.queue.waiting.remove(ticket)) {
+				return;
+			}
+			queued--;
+		}
+
+		if (!(ex instanceof CancellationException)) {
+			timeoutCounter.increment();
+			logger.warn("Request of user {} waited too long for admission.", ticket.queue.user);
+		}
+	}
+
+	/**
+	 * Admit the queued requests with the smallest start tags while there is capacity, called with the lock held.
+	 */
+	private List<Ticket> dispatch() {
+
+		List<Ticket> granted = new ArrayList<>();
+		while (inFlight < properties.getMaxConcurrency()) {
+			UserQueue next = null;
+			for (Iterator<UserQueue> it = users.values().iterator(); it.hasNext(); ) {
+				UserQueue queue = it.next();
+				dropAbandoned(queue);
+				if (queue.waiting.isEmpty()) {
+					// forget idle users once their finish tag is behind the virtual time
+					if (queue.inFlight == 0 && queue.lastFinish <= virtualTime) {
+						it.remove();
+					}
+					continue;
+				}
+				if (queue.inFlight >= properties.getMaxConcurrencyPerUser()) {
+					continue;
+				}
+				if (next == null || queue.waiting.peek().start < next.waiting.peek().start) {
+					next = queue;
+				}
+			}
+			if (next == null) {
+				break;
+			}
+
+			Ticket ticket = next.waiting.poll();
+			queued--;
+			inFlight++;
+			next.inFlight++;
+			virtualTime = Math.max(virtualTime, ticket.start);
+			granted.add(ticket);
+		}
+
+		return granted;
+	}
+
+	private void dropAbandoned(UserQueue queue) {
+
+		while (!queue.waiting.isEmpty() && queue.waiting.peek().future.isDone()) {
+			queue.waiting.poll();
+			queued--;
+		}
+	}
+
+	private void grant(List<Ticket> granted) {
+
+		for (Ticket ticket : granted) {
+			Permit permit = new Permit(ticket.queue);
+			if (ticket.future.complete(permit)) {
+				waitTimer.record(System.nanoTime() - ticket.enqueuedNanos, TimeUnit.NANOSECONDS);
+			}
+			else {
+				// cancelled or timed out while being admitted
+				permit.release();
+			}
+		}
+	}
+
+	private static Counter rejected(MeterRegistry registry, String reason) {
+
+		return Counter.builder("playground.admission.rejected")
+				.description("Requests rejected by the admission")
+				.tag("reason", reason)
+				.register(registry);
+	}
+
+	/**
+	 * Admission of one request, release it when the request is done.
+	 */
+	public final class Permit {
+
+		private final UserQueue queue;
+
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		private Permit(UserQueue queue) {
+			this.queue = queue;
+		}
+
+		public String getUser() {
+			return queue.user;
+		}
+
+		public void release() {
+
+			if (released.compareAndSet(false, true)) {
+				AdmissionScheduler.this.release(queue);
+			}
+		}
+
+	}
+
+	private static final class UserQueue {
+
+		private final String user;
+
+		private final Deque<Ticket> waiting = new ArrayDeque<>();
+
+		private int inFlight;
+
+		private double lastFinish;
+
+		private UserQueue(String user) {
+			this.user = user;
+		}
+
+	}
+
+	private record Ticket(UserQueue queue, double start, CompletableFuture<Permit> future, long enqueuedNanos) {
+	}
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.aop;
+
+import java.util.concurrent.TimeoutException;
+
+import com.alibaba.cloud.ai.application.admission.AdmissionProperties;
+import com.alibaba.cloud.ai.application.admission.AdmissionScheduler;
+import com.alibaba.cloud.ai.application.annotation.Admission;
+import com.alibaba.cloud.ai.application.exception.SAAAppException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Hold the request until the {@link AdmissionScheduler} admits it.
+ * <p>
+ * Blocking handlers wait for the permit on the request thread. Streaming handlers return at once, their
+ * permit is requested without blocking when the response subscribes and released when the stream
+ * terminates or is cancelled, so a publisher that is never subscribed never holds a permit.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@Aspect
+@Component
+public class AdmissionAspect {
+
+	private final HttpServletRequest request;
+
+	private final AdmissionScheduler admissionScheduler;
+
+	private final AdmissionProperties admissionProperties;
+
+	public AdmissionAspect(
+			HttpServletRequest request,
+			AdmissionScheduler admissionScheduler,
+			AdmissionProperties admissionProperties
+	) {
+		this.request = request;
+		this.admissionScheduler = admissionScheduler;
+		this.admissionProperties = admissionProperties;
+	}
+
+	@Around("@annotation(admission)")
+	public Object around(ProceedingJoinPoint joinPoint, Admission admission) throws Throwable {
+
+		if (!admissionScheduler.isEnabled()) {
+			return joinPoint.proceed();
+		}
+
+		Class<?> returnType = ((MethodSignature) joinPoint.getSignature()).getReturnType();
+		if (Flux.class.isAssignableFrom(returnType)) {
+			Mono<AdmissionScheduler.Permit> permit = admit(userKey(), admission.cost());
+			Flux<?> flux = (Flux<?>) joinPoint.proceed();
+			return Flux.usingWhen(permit, admitted -> flux, AdmissionAspect::release);
+		}
+		if (Mono.class.isAssignableFrom(returnType)) {
+			Mono<AdmissionScheduler.Permit> permit = admit(userKey(), admission.cost());
+			Mono<?> mono = (Mono<?>) joinPoint.proceed();
+			return Mono.usingWhen(permit, admitted -> mono, AdmissionAspect::release);
+		}
+
+		AdmissionScheduler.Permit permit = admissionScheduler.acquire(userKey(), admission.cost());
+		Object result;
+		try {
+			result = joinPoint.proceed();
+		}
+		catch (Throwable e) {
+			permit.release();
+			throw e;
+		}
+
+		permit.release();
+		return result;
+	}
+
+	/**
+	 * Queue the request on subscription, cancelling the subscription leaves the queue.
+	 * The user is resolved before, the request is only available on the request thread.
+	 */
+	private Mono<AdmissionScheduler.Permit> admit(String user, double cost) {
+
+		return Mono.fromFuture(() -> admissionScheduler.submit(user, cost), false)
+				.onErrorMap(TimeoutException.class, e -> new SAAAppException("Too many requests, please retry later."))
+				// admitted after the subscriber was gone
+				.doOnDiscard(AdmissionScheduler.Permit.class, AdmissionScheduler.Permit::release);
+	}
+
+	private static Mono<Void> release(AdmissionScheduler.Permit permit) {
+
+		return Mono.fromRunnable(permit::release);
+	}
+
+	private String userKey() {
+
+		if (admissionProperties.getUserKey() == AdmissionProperties.UserKey.SESSION) {
+			HttpSession session = request.getSession(false);
+			if (session != null) {
+				return session.getId();
+			}
+		}
+
+		return request.getRemoteAddr();
+	}
+
+}
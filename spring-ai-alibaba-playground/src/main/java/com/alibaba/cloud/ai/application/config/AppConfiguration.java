@@ -19,12 +19,15 @@ package com.alibaba.cloud.ai.application.config; // 定义配置包路径
 
 //import com.alibaba.cloud.ai.memory.jdbc.SQLiteChatMemory; // 注释掉的SQLite聊天记忆导入
 
+import com.alibaba.cloud.ai.application.tools.ConcurrentToolCallingManager; // 引入并发工具调用管理器
+import com.alibaba.cloud.ai.application.tools.ToolCallingProperties; // 引入工具调用配置
 import com.alibaba.cloud.ai.memory.jdbc.SQLiteChatMemoryRepository; // 引入SQLite聊天记忆仓库
 import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor; // 引入消息聊天记忆顾问
 import org.springframework.ai.chat.client.advisor.SimpleLoggerAdvisor; // 引入简单日志顾问
 import org.springframework.ai.chat.memory.ChatMemory; // 引入聊天记忆接口
 import org.springframework.ai.chat.memory.MessageWindowChatMemory; // 引入消息窗口聊天记忆
 import org.springframework.ai.model.tool.ToolCallingManager; // 引入工具调用管理器
+import org.springframework.boot.context.properties.EnableConfigurationProperties; // 引入配置属性启用注解
 import org.springframework.context.annotation.Bean; // 引入Spring Bean注解
 import org.springframework.context.annotation.Configuration; // 引入Spring配置注解
 import org.springframework.jdbc.core.JdbcTemplate; // 引入JDBC模板
@@ -39,6 +42,7 @@ import org.springframework.jdbc.core.JdbcTemplate; // 引入JDBC模板
  */
 
 @Configuration // 标识该类为Spring配置类
+@EnableConfigurationProperties(ToolCallingProperties.class) // 启用工具调用配置
 public class AppConfiguration {
 
 	//TODO SQLiteChatMemory待验证
@@ -97,14 +101,18 @@ public class AppConfiguration {
 	}
 
 	/**
-	 * 配置工具调用管理器Bean
+	 * 配置工具调用管理器Bean，同一轮模型响应中的多个工具调用并发执行
 	 * 
+	 * @param toolCallingProperties 工具调用配置
 	 * @return ToolCallingManager 工具调用管理器实例
 	 */
 	@Bean // 标识该方法返回一个Spring Bean
-	public ToolCallingManager toolCallingManager() {
+	public ToolCallingManager toolCallingManager(ToolCallingProperties toolCallingProperties) {
 
-		return ToolCallingManager.builder().build(); // 构建工具调用管理器
+		return new ConcurrentToolCallingManager(
+				ToolCallingManager.builder().build(), // 默认工具调用管理器，用于按名称解析工具
+				toolCallingProperties
+		); // 构建并发工具调用管理器
 	}
 
 }
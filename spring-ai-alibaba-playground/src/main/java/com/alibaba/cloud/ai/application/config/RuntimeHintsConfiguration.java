@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.config;
+
+import com.alibaba.cloud.ai.application.entity.dashscope.DashScopeModels;
+import com.alibaba.cloud.ai.application.entity.mcp.McpServerConfig;
+import com.alibaba.cloud.ai.application.mcp.McpServerUtils;
+import com.alibaba.cloud.ai.application.utils.ModelsUtils;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Hints for the fast-start profile: the files the playground reads from the classpath by name
+ * and the types the yaml snapshots are bound to with jackson, both invisible to the AOT engine.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(RuntimeHintsConfiguration.PlaygroundRuntimeHints.class)
+public class RuntimeHintsConfiguration {
+
+	static class PlaygroundRuntimeHints implements RuntimeHintsRegistrar {
+
+		@Override
+		public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+
+			hints.resources()
+					.registerPattern(ModelsUtils.MODELS_FILE_PATH)
+					.registerPattern(McpServerUtils.MCP_CONFIG_FILE_PATH)
+					.registerPattern("rag/markdown/*")
+					.registerPattern("static/**");
+
+			new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+					DashScopeModels.class, McpServerConfig.class);
+		}
+
+	}
+
+}
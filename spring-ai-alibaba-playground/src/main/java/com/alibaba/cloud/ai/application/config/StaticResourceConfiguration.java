@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+
+/**
+ * Serve the frontend bundle built with content hashed file names.
+ * <p>
+ * A hashed file never changes, so it is cached by the browser for a year without revalidation. The brotli and
+ * gzip variants written by the frontend build are picked by {@code Accept-Encoding}, nothing is compressed
+ * at runtime.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@Configuration
+public class StaticResourceConfiguration implements WebMvcConfigurer {
+
+	/**
+	 * Static resources that do not need the document headers, e.g. content security policy.
+	 */
+	public static final List<String> STATIC_PATH_PREFIXES = List.of("/assets/", "/js/", "/genImages/");
+
+	private static final String HASHED_ASSETS_PATTERN = "/assets/**";
+
+	private static final String HASHED_ASSETS_LOCATION = "classpath:/static/assets/";
+
+	@Override
+	public void addResourceHandlers(ResourceHandlerRegistry registry) {
+
+		registry.addResourceHandler(HASHED_ASSETS_PATTERN)
+				.addResourceLocations(HASHED_ASSETS_LOCATION)
+				.setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+				.resourceChain(true)
+				.addResolver(new EncodedResourceResolver());
+	}
+
+}
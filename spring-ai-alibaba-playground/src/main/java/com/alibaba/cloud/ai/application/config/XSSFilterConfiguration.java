@@ -36,7 +36,7 @@ public class XSSFilterConfiguration {
 
 		FilterRegistrationBean<XSSFilter> registrationBean = new FilterRegistrationBean<>();
 
-		registrationBean.setFilter(new XSSFilter());
+		registrationBean.setFilter(new XSSFilter(StaticResourceConfiguration.STATIC_PATH_PREFIXES));
 		registrationBean.addUrlPatterns("/*");
 
 		return registrationBean;
@@ -70,7 +70,8 @@ public class CustomMcpStdioTransportConfigurationBeanPostProcessor implements Be
 
 			McpServerConfig mcpServerConfig;
 			try {
-				mcpServerConfig = McpServerUtils.getMcpServerConfig();
+				// the snapshot is read-only, rewrite a copy of it.
+				mcpServerConfig = McpServerUtils.copyMcpServerConfig(McpServerUtils.getMcpServerConfig());
 
 				// Handle the jar relative path issue in the configuration file.
 				for (Map.Entry<String, McpStdioClientProperties.Parameters> entry : mcpServerConfig.getMcpServers()
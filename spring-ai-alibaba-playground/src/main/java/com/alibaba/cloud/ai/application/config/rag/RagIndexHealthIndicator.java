@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.application.config.rag;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Out of service until the RAG corpus is embedded, included in the readiness group so the instance only gets
+ * traffic once the index is usable. The details carry the ingestion progress.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@Component("ragIndex")
+public class RagIndexHealthIndicator implements HealthIndicator {
+
+	private final RagIngestionJob ragIngestionJob;
+
+	public RagIndexHealthIndicator(RagIngestionJob ragIngestionJob) {
+		this.ragIngestionJob = ragIngestionJob;
+	}
+
+	@Override
+	public Health health() {
+
+		RagIngestionJob.Status status = ragIngestionJob.getStatus();
+		Health.Builder builder = status.state() == RagIngestionJob.State.READY ? Health.up() : Health.outOfService();
+		builder.withDetail("state", status.state())
+				.withDetail("ingested", status.ingested())
+				.withDetail("total", status.total());
+		if (status.startedAt() != null) {
+			builder.withDetail("startedAt", status.startedAt());
+		}
+		if (status.finishedAt() != null) {
+			builder.withDetail("finishedAt", status.finishedAt());
+		}
+		if (status.lastError() != null) {
+			builder.withDetail("lastError", status.lastError());
+		}
+		return builder.build();
+	}
+
+}
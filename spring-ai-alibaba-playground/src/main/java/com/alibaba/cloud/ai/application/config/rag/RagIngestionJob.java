@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.application.config.rag;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Embed the RAG corpus into the vector store in the background, the application is live right away and the
+ * RAG endpoints answer with the progress until the index is ready.
+ * <p>
+ * A failed ingestion is retried with a growing delay and resumes from the last stored batch, the documents are
+ * only read and split once.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@Component
+public class RagIngestionJob implements DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(RagIngestionJob.class);
+
+	private static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(5);
+
+	private final VectorStore vectorStore;
+
+	private final VectorStoreInitializer initializer = new VectorStoreInitializer();
+
+	private final boolean enabled;
+
+	private final Duration retryDelay;
+
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "rag-ingestion");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private volatile Status status = Status.pending();
+
+	public RagIngestionJob(
+			VectorStoreDelegate vectorStoreDelegate,
+			@Value("${spring.ai.alibaba.playground.rag.ingestion.enabled:true}") boolean enabled,
+			@Value("${spring.ai.alibaba.playground.rag.ingestion.retry-delay:30s}") Duration retryDelay
+	) {
+
+		this.vectorStore = vectorStoreDelegate.getVectorStore(System.getenv("VECTOR_STORE_TYPE"));
+		this.enabled = enabled;
+		this.retryDelay = retryDelay;
+	}
+
+	/**
+	 * Started once the application is ready, so the ingestion never delays the startup.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+
+		if (!enabled) {
+			logger.info("RAG ingestion is disabled, the vector store is used as is.");
+			status = status.ready();
+			return;
+		}
+
+		executor.execute(this::run);
+	}
+
+	public Status getStatus() {
+		return status;
+	}
+
+	public boolean isReady() {
+		return status.state() == State.READY;
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	private void run() {
+
+		status = status.running();
+		List<Document> documents = null;
+		Duration delay = retryDelay;
+		while (!Thread.currentThread().isInterrupted()) {
+			try {
+				if (documents == null) {
+					documents = initializer.loadDocuments();
+					status = status.progress(0, documents.size());
+				}
+
+				initializer.ingest(vectorStore, documents, status.ingested(),
+						(ingested, total) -> status = status.progress(ingested, total));
+				status = status.ready();
+				logger.info("RAG index is ready, {} documents ingested in {}.",
+						status.total(), Duration.between(status.startedAt(), status.finishedAt()));
+				return;
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			catch (Exception e) {
+				logger.error("RAG ingestion failed at {}/{} documents, retry in {}: {}",
+						status.ingested(), status.total(), delay, e.getMessage());
+				status = status.failed(e.getMessage());
+				try {
+					TimeUnit.MILLISECONDS.sleep(delay.toMillis());
+				}
+				catch (InterruptedException interrupted) {
+					Thread.currentThread().interrupt();
+				}
+				Duration doubled = delay.multipliedBy(2);
+				delay = doubled.compareTo(MAX_RETRY_DELAY) > 0 ? MAX_RETRY_DELAY : doubled;
+			}
+		}
+	}
+
+	public enum State {
+
+		PENDING, RUNNING, READY
+
+	}
+
+	/**
+	 * @param lastError message of the last failed attempt, the job keeps running and retries.
+	 */
+	public record Status(State state, int ingested, int total, Instant startedAt, Instant finishedAt, String lastError) {
+
+		static Status pending() {
+			return new Status(State.PENDING, 0, 0, null, null, null);
+		}
+
+		Status running() {
+			return new Status(State.RUNNING, ingested, total, Instant.now(), null, null);
+		}
+
+		Status progress(int ingested, int total) {
+			return new Status(State.RUNNING, ingested, total, startedAt, null, lastError);
+		}
+
+		Status failed(String error) {
+			return new Status(State.RUNNING, ingested, total, startedAt, null, error);
+		}
+
+		Status ready() {
+			return new Status(State.READY, ingested, total, startedAt, Instant.now(), null);
+		}
+
+	}
+
+}
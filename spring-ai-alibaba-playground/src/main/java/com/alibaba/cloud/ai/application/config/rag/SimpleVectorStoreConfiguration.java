@@ -21,22 +21,16 @@ import org.springframework.ai.vectorstore.SimpleVectorStore;
 import org.springframework.ai.vectorstore.VectorStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+/**
+ * The corpus is ingested in the background by {@link RagIngestionJob}, not while the application starts.
+ */
+
 @Configuration
 public class SimpleVectorStoreConfiguration {
 
-	@Bean
-	CommandLineRunner ingestTermOfServiceToVectorStore(VectorStoreDelegate vectorStoreDelegate) {
-		return args -> {
-			String type = System.getenv("VECTOR_STORE_TYPE");
-			VectorStoreInitializer initializer = new VectorStoreInitializer();
-			initializer.init(vectorStoreDelegate.getVectorStore(type));
-		};
-	}
-
 	/**
 	 * 提供基于内存的向量存储（SimpleVectorStore）
 	 * <p>
@@ -22,6 +22,7 @@ import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -40,30 +41,52 @@ import org.springframework.ai.vectorstore.VectorStore;
  */
 public class VectorStoreInitializer {
 
+	private static final int BATCH_SIZE = 25;
+
 	private final Logger logger = LoggerFactory.getLogger(VectorStoreInitializer.class);
 
 	public void init(VectorStore vectorStore) throws Exception {
+		ingest(vectorStore, loadDocuments(), 0, (ingested, total) -> {
+		});
+	}
+
+	/**
+	 * Read and split all the markdown documents, nothing is embedded yet.
+	 */
+	public List<Document> loadDocuments() throws IOException, URISyntaxException {
 		List<MarkdownDocumentReader> markdownDocumentReaderList = loadMarkdownDocuments();
 
-		int size = 0;
+		List<Document> documents = new ArrayList<>();
 		if (markdownDocumentReaderList.isEmpty()) {
 			logger.warn("No markdown documents found in the directory.");
-			return;
+			return documents;
 		}
 
-		logger.debug("Start to load markdown documents into vector store......");
 		for (MarkdownDocumentReader markdownDocumentReader : markdownDocumentReaderList) {
-			List<Document> documents = new TokenTextSplitter(2000, 1024, 10, 10000, true).transform(markdownDocumentReader.get());
-			size += documents.size();
-
-			// 拆分 documents 列表为最大 25 个元素的子列表
-			for (int i = 0; i < documents.size(); i += 25) {
-				int end = Math.min(i + 25, documents.size());
-				List<Document> subList = documents.subList(i, end);
-				vectorStore.add(subList);
+			documents.addAll(new TokenTextSplitter(2000, 1024, 10, 10000, true).transform(markdownDocumentReader.get()));
+		}
+		return documents;
+	}
+
+	/**
+	 * Embed the documents batch by batch into the vector store.
+	 * @param from index of the first document to add, a failed ingestion resumes where it stopped.
+	 * @param progress called after every batch with the documents ingested so far and the total.
+	 */
+	public void ingest(VectorStore vectorStore, List<Document> documents, int from, Progress progress)
+			throws InterruptedException {
+
+		logger.debug("Start to load markdown documents into vector store......");
+		// 拆分 documents 列表为最大 25 个元素的子列表
+		for (int i = from; i < documents.size(); i += BATCH_SIZE) {
+			if (Thread.currentThread().isInterrupted()) {
+				throw new InterruptedException("Vector store initialization interrupted.");
 			}
+			int end = Math.min(i + BATCH_SIZE, documents.size());
+			vectorStore.add(documents.subList(i, end));
+			progress.update(end, documents.size());
 		}
-		logger.debug("Load markdown documents into vector store successfully. Load {} documents.", size);
+		logger.debug("Load markdown documents into vector store successfully. Load {} documents.", documents.size());
 	}
 
 	private List<MarkdownDocumentReader> loadMarkdownDocuments() throws IOException, URISyntaxException {
@@ -115,4 +138,11 @@ public class VectorStoreInitializer {
 		return readers;
 	}
 
+	@FunctionalInterface
+	public interface Progress {
+
+		void update(int ingested, int total);
+
+	}
+
 }
@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.config.snapshot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import com.alibaba.cloud.ai.application.exception.SAAAppException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Immutable, lazily parsed view of a yaml configuration file.
+ * <p>
+ * The file is looked up on the classpath first, so the copy shipped with the application wins as it
+ * always did. The current running directory is only used when the file is not on the classpath. A
+ * classpath file is watched when it is a local file, e.g. {@code target/classes} in development,
+ * a copy packaged in the jar is read once. Reads after the first load are a plain
+ * volatile read, a reload parses the file into a new snapshot and swaps it atomically, the previous
+ * snapshot is kept when the new content can not be parsed.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+public final class ConfigSnapshot<T> {
+
+	private static final Logger logger = LoggerFactory.getLogger(ConfigSnapshot.class);
+
+	private final String fileName;
+
+	private final Parser<T> parser;
+
+	private final AtomicReference<Loaded<T>> current = new AtomicReference<>();
+
+	private final List<Consumer<T>> listeners = new CopyOnWriteArrayList<>();
+
+	private final ClassLoader classLoader;
+
+	ConfigSnapshot(String fileName, Parser<T> parser) {
+
+		this(fileName, parser, ConfigSnapshot.class.getClassLoader());
+	}
+
+	ConfigSnapshot(String fileName, Parser<T> parser, ClassLoader classLoader) {
+
+		this.fileName = fileName;
+		this.parser = parser;
+		this.classLoader = classLoader;
+	}
+
+	public String getFileName() {
+		return fileName;
+	}
+
+	/**
+	 * Returns the current snapshot, parsing the file on first access.
+	 */
+	public T get() throws IOException {
+
+		Loaded<T> loaded = current.get();
+		if (loaded != null) {
+			return loaded.value();
+		}
+
+		synchronized (this) {
+			loaded = current.get();
+			if (loaded == null) {
+				loaded = load();
+				current.set(loaded);
+			}
+		}
+
+		return loaded.value();
+	}
+
+	/**
+	 * Re-parse the file and publish the new snapshot to all listeners.
+	 * @return true if a new snapshot was published.
+	 */
+	public boolean reload() {
+
+		Loaded<T> loaded;
+		try {
+			loaded = load();
+		}
+		catch (IOException | RuntimeException e) {
+			logger.warn("Reload config {} failed, keep the previous snapshot: {}", fileName, e.getMessage());
+			return false;
+		}
+
+		current.set(loaded);
+		logger.info("Reloaded config snapshot: {}", fileName);
+
+		for (Consumer<T> listener : listeners) {
+			try {
+				listener.accept(loaded.value());
+			}
+			catch (RuntimeException e) {
+				logger.error("Config snapshot listener failed for {}", fileName, e);
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Register a listener called with the new snapshot after every successful reload.
+	 */
+	public void addListener(Consumer<T> listener) {
+		listeners.add(listener);
+	}
+
+	public void removeListener(Consumer<T> listener) {
+		listeners.remove(listener);
+	}
+
+	public Optional<Instant> getLoadedAt() {
+
+		Loaded<T> loaded = current.get();
+		return loaded == null ? Optional.empty() : Optional.of(loaded.loadedAt());
+	}
+
+	/**
+	 * The file backing this snapshot on the local filesystem, empty when it is packaged in a jar and can not be watched.
+	 */
+	public Optional<Path> getWatchablePath() {
+
+		URL resource = classLoader.getResource(fileName);
+		if (resource != null) {
+			if ("file".equals(resource.getProtocol())) {
+				try {
+					return Optional.of(Paths.get(resource.toURI()));
+				}
+				catch (URISyntaxException e) {
+					logger.debug("Config {} is not a local file: {}", fileName, resource);
+				}
+			}
+			// packaged in the jar, read from the classpath
+			return Optional.empty();
+		}
+
+		Path workDirPath = Paths.get(System.getProperty("user.dir"), fileName);
+		if (Files.isRegularFile(workDirPath)) {
+			return Optional.of(workDirPath.toAbsolutePath());
+		}
+
+		return Optional.empty();
+	}
+
+	private Loaded<T> load() throws IOException {
+
+		Optional<Path> path = getWatchablePath();
+		try (InputStream in = path.isPresent()
+				? Files.newInputStream(path.get())
+				: classLoader.getResourceAsStream(fileName)) {
+
+			if (in == null) {
+				throw new SAAAppException("Config file not found: " + fileName);
+			}
+
+			return new Loaded<>(parser.parse(in), Instant.now());
+		}
+	}
+
+	@FunctionalInterface
+	public interface Parser<T> {
+
+		/**
+		 * Parse the file content into an immutable snapshot.
+		 */
+		T parse(InputStream in) throws IOException;
+
+	}
+
+	private record Loaded<T>(T value, Instant loadedAt) {
+	}
+
+}
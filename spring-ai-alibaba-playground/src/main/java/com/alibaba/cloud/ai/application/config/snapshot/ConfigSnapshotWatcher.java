@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.config.snapshot;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Watch the files behind {@link ConfigSnapshots} and hot reload them on change.
+ * Files packaged in the jar can not be watched and are only loaded once.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@Component
+public class ConfigSnapshotWatcher implements SmartLifecycle {
+
+	private static final Logger logger = LoggerFactory.getLogger(ConfigSnapshotWatcher.class);
+
+	/**
+	 * Editors usually emit several events for one save, wait a little before reloading.
+	 */
+	private static final long DEBOUNCE_MILLIS = 200;
+
+	private final boolean enabled;
+
+	private volatile WatchService watchService;
+
+	private volatile Thread watchThread;
+
+	public ConfigSnapshotWatcher(
+			@Value("${spring.ai.alibaba.playground.config.watch-enabled:true}") boolean enabled
+	) {
+		this.enabled = enabled;
+	}
+
+	@Override
+	public void start() {
+
+		if (!enabled) {
+			logger.info("Config snapshot watcher is disabled.");
+			return;
+		}
+
+		Map<Path, List<ConfigSnapshot<?>>> watched = new HashMap<>();
+		for (ConfigSnapshot<?> snapshot : ConfigSnapshots.all()) {
+			Optional<Path> path = snapshot.getWatchablePath();
+			if (path.isEmpty()) {
+				logger.debug("Config {} is not on the local filesystem, skip watching.", snapshot.getFileName());
+				continue;
+			}
+			watched.computeIfAbsent(path.get().getParent(), dir -> new ArrayList<>()).add(snapshot);
+		}
+
+		if (watched.isEmpty()) {
+			return;
+		}
+
+		try {
+			WatchService service = FileSystems.getDefault().newWatchService();
+			for (Path dir : watched.keySet()) {
+				dir.register(service,
+						StandardWatchEventKinds.ENTRY_CREATE,
+						StandardWatchEventKinds.ENTRY_MODIFY);
+				logger.info("Watching config directory: {}", dir);
+			}
+			this.watchService = service;
+		}
+		catch (IOException e) {
+			logger.warn("Failed to start config snapshot watcher: {}", e.getMessage());
+			return;
+		}
+
+		Thread thread = new Thread(() -> watchLoop(watched), "config-snapshot-watcher");
+		thread.setDaemon(true);
+		thread.start();
+		this.watchThread = thread;
+	}
+
+	@Override
+	public void stop() {
+
+		WatchService service = this.watchService;
+		this.watchService = null;
+		if (service != null) {
+			try {
+				service.close();
+			}
+			catch (IOException e) {
+				logger.debug("Close config watch service failed: {}", e.getMessage());
+			}
+		}
+
+		Thread thread = this.watchThread;
+		this.watchThread = null;
+		if (thread != null) {
+			thread.interrupt();
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return watchThread != null;
+	}
+
+	private void watchLoop(Map<Path, List<ConfigSnapshot<?>>> watched) {
+
+		WatchService service = this.watchService;
+		while (service != null && !Thread.currentThread().isInterrupted()) {
+			WatchKey key;
+			try {
+				key = service.take();
+				Thread.sleep(DEBOUNCE_MILLIS);
+			}
+			catch (InterruptedException | ClosedWatchServiceException e) {
+				return;
+			}
+
+			Path dir = (Path) key.watchable();
+			Set<ConfigSnapshot<?>> changed = new LinkedHashSet<>();
+			for (WatchEvent<?> event : key.pollEvents()) {
+				if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+					changed.addAll(watched.getOrDefault(dir, List.of()));
+					continue;
+				}
+
+				Path fileName = (Path) event.context();
+				for (ConfigSnapshot<?> snapshot : watched.getOrDefault(dir, List.of())) {
+					if (fileName.toString().equals(Path.of(snapshot.getFileName()).getFileName().toString())) {
+						changed.add(snapshot);
+					}
+				}
+			}
+			key.reset();
+
+			changed.forEach(ConfigSnapshot::reload);
+		}
+	}
+
+}
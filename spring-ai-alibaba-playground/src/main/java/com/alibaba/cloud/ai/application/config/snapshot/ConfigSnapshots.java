@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.config.snapshot;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.alibaba.cloud.ai.application.entity.mcp.McpServerConfig;
+import com.alibaba.cloud.ai.application.mcp.McpServerUtils;
+import com.alibaba.cloud.ai.application.utils.ModelsUtils;
+
+/**
+ * Registry of the yaml configuration snapshots used by the playground.
+ * <p>
+ * Kept static because the files are also read from bean post processors and static utils,
+ * before the application context is ready.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+public final class ConfigSnapshots {
+
+	public static final ConfigSnapshot<Set<Map<String, String>>> DASHSCOPE_MODELS =
+			new ConfigSnapshot<>(ModelsUtils.MODELS_FILE_PATH, ModelsUtils::parseDashScopeModels);
+
+	public static final ConfigSnapshot<McpServerConfig> MCP_SERVERS =
+			new ConfigSnapshot<>(McpServerUtils.MCP_CONFIG_FILE_PATH, McpServerUtils::parseMcpServerConfig);
+
+	private ConfigSnapshots() {
+	}
+
+	public static List<ConfigSnapshot<?>> all() {
+
+		return List.of(DASHSCOPE_MODELS, MCP_SERVERS);
+	}
+
+}
@@ -17,6 +17,7 @@
 
 package com.alibaba.cloud.ai.application.controller;
 
+import com.alibaba.cloud.ai.application.annotation.Admission;
 import com.alibaba.cloud.ai.application.annotation.UserIp;
 import com.alibaba.cloud.ai.application.entity.result.Result;
 import com.alibaba.cloud.ai.application.multimodal.core.ModalityType;
@@ -71,6 +72,7 @@ MultiModalController {
      * @return 处理结果
      */
     @UserIp
+    @Admission(cost = 2)
     @PostMapping("/process")
     @Operation(summary = "统一多模态处理", 
                description = "支持图像、音频、视频、文本等多种模态间的转换处理")
@@ -136,6 +138,7 @@ MultiModalController {
      * 流式多模态处理接口
      */
     @UserIp
+    @Admission(cost = 2)
     @PostMapping(value = "/process-stream", produces = MediaType.TEXT_PLAIN_VALUE)
     @Operation(summary = "流式多模态处理", 
                description = "支持流式输出的多模态处理，适用于长文本生成等场景")
@@ -188,6 +191,7 @@ MultiModalController {
      * 批量多模态处理接口
      */
     @UserIp
+    @Admission(cost = 4)
     @PostMapping("/process-batch")
     @Operation(summary = "批量多模态处理", 
                description = "支持批量处理多个多模态请求")
@@ -255,6 +259,7 @@ MultiModalController {
      * 处理二进制输出（如图像、音频）
      */
     @UserIp
+    @Admission(cost = 2)
     @PostMapping("/process-binary")
     @Operation(summary = "多模态处理（二进制输出）", 
                description = "用于生成图像或音频等二进制内容的多模态处理")
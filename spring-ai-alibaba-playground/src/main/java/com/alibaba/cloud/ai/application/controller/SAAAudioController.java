@@ -17,6 +17,7 @@
 
 package com.alibaba.cloud.ai.application.controller;
 
+import com.alibaba.cloud.ai.application.annotation.Admission;
 import com.alibaba.cloud.ai.application.annotation.UserIp;
 import com.alibaba.cloud.ai.application.entity.result.Result;
 import com.alibaba.cloud.ai.application.service.SAAAudioService;
@@ -50,6 +51,7 @@ public class SAAAudioController {
 	 * used to convert audio to text output
 	 */
 	@UserIp
+	@Admission
 	@PostMapping("/audio2text")
 	@Operation(summary = "DashScope Audio Transcription")
 	public Result<String> audioToText(
@@ -67,6 +69,7 @@ public class SAAAudioController {
 	 * used to convert text into speech output
 	 */
 	@UserIp
+	@Admission
 	@GetMapping("/text2audio")
 	@Operation(summary = "DashScope Speech Synthesis")
 	public Result<byte[]> textToAudio(
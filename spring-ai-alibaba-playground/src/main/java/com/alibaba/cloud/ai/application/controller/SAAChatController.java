@@ -21,6 +21,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import com.alibaba.cloud.ai.application.annotation.Admission;
 import com.alibaba.cloud.ai.application.annotation.UserIp;
 import com.alibaba.cloud.ai.application.service.SAABaseService;
 import com.alibaba.cloud.ai.application.service.SAAChatService;
@@ -74,6 +75,7 @@ public class SAAChatController {
 	 * 3. chatId聊天记忆，由前端传递，类型为Object，不能重复
 	 */
 	@UserIp // 自定义注解，用于记录用户IP地址
+	@Admission // fair queuing per user before the model is called
 	@PostMapping("/chat") // 映射POST请求到/chat端点
 	@Operation(summary = "DashScope Flux Chat") // Swagger操作描述
 	public Flux<String> chat(
@@ -115,6 +117,7 @@ public class SAAChatController {
 	 * @param chatId 聊天会话ID（可选，有默认值）
 	 * @return 响应式字符串流
 	 */
+	@Admission(cost = 2) // deep thinking takes a larger share of the user's quota
 	@PostMapping("/deep-thinking/chat") // 映射POST请求到/deep-thinking/chat端点
 	public Flux<String> deepThinkingChat(
 			HttpServletResponse response, // HTTP响应对象
@@ -17,6 +17,7 @@
 
 package com.alibaba.cloud.ai.application.controller;
 
+import com.alibaba.cloud.ai.application.annotation.Admission;
 import com.alibaba.cloud.ai.application.annotation.UserIp;
 import com.alibaba.cloud.ai.application.entity.result.Result;
 import com.alibaba.cloud.ai.application.service.SAAImageService;
@@ -62,14 +63,17 @@ public class SAAImageController {
 	 * 图像识别接口，将图像转换为文本描述
 	 * 注意：prompt 参数可以为空
 	 * 
+	 * @param response HTTP响应对象
 	 * @param prompt 用户输入的提示内容（可选，有默认值）
 	 * @param image 上传的图像文件
 	 * @return 响应式字符串流，包含图像识别结果
 	 */
 	@UserIp
+	@Admission(cost = 2)
 	@PostMapping("/image2text")
 	@Operation(summary = "DashScope Image Recognition")
 	public Flux<String> image2text(
+			HttpServletResponse response,
 			@Validated @RequestParam(value = "prompt", required = false, defaultValue = "请总结图片内容") String prompt,
 			@Validated @RequestParam("image") MultipartFile image
 	) {
@@ -78,14 +82,10 @@ public class SAAImageController {
 			return Flux.just("No image file provided");
 		}
 
-		Flux<String> res;
-		try {
-			 res = imageService.image2Text(prompt, image);
-		} catch (Exception e) {
-			return Flux.just(e.getMessage());
-		}
-
-		return res;
+		// 识别结果边生成边返回，客户端断开时取消模型调用
+		response.setCharacterEncoding("UTF-8");
+		return imageService.image2Text(prompt, image)
+				.onErrorResume(e -> Flux.just(e.getMessage()));
 	}
 
 	/**
@@ -98,6 +98,7 @@ public class SAAImageController {
 	 * @return 统一返回结果，表示操作成功
 	 */
 	@UserIp
+	@Admission(cost = 2)
 	@GetMapping("/text2image")
 	@Operation(summary = "DashScope Image Generation")
 	public Result<Void> text2Image(
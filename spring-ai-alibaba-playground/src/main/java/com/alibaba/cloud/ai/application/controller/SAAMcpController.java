@@ -21,6 +21,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.alibaba.cloud.ai.application.annotation.Admission;
 import com.alibaba.cloud.ai.application.annotation.UserIp;
 import com.alibaba.cloud.ai.application.entity.mcp.McpServer;
 import com.alibaba.cloud.ai.application.entity.result.Result;
@@ -69,6 +70,7 @@ public class SAAMcpController {
 	 * @return 包含工具调用响应的统一返回结果
 	 */
 	@UserIp
+	@Admission
 	@GetMapping("/inner/mcp")
 	@Operation(summary = "DashScope MCP Chat")
 	public Result<ToolCallResp> chat(
@@ -100,6 +102,7 @@ public class SAAMcpController {
 	 * @return 包含工具调用响应的统一返回结果
 	 */
 	@UserIp
+	@Admission(cost = 2)
 	@PostMapping("/mcp-run")
 	@Operation(summary = "MCP Run")
 	public Result<ToolCallResp> mcpRun(
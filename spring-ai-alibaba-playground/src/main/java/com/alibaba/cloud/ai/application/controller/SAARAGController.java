@@ -17,6 +17,7 @@
 
 package com.alibaba.cloud.ai.application.controller;
 
+import com.alibaba.cloud.ai.application.annotation.Admission;
 import com.alibaba.cloud.ai.application.annotation.UserIp;
 import com.alibaba.cloud.ai.application.service.SAARAGService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -48,6 +49,7 @@ public class SAARAGController {
 	}
 
 	@UserIp
+	@Admission
 	@GetMapping("/rag")
 	@Operation(summary = "DashScope RAG")
 	public Flux<String> ragChat(
@@ -17,6 +17,7 @@
 
 package com.alibaba.cloud.ai.application.controller;
 
+import com.alibaba.cloud.ai.application.annotation.Admission;
 import com.alibaba.cloud.ai.application.annotation.UserIp;
 import com.alibaba.cloud.ai.application.service.SAASummarizerService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -50,6 +51,7 @@ public class SAASummarizerController {
 
 	@UserIp
 	@Operation(summary = "Docs summary")
+	@Admission(cost = 2)
 	@PostMapping("/summarizer")
 	public Flux<String> summary(
 			HttpServletResponse response,
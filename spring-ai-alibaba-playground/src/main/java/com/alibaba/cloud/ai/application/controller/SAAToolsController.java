@@ -17,6 +17,7 @@
 
 package com.alibaba.cloud.ai.application.controller;
 
+import com.alibaba.cloud.ai.application.annotation.Admission;
 import com.alibaba.cloud.ai.application.annotation.UserIp;
 import com.alibaba.cloud.ai.application.entity.result.Result;
 import com.alibaba.cloud.ai.application.entity.tools.ToolCallResp;
@@ -53,6 +54,7 @@ public class SAAToolsController {
 	 * 触发百度地图：使用百度地图查找杭州市的银行 ATM 机信息 or 使用百度地图查找杭州的信息
 	 */
 	@UserIp
+	@Admission
 	@GetMapping("/tool-call")
 	@Operation(summary = "DashScope ToolCall Chat")
 	public Result<ToolCallResp> chat(
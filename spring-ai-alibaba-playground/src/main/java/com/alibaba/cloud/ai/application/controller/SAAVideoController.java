@@ -19,10 +19,12 @@ package com.alibaba.cloud.ai.application.controller;
 
 import javax.validation.constraints.NotNull;
 
+import com.alibaba.cloud.ai.application.annotation.Admission;
 import com.alibaba.cloud.ai.application.annotation.UserIp;
 import com.alibaba.cloud.ai.application.service.SAAVideoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import reactor.core.publisher.Flux;
 
 import org.springframework.validation.annotation.Validated;
@@ -48,14 +50,17 @@ public class SAAVideoController {
 
     /**
      * 视频问答接口
+     * @param response HTTP响应对象
      * @param prompt 用户问题（可选）
      * @param video 上传的视频文件（必传）
      * @return 视频内容分析结果（流式返回）
      */
     @UserIp
+    @Admission(cost = 4)
     @PostMapping("/video-qa")
     @Operation(summary = "基于视频内容的问答接口")
     public Flux<String> videoQuestionAnswering(
+            HttpServletResponse response,
             @Validated @RequestParam(value = "prompt", required = false, defaultValue = "请总结这个视频的主要内容") String prompt,
             @NotNull @RequestParam("video") MultipartFile video
     ) {
@@ -65,12 +70,9 @@ public class SAAVideoController {
             return Flux.just("错误：请上传有效的视频文件");
         }
 
-        try {
-            // 调用视频分析服务
-            String analyzeVideo = videoService.analyzeVideo(prompt, video);
-            return Flux.just(analyzeVideo);
-        } catch (Exception e) {
-            return Flux.just("视频处理失败：" + e.getMessage());
-        }
+        // 调用视频分析服务，分析结果边生成边返回，客户端断开时取消模型调用
+        response.setCharacterEncoding("UTF-8");
+        return videoService.analyzeVideo(prompt, video)
+                .onErrorResume(e -> Flux.just("视频处理失败：" + e.getMessage()));
     }
 }
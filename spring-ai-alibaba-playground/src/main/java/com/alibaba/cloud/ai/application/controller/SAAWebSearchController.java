@@ -17,6 +17,7 @@
 
 package com.alibaba.cloud.ai.application.controller;
 
+import com.alibaba.cloud.ai.application.annotation.Admission;
 import com.alibaba.cloud.ai.application.service.SAAWebSearchService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletResponse;
@@ -46,6 +47,7 @@ public class SAAWebSearchController {
 		this.webSearch = webSearch;
 	}
 
+	@Admission(cost = 2)
 	@PostMapping("/search")
 	public Flux<String> search(
 			HttpServletResponse response,
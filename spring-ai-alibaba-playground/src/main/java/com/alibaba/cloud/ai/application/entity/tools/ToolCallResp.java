@@ -1,6 +1,11 @@
 package com.alibaba.cloud.ai.application.entity.tools;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
 
 /**
  * @author yuluo
@@ -50,7 +55,7 @@ public class ToolCallResp {
 	private String toolInput;
 
 	/**
-	 * 工具执行耗时
+	 * 工具执行耗时，单位毫秒
 	 */
 	private Long toolCostTime;
 	/**
@@ -191,15 +196,39 @@ public class ToolCallResp {
 		return res;
 	}
 
+	/**
+	 * Start the execution of all tool calls of a model turn, the names are joined by comma and
+	 * the arguments of several calls are reported as a json array.
+	 */
+	public static ToolCallResp startExecute(String toolInput, List<AssistantMessage.ToolCall> toolCalls) {
+
+		String toolName = toolCalls.stream()
+				.map(AssistantMessage.ToolCall::name)
+				.collect(Collectors.joining(","));
+		String toolParameters = toolCalls.size() == 1
+				? toolCalls.get(0).arguments()
+				: toolCalls.stream()
+						.map(AssistantMessage.ToolCall::arguments)
+						.collect(Collectors.joining(",", "[", "]"));
+
+		return startExecute(toolInput, toolName, toolParameters);
+	}
+
+	/**
+	 * Elapsed milliseconds between two times, {@link LocalDateTime#getNano()} is only the nano of second field.
+	 */
+	public static long costTime(LocalDateTime startTime, LocalDateTime endTime) {
+
+		return Duration.between(startTime, endTime).toMillis();
+	}
+
 	public static ToolCallResp endExecute(ToolState status, LocalDateTime toolStartTime, String toolResult) {
 
 		var res = new ToolCallResp();
 		res.setToolResult(toolResult);
 		res.setToolEndTime(LocalDateTime.now());
 		res.setStatus(status);
-		res.setToolCostTime(
-				(long) (res.getToolEndTime().getNano() - toolStartTime.getNano())
-		);
+		res.setToolCostTime(costTime(toolStartTime, res.getToolEndTime()));
 
 		return res;
 	}
@@ -18,9 +18,11 @@
 package com.alibaba.cloud.ai.application.filter;
 
 import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * @author yuluo
@@ -29,10 +31,28 @@ import java.io.IOException;
 
 public class XSSFilter implements Filter {
 
+	/**
+	 * The policy only applies to documents, the static resources are passed through as is.
+	 */
+	private final List<String> staticPathPrefixes;
+
+	public XSSFilter() {
+		this(List.of());
+	}
+
+	public XSSFilter(List<String> staticPathPrefixes) {
+		this.staticPathPrefixes = staticPathPrefixes;
+	}
+
 	@Override
 	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
 			throws IOException, ServletException {
 
+		if (isStatic((HttpServletRequest) request)) {
+			chain.doFilter(request, response);
+			return;
+		}
+
 		HttpServletResponse httpResponse = (HttpServletResponse) response;
 
 		// Setting up CPS allows for inline styling and cross-domain fetching of images
@@ -42,4 +62,15 @@ public class XSSFilter implements Filter {
 		chain.doFilter(request, response);
 	}
 
+	private boolean isStatic(HttpServletRequest request) {
+
+		String path = request.getRequestURI().substring(request.getContextPath().length());
+		for (String prefix : staticPathPrefixes) {
+			if (path.startsWith(prefix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 }
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.http;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.netty.channel.ChannelOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.client.ReactorClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Factory of the clients calling the external apis, e.g. web search and the tools.
+ * <p>
+ * Each name owns one connection pool shared by all of its clients, so the connections are kept alive and reused
+ * between the requests instead of a TLS handshake per call. The model clients are configured by
+ * {@link com.alibaba.cloud.ai.application.config.RestConfiguration} with their much longer timeouts.
+ * <p>
+ * The pools publish the reactor netty connection meters, {@code reactor.netty.connection.provider.*} tagged
+ * with the client name, and the request meters {@code reactor.netty.http.client.*} tagged with the client name
+ * as uri.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@Component
+@EnableConfigurationProperties(OutboundHttpProperties.class)
+public class OutboundHttpClientFactory implements DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(OutboundHttpClientFactory.class);
+
+	private final OutboundHttpProperties properties;
+
+	private final Map<String, HttpClient> httpClients = new ConcurrentHashMap<>();
+
+	private final Map<String, ConnectionProvider> connectionProviders = new ConcurrentHashMap<>();
+
+	public OutboundHttpClientFactory(OutboundHttpProperties properties) {
+		this.properties = properties;
+	}
+
+	/**
+	 * A new builder on the shared connection pool of the name, build the client once and keep it.
+	 */
+	public RestClient.Builder restClientBuilder(String name) {
+
+		return RestClient.builder().requestFactory(new ReactorClientHttpRequestFactory(httpClient(name)));
+	}
+
+	public WebClient.Builder webClientBuilder(String name) {
+
+		return WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient(name)));
+	}
+
+	public HttpClient httpClient(String name) {
+
+		return httpClients.computeIfAbsent(name, this::newHttpClient);
+	}
+
+	@Override
+	public void destroy() {
+
+		connectionProviders.values().forEach(ConnectionProvider::dispose);
+		connectionProviders.clear();
+		httpClients.clear();
+	}
+
+	private HttpClient newHttpClient(String name) {
+
+		OutboundHttpProperties.Client client = properties.getClient(name);
+		ConnectionProvider provider = connectionProviders.computeIfAbsent(name, key -> ConnectionProvider.builder(key)
+				.maxConnections(client.getMaxConnections())
+				.pendingAcquireTimeout(client.getPendingAcquireTimeout())
+				.maxIdleTime(client.getMaxIdleTime())
+				.maxLifeTime(client.getMaxLifeTime())
+				// close the idle connections in the background, not only when they are acquired again
+				.evictInBackground(client.getMaxIdleTime())
+				.metrics(true)
+				.build());
+
+		HttpClient httpClient = HttpClient.create(provider)
+				.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) client.getConnectTimeout().toMillis())
+				.responseTimeout(client.getReadTimeout())
+				.compress(client.isCompress())
+				.metrics(true, uri -> name);
+		if (client.isHttp2()) {
+			// ALPN picks HTTP/2 on TLS when the server supports it, plain http stays on HTTP/1.1
+			httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+		}
+
+		logger.info("Create outbound http client {}: max connections {}, connect timeout {}, read timeout {}, http2 {}",
+				name, client.getMaxConnections(), client.getConnectTimeout(), client.getReadTimeout(), client.isHttp2());
+		return httpClient;
+	}
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.http;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Connection pools and timeouts of the outbound http clients, by client name.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@ConfigurationProperties(OutboundHttpProperties.PREFIX)
+public class OutboundHttpProperties {
+
+	public static final String PREFIX = "spring.ai.alibaba.playground.http-client";
+
+	/**
+	 * Settings of the clients that are not configured by name.
+	 */
+	private Client defaults = new Client();
+
+	private Map<String, Client> clients = new HashMap<>();
+
+	public Client getDefaults() {
+		return this.defaults;
+	}
+
+	public void setDefaults(Client defaults) {
+		this.defaults = defaults;
+	}
+
+	public Map<String, Client> getClients() {
+		return this.clients;
+	}
+
+	public void setClients(Map<String, Client> clients) {
+		this.clients = clients;
+	}
+
+	public Client getClient(String name) {
+		return this.clients.getOrDefault(name, this.defaults);
+	}
+
+	public static class Client {
+
+		private Duration connectTimeout = Duration.ofSeconds(5);
+
+		/**
+		 * Max time between two reads of a response.
+		 */
+		private Duration readTimeout = Duration.ofSeconds(30);
+
+		/**
+		 * Max connections of the pool, per remote host.
+		 */
+		private int maxConnections = 50;
+
+		/**
+		 * How long a request waits for a pooled connection when all of them are busy.
+		 */
+		private Duration pendingAcquireTimeout = Duration.ofSeconds(10);
+
+		/**
+		 * Idle connections are closed after this time, before the server drops them silently.
+		 */
+		private Duration maxIdleTime = Duration.ofSeconds(30);
+
+		private Duration maxLifeTime = Duration.ofMinutes(5);
+
+		/**
+		 * Negotiate HTTP/2 on TLS connections, falls back to HTTP/1.1.
+		 */
+		private boolean http2 = true;
+
+		/**
+		 * Accept gzip encoded responses.
+		 */
+		private boolean compress = true;
+
+		public Duration getConnectTimeout() {
+			return this.connectTimeout;
+		}
+
+		public void setConnectTimeout(Duration connectTimeout) {
+			this.connectTimeout = connectTimeout;
+		}
+
+		public Duration getReadTimeout() {
+			return this.readTimeout;
+		}
+
+		public void setReadTimeout(Duration readTimeout) {
+			this.readTimeout = readTimeout;
+		}
+
+		public int getMaxConnections() {
+			return this.maxConnections;
+		}
+
+		public void setMaxConnections(int maxConnections) {
+			this.maxConnections = maxConnections;
+		}
+
+		public Duration getPendingAcquireTimeout() {
+			return this.pendingAcquireTimeout;
+		}
+
+		public void setPendingAcquireTimeout(Duration pendingAcquireTimeout) {
+			this.pendingAcquireTimeout = pendingAcquireTimeout;
+		}
+
+		public Duration getMaxIdleTime() {
+			return this.maxIdleTime;
+		}
+
+		public void setMaxIdleTime(Duration maxIdleTime) {
+			this.maxIdleTime = maxIdleTime;
+		}
+
+		public Duration getMaxLifeTime() {
+			return this.maxLifeTime;
+		}
+
+		public void setMaxLifeTime(Duration maxLifeTime) {
+			this.maxLifeTime = maxLifeTime;
+		}
+
+		public boolean isHttp2() {
+			return this.http2;
+		}
+
+		public void setHttp2(boolean http2) {
+			this.http2 = http2;
+		}
+
+		public boolean isCompress() {
+			return this.compress;
+		}
+
+		public void setCompress(boolean compress) {
+			this.compress = compress;
+		}
+
+	}
+
+}
@@ -0,0 +1,357 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.limiter;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import com.alibaba.cloud.ai.application.exception.SAAAppException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Concurrency limit of one model that follows the capacity the upstream can serve.
+ * <p>
+ * Every successful call adds {@code 1 / limit}, about one slot per round trip while the limit is in use.
+ * A throttled call, or a short term average latency above the long term average times the tolerance,
+ * multiplies the limit by the backoff ratio. Calls started before the last decrease do not decrease it again,
+ * so a burst of 429 of the same round trip only halves the limit once. Calls over the limit wait in a fifo queue.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+public class AdaptiveConcurrencyLimiter {
+
+	private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+	/**
+	 * Smoothing of the short term latency average, follows the current load.
+	 */
+	private static final double SHORT_TERM_WEIGHT = 0.2;
+
+	/**
+	 * Smoothing of the long term latency average, the baseline the short term one is compared to.
+	 */
+	private static final double LONG_TERM_WEIGHT = 0.01;
+
+	private final String name;
+
+	private final ModelConcurrencyProperties properties;
+
+	private final Deque<CompletableFuture<Token>> waiters = new ArrayDeque<>();
+
+	private final Counter throttledCounter;
+
+	private double limit;
+
+	private int inFlight;
+
+	private double shortTermNanos;
+
+	private double longTermNanos;
+
+	private long lastDecreaseNanos = System.nanoTime();
+
+	public AdaptiveConcurrencyLimiter(String name, ModelConcurrencyProperties properties, MeterRegistry registry) {
+
+		this.name = name;
+		this.properties = properties;
+		this.limit = clamp(properties.getInitialLimit());
+
+		if (registry != null) {
+			Gauge.builder("playground.model.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+					.description("Adaptive concurrency limit of the model")
+					.tag("model", name)
+					.register(registry);
+			Gauge.builder("playground.model.concurrency.in-flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+					.description("Model calls in flight")
+					.tag("model", name)
+					.register(registry);
+			Gauge.builder("playground.model.concurrency.queued", this, AdaptiveConcurrencyLimiter::getQueued)
+					.description("Model calls waiting for a slot")
+					.tag("model", name)
+					.register(registry);
+			this.throttledCounter = Counter.builder("playground.model.concurrency.throttled")
+					.description("Model calls throttled by the upstream")
+					.tag("model", name)
+					.register(registry);
+		}
+		else {
+			this.throttledCounter = null;
+		}
+	}
+
+	/**
+	 * Wait for a slot up to the configured max wait.
+	 * @throws SAAAppException when no slot is free in time.
+	 */
+	public Token acquire() {
+
+		CompletableFuture<Token> future = acquireAsync();
+		try {
+			return future.get(properties.getMaxWait().toMillis(), TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException e) {
+			future.cancel(false);
+			Thread.currentThread().interrupt();
+			throw new SAAAppException("Interrupted while waiting for model " + name + ".");
+		}
+		catch (TimeoutException e) {
+			if (future.cancel(false)) {
+				throw new SAAAppException("Model " + name + " is busy, please retry later.");
+			}
+			// granted while timing out
+			return future.join();
+		}
+		catch (ExecutionException e) {
+			throw new SAAAppException("Acquire model " + name + " failed: " + e.getCause().getMessage());
+		}
+	}
+
+	/**
+	 * Run a blocking model call within the limit and feed its outcome back to the limit.
+	 */
+	public <T> T execute(Supplier<T> call) {
+
+		Token token = acquire();
+		long start = System.nanoTime();
+		try {
+			T result = call.get();
+			token.onSuccess(System.nanoTime() - start);
+			return result;
+		}
+		catch (RuntimeException e) {
+			token.onError(e);
+			throw e;
+		}
+		finally {
+			token.release();
+		}
+	}
+
+	/**
+	 * The future completes with a token once a slot is free, cancel it to leave the queue.
+	 */
+	public CompletableFuture<Token> acquireAsync() {
+
+		CompletableFuture<Token> future = new CompletableFuture<>();
+		synchronized (this) {
+			if (waiters.isEmpty() && inFlight < permits()) {
+				inFlight++;
+				future.complete(new Token());
+				return future;
+			}
+			waiters.add(future);
+		}
+
+		future.whenComplete((token, ex) -> {
+			if (ex != null) {
+				synchronized (this) {
+					waiters.remove(future);
+				}
+			}
+		});
+		return future;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Duration getMaxWait() {
+		return properties.getMaxWait();
+	}
+
+	public synchronized double getLimit() {
+		return limit;
+	}
+
+	public synchronized int getInFlight() {
+		return inFlight;
+	}
+
+	public synchronized int getQueued() {
+		return waiters.size();
+	}
+
+	private int permits() {
+		return Math.max(properties.getMinLimit(), (int) limit);
+	}
+
+	private double clamp(double value) {
+		return Math.min(properties.getMaxLimit(), Math.max(properties.getMinLimit(), value));
+	}
+
+	private void onSample(Token token, long latencyNanos) {
+
+		List<CompletableFuture<Token>> granted;
+		synchronized (this) {
+			if (longTermNanos == 0) {
+				shortTermNanos = latencyNanos;
+				longTermNanos = latencyNanos;
+			}
+			else {
+				shortTermNanos += (latencyNanos - shortTermNanos) * SHORT_TERM_WEIGHT;
+				longTermNanos += (latencyNanos - longTermNanos) * LONG_TERM_WEIGHT;
+			}
+
+			if (shortTermNanos > longTermNanos * properties.getLatencyTolerance()) {
+				decrease(token, "latency");
+				return;
+			}
+
+			// only grow while the limit is actually used
+			if (inFlight >= permits() / 2) {
+				limit = clamp(limit + 1.0 / limit);
+			}
+			granted = dispatch();
+		}
+		complete(granted);
+	}
+
+	private void onThrottled(Token token) {
+
+		if (throttledCounter != null) {
+			throttledCounter.increment();
+		}
+		synchronized (this) {
+			decrease(token, "throttling");
+		}
+	}
+
+	private void decrease(Token token, String reason) {
+
+		if (token.startNanos - lastDecreaseNanos < 0) {
+			return;
+		}
+
+		double previous = limit;
+		limit = clamp(limit * properties.getBackoffRatio());
+		lastDecreaseNanos = System.nanoTime();
+		logger.debug("Decrease concurrency limit of model {} from {} to {} by {}", name, previous, limit, reason);
+	}
+
+	private void release() {
+
+		List<CompletableFuture<Token>> granted;
+		synchronized (this) {
+			inFlight--;
+			granted = dispatch();
+		}
+		complete(granted);
+	}
+
+	/**
+	 * Take the waiters that fit in the limit, called with the lock held.
+	 */
+	private List<CompletableFuture<Token>> dispatch() {
+
+		List<CompletableFuture<Token>> granted = new ArrayList<>();
+		while (inFlight < permits() && !waiters.isEmpty()) {
+			CompletableFuture<Token> waiter = waiters.poll();
+			if (waiter.isDone()) {
+				continue;
+			}
+			inFlight++;
+			granted.add(waiter);
+		}
+		return granted;
+	}
+
+	private void complete(List<CompletableFuture<Token>> granted) {
+
+		for (CompletableFuture<Token> waiter : granted) {
+			Token token = new Token();
+			if (!waiter.complete(token)) {
+				token.release();
+			}
+		}
+	}
+
+	/**
+	 * Whether the error tells the upstream is throttling, e.g. http 429 or the dashscope throttling error codes.
+	 */
+	public static boolean isThrottled(Throwable error) {
+
+		for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+			String message = cause.getMessage();
+			if (message == null) {
+				continue;
+			}
+			String lower = message.toLowerCase(Locale.ROOT);
+			if (lower.contains("429") || lower.contains("throttling") || lower.contains("too many requests")
+					|| lower.contains("rate limit")) {
+				return true;
+			}
+			if (cause.getCause() == cause) {
+				break;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Slot of one model call, report the outcome and release it when the call is done.
+	 */
+	public final class Token {
+
+		private final long startNanos = System.nanoTime();
+
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		private Token() {
+		}
+
+		/**
+		 * The call answered, for a stream this is the time to the first response.
+		 */
+		public void onSuccess(long latencyNanos) {
+			onSample(this, latencyNanos);
+		}
+
+		public void onError(Throwable error) {
+
+			if (isThrottled(error)) {
+				onThrottled(this);
+			}
+		}
+
+		public void release() {
+
+			if (released.compareAndSet(false, true)) {
+				AdaptiveConcurrencyLimiter.this.release();
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.limiter;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import com.alibaba.cloud.ai.application.resilience.DependencyGuard;
+
+/**
+ * Call a model through its circuit breaker first and its concurrency limiter second, so an open circuit fails
+ * fast instead of queueing for a slot. Waiting too long for a slot is not a failure of the model.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+final class GuardedModelCalls {
+
+	private GuardedModelCalls() {
+	}
+
+	static <T> T execute(AdaptiveConcurrencyLimiter limiter, DependencyGuard guard, Supplier<T> call) {
+
+		if (guard == null) {
+			return limiter.execute(call);
+		}
+
+		DependencyGuard.Call permit = guard.tryAcquire();
+		AtomicBoolean started = new AtomicBoolean();
+		try {
+			T result = limiter.execute(() -> {
+				started.set(true);
+				return call.get();
+			});
+			permit.onSuccess();
+			return result;
+		}
+		catch (RuntimeException e) {
+			end(permit, started.get(), e);
+			throw e;
+		}
+	}
+
+	static void end(DependencyGuard.Call permit, boolean started, Throwable error) {
+
+		if (started) {
+			permit.onError(error);
+		}
+		else {
+			permit.onIgnored();
+		}
+	}
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.limiter;
+
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.alibaba.cloud.ai.application.exception.SAAAppException;
+import com.alibaba.cloud.ai.application.resilience.DependencyGuard;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+
+/**
+ * {@link ChatModel} calling the delegate within the {@link AdaptiveConcurrencyLimiter}. A stream waits for its
+ * slot without blocking and keeps it until the stream terminates, its latency is the time to the first response.
+ * An open circuit of the model rejects the call before it waits for a slot.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+public class LimitedChatModel implements ChatModel {
+
+	private final ChatModel delegate;
+
+	private final AdaptiveConcurrencyLimiter limiter;
+
+	/**
+	 * Circuit breaker of the model, null when not guarded.
+	 */
+	private final DependencyGuard guard;
+
+	public LimitedChatModel(ChatModel delegate, AdaptiveConcurrencyLimiter limiter, DependencyGuard guard) {
+
+		this.delegate = delegate;
+		this.limiter = limiter;
+		this.guard = guard;
+	}
+
+	public ChatModel getDelegate() {
+		return delegate;
+	}
+
+	@Override
+	public ChatResponse call(Prompt prompt) {
+
+		return GuardedModelCalls.execute(limiter, guard, () -> delegate.call(prompt));
+	}
+
+	@Override
+	public Flux<ChatResponse> stream(Prompt prompt) {
+
+		if (guard == null) {
+			return limitedStream(prompt, new AtomicBoolean());
+		}
+
+		return Flux.defer(() -> {
+			DependencyGuard.Call permit = guard.tryAcquire();
+			AtomicBoolean started = new AtomicBoolean();
+			return limitedStream(prompt, started)
+					.doOnComplete(permit::onSuccess)
+					.doOnError(e -> GuardedModelCalls.end(permit, started.get(), e))
+					.doOnCancel(permit::onIgnored);
+		});
+	}
+
+	private Flux<ChatResponse> limitedStream(Prompt prompt, AtomicBoolean started) {
+
+		return Mono.fromFuture(limiter::acquireAsync)
+				.timeout(limiter.getMaxWait())
+				.doOnDiscard(AdaptiveConcurrencyLimiter.Token.class, AdaptiveConcurrencyLimiter.Token::release)
+				.onErrorMap(TimeoutException.class,
+						e -> new SAAAppException("Model " + limiter.getName() + " is busy, please retry later."))
+				.flatMapMany(token -> {
+					started.set(true);
+					long start = System.nanoTime();
+					AtomicBoolean first = new AtomicBoolean(true);
+					return delegate.stream(prompt)
+							.doOnNext(response -> {
+								if (first.compareAndSet(true, false)) {
+									token.onSuccess(System.nanoTime() - start);
+								}
+							})
+							.doOnError(token::onError)
+							.doFinally(signal -> token.release());
+				});
+	}
+
+	@Override
+	public ChatOptions getDefaultOptions() {
+		return delegate.getDefaultOptions();
+	}
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.limiter;
+
+import com.alibaba.cloud.ai.application.resilience.DependencyGuard;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+/**
+ * {@link EmbeddingModel} calling the delegate within the {@link AdaptiveConcurrencyLimiter}.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+public class LimitedEmbeddingModel implements EmbeddingModel {
+
+	private final EmbeddingModel delegate;
+
+	private final AdaptiveConcurrencyLimiter limiter;
+
+	/**
+	 * Circuit breaker of the model, null when not guarded.
+	 */
+	private final DependencyGuard guard;
+
+	public LimitedEmbeddingModel(EmbeddingModel delegate, AdaptiveConcurrencyLimiter limiter, DependencyGuard guard) {
+
+		this.delegate = delegate;
+		this.limiter = limiter;
+		this.guard = guard;
+	}
+
+	public EmbeddingModel getDelegate() {
+		return delegate;
+	}
+
+	@Override
+	public EmbeddingResponse call(EmbeddingRequest request) {
+
+		return GuardedModelCalls.execute(limiter, guard, () -> delegate.call(request));
+	}
+
+	@Override
+	public float[] embed(Document document) {
+
+		return GuardedModelCalls.execute(limiter, guard, () -> delegate.embed(document));
+	}
+
+	@Override
+	public int dimensions() {
+
+		// cached by the model, not worth a slot nor a latency sample
+		return delegate.dimensions();
+	}
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.limiter;
+
+import com.alibaba.cloud.ai.application.resilience.DependencyGuard;
+
+import org.springframework.ai.image.ImageModel;
+import org.springframework.ai.image.ImagePrompt;
+import org.springframework.ai.image.ImageResponse;
+
+/**
+ * {@link ImageModel} calling the delegate within the {@link AdaptiveConcurrencyLimiter}.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+public class LimitedImageModel implements ImageModel {
+
+	private final ImageModel delegate;
+
+	private final AdaptiveConcurrencyLimiter limiter;
+
+	/**
+	 * Circuit breaker of the model, null when not guarded.
+	 */
+	private final DependencyGuard guard;
+
+	public LimitedImageModel(ImageModel delegate, AdaptiveConcurrencyLimiter limiter, DependencyGuard guard) {
+
+		this.delegate = delegate;
+		this.limiter = limiter;
+		this.guard = guard;
+	}
+
+	public ImageModel getDelegate() {
+		return delegate;
+	}
+
+	@Override
+	public ImageResponse call(ImagePrompt request) {
+
+		return GuardedModelCalls.execute(limiter, guard, () -> delegate.call(request));
+	}
+
+}
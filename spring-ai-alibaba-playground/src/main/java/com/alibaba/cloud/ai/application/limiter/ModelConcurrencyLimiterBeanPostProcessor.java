@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.limiter;
+
+import com.alibaba.cloud.ai.application.resilience.DependencyGuard;
+import com.alibaba.cloud.ai.application.resilience.ResilienceRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.image.ImageModel;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+/**
+ * Wrap the chat, embedding and image model beans with an {@link AdaptiveConcurrencyLimiter} each,
+ * the beans keep their names so the qualified injection points are not changed. Each model also gets a circuit
+ * breaker named after the bean, the limiter already works as its bulkhead.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@Component
+@EnableConfigurationProperties(ModelConcurrencyProperties.class)
+public class ModelConcurrencyLimiterBeanPostProcessor implements BeanPostProcessor, Ordered {
+
+	/**
+	 * Decorators ordered after this one wrap the limited model.
+	 */
+	public static final int ORDER = 0;
+
+	private static final Logger logger = LoggerFactory.getLogger(ModelConcurrencyLimiterBeanPostProcessor.class);
+
+	private final ModelConcurrencyProperties properties;
+
+	private final ObjectProvider<MeterRegistry> meterRegistry;
+
+	private final ObjectProvider<ResilienceRegistry> resilienceRegistry;
+
+	public ModelConcurrencyLimiterBeanPostProcessor(
+			ModelConcurrencyProperties properties,
+			ObjectProvider<MeterRegistry> meterRegistry,
+			ObjectProvider<ResilienceRegistry> resilienceRegistry
+	) {
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+		this.resilienceRegistry = resilienceRegistry;
+	}
+
+	@NotNull
+	@Override
+	public Object postProcessAfterInitialization(@NotNull Object bean, @NotNull String beanName) throws BeansException {
+
+		if (!properties.isEnabled() || properties.getExcluded().contains(beanName)) {
+			return bean;
+		}
+
+		if (bean instanceof ChatModel chatModel && !(bean instanceof LimitedChatModel)) {
+			logger.debug("Limit the concurrency of chat model: {}", beanName);
+			return new LimitedChatModel(chatModel, newLimiter(beanName), newGuard(beanName));
+		}
+		if (bean instanceof EmbeddingModel embeddingModel && !(bean instanceof LimitedEmbeddingModel)) {
+			logger.debug("Limit the concurrency of embedding model: {}", beanName);
+			return new LimitedEmbeddingModel(embeddingModel, newLimiter(beanName), newGuard(beanName));
+		}
+		if (bean instanceof ImageModel imageModel && !(bean instanceof LimitedImageModel)) {
+			logger.debug("Limit the concurrency of image model: {}", beanName);
+			return new LimitedImageModel(imageModel, newLimiter(beanName), newGuard(beanName));
+		}
+
+		return bean;
+	}
+
+	@Override
+	public int getOrder() {
+		return ORDER;
+	}
+
+	private AdaptiveConcurrencyLimiter newLimiter(String beanName) {
+
+		return new AdaptiveConcurrencyLimiter(beanName, properties, meterRegistry.getIfAvailable());
+	}
+
+	private DependencyGuard newGuard(String beanName) {
+
+		ResilienceRegistry registry = resilienceRegistry.getIfAvailable();
+		return registry == null ? null : registry.guard(beanName, false);
+	}
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.limiter;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Client side concurrency limit of the model calls, adjusted by additive increase and multiplicative decrease.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@ConfigurationProperties(ModelConcurrencyProperties.PREFIX)
+public class ModelConcurrencyProperties {
+
+	public static final String PREFIX = "spring.ai.alibaba.playground.model-concurrency";
+
+	private boolean enabled = true;
+
+	private int initialLimit = 8;
+
+	private int minLimit = 1;
+
+	private int maxLimit = 64;
+
+	/**
+	 * The limit is multiplied by this ratio when the model throttles or slows down.
+	 */
+	private double backoffRatio = 0.5;
+
+	/**
+	 * The model is considered overloaded when the recent average latency exceeds the long term average
+	 * times this factor, the latency of a stream is the time to its first response.
+	 */
+	private double latencyTolerance = 2.0;
+
+	/**
+	 * How long a call waits for a free slot before it fails.
+	 */
+	private Duration maxWait = Duration.ofSeconds(30);
+
+	/**
+	 * Names of the model beans that are not limited.
+	 */
+	private Set<String> excluded = new HashSet<>();
+
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getInitialLimit() {
+		return this.initialLimit;
+	}
+
+	public void setInitialLimit(int initialLimit) {
+		this.initialLimit = initialLimit;
+	}
+
+	public int getMinLimit() {
+		return this.minLimit;
+	}
+
+	public void setMinLimit(int minLimit) {
+		this.minLimit = minLimit;
+	}
+
+	public int getMaxLimit() {
+		return this.maxLimit;
+	}
+
+	public void setMaxLimit(int maxLimit) {
+		this.maxLimit = maxLimit;
+	}
+
+	public double getBackoffRatio() {
+		return this.backoffRatio;
+	}
+
+	public void setBackoffRatio(double backoffRatio) {
+		this.backoffRatio = backoffRatio;
+	}
+
+	public double getLatencyTolerance() {
+		return this.latencyTolerance;
+	}
+
+	public void setLatencyTolerance(double latencyTolerance) {
+		this.latencyTolerance = latencyTolerance;
+	}
+
+	public Duration getMaxWait() {
+		return this.maxWait;
+	}
+
+	public void setMaxWait(Duration maxWait) {
+		this.maxWait = maxWait;
+	}
+
+	public Set<String> getExcluded() {
+		return this.excluded;
+	}
+
+	public void setExcluded(Set<String> excluded) {
+		this.excluded = excluded;
+	}
+
+}
@@ -0,0 +1,397 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.mcp;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.alibaba.cloud.ai.application.config.snapshot.ConfigSnapshots;
+import com.alibaba.cloud.ai.application.entity.mcp.McpServerConfig;
+import com.alibaba.cloud.ai.application.exception.SAAAppException;
+import io.modelcontextprotocol.client.McpClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.client.transport.ServerParameters;
+import io.modelcontextprotocol.client.transport.StdioClientTransport;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.mcp.client.autoconfigure.properties.McpStdioClientProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pool of initialized mcp stdio clients, keyed by the server command, args and a digest of the env.
+ * <p>
+ * Launching the server subprocess and the initialize handshake are paid once per pooled client instead of
+ * once per request. Idle clients are pinged before reuse, a client whose subprocess has exited fails the
+ * ping or the call and is replaced by a new one. Idle clients are closed by a background sweeper.
+ * <p>
+ * Request envs start a subprocess of their own, so the number of server pools is capped. A new definition
+ * evicts the least recently used pool without borrowers, pools without clients are removed by the sweeper.
+ * The env values are only kept by the pool that starts the subprocess, the key holds their digest.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@Component
+@EnableConfigurationProperties(McpClientPoolProperties.class)
+public class McpClientPool implements DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(McpClientPool.class);
+
+	private static final McpSchema.Implementation CLIENT_INFO =
+			new McpSchema.Implementation("spring-ai-alibaba-playground", "1.0.0");
+
+	private final McpClientPoolProperties properties;
+
+	private final Map<PoolKey, ServerPool> pools = new ConcurrentHashMap<>();
+
+	private final ScheduledExecutorService sweeper;
+
+	private final Consumer<McpServerConfig> configListener = this::onConfigChanged;
+
+	public McpClientPool(McpClientPoolProperties properties) {
+
+		this.properties = properties;
+		this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "mcp-client-pool-sweeper");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		long period = Math.max(1, properties.getIdleTimeout().toMillis() / 2);
+		this.sweeper.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+
+		// server definitions may change, drop clients started from the old config.
+		ConfigSnapshots.MCP_SERVERS.addListener(configListener);
+	}
+
+	/**
+	 * Borrow an initialized client for the server definition, run the action and give the client back.
+	 * A client that failed during the action is closed instead of being returned to the pool.
+	 */
+	public <T> T execute(McpStdioClientProperties.Parameters server, Function<McpSyncClient, T> action) {
+
+		ServerPool pool = enter(server);
+		try {
+			PooledClient client = pool.borrow();
+
+			boolean healthy = false;
+			try {
+				T result = action.apply(client.client);
+				healthy = true;
+				return result;
+			}
+			finally {
+				pool.release(client, healthy);
+			}
+		}
+		finally {
+			pool.users.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Number of live clients per server command line, for diagnostics.
+	 */
+	public Map<String, Integer> stats() {
+
+		Map<String, Integer> stats = new ConcurrentHashMap<>();
+		pools.forEach((key, pool) -> stats.merge(
+				key.command() + " " + String.join(" ", key.args()), pool.size.get(), Integer::sum));
+		return stats;
+	}
+
+	/**
+	 * Number of server pools, one per distinct server definition.
+	 */
+	public int poolCount() {
+		return pools.size();
+	}
+
+	/**
+	 * Close every client, in use clients are closed when they are released.
+	 */
+	public synchronized void evictAll() {
+
+		pools.values().forEach(ServerPool::retire);
+		pools.clear();
+	}
+
+	@Override
+	public void destroy() {
+
+		ConfigSnapshots.MCP_SERVERS.removeListener(configListener);
+		sweeper.shutdownNow();
+		evictAll();
+	}
+
+	private void onConfigChanged(McpServerConfig mcpServerConfig) {
+
+		logger.info("Mcp server config changed, evict all pooled mcp clients.");
+		evictAll();
+	}
+
+	void evictIdle() {
+
+		long deadline = System.nanoTime() - properties.getIdleTimeout().toNanos();
+		pools.values().forEach(pool -> pool.evictIdleBefore(deadline));
+		removeEmptyPools();
+	}
+
+	private synchronized void removeEmptyPools() {
+
+		pools.values().removeIf(pool -> {
+			if (pool.users.get() > 0 || pool.size.get() > 0) {
+				return false;
+			}
+			pool.retire();
+			return true;
+		});
+	}
+
+	/**
+	 * Find or create the pool of the server and register the caller as a user, so that the pool is not
+	 * evicted while the caller waits for or holds a client.
+	 */
+	private synchronized ServerPool enter(McpStdioClientProperties.Parameters server) {
+
+		PoolKey key = PoolKey.of(server);
+		ServerPool pool = pools.get(key);
+		if (pool == null) {
+			if (pools.size() >= properties.getMaxServers()) {
+				evictLeastRecentlyUsed();
+			}
+			pool = new ServerPool(server);
+			pools.put(key, pool);
+		}
+
+		pool.users.incrementAndGet();
+		pool.lastEnteredNanos = System.nanoTime();
+		return pool;
+	}
+
+	private void evictLeastRecentlyUsed() {
+
+		Map.Entry<PoolKey, ServerPool> eldest = pools.entrySet().stream()
+				.filter(entry -> entry.getValue().users.get() == 0)
+				.min(Comparator.comparingLong(entry -> entry.getValue().lastEnteredNanos))
+				.orElseThrow(() -> new SAAAppException(
+						"Too many mcp server definitions in use, max " + properties.getMaxServers()));
+
+		pools.remove(eldest.getKey());
+		eldest.getValue().retire();
+		logger.debug("Evicted least recently used mcp client pool for {}", eldest.getKey().command());
+	}
+
+	private McpSyncClient createClient(McpStdioClientProperties.Parameters server) {
+
+		ServerParameters serverParameters = ServerParameters.builder(server.command())
+				.args(server.args())
+				.env(server.env())
+				.build();
+
+		McpSyncClient client = McpClient.sync(new StdioClientTransport(serverParameters))
+				.clientInfo(CLIENT_INFO)
+				.requestTimeout(properties.getRequestTimeout())
+				.initializationTimeout(properties.getRequestTimeout())
+				.build();
+
+		try {
+			client.initialize();
+		}
+		catch (RuntimeException e) {
+			client.close();
+			throw new SAAAppException("Failed to initialize mcp client for " + server.command() + ": " + e.getMessage());
+		}
+
+		logger.debug("Started mcp client: {}", client.getServerInfo());
+		return client;
+	}
+
+	private static void closeQuietly(McpSyncClient client) {
+
+		try {
+			if (!client.closeGracefully()) {
+				client.close();
+			}
+		}
+		catch (RuntimeException e) {
+			logger.debug("Close mcp client failed: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Pool key of a server definition, the env is reduced to a digest so that request secrets are not kept
+	 * as map keys or shown in diagnostics.
+	 */
+	private record PoolKey(String command, List<String> args, String envDigest) {
+
+		private static PoolKey of(McpStdioClientProperties.Parameters server) {
+
+			return new PoolKey(server.command(), List.copyOf(server.args()), McpServerUtils.envDigest(server.env()));
+		}
+
+	}
+
+	private static final class PooledClient {
+
+		private final McpSyncClient client;
+
+		private volatile long lastUsedNanos = System.nanoTime();
+
+		private PooledClient(McpSyncClient client) {
+			this.client = client;
+		}
+
+	}
+
+	private final class ServerPool {
+
+		private final McpStdioClientProperties.Parameters server;
+
+		private final Deque<PooledClient> idle = new ConcurrentLinkedDeque<>();
+
+		private final Semaphore permits;
+
+		private final AtomicInteger size = new AtomicInteger();
+
+		/**
+		 * Callers waiting for or holding a client of this pool.
+		 */
+		private final AtomicInteger users = new AtomicInteger();
+
+		private volatile long lastEnteredNanos = System.nanoTime();
+
+		private volatile boolean retired;
+
+		private ServerPool(McpStdioClientProperties.Parameters server) {
+
+			this.server = server;
+			this.permits = new Semaphore(properties.getMaxClientsPerServer(), true);
+		}
+
+		private PooledClient borrow() {
+
+			Duration timeout = properties.getBorrowTimeout();
+			try {
+				if (!permits.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+					throw new SAAAppException("No mcp client available for " + server.command() + " within " + timeout);
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new SAAAppException("Interrupted while waiting for mcp client.");
+			}
+
+			try {
+				PooledClient pooled;
+				while ((pooled = idle.pollFirst()) != null) {
+					if (isHealthy(pooled)) {
+						return pooled;
+					}
+					discard(pooled);
+				}
+
+				PooledClient created = new PooledClient(createClient(server));
+				size.incrementAndGet();
+				return created;
+			}
+			catch (RuntimeException e) {
+				permits.release();
+				throw e;
+			}
+		}
+
+		private void release(PooledClient pooled, boolean healthy) {
+
+			try {
+				if (healthy && !retired) {
+					pooled.lastUsedNanos = System.nanoTime();
+					idle.offerFirst(pooled);
+				}
+				else {
+					discard(pooled);
+				}
+			}
+			finally {
+				permits.release();
+			}
+		}
+
+		private boolean isHealthy(PooledClient pooled) {
+
+			long sinceLastUse = System.nanoTime() - pooled.lastUsedNanos;
+			if (sinceLastUse < properties.getHealthCheckInterval().toNanos()) {
+				return true;
+			}
+
+			try {
+				pooled.client.ping();
+				return true;
+			}
+			catch (RuntimeException e) {
+				logger.warn("Mcp client for {} failed health check, restart it: {}", server.command(), e.getMessage());
+				return false;
+			}
+		}
+
+		private void discard(PooledClient pooled) {
+
+			size.decrementAndGet();
+			closeQuietly(pooled.client);
+		}
+
+		private void evictIdleBefore(long deadlineNanos) {
+
+			List<PooledClient> expired = new ArrayList<>();
+			idle.removeIf(pooled -> pooled.lastUsedNanos < deadlineNanos && expired.add(pooled));
+			expired.forEach(this::discard);
+			if (!expired.isEmpty()) {
+				logger.debug("Evicted {} idle mcp clients for {}", expired.size(), server.command());
+			}
+		}
+
+		private void retire() {
+
+			retired = true;
+			PooledClient pooled;
+			while ((pooled = idle.pollFirst()) != null) {
+				discard(pooled);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.mcp;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@ConfigurationProperties("spring.ai.alibaba.playground.mcp.pool")
+public class McpClientPoolProperties {
+
+	/**
+	 * Max initialized clients (stdio subprocesses) per mcp server definition.
+	 */
+	private int maxClientsPerServer = 4;
+
+	/**
+	 * Max server definitions with pooled clients, request envs make a definition of their own.
+	 */
+	private int maxServers = 16;
+
+	/**
+	 * How long a request waits for a free client when the server is at capacity.
+	 */
+	private Duration borrowTimeout = Duration.ofSeconds(30);
+
+	/**
+	 * Idle clients are closed after this duration.
+	 */
+	private Duration idleTimeout = Duration.ofMinutes(10);
+
+	/**
+	 * Idle clients are pinged before reuse when they have not been used for this duration.
+	 */
+	private Duration healthCheckInterval = Duration.ofSeconds(30);
+
+	/**
+	 * Timeout of the initialize handshake and every mcp request.
+	 */
+	private Duration requestTimeout = Duration.ofSeconds(60);
+
+	public int getMaxClientsPerServer() {
+		return this.maxClientsPerServer;
+	}
+
+	public void setMaxClientsPerServer(int maxClientsPerServer) {
+		this.maxClientsPerServer = maxClientsPerServer;
+	}
+
+	public int getMaxServers() {
+		return this.maxServers;
+	}
+
+	public void setMaxServers(int maxServers) {
+		this.maxServers = maxServers;
+	}
+
+	public Duration getBorrowTimeout() {
+		return this.borrowTimeout;
+	}
+
+	public void setBorrowTimeout(Duration borrowTimeout) {
+		this.borrowTimeout = borrowTimeout;
+	}
+
+	public Duration getIdleTimeout() {
+		return this.idleTimeout;
+	}
+
+	public void setIdleTimeout(Duration idleTimeout) {
+		this.idleTimeout = idleTimeout;
+	}
+
+	public Duration getHealthCheckInterval() {
+		return this.healthCheckInterval;
+	}
+
+	public void setHealthCheckInterval(Duration healthCheckInterval) {
+		this.healthCheckInterval = healthCheckInterval;
+	}
+
+	public Duration getRequestTimeout() {
+		return this.requestTimeout;
+	}
+
+	public void setRequestTimeout(Duration requestTimeout) {
+		this.requestTimeout = requestTimeout;
+	}
+
+}
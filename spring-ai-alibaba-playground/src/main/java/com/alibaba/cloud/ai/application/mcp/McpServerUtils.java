@@ -3,22 +3,30 @@ package com.alibaba.cloud.ai.application.mcp;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
 import java.util.UUID;
 
 import com.alibaba.cloud.ai.application.config.mcp.SyncMcpToolCallbackWrapper;
+import com.alibaba.cloud.ai.application.config.snapshot.ConfigSnapshots;
 import com.alibaba.cloud.ai.application.entity.mcp.McpServer;
 import com.alibaba.cloud.ai.application.entity.mcp.McpServerConfig;
 import com.alibaba.cloud.ai.application.exception.SAAAppException;
-import com.alibaba.cloud.ai.application.utils.ModelsUtils;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 
 import org.springframework.ai.mcp.SyncMcpToolCallback;
+import org.springframework.ai.mcp.client.autoconfigure.properties.McpStdioClientProperties;
 import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.core.io.ClassPathResource;
@@ -31,36 +39,146 @@ import org.springframework.core.io.Resource;
 
 public final class McpServerUtils {
 
-	private static final String MCP_CONFIG_FILE_PATH = "mcp-config.yml";
+	public static final String MCP_CONFIG_FILE_PATH = "mcp-config.yml";
 
 	private McpServerUtils() {
 	}
 
+	/**
+	 * Get the current mcp server config snapshot. The returned config is read-only,
+	 * use {@link #copyMcpServerConfig(McpServerConfig)} before rewriting it.
+	 */
 	public static McpServerConfig getMcpServerConfig() throws IOException {
 
+		return ConfigSnapshots.MCP_SERVERS.get();
+	}
+
+	public static McpServerConfig parseMcpServerConfig(InputStream in) throws IOException {
+
 		ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-		InputStream resourceAsStream = ModelsUtils.class.getClassLoader().getResourceAsStream(MCP_CONFIG_FILE_PATH);
+		McpServerConfig mcpServerConfig = mapper.readValue(in, McpServerConfig.class);
+
+		Map<String, McpStdioClientProperties.Parameters> mcpServers = new LinkedHashMap<>();
+		if (Objects.nonNull(mcpServerConfig.getMcpServers())) {
+			mcpServerConfig.getMcpServers().forEach((key, parameters) -> {
+				if (parameters == null) {
+					mcpServers.put(key, null);
+					return;
+				}
 
-		McpServerConfig mcpServerConfig = mapper.readValue(resourceAsStream, McpServerConfig.class);
-		mcpServerConfig.getMcpServers().forEach((key, parameters) -> {
-			Map<String, String> env = parameters.env();
-			if (Objects.nonNull(env)) {
-				env.entrySet().stream()
-						.filter(entry -> entry.getValue() != null && !entry.getValue().isEmpty() &&
-								entry.getValue().startsWith("${") && entry.getValue().endsWith("}"))
-						.forEach(entry -> {
-							String envKey = entry.getValue().substring(2, entry.getValue().length() - 1);
-							String envValue = System.getenv(envKey);
+				Map<String, String> env = new LinkedHashMap<>();
+				if (Objects.nonNull(parameters.env())) {
+					parameters.env().forEach((envName, value) -> {
+						String resolved = value;
+						if (value != null && !value.isEmpty() && value.startsWith("${") && value.endsWith("}")) {
+							String envValue = System.getenv(value.substring(2, value.length() - 1));
 							// allow env is null.
 							if (envValue != null && !envValue.isEmpty()) {
-								env.put(entry.getKey(), envValue);
+								resolved = envValue;
 							}
-						});
+						}
+						env.put(envName, resolved);
+					});
+				}
+
+				mcpServers.put(key, new McpStdioClientProperties.Parameters(
+						parameters.command(),
+						parameters.args() == null ? List.of() : Collections.unmodifiableList(new ArrayList<>(parameters.args())),
+						Collections.unmodifiableMap(env)
+				));
+			});
+		}
+
+		McpServerConfig snapshot = new McpServerConfig();
+		snapshot.setMcpServers(Collections.unmodifiableMap(mcpServers));
+
+		return snapshot;
+	}
+
+	/**
+	 * Mutable copy of the config, every server args and env can be changed without touching the snapshot.
+	 */
+	public static McpServerConfig copyMcpServerConfig(McpServerConfig mcpServerConfig) {
+
+		Map<String, McpStdioClientProperties.Parameters> mcpServers = new LinkedHashMap<>();
+		mcpServerConfig.getMcpServers().forEach((key, parameters) -> mcpServers.put(
+				key,
+				parameters == null ? null : new McpStdioClientProperties.Parameters(
+						parameters.command(),
+						new ArrayList<>(parameters.args()),
+						new HashMap<>(parameters.env())
+				)
+		));
+
+		McpServerConfig copy = new McpServerConfig();
+		copy.setMcpServers(mcpServers);
+
+		return copy;
+	}
+
+	/**
+	 * Resolve the server definition to run: the jar path of java servers is rewritten to an absolute path
+	 * and the request envs are merged over the configured envs. Only the env names declared by the configured
+	 * server can be set by a request, other names are ignored.
+	 */
+	public static McpStdioClientProperties.Parameters resolveMcpServerParameters(
+			McpStdioClientProperties.Parameters parameters,
+			Map<String, String> envs
+	) {
+
+		List<String> args = new ArrayList<>(parameters.args());
+		if (parameters.command().startsWith("java")) {
+			String oldMcpLibsPath = getLibsPath(args);
+			if (oldMcpLibsPath != null) {
+				args.set(args.size() - 1, getMcpLibsAbsPath(oldMcpLibsPath));
 			}
-		});
+		}
+
+		Map<String, String> env = new HashMap<>(parameters.env());
+		if (Objects.nonNull(envs)) {
+			envs.forEach((name, value) -> {
+				if (env.containsKey(name)) {
+					env.put(name, value);
+				}
+			});
+		}
+
+		return new McpStdioClientProperties.Parameters(
+				parameters.command(),
+				Collections.unmodifiableList(args),
+				Collections.unmodifiableMap(env)
+		);
+	}
+
+	/**
+	 * SHA-256 of the env names and values, identifies the env without keeping the secrets in it.
+	 */
+	public static String envDigest(Map<String, String> env) {
+
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+
+		if (Objects.nonNull(env)) {
+			new TreeMap<>(env).forEach((name, value) -> {
+				update(digest, name);
+				update(digest, value == null ? "" : value);
+			});
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
 
+	private static void update(MessageDigest digest, String value) {
 
-		return mcpServerConfig;
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		// length prefixed, so that the boundaries between names and values are part of the digest
+		digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.US_ASCII));
+		digest.update((byte) ':');
+		digest.update(bytes);
 	}
 
 	public static String getLibsPath(List<String> list) {
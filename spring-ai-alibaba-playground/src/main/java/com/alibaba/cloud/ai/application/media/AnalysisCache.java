@@ -0,0 +1,383 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.media;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import com.alibaba.cloud.ai.application.utils.BlockingUtils;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Results of multimodal analyses keyed by the digest of the media, the normalized prompt and the model.
+ * <p>
+ * A result is recorded as the chunks the model streamed and replayed chunk by chunk on a hit, so a
+ * client sees the same sequence whether the model was called or not. Only completed results are
+ * kept, an error or a cancelled stream is not. Results live in a bounded memory tier backed by a
+ * disk tier that survives restarts, both expire a TTL after the result was produced.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@Component
+@EnableConfigurationProperties(AnalysisCacheProperties.class)
+public class AnalysisCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(AnalysisCache.class);
+
+	/**
+	 * Chunks of plain text, stored as they are.
+	 */
+	public static final ChunkCodec<String> TEXT = new ChunkCodec<>() {
+
+		@Override
+		public String encode(String chunk) {
+			return chunk;
+		}
+
+		@Override
+		public String decode(String encoded) {
+			return encoded;
+		}
+
+	};
+
+	private static final int FORMAT_VERSION = 1;
+
+	private final AnalysisCacheProperties properties;
+
+	private final Clock clock;
+
+	private final Cache<String, List<String>> memory;
+
+	private final AtomicLong diskBytes = new AtomicLong();
+
+	@Autowired
+	public AnalysisCache(AnalysisCacheProperties properties) throws IOException {
+		this(properties, Clock.systemUTC());
+	}
+
+	AnalysisCache(AnalysisCacheProperties properties, Clock clock) throws IOException {
+
+		this.properties = properties;
+		this.clock = clock;
+		this.memory = CacheBuilder.newBuilder()
+				.maximumWeight(properties.getMemorySize().toBytes())
+				.<String, List<String>>weigher((key, chunks) -> weight(chunks))
+				.expireAfterWrite(properties.getTtl())
+				.build();
+
+		Files.createDirectories(properties.getDirectory());
+		try (Stream<Path> files = Files.walk(properties.getDirectory())) {
+			diskBytes.set(files.filter(Files::isRegularFile).mapToLong(AnalysisCache::sizeOf).sum());
+		}
+		logger.info("Init analysis cache: {}, {} bytes on disk", properties.getDirectory().toAbsolutePath(),
+				diskBytes.get());
+	}
+
+	/**
+	 * Cache key of an analysis.
+	 * @param modality what kind of media is analyzed, results of different processors never collide.
+	 * @param model the model producing the result.
+	 * @param prompt the question, compared after {@link #normalizePrompt(String) normalization}.
+	 * @param mediaDigests SHA-256 of every media attached, in order.
+	 */
+	public static String key(String modality, String model, String prompt, String... mediaDigests) {
+
+		MessageDigest digest = sha256();
+		update(digest, modality);
+		update(digest, model);
+		update(digest, normalizePrompt(prompt));
+		for (String mediaDigest : mediaDigests) {
+			update(digest, mediaDigest);
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	/**
+	 * Case, Unicode compatibility forms and runs of whitespace do not change the question.
+	 */
+	static String normalizePrompt(String prompt) {
+
+		if (prompt == null) {
+			return "";
+		}
+		return Normalizer.normalize(prompt, Normalizer.Form.NFKC)
+				.strip()
+				.replaceAll("\\s+", " ")
+				.toLowerCase(Locale.ROOT);
+	}
+
+	public static String digest(byte[] content) {
+		return HexFormat.of().formatHex(sha256().digest(content));
+	}
+
+	/**
+	 * Replay the cached result of the key, or subscribe to the source and keep its result once it completes.
+	 */
+	public <T> Flux<T> cached(String key, ChunkCodec<T> codec, Supplier<? extends Flux<T>> source) {
+
+		if (!properties.isEnabled()) {
+			return Flux.defer(source);
+		}
+
+		return Flux.defer(() -> {
+			List<String> chunks = memory.getIfPresent(key);
+			if (chunks != null) {
+				logger.debug("Analysis cache memory hit: {}", key);
+				return replay(chunks, codec);
+			}
+
+			return BlockingUtils.fromCallable(() -> readDisk(key))
+					.flatMapMany(stored -> {
+						if (stored.isPresent()) {
+							logger.debug("Analysis cache disk hit: {}", key);
+							memory.put(key, stored.get());
+							return replay(stored.get(), codec);
+						}
+						return record(key, codec, Flux.defer(source));
+					});
+		});
+	}
+
+	private <T> Flux<T> record(String key, ChunkCodec<T> codec, Flux<T> source) {
+
+		List<String> chunks = new ArrayList<>();
+		return source
+				.doOnNext(chunk -> chunks.add(codec.encode(chunk)))
+				.doOnComplete(() -> {
+					if (chunks.isEmpty()) {
+						return;
+					}
+					List<String> result = List.copyOf(chunks);
+					memory.put(key, result);
+					BlockingUtils.fromRunnable(() -> writeDisk(key, result))
+							.subscribe(null, e -> logger.warn("Write analysis result {} failed: {}", key, e.getMessage()));
+				});
+	}
+
+	private static <T> Flux<T> replay(List<String> chunks, ChunkCodec<T> codec) {
+		return Flux.fromIterable(chunks).map(codec::decode);
+	}
+
+	Optional<List<String>> readDisk(String key) throws IOException {
+
+		Path path = path(key);
+		FileTime written;
+		try {
+			written = Files.getLastModifiedTime(path);
+		}
+		catch (NoSuchFileException e) {
+			return Optional.empty();
+		}
+
+		if (written.toInstant().isBefore(clock.instant().minus(properties.getTtl()))) {
+			delete(path);
+			return Optional.empty();
+		}
+
+		try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+			if (in.readInt() != FORMAT_VERSION) {
+				delete(path);
+				return Optional.empty();
+			}
+			int count = in.readInt();
+			List<String> chunks = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				chunks.add(new String(in.readNBytes(in.readInt()), StandardCharsets.UTF_8));
+			}
+			return Optional.of(List.copyOf(chunks));
+		}
+		catch (EOFException | NoSuchFileException e) {
+			// truncated by a crash or removed by the eviction meanwhile
+			delete(path);
+			return Optional.empty();
+		}
+	}
+
+	void writeDisk(String key, List<String> chunks) {
+
+		Path path = path(key);
+		try {
+			Files.createDirectories(path.getParent());
+			Path temp = Files.createTempFile(path.getParent(), key, ".part");
+			try (OutputStream file = Files.newOutputStream(temp);
+					DataOutputStream out = new DataOutputStream(file)) {
+				out.writeInt(FORMAT_VERSION);
+				out.writeInt(chunks.size());
+				for (String chunk : chunks) {
+					byte[] bytes = chunk.getBytes(StandardCharsets.UTF_8);
+					out.writeInt(bytes.length);
+					out.write(bytes);
+				}
+			}
+			Files.setLastModifiedTime(temp, FileTime.from(clock.instant()));
+
+			long replaced = Files.exists(path) ? sizeOf(path) : 0;
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			diskBytes.addAndGet(sizeOf(path) - replaced);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		if (diskBytes.get() > properties.getDiskSize().toBytes()) {
+			evictDisk();
+		}
+	}
+
+	/**
+	 * Remove the oldest results until the disk tier is back under 90% of its size.
+	 */
+	synchronized void evictDisk() {
+
+		long target = properties.getDiskSize().toBytes() * 9 / 10;
+		List<Path> files;
+		try (Stream<Path> walk = Files.walk(properties.getDirectory())) {
+			files = walk.filter(Files::isRegularFile)
+					.sorted(Comparator.comparing(AnalysisCache::modifiedAt))
+					.toList();
+		}
+		catch (IOException e) {
+			logger.warn("List analysis cache failed: {}", e.getMessage());
+			return;
+		}
+
+		for (Path file : files) {
+			if (diskBytes.get() <= target) {
+				break;
+			}
+			delete(file);
+		}
+	}
+
+	long diskBytes() {
+		return diskBytes.get();
+	}
+
+	private Path path(String key) {
+		return properties.getDirectory().resolve(key.substring(0, 2)).resolve(key);
+	}
+
+	private void delete(Path path) {
+
+		long size = sizeOf(path);
+		try {
+			if (Files.deleteIfExists(path)) {
+				diskBytes.addAndGet(-size);
+			}
+		}
+		catch (IOException e) {
+			logger.warn("Delete analysis result {} failed: {}", path, e.getMessage());
+		}
+	}
+
+	private static int weight(List<String> chunks) {
+
+		long chars = 0;
+		for (String chunk : chunks) {
+			chars += chunk.length();
+		}
+		return (int) Math.min(Integer.MAX_VALUE, chars * 2 + chunks.size() * 40L);
+	}
+
+	private static long sizeOf(Path path) {
+
+		try {
+			return Files.size(path);
+		}
+		catch (IOException e) {
+			return 0;
+		}
+	}
+
+	private static Instant modifiedAt(Path path) {
+
+		try {
+			return Files.getLastModifiedTime(path).toInstant();
+		}
+		catch (IOException e) {
+			return Instant.MIN;
+		}
+	}
+
+	private static void update(MessageDigest digest, String value) {
+
+		byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+		// length prefixed, ("ab", "c") and ("a", "bc") are different keys
+		digest.update(new byte[] {
+				(byte) (bytes.length >>> 24), (byte) (bytes.length >>> 16), (byte) (bytes.length >>> 8), (byte) bytes.length
+		});
+		digest.update(bytes);
+	}
+
+	private static MessageDigest sha256() {
+
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Turns the chunks of a result into strings for the disk tier and back.
+	 */
+	public interface ChunkCodec<T> {
+
+		String encode(T chunk);
+
+		T decode(String encoded);
+
+	}
+
+}
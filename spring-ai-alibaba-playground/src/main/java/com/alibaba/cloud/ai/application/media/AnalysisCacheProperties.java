@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.media;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Sizes and lifetime of the cached multimodal analysis results.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@ConfigurationProperties(AnalysisCacheProperties.PREFIX)
+public class AnalysisCacheProperties {
+
+	public static final String PREFIX = "spring.ai.alibaba.playground.analysis.cache";
+
+	private boolean enabled = true;
+
+	/**
+	 * Total size of the results kept in memory.
+	 */
+	private DataSize memorySize = DataSize.ofMegabytes(32);
+
+	/**
+	 * Directory of the disk tier, kept across restarts.
+	 */
+	private Path directory = Path.of(System.getProperty("user.dir"), "tmp", "analysis-cache");
+
+	/**
+	 * Total size of the disk tier, the oldest results are removed first.
+	 */
+	private DataSize diskSize = DataSize.ofMegabytes(256);
+
+	/**
+	 * How long a result is served after it was produced.
+	 */
+	private Duration ttl = Duration.ofHours(24);
+
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public DataSize getMemorySize() {
+		return this.memorySize;
+	}
+
+	public void setMemorySize(DataSize memorySize) {
+		this.memorySize = memorySize;
+	}
+
+	public Path getDirectory() {
+		return this.directory;
+	}
+
+	public void setDirectory(Path directory) {
+		this.directory = directory;
+	}
+
+	public DataSize getDiskSize() {
+		return this.diskSize;
+	}
+
+	public void setDiskSize(DataSize diskSize) {
+		this.diskSize = diskSize;
+	}
+
+	public Duration getTtl() {
+		return this.ttl;
+	}
+
+	public void setTtl(Duration ttl) {
+		this.ttl = ttl;
+	}
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.media;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Split 16 bit mono PCM into segments that can be transcribed independently.
+ * <p>
+ * A frame energy voice activity detector finds the pauses, segments are cut in the middle of the
+ * pause closest to the target length and never grow past the maximum length, a segment without a
+ * usable pause is cut hard. Every segment is padded with {@code overlap} audio on both sides so a
+ * word on the boundary is heard completely by at least one segment, {@link TranscriptStitcher}
+ * removes the text transcribed twice. Segments without any speech are dropped.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+public final class AudioSegmenter {
+
+	static final int FRAME_MILLIS = 30;
+
+	/**
+	 * Frames below -50 dBFS are never speech.
+	 */
+	private static final double ABSOLUTE_FLOOR = Math.pow(32768 * Math.pow(10, -50 / 20.0), 2);
+
+	/**
+	 * Speech is at least 10 dB above the noise floor...
+	 */
+	private static final double NOISE_RATIO = 10;
+
+	/**
+	 * ...or within 10 dB of the loudest frame when the recording has no quiet part.
+	 */
+	private static final double PEAK_RATIO = 0.1;
+
+	private final int sampleRate;
+
+	private final int frameSamples;
+
+	private final int targetSamples;
+
+	private final int maxSamples;
+
+	private final int minSilenceFrames;
+
+	private final int overlapSamples;
+
+	public AudioSegmenter(int sampleRate, Duration target, Duration max, Duration minSilence, Duration overlap) {
+
+		if (target.compareTo(max) > 0 || overlap.multipliedBy(2).compareTo(target) >= 0) {
+			throw new IllegalArgumentException("Segment target must not exceed the maximum and be longer than twice the overlap");
+		}
+		this.sampleRate = sampleRate;
+		this.frameSamples = sampleRate * FRAME_MILLIS / 1000;
+		this.targetSamples = samples(target);
+		this.maxSamples = samples(max);
+		this.minSilenceFrames = (int) Math.max(1, minSilence.toMillis() / FRAME_MILLIS);
+		this.overlapSamples = samples(overlap);
+	}
+
+	public List<Segment> split(short[] samples) {
+
+		boolean[] speech = detectSpeech(samples);
+		int[] pauses = pauseMiddles(speech);
+
+		List<Segment> segments = new ArrayList<>();
+		int start = 0;
+		while (start < samples.length) {
+			int end = samples.length - start > maxSamples ? cut(start, pauses) : samples.length;
+			int from = Math.max(0, start - overlapSamples);
+			int to = Math.min(samples.length, end + overlapSamples);
+			if (hasSpeech(speech, start, end)) {
+				segments.add(new Segment(segments.size(), from, to, millis(from), millis(to)));
+			}
+			start = end;
+		}
+
+		return segments;
+	}
+
+	/**
+	 * The pause closest to the target length, or the maximum length when there is none.
+	 */
+	private int cut(int start, int[] pauses) {
+
+		int target = start + targetSamples;
+		int best = -1;
+		for (int pause : pauses) {
+			if (pause <= start + 2 * overlapSamples) {
+				continue;
+			}
+			if (pause > start + maxSamples) {
+				break;
+			}
+			if (best < 0 || Math.abs(pause - target) < Math.abs(best - target)) {
+				best = pause;
+			}
+		}
+
+		return best < 0 ? start + maxSamples : best;
+	}
+
+	boolean[] detectSpeech(short[] samples) {
+
+		int frames = (samples.length + frameSamples - 1) / frameSamples;
+		double[] energies = new double[frames];
+		for (int frame = 0; frame < frames; frame++) {
+			int from = frame * frameSamples;
+			int to = Math.min(samples.length, from + frameSamples);
+			double sum = 0;
+			for (int i = from; i < to; i++) {
+				sum += (double) samples[i] * samples[i];
+			}
+			energies[frame] = sum / Math.max(1, to - from);
+		}
+
+		double[] sorted = energies.clone();
+		Arrays.sort(sorted);
+		double noise = frames == 0 ? 0 : sorted[frames / 10];
+		double peak = frames == 0 ? 0 : sorted[frames - 1];
+		double threshold = Math.max(ABSOLUTE_FLOOR, Math.min(noise * NOISE_RATIO, peak * PEAK_RATIO));
+
+		boolean[] speech = new boolean[frames];
+		for (int frame = 0; frame < frames; frame++) {
+			speech[frame] = energies[frame] > threshold;
+		}
+		return speech;
+	}
+
+	/**
+	 * Sample offsets of the middle of every pause of at least {@code minSilence}, in ascending order.
+	 */
+	private int[] pauseMiddles(boolean[] speech) {
+
+		List<Integer> middles = new ArrayList<>();
+		int runStart = -1;
+		for (int frame = 0; frame <= speech.length; frame++) {
+			boolean silent = frame < speech.length && !speech[frame];
+			if (silent && runStart < 0) {
+				runStart = frame;
+			}
+			else if (!silent && runStart >= 0) {
+				if (frame - runStart >= minSilenceFrames) {
+					middles.add((runStart + frame) / 2 * frameSamples);
+				}
+				runStart = -1;
+			}
+		}
+
+		return middles.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	private boolean hasSpeech(boolean[] speech, int from, int to) {
+
+		for (int frame = from / frameSamples; frame < speech.length && frame * frameSamples < to; frame++) {
+			if (speech[frame]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int samples(Duration duration) {
+		return (int) (duration.toMillis() * sampleRate / 1000);
+	}
+
+	private long millis(int samples) {
+		return samples * 1000L / sampleRate;
+	}
+
+	/**
+	 * @param index position of the segment in the recording.
+	 * @param fromSample first sample, overlap included.
+	 * @param toSample end sample exclusive, overlap included.
+	 */
+	public record Segment(int index, int fromSample, int toSample, long startMillis, long endMillis) {
+	}
+
+}
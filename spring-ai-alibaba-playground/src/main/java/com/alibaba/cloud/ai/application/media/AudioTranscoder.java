@@ -0,0 +1,255 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.media;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bytedeco.ffmpeg.global.avcodec;
+import org.bytedeco.ffmpeg.global.avutil;
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.FFmpegFrameRecorder;
+import org.bytedeco.javacv.Frame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Transcode uploaded audio of any format FFmpeg knows to the canonical speech format,
+ * 16 kHz mono, as raw 16 bit PCM or as Ogg Opus.
+ * <p>
+ * Input and output are streams, nothing is written to disk. A bounded gate lets at most
+ * {@code max-concurrent} transcodings run at once, requests beyond it wait instead of starting more
+ * native decoders. This is not a pool of native resources: the demuxer, decoder, resampler and encoder
+ * contexts are bound to one input or output stream and are created and freed per request. Only the
+ * Java sample buffers are handed from one request to the next.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@Component
+public class AudioTranscoder {
+
+	private static final Logger logger = LoggerFactory.getLogger(AudioTranscoder.class);
+
+	public static final int SAMPLE_RATE = 16000;
+
+	/**
+	 * Buffers grown past ten minutes of audio are not kept for the next request.
+	 */
+	private static final int RETAINED_SAMPLES = SAMPLE_RATE * 600;
+
+	private static final int OPUS_BITRATE = 24000;
+
+	private final BlockingQueue<SampleBuffers> idleBuffers;
+
+	private final Semaphore gate;
+
+	private final AtomicInteger created = new AtomicInteger();
+
+	public AudioTranscoder(@Value("${spring.ai.alibaba.playground.audio.transcoder.max-concurrent:0}") int maxConcurrent) {
+
+		int size = maxConcurrent > 0 ? maxConcurrent : Runtime.getRuntime().availableProcessors();
+		this.idleBuffers = new ArrayBlockingQueue<>(size);
+		this.gate = new Semaphore(size, true);
+	}
+
+	/**
+	 * Decode the stream to 16 kHz mono samples, the stream is not closed.
+	 */
+	public short[] toPcm(InputStream audio) throws IOException {
+
+		SampleBuffers buffers = acquire();
+		try {
+			return buffers.decode(audio);
+		}
+		finally {
+			release(buffers);
+		}
+	}
+
+	/**
+	 * Transcode the stream to the target format while reading it, neither stream is closed.
+	 */
+	public void transcode(InputStream audio, OutputStream out, Format format) throws IOException {
+
+		SampleBuffers buffers = acquire();
+		try {
+			if (format == Format.OGG_OPUS) {
+				buffers.encodeOpus(audio, out);
+			}
+			else {
+				buffers.writePcm(audio, out);
+			}
+		}
+		finally {
+			release(buffers);
+		}
+	}
+
+	/**
+	 * Sample buffers created so far, never more than the transcodings allowed at once.
+	 */
+	int created() {
+		return created.get();
+	}
+
+	private SampleBuffers acquire() throws IOException {
+
+		try {
+			gate.acquire();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for an audio transcoder");
+		}
+
+		SampleBuffers buffers = idleBuffers.poll();
+		if (buffers == null) {
+			buffers = new SampleBuffers();
+			logger.debug("Created audio transcoder sample buffers {}", created.incrementAndGet());
+		}
+		return buffers;
+	}
+
+	private void release(SampleBuffers buffers) {
+
+		idleBuffers.offer(buffers);
+		gate.release();
+	}
+
+	public enum Format {
+
+		/**
+		 * Signed 16 bit little endian samples without header, the input of the realtime models.
+		 */
+		PCM_S16LE,
+
+		/**
+		 * Opus in an Ogg container, about a tenth of the size of PCM for speech.
+		 */
+		OGG_OPUS
+
+	}
+
+	/**
+	 * Sample buffers of one transcoding, reused by the next one. The FFmpeg contexts are not kept.
+	 */
+	private static final class SampleBuffers {
+
+		private short[] samples = new short[SAMPLE_RATE * 60];
+
+		private byte[] bytes = new byte[8192];
+
+		short[] decode(InputStream audio) throws IOException {
+
+			int[] length = {0};
+			grab(audio, buffer -> {
+				int remaining = buffer.remaining();
+				if (length[0] + remaining > samples.length) {
+					samples = Arrays.copyOf(samples, Math.max(samples.length * 2, length[0] + remaining));
+				}
+				buffer.get(samples, length[0], remaining);
+				length[0] += remaining;
+			});
+
+			short[] result = Arrays.copyOf(samples, length[0]);
+			if (samples.length > RETAINED_SAMPLES) {
+				samples = new short[SAMPLE_RATE * 60];
+			}
+			return result;
+		}
+
+		void writePcm(InputStream audio, OutputStream out) throws IOException {
+
+			grab(audio, buffer -> {
+				int remaining = buffer.remaining();
+				if (bytes.length < remaining * 2) {
+					bytes = new byte[remaining * 2];
+				}
+				for (int i = 0; i < remaining; i++) {
+					short sample = buffer.get();
+					bytes[2 * i] = (byte) sample;
+					bytes[2 * i + 1] = (byte) (sample >> 8);
+				}
+				out.write(bytes, 0, remaining * 2);
+			});
+		}
+
+		void encodeOpus(InputStream audio, OutputStream out) throws IOException {
+
+			try (FFmpegFrameRecorder recorder = new FFmpegFrameRecorder(out, 1)) {
+				recorder.setFormat("ogg");
+				recorder.setAudioCodec(avcodec.AV_CODEC_ID_OPUS);
+				recorder.setSampleRate(SAMPLE_RATE);
+				recorder.setAudioBitrate(OPUS_BITRATE);
+				// speech tuned, and allows the native encoder when FFmpeg is built without libopus
+				recorder.setAudioOption("application", "voip");
+				recorder.setAudioOption("strict", "experimental");
+				recorder.start();
+
+				grab(audio, buffer -> recorder.recordSamples(SAMPLE_RATE, 1, buffer));
+
+				recorder.stop();
+			}
+		}
+
+		/**
+		 * Decode the stream and pass the samples of every audio frame, resampled to 16 kHz mono.
+		 * The buffer belongs to the grabber and is only valid during the call.
+		 */
+		private static void grab(InputStream audio, SampleConsumer consumer) throws IOException {
+
+			try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(audio)) {
+				grabber.setSampleRate(SAMPLE_RATE);
+				grabber.setAudioChannels(1);
+				grabber.setSampleFormat(avutil.AV_SAMPLE_FMT_S16);
+				grabber.start();
+
+				Frame frame;
+				while ((frame = grabber.grabSamples()) != null) {
+					if (frame.samples != null) {
+						consumer.accept(((ShortBuffer) frame.samples[0]).duplicate());
+					}
+				}
+
+				grabber.stop();
+			}
+		}
+
+	}
+
+	@FunctionalInterface
+	private interface SampleConsumer {
+
+		void accept(ShortBuffer samples) throws IOException;
+
+	}
+
+}
@@ -0,0 +1,444 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.media;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import com.alibaba.cloud.ai.application.exception.SAAAppException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Content addressable store for uploaded files, shared by the services instead of their own temp files.
+ * <p>
+ * An upload is streamed to disk once and hashed on the fly, the SHA-256 of the content is its key,
+ * so the same file uploaded twice is stored once. Every {@link Blob} handed out holds a reference
+ * that is released when it is closed; blobs without references are removed a TTL after their last
+ * access. Work derived from a blob, such as keyframes, parsed text or a transcription, can be cached
+ * on it with {@link Blob#derived} and lives as long as the blob does. Other caches keyed by the
+ * content can register an eviction listener.
+ * <p>
+ * Only the {@code blobs} and {@code incoming} subdirectories of the root belong to the store. Blobs
+ * stored by a previous run are indexed again on startup and expire a TTL after they were written,
+ * uploads interrupted by a shutdown are removed from {@code incoming}.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@Component
+@EnableConfigurationProperties(ContentStoreProperties.class)
+public class ContentStore implements DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(ContentStore.class);
+
+	private static final Pattern BLOB_KEY = Pattern.compile("[0-9a-f]{64}");
+
+	private final ContentStoreProperties properties;
+
+	private final Clock clock;
+
+	private final Path blobs;
+
+	private final Path incoming;
+
+	private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+	private final List<Consumer<String>> evictionListeners = new CopyOnWriteArrayList<>();
+
+	private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "content-store-sweeper");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	@Autowired
+	public ContentStore(ContentStoreProperties properties) throws IOException {
+		this(properties, Clock.systemUTC());
+	}
+
+	ContentStore(ContentStoreProperties properties, Clock clock) throws IOException {
+
+		this.properties = properties;
+		this.clock = clock;
+		this.blobs = properties.getRoot().resolve("blobs");
+		this.incoming = properties.getRoot().resolve("incoming");
+
+		Files.createDirectories(blobs);
+		Files.createDirectories(incoming);
+		deleteIncoming();
+		int restored = restore();
+		logger.info("Init content store: {}, {} blobs restored", properties.getRoot().toAbsolutePath(), restored);
+
+		long interval = properties.getSweepInterval().toMillis();
+		sweeper.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	public Blob put(MultipartFile file) throws IOException {
+
+		if (file == null || file.isEmpty()) {
+			throw new SAAAppException("File is null or empty");
+		}
+
+		try (InputStream in = file.getInputStream()) {
+			return put(in, file.getContentType(), file.getOriginalFilename());
+		}
+	}
+
+	/**
+	 * Store the content of the stream and return a referenced handle on it, the caller closes the stream.
+	 * @param fileName only used for the extension of the stored file, some readers rely on it.
+	 */
+	public Blob put(InputStream in, String contentType, String fileName) throws IOException {
+
+		Path temp = Files.createTempFile(incoming, "upload-", ".part");
+		MessageDigest digest = sha256();
+		long size;
+		try {
+			size = Files.copy(new DigestInputStream(in, digest), temp, StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (IOException | RuntimeException e) {
+			deleteQuietly(temp);
+			throw e;
+		}
+
+		String key = HexFormat.of().formatHex(digest.digest());
+		String extension = StringUtils.getFilenameExtension(fileName);
+		Path path = blobs.resolve(key.substring(0, 2)).resolve(extension == null ? key : key + "." + extension);
+		try {
+			Entry entry = entries.compute(key, (k, existing) -> {
+				if (existing != null) {
+					logger.debug("Upload {} is already stored", k);
+					deleteQuietly(temp);
+					existing.retain(clock.instant());
+					return existing;
+				}
+
+				try {
+					Files.createDirectories(path.getParent());
+					Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+				}
+				catch (IOException e) {
+					deleteQuietly(temp);
+					throw new UncheckedIOException(e);
+				}
+
+				Entry created = new Entry(k, path, size, contentType);
+				created.retain(clock.instant());
+				return created;
+			});
+			return new Blob(entry);
+		}
+		catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * A referenced handle on a stored blob, empty when it is unknown or already evicted.
+	 */
+	public Optional<Blob> acquire(String key) {
+
+		Entry entry = entries.computeIfPresent(key, (k, existing) -> {
+			existing.retain(clock.instant());
+			return existing;
+		});
+
+		return Optional.ofNullable(entry).map(Blob::new);
+	}
+
+	/**
+	 * Called with the key of every evicted blob, for caches keyed by content outside of the store.
+	 */
+	public void addEvictionListener(Consumer<String> listener) {
+		evictionListeners.add(listener);
+	}
+
+	/**
+	 * Remove the blobs without references that were not accessed within the TTL.
+	 * @return the number of evicted blobs.
+	 */
+	int sweep() {
+
+		Instant expiredBefore = clock.instant().minus(properties.getTtl());
+		List<String> evicted = new ArrayList<>();
+		for (String key : entries.keySet()) {
+			entries.computeIfPresent(key, (k, entry) -> {
+				if (entry.references.get() > 0 || entry.lastAccess.isAfter(expiredBefore)) {
+					return entry;
+				}
+
+				deleteQuietly(entry.path);
+				evicted.add(k);
+				return null;
+			});
+		}
+
+		for (String key : evicted) {
+			logger.debug("Evicted upload {}", key);
+			for (Consumer<String> listener : evictionListeners) {
+				try {
+					listener.accept(key);
+				}
+				catch (RuntimeException e) {
+					logger.error("Content store eviction listener failed for {}", key, e);
+				}
+			}
+		}
+
+		return evicted.size();
+	}
+
+	int size() {
+		return entries.size();
+	}
+
+	@Override
+	public void destroy() {
+
+		sweeper.shutdownNow();
+	}
+
+	/**
+	 * Uploads still being copied when the previous run stopped.
+	 */
+	private void deleteIncoming() throws IOException {
+
+		try (Stream<Path> files = Files.list(incoming)) {
+			files.filter(Files::isRegularFile).forEach(ContentStore::deleteQuietly);
+		}
+	}
+
+	/**
+	 * Index the blobs of a previous run, nothing references them and they expire a TTL after they were written.
+	 */
+	private int restore() throws IOException {
+
+		List<Path> files;
+		try (Stream<Path> walk = Files.walk(blobs, 2)) {
+			files = walk.filter(Files::isRegularFile).toList();
+		}
+
+		int restored = 0;
+		for (Path path : files) {
+			String fileName = path.getFileName().toString();
+			int dot = fileName.indexOf('.');
+			String key = dot < 0 ? fileName : fileName.substring(0, dot);
+			if (!BLOB_KEY.matcher(key).matches() || !path.getParent().getFileName().toString().equals(key.substring(0, 2))) {
+				continue;
+			}
+
+			Entry entry = new Entry(key, path, Files.size(path), Files.probeContentType(path));
+			entry.lastAccess = Files.getLastModifiedTime(path).toInstant();
+			if (entries.putIfAbsent(key, entry) == null) {
+				restored++;
+			}
+		}
+		return restored;
+	}
+
+	private void release(Entry entry) {
+
+		entries.computeIfPresent(entry.key, (k, existing) -> {
+			existing.references.decrementAndGet();
+			existing.lastAccess = clock.instant();
+			return existing;
+		});
+	}
+
+	private static MessageDigest sha256() {
+
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void deleteQuietly(Path path) {
+
+		try {
+			Files.deleteIfExists(path);
+		}
+		catch (IOException e) {
+			logger.warn("Delete {} failed: {}", path, e.getMessage());
+		}
+	}
+
+	/**
+	 * Computes an artifact from the content of a blob.
+	 */
+	@FunctionalInterface
+	public interface Loader<T> {
+
+		T load(Blob blob) throws IOException;
+
+	}
+
+	/**
+	 * A reference on a stored upload, close it once the content and its path are no longer used.
+	 */
+	public final class Blob implements AutoCloseable {
+
+		private final Entry entry;
+
+		private final AtomicBoolean closed = new AtomicBoolean();
+
+		private Blob(Entry entry) {
+			this.entry = entry;
+		}
+
+		/**
+		 * The hex encoded SHA-256 of the content.
+		 */
+		public String key() {
+			return entry.key;
+		}
+
+		public Path path() {
+			return entry.path;
+		}
+
+		public long size() {
+			return entry.size;
+		}
+
+		/**
+		 * The content type declared by the first upload of this content.
+		 */
+		public String contentType() {
+			return entry.contentType;
+		}
+
+		public InputStream openStream() throws IOException {
+			return Files.newInputStream(entry.path);
+		}
+
+		/**
+		 * Returns the artifact cached under the name, loading it once when it is missing.
+		 * Concurrent callers wait for the same load, a failed load is not cached.
+		 */
+		@SuppressWarnings("unchecked")
+		public <T> T derived(String name, Loader<T> loader) throws IOException {
+
+			CompletableFuture<Object> loading = new CompletableFuture<>();
+			CompletableFuture<Object> existing = entry.derived.putIfAbsent(name, loading);
+			if (existing == null) {
+				try {
+					T value = loader.load(this);
+					loading.complete(value);
+					return value;
+				}
+				catch (IOException | RuntimeException e) {
+					entry.derived.remove(name, loading);
+					loading.completeExceptionally(e);
+					throw e;
+				}
+			}
+
+			try {
+				return (T) existing.join();
+			}
+			catch (CompletionException e) {
+				if (e.getCause() instanceof IOException ioException) {
+					throw ioException;
+				}
+				if (e.getCause() instanceof RuntimeException runtimeException) {
+					throw runtimeException;
+				}
+				throw e;
+			}
+		}
+
+		@Override
+		public void close() {
+
+			if (closed.compareAndSet(false, true)) {
+				release(entry);
+			}
+		}
+
+	}
+
+	private static final class Entry {
+
+		private final String key;
+
+		private final Path path;
+
+		private final long size;
+
+		private final String contentType;
+
+		private final AtomicInteger references = new AtomicInteger();
+
+		private final ConcurrentHashMap<String, CompletableFuture<Object>> derived = new ConcurrentHashMap<>();
+
+		private volatile Instant lastAccess;
+
+		private Entry(String key, Path path, long size, String contentType) {
+
+			this.key = key;
+			this.path = path;
+			this.size = size;
+			this.contentType = contentType;
+		}
+
+		private void retain(Instant now) {
+
+			references.incrementAndGet();
+			lastAccess = now;
+		}
+
+	}
+
+}
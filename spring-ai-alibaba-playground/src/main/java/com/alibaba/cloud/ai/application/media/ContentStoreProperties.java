@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.media;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Where uploads are kept and for how long.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@ConfigurationProperties(ContentStoreProperties.PREFIX)
+public class ContentStoreProperties {
+
+	public static final String PREFIX = "spring.ai.alibaba.playground.upload.store";
+
+	/**
+	 * Directory of the store, only its blobs and incoming subdirectories are written, stored blobs
+	 * are kept across restarts.
+	 */
+	private Path root = Path.of(System.getProperty("user.dir"), "tmp", "store");
+
+	/**
+	 * How long an unreferenced blob and its derived artifacts are kept after the last access.
+	 */
+	private Duration ttl = Duration.ofMinutes(30);
+
+	private Duration sweepInterval = Duration.ofMinutes(1);
+
+	public Path getRoot() {
+		return this.root;
+	}
+
+	public void setRoot(Path root) {
+		this.root = root;
+	}
+
+	public Duration getTtl() {
+		return this.ttl;
+	}
+
+	public void setTtl(Duration ttl) {
+		this.ttl = ttl;
+	}
+
+	public Duration getSweepInterval() {
+		return this.sweepInterval;
+	}
+
+	public void setSweepInterval(Duration sweepInterval) {
+		this.sweepInterval = sweepInterval;
+	}
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.media;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * How uploaded images are prepared before they are sent to a vision model.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@ConfigurationProperties(ImageNormalizationProperties.PREFIX)
+public class ImageNormalizationProperties {
+
+	public static final String PREFIX = "spring.ai.alibaba.playground.image.normalization";
+
+	private boolean enabled = true;
+
+	/**
+	 * Longest edge in pixels of the image sent to a model without an override.
+	 */
+	private int maxEdge = 1280;
+
+	/**
+	 * Longest edge overrides by model name.
+	 */
+	private Map<String, Integer> models = new HashMap<>();
+
+	/**
+	 * JPEG quality between 0 and 1, images with transparency are sent as PNG.
+	 */
+	private float quality = 0.85f;
+
+	/**
+	 * Total size of the normalized images kept in memory.
+	 */
+	private DataSize cacheSize = DataSize.ofMegabytes(64);
+
+	private Duration cacheTtl = Duration.ofMinutes(30);
+
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getMaxEdge() {
+		return this.maxEdge;
+	}
+
+	public void setMaxEdge(int maxEdge) {
+		this.maxEdge = maxEdge;
+	}
+
+	public Map<String, Integer> getModels() {
+		return this.models;
+	}
+
+	public void setModels(Map<String, Integer> models) {
+		this.models = models;
+	}
+
+	public float getQuality() {
+		return this.quality;
+	}
+
+	public void setQuality(float quality) {
+		this.quality = quality;
+	}
+
+	public DataSize getCacheSize() {
+		return this.cacheSize;
+	}
+
+	public void setCacheSize(DataSize cacheSize) {
+		this.cacheSize = cacheSize;
+	}
+
+	public Duration getCacheTtl() {
+		return this.cacheTtl;
+	}
+
+	public void setCacheTtl(Duration cacheTtl) {
+		this.cacheTtl = cacheTtl;
+	}
+
+	public int maxEdgeOf(String model) {
+		return model == null ? maxEdge : models.getOrDefault(model, maxEdge);
+	}
+
+}
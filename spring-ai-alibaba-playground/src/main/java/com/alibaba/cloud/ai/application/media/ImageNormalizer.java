@@ -0,0 +1,324 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.media;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutionException;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Prepare an uploaded image for a vision model: decode it once, apply the EXIF orientation,
+ * downscale it to the longest edge the model needs and encode it again without any metadata.
+ * <p>
+ * Opaque images are sent as JPEG, images with transparency as PNG. The results are cached by
+ * the SHA-256 of the upload and the target edge, so retries and repeated questions about the
+ * same picture skip the work. Images the JDK can not decode are passed through unchanged.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@Component
+@EnableConfigurationProperties(ImageNormalizationProperties.class)
+public class ImageNormalizer {
+
+	private static final Logger logger = LoggerFactory.getLogger(ImageNormalizer.class);
+
+	private static final int EXIF_ORIENTATION_TAG = 0x0112;
+
+	private final ImageNormalizationProperties properties;
+
+	private final Cache<String, NormalizedImage> cache;
+
+	public ImageNormalizer(ImageNormalizationProperties properties) {
+
+		this.properties = properties;
+		this.cache = CacheBuilder.newBuilder()
+				.maximumWeight(properties.getCacheSize().toBytes())
+				.<String, NormalizedImage>weigher((key, image) -> image.content().length)
+				.expireAfterAccess(properties.getCacheTtl())
+				.build();
+	}
+
+	/**
+	 * @param content the uploaded bytes.
+	 * @param contentType the declared type, used when the image is passed through.
+	 * @param model the model the image is sent to, selects the longest edge.
+	 */
+	public NormalizedImage normalize(byte[] content, String contentType, String model) throws IOException {
+
+		if (!properties.isEnabled()) {
+			return passThrough(content, contentType);
+		}
+
+		int maxEdge = properties.maxEdgeOf(model);
+		String key = sha256(content) + ":" + maxEdge;
+		try {
+			return cache.get(key, () -> {
+				NormalizedImage image = encode(content, contentType, maxEdge);
+				logger.debug("Normalized image {}: {} -> {} bytes, {}x{}", key, content.length,
+						image.content().length, image.width(), image.height());
+				return image;
+			});
+		}
+		catch (ExecutionException | UncheckedExecutionException e) {
+			if (e.getCause() instanceof IOException ioException) {
+				throw ioException;
+			}
+			throw new IOException("Normalize image failed", e.getCause());
+		}
+	}
+
+	private NormalizedImage encode(byte[] content, String contentType, int maxEdge) throws IOException {
+
+		BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(content));
+		if (decoded == null) {
+			logger.debug("No decoder for image of type {}, send it unchanged", contentType);
+			return passThrough(content, contentType);
+		}
+
+		boolean alpha = decoded.getColorModel().hasAlpha();
+		int width = decoded.getWidth();
+		int height = decoded.getHeight();
+		double scale = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+		int targetWidth = Math.max(1, (int) Math.round(width * scale));
+		int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+		BufferedImage image = resize(decoded, targetWidth, targetHeight, alpha);
+		image = orient(image, orientation(content));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		MimeType mimeType;
+		if (alpha) {
+			ImageIO.write(image, "png", out);
+			mimeType = MimeTypeUtils.IMAGE_PNG;
+		}
+		else {
+			writeJpeg(image, out, properties.getQuality());
+			mimeType = MimeTypeUtils.IMAGE_JPEG;
+		}
+
+		return new NormalizedImage(out.toByteArray(), mimeType, image.getWidth(), image.getHeight(), content.length);
+	}
+
+	/**
+	 * Halve the image until it is close to the target, then draw the last step bicubic. A single
+	 * bicubic step over a large factor skips most source pixels and aliases.
+	 */
+	static BufferedImage resize(BufferedImage source, int targetWidth, int targetHeight, boolean alpha) {
+
+		int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+		BufferedImage current = source;
+		int width = source.getWidth();
+		int height = source.getHeight();
+
+		// always draw at least once, the decoded image may be in a color model the encoders reject
+		do {
+			width = Math.max(targetWidth, width / 2);
+			height = Math.max(targetHeight, height / 2);
+
+			BufferedImage next = new BufferedImage(width, height, type);
+			Graphics2D graphics = next.createGraphics();
+			graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+			graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+			graphics.drawImage(current, 0, 0, width, height, null);
+			graphics.dispose();
+			current = next;
+		}
+		while (width != targetWidth || height != targetHeight);
+
+		return current;
+	}
+
+	/**
+	 * Rotate or mirror the image the way the EXIF orientation asks viewers to, the tag itself is
+	 * not written back.
+	 */
+	static BufferedImage orient(BufferedImage image, int orientation) {
+
+		if (orientation < 2 || orientation > 8) {
+			return image;
+		}
+
+		int w = image.getWidth();
+		int h = image.getHeight();
+		AffineTransform transform = switch (orientation) {
+			case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);
+			case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);
+			case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);
+			case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+			case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);
+			case 7 -> new AffineTransform(0, -1, -1, 0, h, w);
+			default -> new AffineTransform(0, -1, 1, 0, 0, w);
+		};
+
+		boolean swap = orientation >= 5;
+		BufferedImage oriented = new BufferedImage(swap ? h : w, swap ? w : h, image.getType());
+		Graphics2D graphics = oriented.createGraphics();
+		graphics.drawImage(image, transform, null);
+		graphics.dispose();
+
+		return oriented;
+	}
+
+	/**
+	 * Orientation tag of the EXIF block of a JPEG, 1 when there is none.
+	 */
+	static int orientation(byte[] data) {
+
+		if (data.length < 4 || (data[0] & 0xFF) != 0xFF || (data[1] & 0xFF) != 0xD8) {
+			return 1;
+		}
+
+		int offset = 2;
+		while (offset + 4 <= data.length && (data[offset] & 0xFF) == 0xFF) {
+			int marker = data[offset + 1] & 0xFF;
+			if (marker == 0xDA || marker == 0xD9) {
+				// start of scan, the metadata segments are all before it
+				return 1;
+			}
+
+			int length = unsigned16(data, offset + 2, true);
+			int segment = offset + 4;
+			if (marker == 0xE1 && segment + 6 <= data.length
+					&& data[segment] == 'E' && data[segment + 1] == 'x' && data[segment + 2] == 'i'
+					&& data[segment + 3] == 'f' && data[segment + 4] == 0 && data[segment + 5] == 0) {
+				return tiffOrientation(data, segment + 6, Math.min(data.length, offset + 2 + length));
+			}
+			offset += 2 + length;
+		}
+
+		return 1;
+	}
+
+	private static int tiffOrientation(byte[] data, int tiff, int end) {
+
+		if (tiff + 8 > end) {
+			return 1;
+		}
+
+		boolean bigEndian = data[tiff] == 'M' && data[tiff + 1] == 'M';
+		long ifd = tiff + unsigned32(data, tiff + 4, bigEndian);
+		if (ifd + 2 > end) {
+			return 1;
+		}
+
+		int entries = unsigned16(data, (int) ifd, bigEndian);
+		for (int i = 0; i < entries; i++) {
+			int entry = (int) ifd + 2 + i * 12;
+			if (entry + 12 > end) {
+				break;
+			}
+			if (unsigned16(data, entry, bigEndian) == EXIF_ORIENTATION_TAG) {
+				int value = unsigned16(data, entry + 8, bigEndian);
+				return value >= 1 && value <= 8 ? value : 1;
+			}
+		}
+
+		return 1;
+	}
+
+	private static int unsigned16(byte[] data, int offset, boolean bigEndian) {
+
+		int first = data[offset] & 0xFF;
+		int second = data[offset + 1] & 0xFF;
+		return bigEndian ? first << 8 | second : second << 8 | first;
+	}
+
+	private static long unsigned32(byte[] data, int offset, boolean bigEndian) {
+
+		long first = unsigned16(data, offset, bigEndian);
+		long second = unsigned16(data, offset + 2, bigEndian);
+		return bigEndian ? first << 16 | second : second << 16 | first;
+	}
+
+	private static void writeJpeg(BufferedImage image, ByteArrayOutputStream out, float quality) throws IOException {
+
+		ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+		ImageWriteParam param = writer.getDefaultWriteParam();
+		param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+		param.setCompressionQuality(quality);
+
+		try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+			writer.setOutput(stream);
+			// no metadata: the EXIF block, GPS position included, is dropped
+			writer.write(null, new IIOImage(image, null, null), param);
+		}
+		finally {
+			writer.dispose();
+		}
+	}
+
+	private static NormalizedImage passThrough(byte[] content, String contentType) {
+
+		MimeType mimeType = MimeTypeUtils.IMAGE_PNG;
+		if (contentType != null) {
+			try {
+				mimeType = MimeTypeUtils.parseMimeType(contentType);
+			}
+			catch (InvalidMimeTypeException e) {
+				logger.debug("Invalid image content type: {}", contentType);
+			}
+		}
+		return new NormalizedImage(content, mimeType, -1, -1, content.length);
+	}
+
+	private static String sha256(byte[] content) {
+
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * @param width -1 when the image was passed through.
+	 * @param originalSize size of the upload in bytes.
+	 */
+	public record NormalizedImage(byte[] content, MimeType mimeType, int width, int height, int originalSize) {
+	}
+
+}
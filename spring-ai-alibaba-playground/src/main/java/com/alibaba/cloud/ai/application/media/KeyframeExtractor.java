@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.media;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.Java2DFrameConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pick the informative frames of a video in one sequential decode pass.
+ * <p>
+ * Frames are analyzed at most {@code analysisFps} times per second by a {@link SceneChangeDetector},
+ * every keyframe is encoded to JPEG in memory right away. The number of keyframes follows the
+ * content: a static video yields one frame, a video with many cuts up to {@code maxFrames}, the
+ * weakest scene changes are dropped first.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@Component
+public class KeyframeExtractor {
+
+	private static final Logger logger = LoggerFactory.getLogger(KeyframeExtractor.class);
+
+	private final int maxFrames;
+
+	private final double threshold;
+
+	private final long minIntervalMicros;
+
+	private final long maxGapMicros;
+
+	private final long analysisIntervalMicros;
+
+	public KeyframeExtractor(
+			@Value("${spring.ai.alibaba.playground.video.keyframes.max-frames:10}") int maxFrames,
+			@Value("${spring.ai.alibaba.playground.video.keyframes.threshold:0.3}") double threshold,
+			@Value("${spring.ai.alibaba.playground.video.keyframes.min-interval:1s}") Duration minInterval,
+			@Value("${spring.ai.alibaba.playground.video.keyframes.max-gap:30s}") Duration maxGap,
+			@Value("${spring.ai.alibaba.playground.video.keyframes.analysis-fps:4}") int analysisFps
+	) {
+
+		if (maxFrames < 1 || analysisFps < 1) {
+			throw new IllegalArgumentException("max-frames and analysis-fps must be positive");
+		}
+		this.maxFrames = maxFrames;
+		this.threshold = threshold;
+		this.minIntervalMicros = minInterval.toNanos() / 1000;
+		this.maxGapMicros = maxGap.toNanos() / 1000;
+		this.analysisIntervalMicros = 1_000_000L / analysisFps;
+	}
+
+	/**
+	 * Decode the video from the stream and return its keyframes in presentation order.
+	 * The stream is not closed.
+	 */
+	public List<Keyframe> extract(InputStream video) throws IOException {
+
+		try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(video)) {
+			return extract(grabber);
+		}
+	}
+
+	/**
+	 * Decode the video file and return its keyframes in presentation order. FFmpeg reads the file
+	 * itself and can seek in it, containers with their index at the end need no buffering.
+	 */
+	public List<Keyframe> extract(Path video) throws IOException {
+
+		try (FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(video.toFile())) {
+			return extract(grabber);
+		}
+	}
+
+	private List<Keyframe> extract(FFmpegFrameGrabber grabber) throws IOException {
+
+		SceneChangeDetector detector = new SceneChangeDetector(threshold, minIntervalMicros, maxGapMicros);
+		Java2DFrameConverter converter = new Java2DFrameConverter();
+		List<Keyframe> keyframes = new ArrayList<>();
+
+		int decoded = 0;
+		grabber.start();
+
+		long nextAnalysis = 0;
+		Frame frame;
+		while ((frame = grabber.grabImage()) != null) {
+			decoded++;
+			long timestamp = grabber.getTimestamp();
+			if (timestamp < nextAnalysis) {
+				continue;
+			}
+			nextAnalysis = timestamp + analysisIntervalMicros;
+
+			// the converter reuses its image, encode before grabbing the next frame
+			BufferedImage image = converter.convert(frame);
+			double score = detector.offer(image, timestamp);
+			if (score < 0) {
+				continue;
+			}
+
+			keyframes.add(new Keyframe(timestamp, score, toJpeg(image)));
+			if (keyframes.size() > maxFrames) {
+				dropWeakest(keyframes);
+			}
+		}
+
+		grabber.stop();
+
+		logger.debug("Extracted {} keyframes from {} decoded frames", keyframes.size(), decoded);
+		return keyframes;
+	}
+
+	/**
+	 * The opening frame is always kept, it gives the model the context of the video.
+	 */
+	private static void dropWeakest(List<Keyframe> keyframes) {
+
+		keyframes.subList(1, keyframes.size()).stream()
+				.min(Comparator.comparingDouble(Keyframe::score))
+				.ifPresent(keyframes::remove);
+	}
+
+	static byte[] toJpeg(BufferedImage image) throws IOException {
+
+		BufferedImage rgb = image;
+		if (image.getType() != BufferedImage.TYPE_3BYTE_BGR && image.getType() != BufferedImage.TYPE_INT_RGB) {
+			rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+			Graphics2D graphics = rgb.createGraphics();
+			graphics.drawImage(image, 0, 0, null);
+			graphics.dispose();
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		if (!ImageIO.write(rgb, "jpg", out)) {
+			throw new IOException("No JPEG writer available");
+		}
+
+		return out.toByteArray();
+	}
+
+	/**
+	 * @param timestampMicros presentation time of the frame.
+	 * @param score distance to the previous keyframe, 1 for the first frame.
+	 * @param jpeg the encoded frame.
+	 */
+	public record Keyframe(long timestampMicros, double score, byte[] jpeg) {
+	}
+
+}
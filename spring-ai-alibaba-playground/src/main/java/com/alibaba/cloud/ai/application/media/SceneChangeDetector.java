@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.media;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Decide whether a decoded frame starts a new scene.
+ * <p>
+ * Every frame is reduced to a 64 bin RGB histogram sampled on a coarse grid, and compared with
+ * the histogram of the last keyframe, so both hard cuts and slow drifts are caught. A frame is a
+ * keyframe when the distance reaches the threshold, or when nothing was picked for {@code maxGap}.
+ * Not thread safe, one detector per video.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+public class SceneChangeDetector {
+
+	private static final int GRID_WIDTH = 64;
+
+	private static final int GRID_HEIGHT = 36;
+
+	/**
+	 * Top two bits of each channel.
+	 */
+	private static final int BINS = 64;
+
+	private final double threshold;
+
+	private final long minIntervalMicros;
+
+	private final long maxGapMicros;
+
+	private float[] keyframeHistogram;
+
+	private long keyframeMicros;
+
+	/**
+	 * @param threshold histogram distance in [0, 1] above which the frame is a new scene.
+	 * @param minIntervalMicros frames closer to the last keyframe are never picked, flashes are ignored.
+	 * @param maxGapMicros pick a frame after this long without a scene change, 0 to disable.
+	 */
+	public SceneChangeDetector(double threshold, long minIntervalMicros, long maxGapMicros) {
+
+		this.threshold = threshold;
+		this.minIntervalMicros = minIntervalMicros;
+		this.maxGapMicros = maxGapMicros;
+	}
+
+	/**
+	 * @return the distance to the previous keyframe when this frame is a keyframe, 1 for the first
+	 * frame, a negative value otherwise.
+	 */
+	public double offer(BufferedImage image, long timestampMicros) {
+
+		float[] histogram = histogram(image);
+		if (keyframeHistogram == null) {
+			keep(histogram, timestampMicros);
+			return 1.0;
+		}
+
+		long sinceKeyframe = timestampMicros - keyframeMicros;
+		if (sinceKeyframe < minIntervalMicros) {
+			return -1;
+		}
+
+		double distance = distance(keyframeHistogram, histogram);
+		if (distance >= threshold || (maxGapMicros > 0 && sinceKeyframe >= maxGapMicros)) {
+			keep(histogram, timestampMicros);
+			return distance;
+		}
+
+		return -1;
+	}
+
+	private void keep(float[] histogram, long timestampMicros) {
+
+		this.keyframeHistogram = histogram;
+		this.keyframeMicros = timestampMicros;
+	}
+
+	static float[] histogram(BufferedImage image) {
+
+		int width = image.getWidth();
+		int height = image.getHeight();
+		int columns = Math.min(GRID_WIDTH, width);
+		int rows = Math.min(GRID_HEIGHT, height);
+
+		float[] histogram = new float[BINS];
+		for (int row = 0; row < rows; row++) {
+			int y = row * height / rows;
+			for (int column = 0; column < columns; column++) {
+				int rgb = image.getRGB(column * width / columns, y);
+				int bin = ((rgb >> 22) & 0x3) << 4 | ((rgb >> 14) & 0x3) << 2 | ((rgb >> 6) & 0x3);
+				histogram[bin]++;
+			}
+		}
+
+		float samples = columns * rows;
+		for (int i = 0; i < BINS; i++) {
+			histogram[i] /= samples;
+		}
+
+		return histogram;
+	}
+
+	/**
+	 * Half of the L1 distance, 0 for identical histograms and 1 for disjoint ones.
+	 */
+	static double distance(float[] a, float[] b) {
+
+		double sum = 0;
+		for (int i = 0; i < a.length; i++) {
+			sum += Math.abs(a[i] - b[i]);
+		}
+
+		return sum / 2;
+	}
+
+}
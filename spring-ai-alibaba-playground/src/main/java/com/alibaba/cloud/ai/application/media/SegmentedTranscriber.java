@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.media;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+import com.alibaba.cloud.ai.application.utils.BlockingUtils;
+import com.alibaba.cloud.ai.dashscope.audio.DashScopeAudioTranscriptionOptions;
+import com.alibaba.cloud.ai.dashscope.audio.transcription.AudioTranscriptionModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.ai.audio.transcription.AudioTranscriptionPrompt;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Transcribe long recordings as concurrent segments instead of one job.
+ * <p>
+ * The audio is transcoded to 16 kHz mono PCM by the {@link AudioTranscoder}, split at pauses by an
+ * {@link AudioSegmenter} and the segments are sent to the realtime model at most {@code concurrency}
+ * at a time. Transcripts are
+ * emitted in recording order as soon as every earlier segment is done, each one stitched to the
+ * previous so the concatenation of all chunks is the full transcript.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@Component
+public class SegmentedTranscriber {
+
+	private static final Logger logger = LoggerFactory.getLogger(SegmentedTranscriber.class);
+
+	static final int SAMPLE_RATE = AudioTranscoder.SAMPLE_RATE;
+
+	/**
+	 * Longest duplicate searched between two segments, a little more than the text of one overlap.
+	 */
+	private static final int MAX_OVERLAP_CHARS = 32;
+
+	private final AudioTranscoder transcoder;
+
+	private final String model;
+
+	private final SegmentTranscriber transcriber;
+
+	private final AudioSegmenter segmenter;
+
+	private final TranscriptStitcher stitcher = new TranscriptStitcher(MAX_OVERLAP_CHARS);
+
+	private final int concurrency;
+
+	@Autowired
+	public SegmentedTranscriber(
+			AudioTranscriptionModel transcriptionModel,
+			AudioTranscoder transcoder,
+			@Value("${spring.ai.alibaba.playground.audio.transcription.model:paraformer-realtime-v2}") String model,
+			@Value("${spring.ai.alibaba.playground.audio.transcription.concurrency:4}") int concurrency,
+			@Value("${spring.ai.alibaba.playground.audio.transcription.segment:30s}") Duration segment,
+			@Value("${spring.ai.alibaba.playground.audio.transcription.max-segment:60s}") Duration maxSegment,
+			@Value("${spring.ai.alibaba.playground.audio.transcription.min-silence:400ms}") Duration minSilence,
+			@Value("${spring.ai.alibaba.playground.audio.transcription.overlap:500ms}") Duration overlap
+	) {
+
+		this(transcoder, model, dashScope(transcriptionModel, model),
+				new AudioSegmenter(SAMPLE_RATE, segment, maxSegment, minSilence, overlap), concurrency);
+	}
+
+	SegmentedTranscriber(AudioTranscoder transcoder, String model, SegmentTranscriber transcriber,
+			AudioSegmenter segmenter, int concurrency) {
+
+		if (concurrency < 1) {
+			throw new IllegalArgumentException("concurrency must be positive");
+		}
+		this.transcoder = transcoder;
+		this.model = model;
+		this.transcriber = transcriber;
+		this.segmenter = segmenter;
+		this.concurrency = concurrency;
+	}
+
+	public String getModel() {
+		return model;
+	}
+
+	/**
+	 * Decode and transcribe the audio of the stream, the stream is not closed.
+	 */
+	public Flux<TranscriptChunk> transcribe(InputStream audio) {
+		return BlockingUtils.fromCallable(() -> transcoder.toPcm(audio)).flatMapMany(this::transcribe);
+	}
+
+	Flux<TranscriptChunk> transcribe(short[] samples) {
+
+		return Flux.defer(() -> {
+			StringBuilder transcript = new StringBuilder();
+			return Flux.fromIterable(segmenter.split(samples))
+					.flatMapSequential(segment -> transcriber.transcribe(pcm(samples, segment))
+							.defaultIfEmpty("")
+							.map(text -> new TranscriptChunk(segment.index(), segment.startMillis(),
+									segment.endMillis(), text)), concurrency)
+					.map(chunk -> {
+						String text = stitcher.stitch(transcript.toString(), chunk.text());
+						transcript.append(text);
+						logger.debug("Transcribed segment {} [{} ms, {} ms]", chunk.index(), chunk.startMillis(),
+								chunk.endMillis());
+						return new TranscriptChunk(chunk.index(), chunk.startMillis(), chunk.endMillis(), text);
+					});
+		});
+	}
+
+	/**
+	 * Little endian PCM of the segment, the format of the realtime models.
+	 */
+	static byte[] pcm(short[] samples, AudioSegmenter.Segment segment) {
+
+		ByteBuffer buffer = ByteBuffer.allocate((segment.toSample() - segment.fromSample()) * 2)
+				.order(ByteOrder.LITTLE_ENDIAN);
+		buffer.asShortBuffer().put(samples, segment.fromSample(), segment.toSample() - segment.fromSample());
+		return buffer.array();
+	}
+
+	private static SegmentTranscriber dashScope(AudioTranscriptionModel transcriptionModel, String model) {
+
+		return pcm -> transcriptionModel.stream(
+						new AudioTranscriptionPrompt(
+								new ByteArrayResource(pcm),
+								DashScopeAudioTranscriptionOptions.builder()
+										.withModel(model)
+										.withSampleRate(SAMPLE_RATE)
+										.withFormat(DashScopeAudioTranscriptionOptions.AudioFormat.PCM)
+										.withDisfluencyRemovalEnabled(false)
+										.build()
+						))
+				.map(response -> response.getResult().getOutput())
+				.collect(Collectors.joining());
+	}
+
+	/**
+	 * Transcribes one segment of 16 kHz mono little endian PCM.
+	 */
+	@FunctionalInterface
+	interface SegmentTranscriber {
+
+		Mono<String> transcribe(byte[] pcm);
+
+	}
+
+	/**
+	 * @param index position of the segment in the recording.
+	 * @param startMillis start of the segment audio, overlap included.
+	 * @param endMillis end of the segment audio, overlap included.
+	 * @param text transcript of the segment without the part already emitted by the previous chunk.
+	 */
+	public record TranscriptChunk(int index, long startMillis, long endMillis, String text) {
+	}
+
+}
@@ -50,6 +50,14 @@ public class WebSearchRetriever implements DocumentRetriever {
 
 	private final IQSSearchEngine searchEngine;
 
+	/**
+	 * Answer without web results when the search is unavailable, instead of failing the whole chat.
+	 */
+	private static final Document SEARCH_UNAVAILABLE = new Document(
+			"Web search is temporarily unavailable. Answer the query with your own knowledge, "
+					+ "and tell the user that the answer is not based on the latest web results."
+	);
+
 	private WebSearchRetriever(Builder builder) {
 
 		this.searchEngine = builder.searchEngine;
@@ -69,6 +77,9 @@ public class WebSearchRetriever implements DocumentRetriever {
 			searchResp = searchEngine.search(query.text());
 		} catch (JsonProcessingException e) {
 			throw new SAAAppException("json process error" + e.getMessage());
+		} catch (RuntimeException e) {
+			logger.warn("Web search failed, answer without web results: {}", e.getMessage());
+			return List.of(SEARCH_UNAVAILABLE);
 		}
 
 		// 清洗数据
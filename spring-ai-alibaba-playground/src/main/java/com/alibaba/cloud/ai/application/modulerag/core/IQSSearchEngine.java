@@ -19,7 +19,10 @@ package com.alibaba.cloud.ai.application.modulerag.core;
 
 import com.alibaba.cloud.ai.application.entity.IQSSearchResponse;
 import com.alibaba.cloud.ai.application.exception.SAAAppException;
+import com.alibaba.cloud.ai.application.http.OutboundHttpClientFactory;
 import com.alibaba.cloud.ai.application.modulerag.IQSSearchProperties;
+import com.alibaba.cloud.ai.application.resilience.DependencyGuard;
+import com.alibaba.cloud.ai.application.resilience.ResilienceRegistry;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -54,25 +57,33 @@ public class IQSSearchEngine {
 
 	private final IQSSearchProperties iqsSearchProperties;
 
+	private final DependencyGuard guard;
+
 	private static final String TIME_RANGE = "OneWeek";
 
 	private static final String BASE_URL = "https://cloud-iqs.aliyuncs.com/";
 
 	public IQSSearchEngine(
 			ObjectMapper objectMapper,
-			RestClient.Builder restClientBuilder,
+			OutboundHttpClientFactory outboundHttpClientFactory,
 			IQSSearchProperties iqsSearchProperties,
-			ResponseErrorHandler responseErrorHandler
+			ResponseErrorHandler responseErrorHandler,
+			ResilienceRegistry resilienceRegistry
 	) {
 
 		this.objectMapper = new ObjectMapper();
 		this.iqsSearchProperties = iqsSearchProperties;
-		this.restClient = restClientBuilder.baseUrl(BASE_URL)
+		this.guard = resilienceRegistry.guard("iqs");
+		this.restClient = outboundHttpClientFactory.restClientBuilder("iqs").baseUrl(BASE_URL)
 				.defaultHeaders(getHeaders())
 				.defaultStatusHandler(responseErrorHandler)
 				.build();
 	}
 
+	/**
+	 * @throws com.alibaba.cloud.ai.application.resilience.DependencyUnavailableException when the search
+	 * circuit is open or too many searches are running.
+	 */
 	public IQSSearchResponse search(String query) throws JsonProcessingException {
 
 		Map<String, Boolean> reqDataContents = new HashMap<>();
@@ -88,17 +99,19 @@ public class IQSSearchEngine {
 		String jsonReqData = objectMapper.writeValueAsString(reqData);
 
 		// String encodeQ = URLEncoder.encode(query, StandardCharsets.UTF_8);
-		ResponseEntity<IQSSearchResponse> response = this.restClient.post()
-				.uri(
-						"/search/unified?query={query}&timeRange={timeRange}",
-						query,
-						TIME_RANGE
-				).contentType(MediaType.APPLICATION_JSON)
-				.body(jsonReqData)
-				.retrieve()
-				.toEntity(IQSSearchResponse.class);
-
-		return genericSearchResult(response);
+		return guard.execute(() -> {
+			ResponseEntity<IQSSearchResponse> response = this.restClient.post()
+					.uri(
+							"/search/unified?query={query}&timeRange={timeRange}",
+							query,
+							TIME_RANGE
+					).contentType(MediaType.APPLICATION_JSON)
+					.body(jsonReqData)
+					.retrieve()
+					.toEntity(IQSSearchResponse.class);
+
+			return genericSearchResult(response);
+		});
 	}
 
 	private IQSSearchResponse genericSearchResult(ResponseEntity<IQSSearchResponse> response) {
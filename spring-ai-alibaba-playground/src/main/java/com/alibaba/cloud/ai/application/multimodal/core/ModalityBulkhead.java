@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.multimodal.core;
+
+import com.alibaba.cloud.ai.application.resilience.DependencyUnavailableException;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * 按权重限流的模态舱壁
+ * 每个模态拥有独立的许可与等待队列，任务按预估耗时占用许可，队列按 FIFO 顺序放行，
+ * 避免重任务饿死轻任务；队列已满时直接拒绝
+ */
+public class ModalityBulkhead {
+
+    private final String name;
+    private final int permits;
+    private final int maxQueue;
+
+    private final Deque<Waiter> queue = new ArrayDeque<>();
+    private int available;
+
+    public ModalityBulkhead(String name, int permits, int maxQueue) {
+        if (permits < 1 || maxQueue < 0) {
+            throw new IllegalArgumentException("Invalid bulkhead " + name + ": permits=" + permits + ", maxQueue=" + maxQueue);
+        }
+        this.name = name;
+        this.permits = permits;
+        this.maxQueue = maxQueue;
+        this.available = permits;
+    }
+
+    /**
+     * 在舱壁内执行任务，任务在获得许可后才被订阅，结束或取消时归还许可
+     * @param weight 任务权重，限制在 [1, permits] 之间
+     * @param work 任务
+     * @return 任务结果
+     */
+    public <T> Mono<T> submit(int weight, Mono<T> work) {
+        int cost = Math.max(1, Math.min(weight, permits));
+
+        return Mono.create(sink -> {
+            Disposable.Swap running = Disposables.swap();
+            Waiter waiter = new Waiter(cost, () -> running.update(
+                    work.doFinally(signal -> release(cost))
+                            .subscribe(sink::success, sink::error, sink::success)));
+
+            // 排队中被取消只需出队，已经开始的任务通过 running 取消并归还许可
+            sink.onDispose(() -> {
+                if (!dequeue(waiter)) {
+                    running.dispose();
+                }
+            });
+
+            Admission admission = admit(waiter);
+            if (admission == Admission.REJECTED) {
+                sink.error(new DependencyUnavailableException(name, "bulkhead-full"));
+            } else if (admission == Admission.STARTED) {
+                waiter.start.run();
+            }
+        });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    public synchronized int getAvailablePermits() {
+        return available;
+    }
+
+    public synchronized int getQueueSize() {
+        return queue.size();
+    }
+
+    private synchronized Admission admit(Waiter waiter) {
+        if (queue.isEmpty() && available >= waiter.cost) {
+            available -= waiter.cost;
+            return Admission.STARTED;
+        }
+        if (queue.size() >= maxQueue) {
+            return Admission.REJECTED;
+        }
+        queue.addLast(waiter);
+        return Admission.QUEUED;
+    }
+
+    private synchronized boolean dequeue(Waiter waiter) {
+        return queue.remove(waiter);
+    }
+
+    private void release(int cost) {
+        List<Waiter> ready = new ArrayList<>();
+        synchronized (this) {
+            available += cost;
+            while (!queue.isEmpty() && available >= queue.peekFirst().cost) {
+                Waiter next = queue.pollFirst();
+                available -= next.cost;
+                ready.add(next);
+            }
+        }
+        ready.forEach(waiter -> waiter.start.run());
+    }
+
+    private enum Admission {
+        STARTED, QUEUED, REJECTED
+    }
+
+    private static final class Waiter {
+
+        private final int cost;
+        private final Runnable start;
+
+        private Waiter(int cost, Runnable start) {
+            this.cost = cost;
+            this.start = start;
+        }
+    }
+}
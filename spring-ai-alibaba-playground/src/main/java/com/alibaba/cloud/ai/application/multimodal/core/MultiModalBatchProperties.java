@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.multimodal.core;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 批量多模态处理配置
+ * 每个模态独立配置许可数、等待队列长度与单个任务超时
+ */
+@ConfigurationProperties(MultiModalBatchProperties.PREFIX)
+public class MultiModalBatchProperties {
+
+    public static final String PREFIX = "spring.ai.alibaba.playground.multimodal.batch";
+
+    /**
+     * 一个许可对应的预估处理时间，任务按 estimateProcessingTime / weightUnit 占用许可
+     */
+    private Duration weightUnit = Duration.ofSeconds(5);
+
+    /**
+     * 未单独配置的模态使用的舱壁
+     */
+    private Bulkhead defaults = new Bulkhead();
+
+    private Map<ModalityType, Bulkhead> modalities = new EnumMap<>(ModalityType.class);
+
+    public Duration getWeightUnit() {
+        return weightUnit;
+    }
+
+    public void setWeightUnit(Duration weightUnit) {
+        this.weightUnit = weightUnit;
+    }
+
+    public Bulkhead getDefaults() {
+        return defaults;
+    }
+
+    public void setDefaults(Bulkhead defaults) {
+        this.defaults = defaults;
+    }
+
+    public Map<ModalityType, Bulkhead> getModalities() {
+        return modalities;
+    }
+
+    public void setModalities(Map<ModalityType, Bulkhead> modalities) {
+        this.modalities = modalities;
+    }
+
+    public Bulkhead forModality(ModalityType modality) {
+        return modalities.getOrDefault(modality, defaults);
+    }
+
+    public static class Bulkhead {
+
+        /**
+         * 同时占用的许可数上限，一个任务至少占用一个许可
+         */
+        private int permits = 8;
+
+        /**
+         * 等待许可的任务数上限，超出后直接返回失败
+         */
+        private int maxQueue = 64;
+
+        /**
+         * 单个任务的处理超时，从获得许可开始计算
+         */
+        private Duration timeout = Duration.ofMinutes(5);
+
+        public int getPermits() {
+            return permits;
+        }
+
+        public void setPermits(int permits) {
+            this.permits = permits;
+        }
+
+        public int getMaxQueue() {
+            return maxQueue;
+        }
+
+        public void setMaxQueue(int maxQueue) {
+            this.maxQueue = maxQueue;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+}
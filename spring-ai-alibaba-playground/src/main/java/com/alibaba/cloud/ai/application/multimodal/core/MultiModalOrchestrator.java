@@ -19,33 +19,49 @@ package com.alibaba.cloud.ai.application.multimodal.core;
 
 import com.alibaba.cloud.ai.application.multimodal.model.MultiModalRequest;
 import com.alibaba.cloud.ai.application.multimodal.model.MultiModalResponse;
+import com.alibaba.cloud.ai.application.resilience.DependencyUnavailableException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 多模态处理编排器
  * 负责协调和管理所有多模态处理器，提供统一的处理入口
  */
 @Component
+@EnableConfigurationProperties(MultiModalBatchProperties.class)
 public class MultiModalOrchestrator {
 
     private static final Logger logger = LoggerFactory.getLogger(MultiModalOrchestrator.class);
     
     private final List<MultiModalProcessor<?, ?>> processors;
     private final Duration defaultTimeout = Duration.ofMinutes(5);
+    private final MultiModalBatchProperties batchProperties;
+    private final Map<ModalityType, ModalityBulkhead> bulkheads = new EnumMap<>(ModalityType.class);
 
-    public MultiModalOrchestrator(List<MultiModalProcessor<?, ?>> processors) {
+    public MultiModalOrchestrator(List<MultiModalProcessor<?, ?>> processors,
+                                  MultiModalBatchProperties batchProperties) {
         this.processors = processors;
+        this.batchProperties = batchProperties;
         // 按优先级排序处理器
         this.processors.sort(Comparator.comparingInt(MultiModalProcessor::getPriority));
+        // 每个模态一个独立的舱壁，批量中的视频任务不会占用图像任务的许可
+        for (ModalityType modality : ModalityType.values()) {
+            MultiModalBatchProperties.Bulkhead config = batchProperties.forModality(modality);
+            bulkheads.put(modality, new ModalityBulkhead("multimodal-" + modality.getCode(),
+                    config.getPermits(), config.getMaxQueue()));
+        }
         logger.info("Initialized MultiModalOrchestrator with {} processors", processors.size());
     }
 
@@ -54,8 +70,12 @@ public class MultiModalOrchestrator {
      * @param request 多模态请求
      * @return 处理结果
      */
-    @SuppressWarnings("unchecked")
     public Mono<MultiModalResponse> process(MultiModalRequest request) {
+        return process(request, defaultTimeout);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<MultiModalResponse> process(MultiModalRequest request, Duration timeout) {
         logger.debug("Processing multimodal request: {}", request);
         
         return findProcessor(request)
@@ -74,7 +94,7 @@ public class MultiModalOrchestrator {
                                            request.getRequestId(), finalResponse.getProcessingTimeMs());
                                 return finalResponse;
                             })
-                            .timeout(defaultTimeout)
+                            .timeout(timeout)
                             .onErrorResume(throwable -> {
                                 logger.error("Error processing request: {}", request.getRequestId(), throwable);
                                 String errorMessage = throwable instanceof Throwable ? 
@@ -127,31 +147,82 @@ public class MultiModalOrchestrator {
 
     /**
      * 批量处理多模态请求
+     * 请求按处理器的模态分组，每组在各自的舱壁内按预估耗时占用许可执行，超时从获得许可开始计算；
+     * 结果按完成顺序返回，元数据 batchIndex 为请求在批次中的位置，batchCompleted 为已完成数量
      * @param requests 多模态请求流
      * @return 批量处理结果流
      */
     public Flux<MultiModalResponse> processBatch(Flux<MultiModalRequest> requests) {
+        AtomicInteger completed = new AtomicInteger();
+
         return requests
-                .flatMap(this::process)
-                .onErrorContinue((throwable, obj) -> {
-                    logger.error("Error in batch processing", throwable);
+                .index()
+                .groupBy(indexed -> bulkheadModality(indexed.getT2()))
+                .flatMap(group -> {
+                    ModalityBulkhead bulkhead = bulkheads.get(group.key());
+                    // 每个批次最多只让许可数个任务进入舱壁，其余留在批次中，不占用共享队列
+                    return group.flatMap(indexed -> processInBulkhead(indexed.getT2(), group.key())
+                            .map(response -> {
+                                int done = completed.incrementAndGet();
+                                response.addMetadata("batchIndex", indexed.getT1());
+                                response.addMetadata("batchCompleted", done);
+                                logger.debug("Batch progress: {} completed, last request {} ({})",
+                                           done, indexed.getT2().getRequestId(), group.key());
+                                return response;
+                            }), bulkhead.getPermits());
+                }, ModalityType.values().length)
+                .doOnComplete(() -> logger.info("Batch processing finished, {} requests", completed.get()));
+    }
+
+    /**
+     * 在模态舱壁内处理请求
+     */
+    @SuppressWarnings("unchecked")
+    private Mono<MultiModalResponse> processInBulkhead(MultiModalRequest request, ModalityType modality) {
+        ModalityBulkhead bulkhead = bulkheads.get(modality);
+        Duration timeout = batchProperties.forModality(modality).getTimeout();
+
+        long estimate = findProcessorSync(request)
+                .map(processor -> ((MultiModalProcessor<MultiModalRequest, MultiModalResponse>) processor)
+                        .estimateProcessingTime(request))
+                .orElse(0L);
+        long unit = Math.max(1, batchProperties.getWeightUnit().toMillis());
+        int weight = (int) Math.min(Integer.MAX_VALUE, (estimate + unit - 1) / unit);
+
+        return bulkhead.submit(weight, Mono.defer(() -> process(request, timeout)))
+                .onErrorResume(DependencyUnavailableException.class, e -> {
+                    logger.warn("Reject batch request {}: too many pending {} requests", request.getRequestId(), modality);
+                    return Mono.just(MultiModalResponse.error(request.getRequestId(),
+                            "Too many pending " + modality.getCode() + " requests, please retry later"));
                 });
     }
 
+    /**
+     * 批量处理时请求所属的舱壁，按处理器支持的模态划分，例如文本生成图像属于图像舱壁
+     */
+    private ModalityType bulkheadModality(MultiModalRequest request) {
+        return findProcessorSync(request)
+                .map(MultiModalProcessor::getSupportedModality)
+                .orElse(ModalityType.MULTIMODAL);
+    }
+
     /**
      * 查找合适的处理器
      * @param request 多模态请求
      * @return 匹配的处理器
      */
     private Mono<MultiModalProcessor<?, ?>> findProcessor(MultiModalRequest request) {
-        return Mono.fromCallable(() -> 
-                processors.stream()
-                        .filter(processor -> processor.supports(request))
-                        .findFirst()
-        ).flatMap(optionalProcessor -> 
-                optionalProcessor.map(Mono::just)
-                               .orElse(Mono.empty())
-        );
+        return Mono.fromCallable(() -> findProcessorSync(request))
+                .flatMap(optionalProcessor -> 
+                        optionalProcessor.map(Mono::just)
+                                       .orElse(Mono.empty())
+                );
+    }
+
+    private Optional<MultiModalProcessor<?, ?>> findProcessorSync(MultiModalRequest request) {
+        return processors.stream()
+                .filter(processor -> processor.supports(request))
+                .findFirst();
     }
 
     /**
@@ -75,6 +75,15 @@ public interface MultiModalProcessor<T extends MultiModalRequest, R extends Mult
         return 0;
     }
 
+    /**
+     * 预估处理耗时，批量处理时用于计算任务占用的许可数
+     * @param request 多模态请求
+     * @return 预估耗时（毫秒）
+     */
+    default long estimateProcessingTime(T request) {
+        return 5000;
+    }
+
     /**
      * 预处理请求，用于参数验证和标准化
      * @param request 原始请求
@@ -178,6 +178,10 @@ public class MultiModalRequest {
         return hasFiles() ? files.get(0) : null;
     }
 
+    public long getTotalFileSize() {
+        return hasFiles() ? files.stream().mapToLong(MultipartFile::getSize).sum() : 0;
+    }
+
     @Override
     public String toString() {
         return "MultiModalRequest{" +
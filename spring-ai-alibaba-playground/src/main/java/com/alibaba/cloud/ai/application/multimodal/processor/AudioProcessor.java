@@ -17,11 +17,15 @@
 
 package com.alibaba.cloud.ai.application.multimodal.processor;
 
+import com.alibaba.cloud.ai.application.media.AnalysisCache;
+import com.alibaba.cloud.ai.application.media.ContentStore;
+import com.alibaba.cloud.ai.application.media.SegmentedTranscriber;
 import com.alibaba.cloud.ai.application.multimodal.core.ModalityType;
 import com.alibaba.cloud.ai.application.multimodal.core.MultiModalProcessor;
 import com.alibaba.cloud.ai.application.multimodal.model.MultiModalRequest;
 import com.alibaba.cloud.ai.application.multimodal.model.MultiModalResponse;
 import com.alibaba.cloud.ai.application.service.SAAAudioService;
+import com.alibaba.cloud.ai.application.utils.BlockingUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -29,6 +33,8 @@ import org.springframework.web.multipart.MultipartFile;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.stream.Collectors;
+
 /**
  * 音频处理器
  * 处理音频到文本和文本到音频的转换
@@ -40,8 +46,37 @@ public class AudioProcessor implements MultiModalProcessor<MultiModalRequest, Mu
     
     private final SAAAudioService audioService;
 
-    public AudioProcessor(SAAAudioService audioService) {
+    /**
+     * 缓存中的转写片段格式：序号:开始毫秒:结束毫秒:文本
+     */
+    private static final AnalysisCache.ChunkCodec<SegmentedTranscriber.TranscriptChunk> TRANSCRIPT_CHUNK =
+            new AnalysisCache.ChunkCodec<>() {
+
+                @Override
+                public String encode(SegmentedTranscriber.TranscriptChunk chunk) {
+                    return chunk.index() + ":" + chunk.startMillis() + ":" + chunk.endMillis() + ":" + chunk.text();
+                }
+
+                @Override
+                public SegmentedTranscriber.TranscriptChunk decode(String encoded) {
+                    String[] parts = encoded.split(":", 4);
+                    return new SegmentedTranscriber.TranscriptChunk(Integer.parseInt(parts[0]),
+                            Long.parseLong(parts[1]), Long.parseLong(parts[2]), parts[3]);
+                }
+            };
+
+    private final SegmentedTranscriber segmentedTranscriber;
+
+    private final ContentStore contentStore;
+
+    private final AnalysisCache analysisCache;
+
+    public AudioProcessor(SAAAudioService audioService, SegmentedTranscriber segmentedTranscriber,
+                          ContentStore contentStore, AnalysisCache analysisCache) {
         this.audioService = audioService;
+        this.segmentedTranscriber = segmentedTranscriber;
+        this.contentStore = contentStore;
+        this.analysisCache = analysisCache;
     }
 
     @Override
@@ -71,7 +106,11 @@ public class AudioProcessor implements MultiModalProcessor<MultiModalRequest, Mu
 
     @Override
     public Flux<MultiModalResponse> processStream(MultiModalRequest request) {
-        // 音频处理通常不支持流式，直接调用同步方法
+        if (request.getInputModality() == ModalityType.AUDIO && request.getOutputModality() == ModalityType.TEXT) {
+            return processAudioToTextStream(request);
+        }
+
+        // 文本到音频，直接调用同步方法
         return process(request).flux();
     }
 
@@ -80,6 +119,17 @@ public class AudioProcessor implements MultiModalProcessor<MultiModalRequest, Mu
         return 20;
     }
 
+    @Override
+    public long estimateProcessingTime(MultiModalRequest request) {
+        if (request.getInputModality() == ModalityType.AUDIO) {
+            // 音频转文本，最少2秒，大概每10KB需要1ms
+            return Math.max(2000, request.getTotalFileSize() / 10000);
+        }
+        // 文本转音频，最少3秒，每字符50ms
+        String prompt = request.getPrompt();
+        return Math.max(3000, prompt == null ? 0 : prompt.length() * 50L);
+    }
+
     @Override
     public MultiModalRequest preProcess(MultiModalRequest request) {
         // 验证音频文件
@@ -133,41 +183,90 @@ public class AudioProcessor implements MultiModalProcessor<MultiModalRequest, Mu
 
     /**
      * 处理音频到文本转换
+     * 音频按静音切分为片段并发转写，再按顺序拼接
      */
     private Mono<MultiModalResponse> processAudioToText(MultiModalRequest request) {
-        return Mono.fromCallable(() -> {
-            try {
-                MultipartFile audioFile = request.getFirstFile();
-                
-                logger.debug("Processing audio to text: requestId={}, fileName={}", 
-                           request.getRequestId(), audioFile.getOriginalFilename());
-                
-                // 使用现有的音频服务
-                String result = audioService.audio2text(audioFile);
-                
-                MultiModalResponse response = MultiModalResponse.success(
-                        request.getRequestId(), 
-                        ModalityType.TEXT, 
-                        result
-                );
-                response.setConfidence(0.85); // 设置置信度
-                response.addMetadata("audioFormat", getAudioFormat(audioFile));
-                response.addMetadata("audioDuration", estimateAudioDuration(audioFile));
-                
-                return response;
-                
-            } catch (Exception e) {
-                logger.error("Error processing audio to text: requestId={}", request.getRequestId(), e);
-                return MultiModalResponse.error(request.getRequestId(), "Audio transcription failed: " + e.getMessage());
-            }
-        });
+        MultipartFile audioFile = request.getFirstFile();
+
+        logger.debug("Processing audio to text: requestId={}, fileName={}",
+                   request.getRequestId(), audioFile.getOriginalFilename());
+
+        return transcribe(audioFile)
+                .map(SegmentedTranscriber.TranscriptChunk::text)
+                .collect(Collectors.joining())
+                .map(result -> {
+                    MultiModalResponse response = MultiModalResponse.success(
+                            request.getRequestId(),
+                            ModalityType.TEXT,
+                            result
+                    );
+                    response.setConfidence(0.85); // 设置置信度
+                    response.addMetadata("audioFormat", getAudioFormat(audioFile));
+                    response.addMetadata("audioDuration", estimateAudioDuration(audioFile));
+                    return response;
+                })
+                .onErrorResume(e -> {
+                    logger.error("Error processing audio to text: requestId={}", request.getRequestId(), e);
+                    return Mono.just(MultiModalResponse.error(request.getRequestId(), "Audio transcription failed: " + e.getMessage()));
+                });
+    }
+
+    /**
+     * 流式处理音频到文本转换，每个片段转写完成且之前的片段都已输出时返回该片段的文本
+     */
+    private Flux<MultiModalResponse> processAudioToTextStream(MultiModalRequest request) {
+        MultipartFile audioFile = request.getFirstFile();
+
+        logger.debug("Processing audio to text stream: requestId={}, fileName={}",
+                   request.getRequestId(), audioFile.getOriginalFilename());
+
+        return transcribe(audioFile)
+                .map(chunk -> {
+                    MultiModalResponse response = MultiModalResponse.success(
+                            request.getRequestId(),
+                            ModalityType.TEXT,
+                            chunk.text()
+                    );
+                    response.addMetadata("isChunk", true);
+                    response.addMetadata("segmentIndex", chunk.index());
+                    response.addMetadata("startMillis", chunk.startMillis());
+                    response.addMetadata("endMillis", chunk.endMillis());
+                    return response;
+                })
+                .onErrorResume(throwable -> {
+                    logger.error("Error in audio to text stream: requestId={}", request.getRequestId(), throwable);
+                    return Flux.just(MultiModalResponse.error(request.getRequestId(),
+                            "Stream processing failed: " + throwable.getMessage()));
+                });
+    }
+
+    /**
+     * 同一音频的转写结果从缓存中按片段重放，片段的序号和时间与首次转写时一致
+     */
+    private Flux<SegmentedTranscriber.TranscriptChunk> transcribe(MultipartFile audioFile) {
+        return Flux.using(
+                () -> contentStore.put(audioFile),
+                blob -> analysisCache.cached(
+                        AnalysisCache.key("audio", segmentedTranscriber.getModel(), null, blob.key()),
+                        TRANSCRIPT_CHUNK,
+                        () -> Flux.using(
+                                blob::openStream,
+                                segmentedTranscriber::transcribe,
+                                in -> {
+                                    try {
+                                        in.close();
+                                    } catch (Exception e) {
+                                        logger.debug("Close audio stream failed: {}", e.getMessage());
+                                    }
+                                })),
+                ContentStore.Blob::close);
     }
 
     /**
      * 处理文本到音频转换
      */
     private Mono<MultiModalResponse> processTextToAudio(MultiModalRequest request) {
-        return Mono.fromCallable(() -> {
+        return BlockingUtils.fromCallable(() -> {
             try {
                 String prompt = request.getPrompt();
                 if (prompt == null || prompt.trim().isEmpty()) {
@@ -22,6 +22,7 @@ import com.alibaba.cloud.ai.application.multimodal.core.MultiModalProcessor;
 import com.alibaba.cloud.ai.application.multimodal.model.MultiModalRequest;
 import com.alibaba.cloud.ai.application.multimodal.model.MultiModalResponse;
 import com.alibaba.cloud.ai.application.service.SAAImageService;
+import com.alibaba.cloud.ai.application.utils.BlockingUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -29,6 +30,8 @@ import org.springframework.web.multipart.MultipartFile;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.stream.Collectors;
+
 /**
  * 图像处理器
  * 处理图像到文本和文本到图像的转换
@@ -84,6 +87,12 @@ public class ImageProcessor implements MultiModalProcessor<MultiModalRequest, Mu
         return 10;
     }
 
+    @Override
+    public long estimateProcessingTime(MultiModalRequest request) {
+        // 图像识别约3秒，图像生成约8秒
+        return request.getInputModality() == ModalityType.IMAGE ? 3000 : 8000;
+    }
+
     @Override
     public MultiModalRequest preProcess(MultiModalRequest request) {
         // 验证图像文件
@@ -135,36 +144,28 @@ public class ImageProcessor implements MultiModalProcessor<MultiModalRequest, Mu
      * 处理图像到文本转换
      */
     private Mono<MultiModalResponse> processImageToText(MultiModalRequest request) {
-        return Mono.fromCallable(() -> {
-            try {
-                MultipartFile imageFile = request.getFirstFile();
-                String prompt = request.getPrompt();
-                if (prompt == null || prompt.trim().isEmpty()) {
-                    prompt = "请总结图片内容";
-                }
-                
-                logger.debug("Processing image to text: requestId={}, prompt={}", request.getRequestId(), prompt);
-                
-                // 使用现有的图像服务
-                Flux<String> resultFlux = imageService.image2Text(prompt, imageFile);
-                String result = resultFlux.collectList()
-                        .map(strings -> String.join("", strings))
-                        .block();
-                
-                MultiModalResponse response = MultiModalResponse.success(
-                        request.getRequestId(), 
-                        ModalityType.TEXT, 
-                        result
-                );
-                response.setConfidence(0.9); // 设置置信度
-                
-                return response;
-                
-            } catch (Exception e) {
-                logger.error("Error processing image to text: requestId={}", request.getRequestId(), e);
-                return MultiModalResponse.error(request.getRequestId(), "Image processing failed: " + e.getMessage());
-            }
-        });
+        MultipartFile imageFile = request.getFirstFile();
+        String prompt = request.getPrompt() == null || request.getPrompt().trim().isEmpty()
+                ? "请总结图片内容" : request.getPrompt();
+
+        logger.debug("Processing image to text: requestId={}, prompt={}", request.getRequestId(), prompt);
+
+        // 使用现有的图像服务，拼接流式结果，不阻塞调用线程
+        return imageService.image2Text(prompt, imageFile)
+                .collect(Collectors.joining())
+                .map(result -> {
+                    MultiModalResponse response = MultiModalResponse.success(
+                            request.getRequestId(),
+                            ModalityType.TEXT,
+                            result
+                    );
+                    response.setConfidence(0.9); // 设置置信度
+                    return response;
+                })
+                .onErrorResume(e -> {
+                    logger.error("Error processing image to text: requestId={}", request.getRequestId(), e);
+                    return Mono.just(MultiModalResponse.error(request.getRequestId(), "Image processing failed: " + e.getMessage()));
+                });
     }
 
     /**
@@ -206,7 +207,7 @@ public class ImageProcessor implements MultiModalProcessor<MultiModalRequest, Mu
      * 处理文本到图像转换
      */
     private Mono<MultiModalResponse> processTextToImage(MultiModalRequest request) {
-        return Mono.fromCallable(() -> {
+        return BlockingUtils.fromCallable(() -> {
             try {
                 String prompt = request.getPrompt();
                 if (prompt == null || prompt.trim().isEmpty()) {
@@ -29,6 +29,8 @@ import org.springframework.web.multipart.MultipartFile;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.stream.Collectors;
+
 /**
  * 视频处理器
  * 处理视频到文本的转换和视频内容分析
@@ -63,8 +65,7 @@ public class VideoProcessor implements MultiModalProcessor<MultiModalRequest, Mu
 
     @Override
     public Flux<MultiModalResponse> processStream(MultiModalRequest request) {
-        // 视频处理通常不支持流式，直接调用同步方法
-        return process(request).flux();
+        return processVideoToTextStream(request);
     }
 
     @Override
@@ -72,6 +73,12 @@ public class VideoProcessor implements MultiModalProcessor<MultiModalRequest, Mu
         return 30;
     }
 
+    @Override
+    public long estimateProcessingTime(MultiModalRequest request) {
+        // 大概每MB需要1秒，最少10秒
+        return Math.max(10000, request.getTotalFileSize() / (1024 * 1024) * 1000);
+    }
+
     @Override
     public MultiModalRequest preProcess(MultiModalRequest request) {
         // 验证视频文件
@@ -135,39 +142,68 @@ public class VideoProcessor implements MultiModalProcessor<MultiModalRequest, Mu
      * 处理视频到文本转换
      */
     private Mono<MultiModalResponse> processVideoToText(MultiModalRequest request) {
-        return Mono.fromCallable(() -> {
-            try {
-                MultipartFile videoFile = request.getFirstFile();
-                String prompt = request.getPrompt();
-                if (prompt == null || prompt.trim().isEmpty()) {
-                    prompt = "请总结这个视频的主要内容";
-                }
-                
-                String analysisType = request.getParameter("analysisType", String.class);
-                
-                logger.debug("Processing video to text: requestId={}, fileName={}, prompt={}, analysisType={}", 
-                           request.getRequestId(), videoFile.getOriginalFilename(), prompt, analysisType);
-                
-                // 使用现有的视频服务
-                String result = videoService.analyzeVideo(prompt, videoFile);
-                
-                MultiModalResponse response = MultiModalResponse.success(
-                        request.getRequestId(), 
-                        ModalityType.TEXT, 
-                        result
-                );
-                response.setConfidence(0.8); // 视频分析的置信度相对较低
-                response.addMetadata("analysisPrompt", prompt);
-                response.addMetadata("videoDuration", estimateVideoDuration(videoFile));
-                response.addMetadata("videoSize", formatFileSize(videoFile.getSize()));
-                
-                return response;
-                
-            } catch (Exception e) {
-                logger.error("Error processing video to text: requestId={}", request.getRequestId(), e);
-                return MultiModalResponse.error(request.getRequestId(), "Video analysis failed: " + e.getMessage());
-            }
-        });
+        MultipartFile videoFile = request.getFirstFile();
+        String prompt = prompt(request);
+
+        String analysisType = request.getParameter("analysisType", String.class);
+
+        logger.debug("Processing video to text: requestId={}, fileName={}, prompt={}, analysisType={}",
+                   request.getRequestId(), videoFile.getOriginalFilename(), prompt, analysisType);
+
+        // 使用现有的视频服务，拼接流式结果，不阻塞调用线程
+        return videoService.analyzeVideo(prompt, videoFile)
+                .collect(Collectors.joining())
+                .map(result -> {
+                    MultiModalResponse response = MultiModalResponse.success(
+                            request.getRequestId(),
+                            ModalityType.TEXT,
+                            result
+                    );
+                    response.setConfidence(0.8); // 视频分析的置信度相对较低
+                    response.addMetadata("analysisPrompt", prompt);
+                    response.addMetadata("videoDuration", estimateVideoDuration(videoFile));
+                    response.addMetadata("videoSize", formatFileSize(videoFile.getSize()));
+                    return response;
+                })
+                .onErrorResume(e -> {
+                    logger.error("Error processing video to text: requestId={}", request.getRequestId(), e);
+                    return Mono.just(MultiModalResponse.error(request.getRequestId(), "Video analysis failed: " + e.getMessage()));
+                });
+    }
+
+    /**
+     * 处理视频到文本转换（流式），关键帧提取完成后按模型输出的分片返回
+     */
+    private Flux<MultiModalResponse> processVideoToTextStream(MultiModalRequest request) {
+        MultipartFile videoFile = request.getFirstFile();
+        String prompt = prompt(request);
+
+        logger.debug("Processing video to text stream: requestId={}, fileName={}",
+                   request.getRequestId(), videoFile.getOriginalFilename());
+
+        return videoService.analyzeVideo(prompt, videoFile)
+                .map(chunk -> {
+                    MultiModalResponse response = MultiModalResponse.success(
+                            request.getRequestId(),
+                            ModalityType.TEXT,
+                            chunk
+                    );
+                    response.addMetadata("isChunk", true);
+                    return response;
+                })
+                .onErrorResume(throwable -> {
+                    logger.error("Error in video to text stream: requestId={}", request.getRequestId(), throwable);
+                    return Flux.just(MultiModalResponse.error(request.getRequestId(),
+                            "Stream processing failed: " + throwable.getMessage()));
+                });
+    }
+
+    private String prompt(MultiModalRequest request) {
+        String prompt = request.getPrompt();
+        if (prompt == null || prompt.trim().isEmpty()) {
+            return "请总结这个视频的主要内容";
+        }
+        return prompt;
     }
 
     /**
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.resilience;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Count based circuit breaker.
+ * <p>
+ * Closed, the outcome of the latest calls is kept in a ring buffer and the circuit opens when their failure
+ * rate reaches the threshold. Open, every call is rejected until the wait duration elapses. Half open, a few
+ * probe calls are let through, the circuit closes when all of them succeed and opens again on the first failure.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+public class CircuitBreaker {
+
+	public enum State {
+
+		CLOSED, OPEN, HALF_OPEN
+
+	}
+
+	/**
+	 * Called with the lock held on every state change.
+	 */
+	@FunctionalInterface
+	public interface TransitionListener {
+
+		void onTransition(State from, State to);
+
+	}
+
+	private final ResilienceProperties.Dependency properties;
+
+	private final LongSupplier nanoClock;
+
+	private final TransitionListener listener;
+
+	private final boolean[] outcomes;
+
+	private State state = State.CLOSED;
+
+	private int recorded;
+
+	private int next;
+
+	private int failures;
+
+	private long openedAtNanos;
+
+	private int probesStarted;
+
+	private int probesSucceeded;
+
+	public CircuitBreaker(ResilienceProperties.Dependency properties, TransitionListener listener) {
+
+		this(properties, System::nanoTime, listener);
+	}
+
+	CircuitBreaker(ResilienceProperties.Dependency properties, LongSupplier nanoClock, TransitionListener listener) {
+
+		this.properties = properties;
+		this.nanoClock = nanoClock;
+		this.listener = listener;
+		this.outcomes = new boolean[Math.max(1, properties.getSlidingWindowSize())];
+	}
+
+	public synchronized State getState() {
+
+		if (state == State.OPEN && waitElapsed()) {
+			transition(State.HALF_OPEN);
+		}
+		return state;
+	}
+
+	/**
+	 * Whether a call may go through, a permitted call must be reported with one of the {@code on*} methods.
+	 */
+	public synchronized boolean tryAcquire() {
+
+		switch (getState()) {
+			case CLOSED:
+				return true;
+			case HALF_OPEN:
+				if (probesStarted < properties.getPermittedCallsInHalfOpenState()) {
+					probesStarted++;
+					return true;
+				}
+				return false;
+			default:
+				return false;
+		}
+	}
+
+	public synchronized void onSuccess() {
+
+		if (state == State.HALF_OPEN) {
+			probesSucceeded++;
+			if (probesSucceeded >= properties.getPermittedCallsInHalfOpenState()) {
+				transition(State.CLOSED);
+			}
+			return;
+		}
+		if (state == State.CLOSED) {
+			record(false);
+		}
+	}
+
+	public synchronized void onFailure() {
+
+		if (state == State.HALF_OPEN) {
+			transition(State.OPEN);
+			return;
+		}
+		if (state == State.CLOSED) {
+			record(true);
+			if (recorded >= properties.getMinimumCalls()
+					&& failures * 100 >= properties.getFailureRateThreshold() * recorded) {
+				transition(State.OPEN);
+			}
+		}
+	}
+
+	/**
+	 * The permitted call ended without an outcome, e.g. a cancelled stream.
+	 */
+	public synchronized void onIgnored() {
+
+		if (state == State.HALF_OPEN && probesStarted > probesSucceeded) {
+			probesStarted--;
+		}
+	}
+
+	private void record(boolean failure) {
+
+		if (recorded == outcomes.length) {
+			if (outcomes[next]) {
+				failures--;
+			}
+		}
+		else {
+			recorded++;
+		}
+
+		outcomes[next] = failure;
+		if (failure) {
+			failures++;
+		}
+		next = (next + 1) % outcomes.length;
+	}
+
+	private boolean waitElapsed() {
+		return nanoClock.getAsLong() - openedAtNanos >= properties.getWaitInOpenState().toNanos();
+	}
+
+	private void transition(State to) {
+
+		State from = state;
+		state = to;
+		recorded = 0;
+		next = 0;
+		failures = 0;
+		probesStarted = 0;
+		probesSucceeded = 0;
+		if (to == State.OPEN) {
+			openedAtNanos = nanoClock.getAsLong();
+		}
+
+		if (listener != null) {
+			listener.onTransition(from, to);
+		}
+	}
+
+}
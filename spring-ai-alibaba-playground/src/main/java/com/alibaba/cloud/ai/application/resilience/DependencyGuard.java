@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.resilience;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker and bulkhead of one external dependency.
+ * <p>
+ * A call is rejected right away while the circuit is open, or when the bulkhead stays full for longer than the
+ * max wait, so a slow or broken dependency can only hold its own share of the request threads.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+public class DependencyGuard {
+
+	private final String name;
+
+	/**
+	 * Null when the resilience is disabled, every call goes through.
+	 */
+	private final CircuitBreaker circuitBreaker;
+
+	/**
+	 * Null when the dependency has its own concurrency limit.
+	 */
+	private final Semaphore bulkhead;
+
+	private final ResilienceProperties.Dependency properties;
+
+	private final RejectionListener rejectionListener;
+
+	DependencyGuard(
+			String name,
+			CircuitBreaker circuitBreaker,
+			ResilienceProperties.Dependency properties,
+			boolean withBulkhead,
+			RejectionListener rejectionListener
+	) {
+
+		this.name = name;
+		this.circuitBreaker = circuitBreaker;
+		this.properties = properties;
+		this.bulkhead = withBulkhead ? new Semaphore(Math.max(1, properties.getMaxConcurrentCalls()), true) : null;
+		this.rejectionListener = rejectionListener;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public CircuitBreaker.State getState() {
+		return circuitBreaker == null ? CircuitBreaker.State.CLOSED : circuitBreaker.getState();
+	}
+
+	/**
+	 * Run the call, the fallback answers when the call is rejected or fails.
+	 */
+	public <T> T execute(Supplier<T> call, Function<Throwable, T> fallback) {
+
+		Call permit;
+		try {
+			permit = tryAcquire();
+		}
+		catch (DependencyUnavailableException e) {
+			return fallback.apply(e);
+		}
+
+		T result;
+		try {
+			result = call.get();
+		}
+		catch (RuntimeException e) {
+			permit.onError(e);
+			return fallback.apply(e);
+		}
+		permit.onSuccess();
+		return result;
+	}
+
+	/**
+	 * Run the call and rethrow its failure, a rejected call throws {@link DependencyUnavailableException}.
+	 */
+	public <T> T execute(Supplier<T> call) {
+
+		return execute(call, e -> {
+			if (e instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IllegalStateException(e);
+		});
+	}
+
+	/**
+	 * Enter the guard for a call reported later, e.g. a stream.
+	 * @throws DependencyUnavailableException when the call is rejected.
+	 */
+	public Call tryAcquire() {
+
+		if (circuitBreaker == null) {
+			return new Call(false);
+		}
+
+		if (!circuitBreaker.tryAcquire()) {
+			reject("circuit-open");
+		}
+
+		if (bulkhead != null && !acquireBulkhead()) {
+			circuitBreaker.onIgnored();
+			reject("bulkhead-full");
+		}
+
+		return new Call(bulkhead != null);
+	}
+
+	private boolean acquireBulkhead() {
+
+		try {
+			long waitMillis = properties.getMaxWait().toMillis();
+			return waitMillis <= 0 ? bulkhead.tryAcquire() : bulkhead.tryAcquire(waitMillis, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private void reject(String reason) {
+
+		if (rejectionListener != null) {
+			rejectionListener.onRejected(reason);
+		}
+		throw new DependencyUnavailableException(name, reason);
+	}
+
+	@FunctionalInterface
+	interface RejectionListener {
+
+		void onRejected(String reason);
+
+	}
+
+	/**
+	 * A call that entered the guard, report exactly one outcome.
+	 */
+	public final class Call {
+
+		private final long startNanos = System.nanoTime();
+
+		private final AtomicBoolean ended = new AtomicBoolean();
+
+		private final boolean holdsBulkhead;
+
+		private Call(boolean holdsBulkhead) {
+			this.holdsBulkhead = holdsBulkhead;
+		}
+
+		public void onSuccess() {
+
+			if (!end() || circuitBreaker == null) {
+				return;
+			}
+
+			long slowNanos = properties.getSlowCallDuration().toNanos();
+			if (slowNanos > 0 && System.nanoTime() - startNanos > slowNanos) {
+				circuitBreaker.onFailure();
+			}
+			else {
+				circuitBreaker.onSuccess();
+			}
+		}
+
+		public void onError(Throwable error) {
+
+			if (end() && circuitBreaker != null) {
+				circuitBreaker.onFailure();
+			}
+		}
+
+		public void onIgnored() {
+
+			if (end() && circuitBreaker != null) {
+				circuitBreaker.onIgnored();
+			}
+		}
+
+		private boolean end() {
+
+			if (!ended.compareAndSet(false, true)) {
+				return false;
+			}
+			if (holdsBulkhead) {
+				bulkhead.release();
+			}
+			return true;
+		}
+
+	}
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.resilience;
+
+/**
+ * The dependency is not called, its circuit is open or its bulkhead is full.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+public class DependencyUnavailableException extends RuntimeException {
+
+	private final String dependency;
+
+	private final String reason;
+
+	public DependencyUnavailableException(String dependency, String reason) {
+
+		super("Dependency " + dependency + " is unavailable: " + reason);
+		this.dependency = dependency;
+		this.reason = reason;
+	}
+
+	public String getDependency() {
+		return dependency;
+	}
+
+	/**
+	 * {@code circuit-open} or {@code bulkhead-full}.
+	 */
+	public String getReason() {
+		return reason;
+	}
+
+}
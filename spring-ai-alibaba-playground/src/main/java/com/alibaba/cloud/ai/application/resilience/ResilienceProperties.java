@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.resilience;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Circuit breaker and bulkhead of the external dependencies, by dependency name.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@ConfigurationProperties(ResilienceProperties.PREFIX)
+public class ResilienceProperties {
+
+	public static final String PREFIX = "spring.ai.alibaba.playground.resilience";
+
+	private boolean enabled = true;
+
+	/**
+	 * Settings of the dependencies not listed in {@link #dependencies}.
+	 */
+	private Dependency defaults = new Dependency();
+
+	/**
+	 * Settings by dependency name, e.g. iqs, baidu-translate, baidu-map, mcp-{server}, or a model bean name.
+	 */
+	private Map<String, Dependency> dependencies = new HashMap<>();
+
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public Dependency getDefaults() {
+		return this.defaults;
+	}
+
+	public void setDefaults(Dependency defaults) {
+		this.defaults = defaults;
+	}
+
+	public Map<String, Dependency> getDependencies() {
+		return this.dependencies;
+	}
+
+	public void setDependencies(Map<String, Dependency> dependencies) {
+		this.dependencies = dependencies;
+	}
+
+	public Dependency getDependency(String name) {
+		return this.dependencies.getOrDefault(name, this.defaults);
+	}
+
+	public static class Dependency {
+
+		/**
+		 * Failure rate in percent of the sliding window that opens the circuit.
+		 */
+		private int failureRateThreshold = 50;
+
+		/**
+		 * Number of the latest calls the failure rate is computed on.
+		 */
+		private int slidingWindowSize = 20;
+
+		/**
+		 * Calls needed in the window before the failure rate is considered.
+		 */
+		private int minimumCalls = 10;
+
+		/**
+		 * How long the circuit stays open before probing the dependency again.
+		 */
+		private Duration waitInOpenState = Duration.ofSeconds(30);
+
+		/**
+		 * Probe calls let through when half open, the circuit closes when all of them succeed.
+		 */
+		private int permittedCallsInHalfOpenState = 3;
+
+		/**
+		 * Successful calls slower than this count as failures, zero disables it.
+		 */
+		private Duration slowCallDuration = Duration.ZERO;
+
+		/**
+		 * Max calls to the dependency at the same time.
+		 */
+		private int maxConcurrentCalls = 16;
+
+		/**
+		 * How long a call waits for the bulkhead, zero rejects right away.
+		 */
+		private Duration maxWait = Duration.ZERO;
+
+		public int getFailureRateThreshold() {
+			return this.failureRateThreshold;
+		}
+
+		public void setFailureRateThreshold(int failureRateThreshold) {
+			this.failureRateThreshold = failureRateThreshold;
+		}
+
+		public int getSlidingWindowSize() {
+			return this.slidingWindowSize;
+		}
+
+		public void setSlidingWindowSize(int slidingWindowSize) {
+			this.slidingWindowSize = slidingWindowSize;
+		}
+
+		public int getMinimumCalls() {
+			return this.minimumCalls;
+		}
+
+		public void setMinimumCalls(int minimumCalls) {
+			this.minimumCalls = minimumCalls;
+		}
+
+		public Duration getWaitInOpenState() {
+			return this.waitInOpenState;
+		}
+
+		public void setWaitInOpenState(Duration waitInOpenState) {
+			this.waitInOpenState = waitInOpenState;
+		}
+
+		public int getPermittedCallsInHalfOpenState() {
+			return this.permittedCallsInHalfOpenState;
+		}
+
+		public void setPermittedCallsInHalfOpenState(int permittedCallsInHalfOpenState) {
+			this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+		}
+
+		public Duration getSlowCallDuration() {
+			return this.slowCallDuration;
+		}
+
+		public void setSlowCallDuration(Duration slowCallDuration) {
+			this.slowCallDuration = slowCallDuration;
+		}
+
+		public int getMaxConcurrentCalls() {
+			return this.maxConcurrentCalls;
+		}
+
+		public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+			this.maxConcurrentCalls = maxConcurrentCalls;
+		}
+
+		public Duration getMaxWait() {
+			return this.maxWait;
+		}
+
+		public void setMaxWait(Duration maxWait) {
+			this.maxWait = maxWait;
+		}
+
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.resilience;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * One {@link DependencyGuard} by external dependency, with the meters:
+ * <ul>
+ *     <li>{@code playground.resilience.state} gauge, 0 closed, 1 open, 2 half open</li>
+ *     <li>{@code playground.resilience.transitions} counter tagged with the from and to states</li>
+ *     <li>{@code playground.resilience.rejected} counter tagged with the reason</li>
+ * </ul>
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@Component
+@EnableConfigurationProperties(ResilienceProperties.class)
+public class ResilienceRegistry {
+
+	private static final Logger logger = LoggerFactory.getLogger(ResilienceRegistry.class);
+
+	private final ResilienceProperties properties;
+
+	private final MeterRegistry meterRegistry;
+
+	private final Map<String, DependencyGuard> guards = new ConcurrentHashMap<>();
+
+	public ResilienceRegistry(ResilienceProperties properties, MeterRegistry meterRegistry) {
+
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+	}
+
+	public boolean isEnabled() {
+		return properties.isEnabled();
+	}
+
+	/**
+	 * Guard with a circuit breaker and a bulkhead.
+	 */
+	public DependencyGuard guard(String name) {
+
+		return guard(name, true);
+	}
+
+	/**
+	 * @param withBulkhead false for dependencies that already limit their concurrency.
+	 */
+	public DependencyGuard guard(String name, boolean withBulkhead) {
+
+		return guards.computeIfAbsent(name, key -> newGuard(key, withBulkhead));
+	}
+
+	public Map<String, CircuitBreaker.State> states() {
+
+		Map<String, CircuitBreaker.State> states = new ConcurrentHashMap<>();
+		guards.forEach((name, guard) -> states.put(name, guard.getState()));
+		return states;
+	}
+
+	private DependencyGuard newGuard(String name, boolean withBulkhead) {
+
+		ResilienceProperties.Dependency dependency = properties.getDependency(name);
+		if (!properties.isEnabled()) {
+			return new DependencyGuard(name, null, dependency, false, null);
+		}
+		CircuitBreaker circuitBreaker = new CircuitBreaker(dependency, (from, to) -> {
+			logger.warn("Circuit breaker of {} changed from {} to {}", name, from, to);
+			Counter.builder("playground.resilience.transitions")
+					.description("Circuit breaker state transitions")
+					.tag("dependency", name)
+					.tag("from", from.name().toLowerCase(Locale.ROOT))
+					.tag("to", to.name().toLowerCase(Locale.ROOT))
+					.register(meterRegistry)
+					.increment();
+		});
+
+		Gauge.builder("playground.resilience.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+				.description("Circuit breaker state, 0 closed, 1 open, 2 half open")
+				.tag("dependency", name)
+				.register(meterRegistry);
+
+		return new DependencyGuard(name, circuitBreaker, dependency, withBulkhead, reason ->
+				Counter.builder("playground.resilience.rejected")
+						.description("Calls rejected without reaching the dependency")
+						.tag("dependency", name)
+						.tag("reason", reason)
+						.register(meterRegistry)
+						.increment());
+	}
+
+}
@@ -24,7 +24,7 @@ import java.util.concurrent.CountDownLatch;
 
 import com.alibaba.cloud.ai.application.exception.SAAAIException;
 import com.alibaba.cloud.ai.application.exception.SAAAppException;
-import com.alibaba.cloud.ai.application.utils.FilesUtils;
+import com.alibaba.cloud.ai.application.media.ContentStore;
 import com.alibaba.cloud.ai.dashscope.audio.DashScopeAudioTranscriptionOptions;
 import com.alibaba.cloud.ai.dashscope.audio.synthesis.SpeechSynthesisModel;
 import com.alibaba.cloud.ai.dashscope.audio.synthesis.SpeechSynthesisPrompt;
@@ -53,13 +53,17 @@ public class SAAAudioService {
 
 	private static final String DEFAULT_MODEL_1 = "sensevoice-v1";
 
+	private final ContentStore contentStore;
+
 	public SAAAudioService(
 			AudioTranscriptionModel transcriptionModel,
-			SpeechSynthesisModel speechSynthesisModel
+			SpeechSynthesisModel speechSynthesisModel,
+			ContentStore contentStore
 	) {
 
 		this.transcriptionModel = transcriptionModel;
 		this.speechSynthesisModel = speechSynthesisModel;
+		this.contentStore = contentStore;
 	}
 
 	/**
@@ -106,16 +110,17 @@ public class SAAAudioService {
 	 */
 	public String audio2text(MultipartFile file) throws IOException {
 
-		String filePath = FilesUtils.saveTempFile(file, "/tmp/audio/");
-		System.out.println(filePath);
-		return transcriptionModel.call(
-				new AudioTranscriptionPrompt(
-						new FileUrlResource(filePath),
-						DashScopeAudioTranscriptionOptions.builder()
-								.withModel(DEFAULT_MODEL_1)
-								.build()
-				)
-		).getResult().getOutput();
+		// the same recording uploaded again reuses its transcription
+		try (ContentStore.Blob blob = contentStore.put(file)) {
+			return blob.derived("transcription:" + DEFAULT_MODEL_1, stored -> transcriptionModel.call(
+					new AudioTranscriptionPrompt(
+							new FileUrlResource(stored.path().toString()),
+							DashScopeAudioTranscriptionOptions.builder()
+									.withModel(DEFAULT_MODEL_1)
+									.build()
+					)
+			).getResult().getOutput());
+		}
 	}
 
 }
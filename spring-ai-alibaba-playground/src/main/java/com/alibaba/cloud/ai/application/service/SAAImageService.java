@@ -17,7 +17,9 @@
 
 package com.alibaba.cloud.ai.application.service;
 
-import com.alibaba.cloud.ai.application.utils.FilesUtils;
+import com.alibaba.cloud.ai.application.media.AnalysisCache;
+import com.alibaba.cloud.ai.application.media.ImageNormalizer;
+import com.alibaba.cloud.ai.application.utils.BlockingUtils;
 import com.alibaba.cloud.ai.dashscope.chat.DashScopeChatOptions;
 import com.alibaba.cloud.ai.dashscope.chat.MessageFormat;
 import com.alibaba.cloud.ai.dashscope.image.DashScopeImageOptions;
@@ -33,11 +35,10 @@ import org.springframework.ai.image.ImageGeneration;
 import org.springframework.ai.image.ImageModel;
 import org.springframework.ai.image.ImagePrompt;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.multipart.MultipartFile;
 import reactor.core.publisher.Flux;
 
@@ -72,56 +73,66 @@ public class SAAImageService {
 	 */
 	private final ChatClient daschScopeChatClient;
 
+	private final ImageNormalizer imageNormalizer;
+
+	private final AnalysisCache analysisCache;
+
 	public SAAImageService(
 			@Qualifier("dashscopeChatModel") ChatModel chatModel,
-			@Qualifier("dashScopeImageModel") ImageModel imageModel
+			@Qualifier("dashScopeImageModel") ImageModel imageModel,
+			ImageNormalizer imageNormalizer,
+			AnalysisCache analysisCache
 	) {
 
 		this.imageModel = imageModel;
 		this.daschScopeChatClient = ChatClient
 				.builder(chatModel)
 				.build();
+		this.imageNormalizer = imageNormalizer;
+		this.analysisCache = analysisCache;
 	}
 
-	public Flux<String> image2Text(String prompt, MultipartFile file) throws IOException {
-
-		String filePath = FilesUtils.saveTempFile(file, "/tmp/image/");
-//		UserMessage message = new UserMessage(
-//				prompt,
-//				new Media(
-//						MimeTypeUtils.IMAGE_PNG,
-//						new FileSystemResource(filePath)
-//				)
-//		);
-		List<Media> mediaList = Lists.newArrayList(new Media(
-				MimeTypeUtils.IMAGE_PNG,
-				new FileSystemResource(filePath)
-		));
-		UserMessage message =
-				UserMessage.builder().text(prompt).media(mediaList).metadata(new HashMap<>()).build();
-		message.getMetadata().put(MESSAGE_FORMAT, MessageFormat.IMAGE);
-
-		List<ChatResponse> response = daschScopeChatClient.prompt(
-						new Prompt(
-								message,
-								DashScopeChatOptions.builder()
-										.withModel(DEFAULT_TEXT2IMAGE_MODEL)
-										.withMultiModel(true)
-										.build())
-				).stream()
-				.chatResponse()
-				.collectList()
-				.block();
-
-		StringBuilder result = new StringBuilder();
-		if (response != null) {
-			for (ChatResponse chatResponse : response) {
-				String outputContent = chatResponse.getResult().getOutput().getText();
-				result.append(outputContent);
-			}
-		}
+	/**
+	 * Stream the answer of the model about the image as it is generated. Reading the upload and
+	 * normalizing the image run on the blocking scheduler, the request thread is never parked and
+	 * cancelling the subscription cancels the model call.
+	 */
+	public Flux<String> image2Text(String prompt, MultipartFile file) {
+
+		return BlockingUtils.fromCallable(file::getBytes).flatMapMany(original -> {
+			String key = AnalysisCache.key("image", DEFAULT_TEXT2IMAGE_MODEL, prompt, AnalysisCache.digest(original));
+
+			// the same image asked the same question is answered from the cache without calling the model
+			return analysisCache.cached(key, AnalysisCache.TEXT, () -> BlockingUtils.fromCallable(
+					// downscaled to what the model needs and without EXIF, kept in memory instead of a temp file
+					() -> imageNormalizer.normalize(original, file.getContentType(), DEFAULT_TEXT2IMAGE_MODEL)
+			).flatMapMany(image -> {
+				List<Media> mediaList = Lists.newArrayList(new Media(
+						image.mimeType(),
+						new ByteArrayResource(image.content())
+				));
+				UserMessage message =
+						UserMessage.builder().text(prompt).media(mediaList).metadata(new HashMap<>()).build();
+				message.getMetadata().put(MESSAGE_FORMAT, MessageFormat.IMAGE);
+
+				return daschScopeChatClient.prompt(
+								new Prompt(
+										message,
+										DashScopeChatOptions.builder()
+												.withModel(DEFAULT_TEXT2IMAGE_MODEL)
+												.withMultiModel(true)
+												.build())
+						).stream()
+						.chatResponse()
+						.map(SAAImageService::text);
+			}));
+		});
+	}
+
+	private static String text(ChatResponse chatResponse) {
 
-		return Flux.just(result.toString());
+		String text = chatResponse.getResult().getOutput().getText();
+		return text == null ? "" : text;
 	}
 
 	/**
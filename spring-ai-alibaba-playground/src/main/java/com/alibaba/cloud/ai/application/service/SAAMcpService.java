@@ -22,12 +22,19 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.alibaba.cloud.ai.application.entity.mcp.McpServer;
 import com.alibaba.cloud.ai.application.entity.tools.ToolCallResp;
+import com.alibaba.cloud.ai.application.mcp.McpClientPool;
 import com.alibaba.cloud.ai.application.mcp.McpServerContainer;
 import com.alibaba.cloud.ai.application.mcp.McpServerUtils;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.alibaba.cloud.ai.application.resilience.DependencyGuard;
+import com.alibaba.cloud.ai.application.resilience.DependencyUnavailableException;
+import com.alibaba.cloud.ai.application.resilience.ResilienceRegistry;
+import com.alibaba.cloud.ai.application.tools.GuardedToolCallback;
+import com.alibaba.cloud.ai.application.tools.ToolMetrics;
+import com.alibaba.cloud.ai.application.tools.ToolResultCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,17 +46,16 @@ import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.mcp.SyncMcpToolCallback;
 import org.springframework.ai.mcp.client.autoconfigure.properties.McpStdioClientProperties;
 import org.springframework.ai.model.tool.ToolCallingChatOptions;
 import org.springframework.ai.model.tool.ToolCallingManager;
 import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.stereotype.Service;
 
-import static com.alibaba.cloud.ai.application.mcp.McpServerUtils.getMcpLibsAbsPath;
-
 /**
  * @author brianxiadong
  *         Spring AI Alibaba MCP (Model, Chat, Prompt) Service
@@ -59,27 +65,40 @@ public class SAAMcpService {
 
 	private final ChatClient chatClient;
 
-	private final ObjectMapper objectMapper;
+	/**
+	 * Chat client without the default mcp tools, used with the tools of a pooled mcp client.
+	 */
+	private final ChatClient mcpRunChatClient;
 
 	private final ToolCallbackProvider tools;
 
 	private final ToolCallingManager toolCallingManager;
 
-	private final McpStdioClientProperties mcpStdioClientProperties;
+	private final McpClientPool mcpClientPool;
+
+	private final ToolResultCache toolResultCache;
+
+	private final ToolMetrics toolMetrics;
+
+	private final ResilienceRegistry resilienceRegistry;
 
 	private static final Logger logger = LoggerFactory.getLogger(SAAMcpService.class);
 
 	public SAAMcpService(
-			ObjectMapper objectMapper,
 			ToolCallbackProvider tools,
 			SimpleLoggerAdvisor simpleLoggerAdvisor,
 			ToolCallingManager toolCallingManager,
-			McpStdioClientProperties mcpStdioClientProperties,
+			McpClientPool mcpClientPool,
+			ToolResultCache toolResultCache,
+			ToolMetrics toolMetrics,
+			ResilienceRegistry resilienceRegistry,
 			@Qualifier("openAiChatModel") ChatModel chatModel
 	) throws IOException {
 
-		this.objectMapper = objectMapper;
-		this.mcpStdioClientProperties = mcpStdioClientProperties;
+		this.mcpClientPool = mcpClientPool;
+		this.toolResultCache = toolResultCache;
+		this.toolMetrics = toolMetrics;
+		this.resilienceRegistry = resilienceRegistry;
 
 		// Initialize chat client with non-blocking configuration
 		this.chatClient = ChatClient.builder(chatModel)
@@ -87,6 +106,10 @@ public class SAAMcpService {
 						simpleLoggerAdvisor
 				).defaultToolCallbacks(tools)
 				.build();
+		this.mcpRunChatClient = ChatClient.builder(chatModel)
+				.defaultAdvisors(
+						simpleLoggerAdvisor
+				).build();
 		this.tools = tools;
 		this.toolCallingManager = toolCallingManager;
 
@@ -95,9 +118,14 @@ public class SAAMcpService {
 
 	public ToolCallResp chat(String prompt) {
 
+		return chat(chatClient, prompt, toolResultCache.decorate(toolMetrics.decorate(tools.getToolCallbacks())));
+	}
+
+	private ToolCallResp chat(ChatClient chatClient, String prompt, ToolCallback[] toolCallbacks) {
+
 		// manual run tools flag
 		ChatOptions chatOptions = ToolCallingChatOptions.builder()
-				.toolCallbacks(tools.getToolCallbacks())
+				.toolCallbacks(toolCallbacks)
 				.internalToolExecutionEnabled(false)
 				.build();
 
@@ -115,12 +143,8 @@ public class SAAMcpService {
 		var tcr = ToolCallResp.TCR();
 		if (!toolCalls.isEmpty()) {
 
-			tcr = ToolCallResp.startExecute(
-					responseByLLm,
-					toolCalls.get(0).name(),
-					toolCalls.get(0).arguments()
-			);
-			tcr.setToolParameters(toolCalls.get(0).arguments());
+			// all tool calls of the turn are executed concurrently by the tool calling manager.
+			tcr = ToolCallResp.startExecute(responseByLLm, toolCalls);
 			logger.debug("Start ToolCallResp: {}", tcr);
 			ToolExecutionResult toolExecutionResult = null;
 
@@ -134,7 +158,7 @@ public class SAAMcpService {
 				tcr.setStatus(ToolCallResp.ToolState.FAILURE);
 				tcr.setErrorMessage(e.getMessage());
 				tcr.setToolEndTime(LocalDateTime.now());
-				tcr.setToolCostTime((long) (tcr.getToolEndTime().getNano() - tcr.getToolStartTime().getNano()));
+				tcr.setToolCostTime(ToolCallResp.costTime(tcr.getToolStartTime(), tcr.getToolEndTime()));
 				logger.error("Error ToolCallResp: {}, msg: {}", tcr, e.getMessage());
 				// throw new RuntimeException("Tool execution failed, please check the logs for details.");
 			}
@@ -164,7 +188,7 @@ public class SAAMcpService {
 
 			tcr.setStatus(ToolCallResp.ToolState.SUCCESS);
 			tcr.setToolResult(llmCallResponse);
-			tcr.setToolCostTime((long) (tcr.getToolEndTime().getNano() - tcr.getToolStartTime().getNano()));
+			tcr.setToolCostTime(ToolCallResp.costTime(tcr.getToolStartTime(), tcr.getToolEndTime()));
 			logger.debug("End ToolCallResp: {}", tcr);
 		}
 		else {
@@ -184,25 +208,63 @@ public class SAAMcpService {
 		}
 
 		String runMcpServerName = runMcpServer.get().getName();
-		var mcpServerConfig = McpServerUtils.getMcpServerConfig();
-		McpStdioClientProperties.Parameters parameters = new McpStdioClientProperties.Parameters(
-				mcpServerConfig.getMcpServers().get(runMcpServerName).command(),
-				mcpServerConfig.getMcpServers().get(runMcpServerName).args(),
-				envs
-		);
-
-		if (parameters.command().startsWith("java")) {
-			String oldMcpLibsPath = McpServerUtils.getLibsPath(parameters.args());
-			String rewriteMcpLibsAbsPath = getMcpLibsAbsPath(McpServerUtils.getLibsPath(parameters.args()));
-
-			parameters.args().remove(oldMcpLibsPath);
-			parameters.args().add(rewriteMcpLibsAbsPath);
+		McpStdioClientProperties.Parameters configured = McpServerUtils.getMcpServerConfig()
+				.getMcpServers().get(runMcpServerName);
+		if (Objects.isNull(configured)) {
+			logger.error("McpServer config not found, name: {}", runMcpServerName);
+			return ToolCallResp.TCR();
+		}
+		McpStdioClientProperties.Parameters parameters = McpServerUtils.resolveMcpServerParameters(configured, envs);
+
+		// tool results depend on the server and its envs, do not share them across servers or api keys.
+		String cacheScope = runMcpServerName + "@" + McpServerUtils.envDigest(parameters.env());
+
+		// reuse an initialized mcp client instead of starting the server subprocess per request.
+		// a broken server fails fast once its circuit is open instead of spawning and timing out again.
+		// only the server is guarded, starting the client, listing and calling its tools. the chat model is
+		// limited on its own, a slow model must not open the circuit of the server or hold its bulkhead.
+		DependencyGuard guard = resilienceRegistry.guard("mcp-" + runMcpServerName);
+		DependencyGuard.Call connect;
+		try {
+			connect = guard.tryAcquire();
 		}
+		catch (DependencyUnavailableException e) {
+			return unavailable(runMcpServerName, e);
+		}
+
+		AtomicBoolean connected = new AtomicBoolean();
+		try {
+			return mcpClientPool.execute(parameters, mcpClient -> {
+				var mcpTools = mcpClient.listTools().tools();
+				connect.onSuccess();
+				connected.set(true);
+
+				ToolCallback[] toolCallbacks = mcpTools.stream()
+						.map(tool -> toolResultCache.decorate(toolMetrics.decorate(
+								new GuardedToolCallback(new SyncMcpToolCallback(mcpClient, tool), guard)), null, cacheScope))
+						.toArray(ToolCallback[]::new);
+
+				return chat(mcpRunChatClient, prompt, toolCallbacks);
+			});
+		}
+		catch (RuntimeException e) {
+			if (connected.get()) {
+				throw e;
+			}
+			connect.onError(e);
+			return unavailable(runMcpServerName, e);
+		}
+	}
 
-		String mcpServerConfigJSON = objectMapper.writeValueAsString(mcpServerConfig);
-		mcpStdioClientProperties.setServersConfiguration(new ByteArrayResource(mcpServerConfigJSON.getBytes()));
+	private ToolCallResp unavailable(String serverName, Throwable e) {
 
-		return chat(prompt);
+		logger.error("McpServer {} is unavailable: {}", serverName, e.getMessage());
+		ToolCallResp tcr = ToolCallResp.TCR();
+		tcr.setToolName(serverName);
+		tcr.setStatus(ToolCallResp.ToolState.FAILURE);
+		tcr.setErrorMessage(e.getMessage());
+
+		return tcr;
 	}
 
 }
@@ -17,6 +17,7 @@
 
 package com.alibaba.cloud.ai.application.service;
 
+import com.alibaba.cloud.ai.application.config.rag.RagIngestionJob;
 import com.alibaba.cloud.ai.application.config.rag.VectorStoreDelegate;
 import reactor.core.publisher.Flux;
 
@@ -43,10 +44,13 @@ public class SAARAGService {
 
 	private final VectorStoreDelegate vectorStoreDelegate;
 
+	private final RagIngestionJob ragIngestionJob;
+
 	private String vectorStoreType;
 
 	public SAARAGService(
 			VectorStoreDelegate vectorStoreDelegate,
+			RagIngestionJob ragIngestionJob,
 			SimpleLoggerAdvisor simpleLoggerAdvisor,
 			MessageChatMemoryAdvisor messageChatMemoryAdvisor,
 			@Qualifier("dashscopeChatModel") ChatModel chatModel,
@@ -54,6 +58,7 @@ public class SAARAGService {
 	) {
 		this.vectorStoreType = System.getenv("VECTOR_STORE_TYPE");
 		this.vectorStoreDelegate = vectorStoreDelegate;
+		this.ragIngestionJob = ragIngestionJob;
 		this.client = ChatClient.builder(chatModel)
 				.defaultSystem(
 						systemPromptTemplate.getTemplate()
@@ -65,6 +70,16 @@ public class SAARAGService {
 
 	public Flux<String> ragChat(String chatId, String prompt) {
 
+		// the answers would miss most of the knowledge base while it is still loading.
+		if (!ragIngestionJob.isReady()) {
+			RagIngestionJob.Status status = ragIngestionJob.getStatus();
+			return Flux.just(String.format(
+					"The knowledge base is still loading (%d/%d documents), please retry later.",
+					status.ingested(),
+					status.total()
+			));
+		}
+
 		return client.prompt()
 				.user(prompt)
 				.advisors(memoryAdvisor -> memoryAdvisor
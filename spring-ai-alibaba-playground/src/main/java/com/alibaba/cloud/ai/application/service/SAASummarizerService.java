@@ -17,11 +17,13 @@
 
 package com.alibaba.cloud.ai.application.service;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
 import com.alibaba.cloud.ai.application.exception.SAAAppException;
+import com.alibaba.cloud.ai.application.media.ContentStore;
 import com.alibaba.cloud.ai.dashscope.chat.DashScopeChatOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,6 +37,7 @@ import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.reader.tika.TikaDocumentReader;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
@@ -52,11 +55,14 @@ public class SAASummarizerService {
 
 	private final ChatClient chatClient;
 
+	private final ContentStore contentStore;
+
 	public SAASummarizerService(
 			SimpleLoggerAdvisor simpleLoggerAdvisor,
 			MessageChatMemoryAdvisor messageChatMemoryAdvisor,
 			@Qualifier("dashscopeChatModel") ChatModel chatModel,
-			@Qualifier("summarizerPromptTemplate") PromptTemplate docsSummaryPromptTemplate
+			@Qualifier("summarizerPromptTemplate") PromptTemplate docsSummaryPromptTemplate,
+			ContentStore contentStore
 	) {
 
 		this.chatClient = ChatClient.builder(chatModel)
@@ -68,6 +74,7 @@ public class SAASummarizerService {
 						messageChatMemoryAdvisor,
 						simpleLoggerAdvisor
 				).build();
+		this.contentStore = contentStore;
 	}
 
 	/**
@@ -75,7 +82,14 @@ public class SAASummarizerService {
 	 */
 	public Flux<String> summary(MultipartFile file, String url) {
 
-		String text = getText(url, file);
+		String text;
+		try {
+			text = getText(url, file);
+		}
+		catch (IOException e) {
+			return Flux.error(new SAAAppException("Read file content failed: " + e.getMessage()));
+		}
+
 		if (!StringUtils.hasText(text)) {
 			return Flux.error(new SAAAppException("Invalid file content"));
 		}
@@ -86,15 +100,19 @@ public class SAASummarizerService {
 				.stream().content();
 	}
 
-	private String getText(String url, MultipartFile file) {
+	private String getText(String url, MultipartFile file) throws IOException {
 
 		if (Objects.nonNull(file)) {
 
 			logger.debug("Reading file content form MultipartFile");
-			List<Document> documents = new TikaDocumentReader(file.getResource()).get();
-			return documents.stream()
-					.map(Document::getFormattedContent)
-					.collect(Collectors.joining("\n\n"));
+			try (ContentStore.Blob blob = contentStore.put(file)) {
+				return blob.derived("text", stored -> {
+					List<Document> documents = new TikaDocumentReader(new FileSystemResource(stored.path())).get();
+					return documents.stream()
+							.map(Document::getFormattedContent)
+							.collect(Collectors.joining("\n\n"));
+				});
+			}
 		}
 
 		if (StringUtils.hasText(url)) {
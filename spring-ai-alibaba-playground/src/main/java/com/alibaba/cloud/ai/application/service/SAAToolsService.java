@@ -97,11 +97,8 @@ public class SAAToolsService {
 		var tcr = ToolCallResp.TCR();
 		if (!toolCalls.isEmpty()) {
 
-			tcr = ToolCallResp.startExecute(
-					responseByLLm,
-					toolCalls.get(0).name(),
-					toolCalls.get(0).arguments()
-			);
+			// all tool calls of the turn are executed concurrently by the tool calling manager.
+			tcr = ToolCallResp.startExecute(responseByLLm, toolCalls);
 			logger.debug("Start ToolCallResp: {}", tcr);
 			ToolExecutionResult toolExecutionResult = null;
 
@@ -115,7 +112,7 @@ public class SAAToolsService {
 				tcr.setStatus(ToolCallResp.ToolState.FAILURE);
 				tcr.setErrorMessage(e.getMessage());
 				tcr.setToolEndTime(LocalDateTime.now());
-				tcr.setToolCostTime((long) (tcr.getToolEndTime().getNano() - tcr.getToolStartTime().getNano()));
+				tcr.setToolCostTime(ToolCallResp.costTime(tcr.getToolStartTime(), tcr.getToolEndTime()));
 				logger.error("Error ToolCallResp: {}, msg: {}", tcr, e.getMessage());
 				// throw new RuntimeException("Tool execution failed, please check the logs for details.");
 			}
@@ -131,7 +128,7 @@ public class SAAToolsService {
 
 			tcr.setStatus(ToolCallResp.ToolState.SUCCESS);
 			tcr.setToolResult(llmCallResponse);
-			tcr.setToolCostTime((long) (tcr.getToolEndTime().getNano() - tcr.getToolStartTime().getNano()));
+			tcr.setToolCostTime(ToolCallResp.costTime(tcr.getToolStartTime(), tcr.getToolEndTime()));
 			logger.debug("End ToolCallResp: {}", tcr);
 		}
 		else {
@@ -17,35 +17,28 @@
 
 package com.alibaba.cloud.ai.application.service;
 
-import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import java.util.UUID;
-
-import javax.imageio.ImageIO;
 
+import com.alibaba.cloud.ai.application.media.AnalysisCache;
+import com.alibaba.cloud.ai.application.media.ContentStore;
+import com.alibaba.cloud.ai.application.media.KeyframeExtractor;
+import com.alibaba.cloud.ai.application.utils.BlockingUtils;
 import com.alibaba.cloud.ai.dashscope.chat.DashScopeChatOptions;
-import org.bytedeco.javacv.FFmpegFrameGrabber;
-import org.bytedeco.javacv.Frame;
-import org.bytedeco.javacv.Java2DFrameConverter;
 
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.model.ChatModel;
-import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.content.Media;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.stereotype.Service;
 import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.multipart.MultipartFile;
+import reactor.core.publisher.Flux;
 
 /**
  * @author huangzhen
@@ -54,54 +47,80 @@ import org.springframework.web.multipart.MultipartFile;
 public class SAAVideoService  {
 
     private static final String DEFAULT_MODEL = "qwen-vl-max-latest";
-    private static final String TEMP_IMAGE_DIR = "temp-frames";
 
     private final ChatClient daschScopeChatClient;
 
+    private final KeyframeExtractor keyframeExtractor;
+
+    private final ContentStore contentStore;
+
+    private final AnalysisCache analysisCache;
+
     public SAAVideoService(
-            @Qualifier("dashscopeChatModel") ChatModel chatModel
+            @Qualifier("dashscopeChatModel") ChatModel chatModel,
+            KeyframeExtractor keyframeExtractor,
+            ContentStore contentStore,
+            AnalysisCache analysisCache
     ) {
 
         this.daschScopeChatClient = ChatClient
                 .builder(chatModel)
                 .build();
+        this.keyframeExtractor = keyframeExtractor;
+        this.contentStore = contentStore;
+        this.analysisCache = analysisCache;
     }
 
     /**
-     * 分析视频内容并回答用户问题
+     * 分析视频内容并回答用户问题，模型的回答边生成边返回
+     * 上传文件的保存和关键帧提取在阻塞调度器上执行，不占用请求线程；取消订阅时同时取消模型调用
      * @param prompt 用户问题
      * @param videoFile 上传的视频文件
-     * @return AI分析结果
+     * @return AI分析结果（流式）
      */
-    public String analyzeVideo(String prompt, MultipartFile videoFile) throws Exception {
+    public Flux<String> analyzeVideo(String prompt, MultipartFile videoFile) {
         // 1. 验证视频格式
         if (!isSupportedFormat(videoFile)) {
-            throw new IllegalArgumentException("不支持的视频格式");
+            return Flux.error(new IllegalArgumentException("不支持的视频格式"));
         }
 
-        // 2. 保存视频到临时文件
-        Path tempVideoPath = Paths.get(System.getProperty("java.io.tmpdir"), videoFile.getOriginalFilename());
-        videoFile.transferTo(tempVideoPath.toFile());
+        // 2. 同一视频同一问题的结果从缓存中按原有分片顺序重放，不再提取关键帧和调用模型
+        return Flux.using(
+                        () -> contentStore.put(videoFile),
+                        blob -> analysisCache.cached(
+                                AnalysisCache.key("video", DEFAULT_MODEL, prompt, blob.key()),
+                                AnalysisCache.TEXT,
+                                () -> BlockingUtils.fromCallable(() -> extractKeyframes(blob))
+                                        .flatMapMany(keyframes -> analyze(prompt, keyframes))),
+                        ContentStore.Blob::close)
+                .subscribeOn(BlockingUtils.scheduler());
+    }
 
-        // 3. 从视频中提取10帧
-        List<File> frames = extractFrames(tempVideoPath.toFile(), 10);
+    /**
+     * 顺序解码一遍视频，按场景变化提取关键帧，帧以 JPEG 保存在内存中；同一视频再次上传时复用已提取的关键帧
+     * 直接把存储的文件交给 FFmpeg，可以随机读取，索引在文件末尾的 mp4 也不需要缓冲整个流
+     */
+    private List<KeyframeExtractor.Keyframe> extractKeyframes(ContentStore.Blob blob) throws IOException {
+        return blob.derived("keyframes", stored -> keyframeExtractor.extract(stored.path()));
+    }
 
-        // 4. 准备AI分析所需的媒体列表
+    private Flux<String> analyze(String prompt, List<KeyframeExtractor.Keyframe> keyframes) {
+        // 3. 准备AI分析所需的媒体列表
         List<Media> mediaList = new ArrayList<>();
-        for (File frame : frames) {
+        for (KeyframeExtractor.Keyframe keyframe : keyframes) {
             mediaList.add(new Media(
-                    MimeTypeUtils.IMAGE_PNG,
-                    new FileSystemResource(frame)
+                    MimeTypeUtils.IMAGE_JPEG,
+                    new ByteArrayResource(keyframe.jpeg())
             ));
         }
 
-        // 5. 创建包含问题和帧图片的用户消息
+        // 4. 创建包含问题和帧图片的用户消息
 //        UserMessage message = new UserMessage(prompt, mediaList);
         UserMessage message =
                 UserMessage.builder().text(prompt).media(mediaList).metadata(new HashMap<>()).build();
 
-        // 6. 调用AI服务进行分析
-        List<ChatResponse> response = daschScopeChatClient.prompt(
+        // 5. 调用AI服务进行分析，按模型输出的分片返回
+        return daschScopeChatClient.prompt(
                         new Prompt(
                                 message,
                                 DashScopeChatOptions.builder()
@@ -111,73 +130,10 @@ public class SAAVideoService  {
                         ))
                 .stream()
                 .chatResponse()
-                .collectList()
-                .block();
-
-        // 7. 处理并返回响应
-        StringBuilder result = new StringBuilder();
-        if (response != null) {
-            for (ChatResponse chatResponse : response) {
-                String outputContent = chatResponse.getResult().getOutput().getText();
-                result.append(outputContent).append("\n");
-            }
-        }
-
-        // 8. 清理临时文件
-        cleanUpFiles(frames);
-        Files.deleteIfExists(tempVideoPath);
-
-        return result.toString();
-    }
-
-    /**
-     * 从视频中提取指定数量的帧
-     * @param videoFile 视频文件
-     * @param frameCount 要提取的帧数
-     * @return 提取的帧图片文件列表
-     */
-    private List<File> extractFrames(File videoFile, int frameCount) throws IOException {
-        List<File> frames = new ArrayList<>();
-        FFmpegFrameGrabber grabber = new FFmpegFrameGrabber(videoFile);
-        grabber.start();
-
-        try {
-            // 创建临时目录（如果不存在）
-            Path tempDir = Paths.get(System.getProperty("java.io.tmpdir"), TEMP_IMAGE_DIR);
-            if (!Files.exists(tempDir)) {
-                Files.createDirectories(tempDir);
-            }
-
-            int totalFrames = grabber.getLengthInFrames();
-            int step = totalFrames / frameCount; // 计算帧间隔
-
-            Java2DFrameConverter converter = new Java2DFrameConverter();
-            for (int i = 0; i < frameCount; i++) {
-                int frameNumber = i * step; // 计算当前帧位置
-                grabber.setFrameNumber(frameNumber);
-                Frame frame = grabber.grabImage();
-                BufferedImage image = converter.convert(frame);
-
-                // 保存帧为PNG图片
-                File outputFile = tempDir.resolve(UUID.randomUUID() + ".png").toFile();
-                ImageIO.write(image, "png", outputFile);
-                frames.add(outputFile);
-            }
-        } finally {
-            grabber.stop();
-        }
-
-        return frames;
-    }
-
-    /**
-     * 清理临时文件
-     * @param files 要删除的文件列表
-     */
-    private void cleanUpFiles(List<File> files) {
-        for (File file : files) {
-            file.delete();
-        }
+                .map(chatResponse -> {
+                    String text = chatResponse.getResult().getOutput().getText();
+                    return text == null ? "" : text;
+                });
     }
 
     /**
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.singleflight;
+
+import com.alibaba.cloud.ai.application.limiter.ModelConcurrencyLimiterBeanPostProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+/**
+ * Wrap the chat model beans with a {@link SingleFlightChatModel}, outside of the concurrency limiter so that
+ * the merged requests do not take a slot of the model.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@Component
+@EnableConfigurationProperties(SingleFlightProperties.class)
+public class SingleFlightBeanPostProcessor implements BeanPostProcessor, Ordered {
+
+	private static final Logger logger = LoggerFactory.getLogger(SingleFlightBeanPostProcessor.class);
+
+	private final SingleFlightProperties properties;
+
+	private final ObjectProvider<MeterRegistry> meterRegistry;
+
+	public SingleFlightBeanPostProcessor(
+			SingleFlightProperties properties,
+			ObjectProvider<MeterRegistry> meterRegistry
+	) {
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@NotNull
+	@Override
+	public Object postProcessAfterInitialization(@NotNull Object bean, @NotNull String beanName) throws BeansException {
+
+		if (!properties.isEnabled() || properties.getExcluded().contains(beanName)) {
+			return bean;
+		}
+
+		if (bean instanceof ChatModel chatModel && !(bean instanceof SingleFlightChatModel)) {
+			logger.debug("Share the identical in-flight streams of chat model: {}", beanName);
+			return new SingleFlightChatModel(beanName, chatModel, meterRegistry.getIfAvailable());
+		}
+
+		return bean;
+	}
+
+	@Override
+	public int getOrder() {
+		return ModelConcurrencyLimiterBeanPostProcessor.ORDER + 1;
+	}
+
+}
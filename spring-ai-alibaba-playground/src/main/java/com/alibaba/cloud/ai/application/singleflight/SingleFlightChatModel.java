@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.singleflight;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.util.CollectionUtils;
+
+/**
+ * {@link ChatModel} sharing one upstream stream between the concurrent identical prompts.
+ * <p>
+ * The prompt is keyed by the model, the options and the normalized messages, the chat memory is part of the
+ * messages so only the requests with the same conversation so far are merged. The shared stream replays what
+ * was generated to the late subscribers and is cancelled when its last subscriber leaves. Prompts with tools
+ * or media are never merged, their responses depend on more than the prompt text.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+public class SingleFlightChatModel implements ChatModel {
+
+	private static final Logger logger = LoggerFactory.getLogger(SingleFlightChatModel.class);
+
+	private final String name;
+
+	private final ChatModel delegate;
+
+	private final Map<String, Flux<ChatResponse>> inFlight = new ConcurrentHashMap<>();
+
+	private final Counter leaders;
+
+	private final Counter followers;
+
+	public SingleFlightChatModel(String name, ChatModel delegate, MeterRegistry meterRegistry) {
+
+		this.name = name;
+		this.delegate = delegate;
+		this.leaders = meterRegistry == null ? null : counter(meterRegistry, "leader");
+		this.followers = meterRegistry == null ? null : counter(meterRegistry, "follower");
+	}
+
+	public ChatModel getDelegate() {
+		return delegate;
+	}
+
+	@Override
+	public ChatResponse call(Prompt prompt) {
+		return delegate.call(prompt);
+	}
+
+	@Override
+	public Flux<ChatResponse> stream(Prompt prompt) {
+
+		if (!isShareable(prompt)) {
+			return delegate.stream(prompt);
+		}
+
+		return Flux.defer(() -> {
+			String key = key(prompt);
+			Flux<ChatResponse> created = share(key, prompt);
+			Flux<ChatResponse> shared = inFlight.computeIfAbsent(key, k -> created);
+			if (shared == created) {
+				increment(leaders);
+			}
+			else {
+				logger.debug("Join the in-flight stream of model {}: {}", name, key);
+				increment(followers);
+			}
+			return shared;
+		});
+	}
+
+	@Override
+	public ChatOptions getDefaultOptions() {
+		return delegate.getDefaultOptions();
+	}
+
+	int inFlightCount() {
+		return inFlight.size();
+	}
+
+	private Flux<ChatResponse> share(String key, Prompt prompt) {
+
+		AtomicReference<Flux<ChatResponse>> self = new AtomicReference<>();
+		self.set(Flux.defer(() -> delegate.stream(prompt))
+				// forgotten once the generation ends or is cancelled, the next identical prompt starts a new one
+				.doFinally(signal -> inFlight.remove(key, self.get()))
+				.replay()
+				.refCount(1));
+		return self.get();
+	}
+
+	static boolean isShareable(Prompt prompt) {
+
+		if (prompt.getOptions() instanceof ToolCallingChatOptions options
+				&& (!CollectionUtils.isEmpty(options.getToolCallbacks())
+				|| !CollectionUtils.isEmpty(options.getToolNames())
+				|| !CollectionUtils.isEmpty(options.getToolContext()))) {
+			return false;
+		}
+
+		for (Message message : prompt.getInstructions()) {
+			if (message instanceof UserMessage userMessage && !CollectionUtils.isEmpty(userMessage.getMedia())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * SHA-256 of the options and the messages, whitespace differences of the text do not change the key.
+	 */
+	String key(Prompt prompt) {
+
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+
+		update(digest, name);
+		update(digest, prompt.getOptions() == null ? "" : ModelOptionsUtils.toJsonString(prompt.getOptions()));
+		for (Message message : prompt.getInstructions()) {
+			update(digest, message.getMessageType().name());
+			update(digest, normalize(message.getText()));
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	static String normalize(String text) {
+		return text == null ? "" : text.strip().replaceAll("\\s+", " ");
+	}
+
+	private static void update(MessageDigest digest, String value) {
+
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		// length prefixed, so that the boundaries between the parts are part of the key
+		digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.US_ASCII));
+		digest.update((byte) ':');
+		digest.update(bytes);
+	}
+
+	private Counter counter(MeterRegistry meterRegistry, String role) {
+
+		return Counter.builder("playground.model.single-flight")
+				.description("Model streams started (leader) or joined (follower)")
+				.tag("model", name)
+				.tag("role", role)
+				.register(meterRegistry);
+	}
+
+	private static void increment(Counter counter) {
+
+		if (counter != null) {
+			counter.increment();
+		}
+	}
+
+}
@@ -17,6 +17,8 @@
 
 package com.alibaba.cloud.ai.application.tools;
 
+import com.alibaba.cloud.ai.application.annotation.CacheableTool;
+import com.alibaba.cloud.ai.application.resilience.DependencyGuard;
 import com.fasterxml.jackson.annotation.JsonClassDescription;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyDescription;
@@ -24,29 +26,45 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.web.client.RestClient;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.util.concurrent.CompletableFuture;
+import java.nio.charset.StandardCharsets;
 import java.util.function.BiFunction;
+import java.util.function.Supplier;
 
 /**
  * @author yuluo
  * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
  */
 
+@CacheableTool(ttlSeconds = 600)
 public class BaiduMapTools implements BiFunction<BaiduMapTools.BaiduMapToolRequest, ToolContext, BaiduMapTools.BaiduMapToolResponse> {
 
 	private final String ak;
 
-	private final HttpClient httpClient;
+	public static final String DEFAULT_BASE_URL = "https://api.map.baidu.com";
+
+	private final RestClient restClient;
+
+	/**
+	 * Circuit breaker and bulkhead of the baidu map api, null when not guarded.
+	 */
+	private final DependencyGuard guard;
 
 	public BaiduMapTools(String ak) {
 
+		this(ak, RestClient.builder(), null);
+	}
+
+	/**
+	 * @param restClientBuilder builder of the client on a shared connection pool, the connections are reused by
+	 * all the tool instances.
+	 */
+	public BaiduMapTools(String ak, RestClient.Builder restClientBuilder, DependencyGuard guard) {
+
 		this.ak = ak;
-		this.httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();;
+		this.guard = guard;
+		this.restClient = restClientBuilder.baseUrl(DEFAULT_BASE_URL).build();
 	}
 
 	@Override
@@ -89,47 +107,37 @@ public class BaiduMapTools implements BiFunction<BaiduMapTools.BaiduMapToolReque
 
 	public String getAddressCityCode(String address) {
 
-		String path = String.format("/api_region_search/v1/?ak=%s&keyword=%s&sub_admin=0&extensions_code=1", ak, address);
-		HttpRequest httpRequest = this.createGetRequest(path);
-		CompletableFuture<HttpResponse<String>> responseFuture = this.httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString());
-		HttpResponse<String> response = responseFuture.join();
-		if (response.statusCode() != 200) {
-			throw new RuntimeException("Failed to get address city code");
-		}
-		else {
-			return response.body();
-		}
+		return get("Failed to get address city code",
+				"/api_region_search/v1/?ak={ak}&keyword={keyword}&sub_admin=0&extensions_code=1", ak, address);
 	}
 
 	public String getWeather(String cityCode) {
-		String path = String.format("/weather/v1/?ak=%s&district_id=%s&data_type=%s", ak, cityCode, "all");
-		HttpRequest httpRequest = this.createGetRequest(path);
-		CompletableFuture<HttpResponse<String>> responseFuture = this.httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString());
-		HttpResponse<String> response = responseFuture.join();
-		if (response.statusCode() != 200) {
-			throw new RuntimeException("Failed to get weather information");
-		}
-		else {
-			return response.body();
-		}
+
+		return get("Failed to get weather information",
+				"/weather/v1/?ak={ak}&district_id={cityCode}&data_type={dataType}", ak, cityCode, "all");
 	}
 
 	public String getFacilityInformation(String address, String facilityType) {
-		String path = String.format("/place/v2/search?query=%s&region=%s&output=json&ak=%s", facilityType, address, ak);
-		HttpRequest httpRequest = this.createGetRequest(path);
-		CompletableFuture<HttpResponse<String>> responseFuture = this.httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString());
-		HttpResponse<String> response = responseFuture.join();
-		if (response.statusCode() != 200) {
-			throw new RuntimeException("Failed to get facility information");
-		}
-		else {
-			return response.body();
-		}
+
+		return get("Failed to get facility information",
+				"/place/v2/search?query={query}&region={region}&output=json&ak={ak}", facilityType, address, ak);
 	}
 
-	private HttpRequest createGetRequest(String path) {
-		URI uri = URI.create("https://api.map.baidu.com" + path);
-		return HttpRequest.newBuilder().uri(uri).GET().build();
+	private String get(String failureMessage, String uriTemplate, Object... uriVariables) {
+
+		return guarded(() -> restClient.get()
+				.uri(uriTemplate, uriVariables)
+				.exchange((request, response) -> {
+					if (response.getStatusCode().value() != 200) {
+						throw new RuntimeException(failureMessage);
+					}
+					return new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8);
+				}));
+	}
+
+	private String guarded(Supplier<String> call) {
+
+		return guard == null ? call.get() : guard.execute(call);
 	}
 
 	// 模型的构造参数为：{"Request": {"address": "杭州西溪园区", "facilityType": "科技园区"}}
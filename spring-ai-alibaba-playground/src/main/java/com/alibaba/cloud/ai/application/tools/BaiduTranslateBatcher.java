@@ -0,0 +1,327 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.tools;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import com.alibaba.cloud.ai.application.tools.BaiduTranslateTools.BaiduTranslateToolResponse;
+import com.alibaba.cloud.ai.application.tools.BaiduTranslateTools.Request;
+import com.alibaba.cloud.ai.application.tools.BaiduTranslateTools.Response;
+import com.alibaba.cloud.ai.application.tools.BaiduTranslateTools.TranslationResponse;
+import com.alibaba.cloud.ai.application.tools.BaiduTranslateTools.TranslationResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collect the translations of the same language pair arriving within a short window and send them as one
+ * multi line query, the baidu translate api answers one result per line in the same order.
+ * <p>
+ * A batch is sent when the window elapses, or earlier when it is full. Texts with line breaks can not be
+ * told apart in a multi line query and are translated alone. When the number of results does not match
+ * the number of lines, every text of the batch is translated again on its own.
+ * <p>
+ * The scheduler only times the windows, requests are sent by a bounded pool of its own. A batch that
+ * does not fit in the queue of the pool, and every translation still pending on close, fails instead of
+ * waiting forever.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+class BaiduTranslateBatcher implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(BaiduTranslateBatcher.class);
+
+	private static final String LINE_SEPARATOR = "\n";
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private final Map<LanguagePair, Batch> pending = new HashMap<>();
+
+	private final Duration window;
+
+	private final int maxSize;
+
+	private final int maxChars;
+
+	/**
+	 * Send one translate request and return the raw response body.
+	 */
+	private final Function<Request, String> sender;
+
+	private final ScheduledExecutorService scheduler;
+
+	private final ExecutorService sendExecutor;
+
+	/**
+	 * Futures not completed yet, failed on close.
+	 */
+	private final Set<CompletableFuture<BaiduTranslateToolResponse>> outstanding = ConcurrentHashMap.newKeySet();
+
+	private volatile boolean closed;
+
+	BaiduTranslateBatcher(
+			Duration window,
+			int maxSize,
+			int maxChars,
+			int maxConcurrentRequests,
+			int maxQueuedRequests,
+			Function<Request, String> sender
+	) {
+
+		this.window = window;
+		this.maxSize = Math.max(1, maxSize);
+		this.maxChars = Math.max(1, maxChars);
+		this.sender = sender;
+		this.scheduler = newScheduler();
+		this.sendExecutor = newSendExecutor(Math.max(1, maxConcurrentRequests), Math.max(1, maxQueuedRequests));
+	}
+
+	/**
+	 * Queue a translation, the returned future completes with the result of this text only.
+	 */
+	CompletableFuture<BaiduTranslateToolResponse> submit(Request request) {
+
+		CompletableFuture<BaiduTranslateToolResponse> future = new CompletableFuture<>();
+		if (closed) {
+			future.completeExceptionally(new IllegalStateException("Baidu translate batcher is closed"));
+			return future;
+		}
+		outstanding.add(future);
+		future.whenComplete((response, error) -> outstanding.remove(future));
+
+		if (request.q().contains(LINE_SEPARATOR) || request.q().length() >= maxChars) {
+			sendAsync(List.of(new Entry(request, future)), request.from(), request.to());
+			return future;
+		}
+
+		LanguagePair pair = new LanguagePair(request.from(), request.to());
+		List<Batch> ready = new ArrayList<>(2);
+		synchronized (pending) {
+			Batch batch = pending.get(pair);
+			if (batch != null && batch.chars + request.q().length() + 1 > maxChars) {
+				ready.add(pending.remove(pair));
+				batch = null;
+			}
+			if (batch == null) {
+				batch = new Batch(pair);
+				pending.put(pair, batch);
+				Batch scheduled = batch;
+				scheduler.schedule(() -> flush(scheduled), window.toMillis(), TimeUnit.MILLISECONDS);
+			}
+
+			batch.add(new Entry(request, future));
+			if (batch.entries.size() >= maxSize) {
+				pending.remove(pair);
+				ready.add(batch);
+			}
+		}
+
+		// the send pool is not blocking, full batches are handed over from the caller thread.
+		ready.forEach(this::flush);
+
+		return future;
+	}
+
+	@Override
+	public void close() {
+
+		closed = true;
+		scheduler.shutdownNow();
+		sendExecutor.shutdownNow();
+		synchronized (pending) {
+			pending.clear();
+		}
+
+		// queued, pending and in flight translations, callers must not wait for a request never sent.
+		IllegalStateException error = new IllegalStateException("Baidu translate batcher is closed");
+		List.copyOf(outstanding).forEach(future -> future.completeExceptionally(error));
+	}
+
+	private void flush(Batch batch) {
+
+		synchronized (pending) {
+			// already sent because it was full
+			if (batch.flushed) {
+				return;
+			}
+			batch.flushed = true;
+			pending.remove(batch.pair, batch);
+		}
+
+		sendAsync(batch.entries, batch.pair.from(), batch.pair.to());
+	}
+
+	private void sendAsync(List<Entry> entries, String from, String to) {
+
+		try {
+			sendExecutor.execute(() -> send(entries, from, to));
+		}
+		catch (RejectedExecutionException e) {
+			logger.warn("Too many pending translate requests, reject {} translations", entries.size());
+			RejectedExecutionException error = new RejectedExecutionException("Too many pending translate requests");
+			entries.forEach(entry -> entry.future.completeExceptionally(error));
+		}
+	}
+
+	private void send(List<Entry> entries, String from, String to) {
+
+		String q = String.join(LINE_SEPARATOR, entries.stream().map(entry -> entry.request.q()).toList());
+		logger.debug("Send {} translations from {} to {} in one request", entries.size(), from, to);
+
+		String responseData;
+		try {
+			responseData = sender.apply(new Request(q, from, to));
+		}
+		catch (Exception e) {
+			logger.error("Error occurred: {}", e.getMessage());
+			entries.forEach(entry -> entry.future.completeExceptionally(e));
+			return;
+		}
+
+		List<TranslationResult> results = parseResults(responseData);
+		if (results == null) {
+			// error response, every caller gets the error code like a single request does
+			BaiduTranslateToolResponse error = parseError(responseData);
+			entries.forEach(entry -> entry.future.complete(error));
+			return;
+		}
+
+		if (results.size() != entries.size()) {
+			if (entries.size() == 1) {
+				entries.get(0).future.complete(joinResults(to, results));
+				return;
+			}
+
+			logger.warn("Expected {} translations but got {}, translate them one by one", entries.size(), results.size());
+			entries.forEach(entry -> send(List.of(entry), from, to));
+			return;
+		}
+
+		for (int i = 0; i < entries.size(); i++) {
+			entries.get(i).future.complete(joinResults(to, List.of(results.get(i))));
+		}
+	}
+
+	private List<TranslationResult> parseResults(String responseData) {
+
+		try {
+			TranslationResponse response = mapper.readValue(responseData, TranslationResponse.class);
+			return response.trans_result() == null ? List.of() : response.trans_result();
+		}
+		catch (Exception e) {
+			return null;
+		}
+	}
+
+	private BaiduTranslateToolResponse parseError(String responseData) {
+
+		try {
+			Map<String, String> error = mapper.readValue(responseData, mapper.getTypeFactory()
+					.constructMapType(Map.class, String.class, String.class));
+			logger.error("Translation exception, please inquire Baidu translation api documentation to info error_code:{}", error);
+			return new BaiduTranslateToolResponse(new Response(error));
+		}
+		catch (Exception e) {
+			logger.error("Failed to parse json due to: {}", e.getMessage());
+			return null;
+		}
+	}
+
+	private BaiduTranslateToolResponse joinResults(String to, List<TranslationResult> results) {
+
+		Map<String, String> translations = new HashMap<>();
+		translations.put(to, String.join(LINE_SEPARATOR, results.stream().map(TranslationResult::dst).toList()));
+
+		return new BaiduTranslateToolResponse(new Response(translations));
+	}
+
+	private static ScheduledExecutorService newScheduler() {
+
+		AtomicInteger counter = new AtomicInteger();
+		return Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "baidu-translate-batcher-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	private static ExecutorService newSendExecutor(int maxConcurrentRequests, int maxQueuedRequests) {
+
+		AtomicInteger counter = new AtomicInteger();
+		return new ThreadPoolExecutor(
+				maxConcurrentRequests,
+				maxConcurrentRequests,
+				0L,
+				TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(maxQueuedRequests),
+				runnable -> {
+					Thread thread = new Thread(runnable, "baidu-translate-sender-" + counter.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}
+		);
+	}
+
+	private record LanguagePair(String from, String to) {
+	}
+
+	private record Entry(Request request, CompletableFuture<BaiduTranslateToolResponse> future) {
+	}
+
+	private static final class Batch {
+
+		private final LanguagePair pair;
+
+		private final List<Entry> entries = new ArrayList<>();
+
+		private int chars;
+
+		private boolean flushed;
+
+		private Batch(LanguagePair pair) {
+			this.pair = Objects.requireNonNull(pair);
+		}
+
+		private void add(Entry entry) {
+
+			entries.add(entry);
+			chars += entry.request.q().length() + 1;
+		}
+
+	}
+
+}
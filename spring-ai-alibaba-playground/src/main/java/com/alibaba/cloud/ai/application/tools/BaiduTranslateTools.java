@@ -17,12 +17,19 @@
 
 package com.alibaba.cloud.ai.application.tools;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.BiFunction;
 
+import com.alibaba.cloud.ai.application.annotation.CacheableTool;
+import com.alibaba.cloud.ai.application.resilience.DependencyGuard;
 import com.fasterxml.jackson.annotation.JsonClassDescription;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyDescription;
@@ -43,26 +50,61 @@ import org.springframework.web.util.UriComponentsBuilder;
  * @author yuluo
  * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
  *
- * 百度翻译工具声明
+ * 百度翻译工具声明，开启批量后同一语言对的短文本会合并为一次多行请求
  */
 
-public class BaiduTranslateTools implements BiFunction<BaiduTranslateTools.BaiduTranslateToolRequest, ToolContext, BaiduTranslateTools.BaiduTranslateToolResponse> {
+@CacheableTool(ttlSeconds = 3600, skipWhenPresent = {"error_code", "error_msg"})
+public class BaiduTranslateTools implements BiFunction<BaiduTranslateTools.BaiduTranslateToolRequest, ToolContext, BaiduTranslateTools.BaiduTranslateToolResponse>, AutoCloseable {
 
 	private static final Logger logger = LoggerFactory.getLogger(BaiduTranslateTools.class);
 
+	public static final String DEFAULT_BASE_URL = "https://fanyi-api.baidu.com/api/trans/vip/translate";
+
 	private final String appId;
 
 	private final String secretKey;
 
+	private final String baseUrl;
+
 	private final RestClient restClient;
 
+	private final BaiduTranslateBatcher batcher;
+
+	private final Duration batchTimeout;
+
+	private final DependencyGuard guard;
+
 	public BaiduTranslateTools(String appId, String secretKey, RestClient.Builder restClientBuilder, ResponseErrorHandler responseErrorHandler) {
 
+		this(appId, secretKey, DEFAULT_BASE_URL, restClientBuilder, responseErrorHandler, null, null);
+	}
+
+	/**
+	 * @param batch batch settings, translate every text with its own request when null or disabled.
+	 * @param guard circuit breaker and bulkhead of the translate api, not guarded when null.
+	 */
+	public BaiduTranslateTools(
+			String appId,
+			String secretKey,
+			String baseUrl,
+			RestClient.Builder restClientBuilder,
+			ResponseErrorHandler responseErrorHandler,
+			ToolCallingProperties.TranslateBatch batch,
+			DependencyGuard guard
+	) {
+
 		this.appId = appId;
 		this.secretKey = secretKey;
-		this.restClient = restClientBuilder.baseUrl("https://fanyi-api.baidu.com/api/trans/vip/translate")
+		this.baseUrl = baseUrl;
+		this.guard = guard;
+		this.restClient = restClientBuilder.baseUrl(baseUrl)
 				.defaultHeader("Content-Type", "application/x-www-form-urlencoded")
 				.defaultStatusHandler(responseErrorHandler).build();
+		this.batcher = batch != null && batch.isEnabled()
+				? new BaiduTranslateBatcher(batch.getWindow(), batch.getMaxSize(), batch.getMaxChars(),
+						batch.getMaxConcurrentRequests(), batch.getMaxQueuedRequests(), this::send)
+				: null;
+		this.batchTimeout = batch != null ? batch.getTimeout() : null;
 	}
 
 	private MultiValueMap<String, String> constructRequestBody(Request request, String salt, String sign) {
@@ -120,30 +162,74 @@ public class BaiduTranslateTools implements BiFunction<BaiduTranslateTools.Baidu
 
 	@Override
 	public BaiduTranslateToolResponse apply(BaiduTranslateToolRequest baiduTranslateToolRequest, ToolContext toolContext) {
-		Random random = new Random();
 
 		if (baiduTranslateToolRequest.input != null && StringUtils.hasText(baiduTranslateToolRequest.input.q) && StringUtils.hasText(baiduTranslateToolRequest.input.from) && StringUtils.hasText(baiduTranslateToolRequest.input.to)) {
-			String salt = String.valueOf(random.nextInt(100000));
-			String sign = DigestUtils.md5DigestAsHex((this.appId + baiduTranslateToolRequest.input.q + salt + this.secretKey).getBytes());
-			String url = UriComponentsBuilder.fromHttpUrl("https://fanyi-api.baidu.com/api/trans/vip/translate")
-					.toUriString();
-
-			try {
-				MultiValueMap<String, String> body = this.constructRequestBody(baiduTranslateToolRequest.input, salt, sign);
-				String respData = this.restClient.post().uri(url).body(body).retrieve().toEntity(String.class)
-						.getBody();
-				return this.parseResponse(respData);
-			}
-			catch (Exception var7) {
-				logger.error("Error occurred: {}", var7.getMessage());
-				return null;
+			if (batcher != null) {
+				return applyInBatch(baiduTranslateToolRequest.input);
 			}
+
+			return this.parseResponse(send(baiduTranslateToolRequest.input));
 		}
 		else {
 			return null;
 		}
 	}
 
+	@Override
+	public void close() {
+
+		if (batcher != null) {
+			batcher.close();
+		}
+	}
+
+	/**
+	 * Failures are thrown instead of answered, a circuit open or timed out translation must not be cached as the
+	 * result of the text. The tool calling manager tells the model why nothing was translated.
+	 */
+	private BaiduTranslateToolResponse applyInBatch(Request request) {
+
+		try {
+			return batcher.submit(request).get(batchTimeout.toMillis(), TimeUnit.MILLISECONDS);
+		}
+		catch (TimeoutException e) {
+			logger.error("Translation timed out after {}", batchTimeout);
+			throw new IllegalStateException("Translation timed out after " + batchTimeout.toMillis() + "ms", e);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Translation interrupted", e);
+		}
+		catch (ExecutionException e) {
+			logger.error("Error occurred: {}", e.getCause().getMessage());
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Sign and send one translate request, the response body is returned as is.
+	 */
+	String send(Request request) {
+
+		return guard == null ? doSend(request) : guard.execute(() -> doSend(request));
+	}
+
+	private String doSend(Request request) {
+
+		Random random = new Random();
+		String salt = String.valueOf(random.nextInt(100000));
+		String sign = DigestUtils.md5DigestAsHex((this.appId + request.q + salt + this.secretKey).getBytes(StandardCharsets.UTF_8));
+		String url = UriComponentsBuilder.fromHttpUrl(this.baseUrl)
+				.toUriString();
+
+		MultiValueMap<String, String> body = this.constructRequestBody(request, salt, sign);
+		return this.restClient.post().uri(url).body(body).retrieve().toEntity(String.class)
+				.getBody();
+	}
+
 	public record BaiduTranslateToolRequest(@JsonProperty("Request") BaiduTranslateTools.Request input) {
 		public BaiduTranslateToolRequest(BaiduTranslateTools.Request input) {
 			this.input = input;
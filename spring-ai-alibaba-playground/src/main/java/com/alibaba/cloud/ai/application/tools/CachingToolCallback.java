@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.tools;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+/**
+ * {@link ToolCallback} decorator serving repeated calls with the same arguments from the {@link ToolResultCache}.
+ * Calls with a tool context are not cached, the result may depend on it.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+public class CachingToolCallback implements ToolCallback {
+
+	private final ToolCallback delegate;
+
+	private final ToolResultCache cache;
+
+	private final String scope;
+
+	private final Duration ttl;
+
+	private final Predicate<String> cacheable;
+
+	CachingToolCallback(ToolCallback delegate, ToolResultCache cache, String scope, Duration ttl,
+			Predicate<String> cacheable) {
+
+		this.delegate = delegate;
+		this.cache = cache;
+		this.scope = scope == null ? "" : scope;
+		this.ttl = ttl;
+		this.cacheable = cacheable;
+	}
+
+	public ToolCallback getDelegate() {
+		return delegate;
+	}
+
+	@Override
+	public ToolDefinition getToolDefinition() {
+		return delegate.getToolDefinition();
+	}
+
+	@Override
+	public ToolMetadata getToolMetadata() {
+		return delegate.getToolMetadata();
+	}
+
+	@Override
+	public String call(String toolInput) {
+
+		return cache.get(scope, getToolDefinition().name(), toolInput, ttl, cacheable, () -> delegate.call(toolInput));
+	}
+
+	@Override
+	public String call(String toolInput, ToolContext toolContext) {
+
+		if (toolContext != null && !toolContext.getContext().isEmpty()) {
+			return delegate.call(toolInput, toolContext);
+		}
+
+		return call(toolInput);
+	}
+
+}
@@ -0,0 +1,245 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.tools;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.Assert;
+
+/**
+ * Run every tool call of a model turn concurrently, so the latency of the turn is the slowest tool instead
+ * of the sum of all tools. Every call has its own timeout, the responses keep the order of the tool calls.
+ * <p>
+ * The timeout of a call counts from the moment it starts running, a call still waiting for a free thread
+ * is given up after the same timeout. A timed out call is interrupted, so its thread goes back to the pool.
+ * <p>
+ * A failed or timed out tool answers the model with the error message, like the default tool execution
+ * exception processor does. Tools that can not be found in the prompt options are resolved by the delegate.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+public class ConcurrentToolCallingManager implements ToolCallingManager, DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(ConcurrentToolCallingManager.class);
+
+	private final ToolCallingManager delegate;
+
+	private final ExecutorService executor;
+
+	private final ToolCallingProperties properties;
+
+	public ConcurrentToolCallingManager(ToolCallingManager delegate, ToolCallingProperties properties) {
+
+		this(delegate, newToolExecutor(properties.getMaxConcurrency()), properties);
+	}
+
+	public ConcurrentToolCallingManager(
+			ToolCallingManager delegate,
+			ExecutorService executor,
+			ToolCallingProperties properties
+	) {
+
+		this.delegate = delegate;
+		this.executor = executor;
+		this.properties = properties;
+	}
+
+	@Override
+	public List<ToolDefinition> resolveToolDefinitions(ToolCallingChatOptions chatOptions) {
+		return delegate.resolveToolDefinitions(chatOptions);
+	}
+
+	@Override
+	public ToolExecutionResult executeToolCalls(Prompt prompt, ChatResponse chatResponse) {
+
+		Assert.notNull(prompt, "prompt cannot be null");
+		Assert.notNull(chatResponse, "chatResponse cannot be null");
+
+		Optional<Generation> toolCallGeneration = chatResponse.getResults().stream()
+				.filter(generation -> generation.getOutput() != null && generation.getOutput().hasToolCalls())
+				.findFirst();
+		if (toolCallGeneration.isEmpty()) {
+			throw new IllegalStateException("No tool call requested by the chat model");
+		}
+
+		AssistantMessage assistantMessage = toolCallGeneration.get().getOutput();
+		List<AssistantMessage.ToolCall> toolCalls = assistantMessage.getToolCalls();
+
+		Map<String, ToolCallback> callbacks = new HashMap<>();
+		ToolContext toolContext = null;
+		if (prompt.getOptions() instanceof ToolCallingChatOptions options) {
+			for (ToolCallback callback : options.getToolCallbacks()) {
+				callbacks.put(callback.getToolDefinition().name(), callback);
+			}
+			if (options.getToolContext() != null && !options.getToolContext().isEmpty()) {
+				toolContext = new ToolContext(options.getToolContext());
+			}
+		}
+
+		if (!toolCalls.stream().allMatch(toolCall -> callbacks.containsKey(toolCall.name()))) {
+			// let the delegate resolve the tools registered by name.
+			logger.debug("Tool callbacks not found in prompt options, fallback to the delegate tool calling manager.");
+			return delegate.executeToolCalls(prompt, chatResponse);
+		}
+
+		final ToolContext context = toolContext;
+		List<ToolTask> tasks = new ArrayList<>(toolCalls.size());
+		List<Future<String>> futures = new ArrayList<>(toolCalls.size());
+		for (AssistantMessage.ToolCall toolCall : toolCalls) {
+			ToolTask task = new ToolTask(callbacks.get(toolCall.name()), toolCall.arguments(), context);
+			tasks.add(task);
+			futures.add(executor.submit(task));
+		}
+
+		boolean returnDirect = true;
+		List<ToolResponseMessage.ToolResponse> toolResponses = new ArrayList<>(toolCalls.size());
+		for (int i = 0; i < toolCalls.size(); i++) {
+			AssistantMessage.ToolCall toolCall = toolCalls.get(i);
+			String result = await(toolCall, tasks.get(i), futures.get(i));
+			toolResponses.add(new ToolResponseMessage.ToolResponse(toolCall.id(), toolCall.name(), result));
+			returnDirect = returnDirect && callbacks.get(toolCall.name()).getToolMetadata().returnDirect();
+		}
+
+		List<Message> conversationHistory = new ArrayList<>(prompt.copy().getInstructions());
+		conversationHistory.add(assistantMessage);
+		conversationHistory.add(new ToolResponseMessage(toolResponses, Map.of()));
+
+		return ToolExecutionResult.builder()
+				.conversationHistory(conversationHistory)
+				.returnDirect(returnDirect)
+				.build();
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	private static ExecutorService newToolExecutor(int maxConcurrency) {
+
+		AtomicInteger counter = new AtomicInteger();
+		return Executors.newFixedThreadPool(maxConcurrency, runnable -> {
+			Thread thread = new Thread(runnable, "tool-executor-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * All calls are already submitted, so waiting in order only costs the time of the slowest one.
+	 * A call first waits for a thread, then runs until the timeout counted from its own start.
+	 */
+	private String await(AssistantMessage.ToolCall toolCall, ToolTask task, Future<String> future) {
+
+		long timeoutMillis = properties.getTimeout(toolCall.name()).toMillis();
+		long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		try {
+			long queuedNanos = timeoutNanos - (System.nanoTime() - task.submitNanos);
+			if (!task.started.await(Math.max(0, queuedNanos), TimeUnit.NANOSECONDS)) {
+				future.cancel(true);
+				logger.warn("Tool {} not started within {}ms", toolCall.name(), timeoutMillis);
+				return "Tool " + toolCall.name() + " was not started within " + timeoutMillis + "ms";
+			}
+			long remainingNanos = timeoutNanos - (System.nanoTime() - task.startNanos);
+			return future.get(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS);
+		}
+		catch (TimeoutException e) {
+			future.cancel(true);
+			logger.warn("Tool {} timed out after {}ms", toolCall.name(), timeoutMillis);
+			return "Tool " + toolCall.name() + " timed out after " + timeoutMillis + "ms";
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause() != null ? e.getCause() : e;
+			logger.error("Tool {} failed: {}", toolCall.name(), cause.toString());
+			// many exceptions carry no message, always tell the model which tool failed and how.
+			return "Tool " + toolCall.name() + " failed: " + cause.getClass().getSimpleName()
+					+ (cause.getMessage() != null ? ": " + cause.getMessage() : "");
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			future.cancel(true);
+			return "Tool " + toolCall.name() + " was interrupted";
+		}
+	}
+
+	/**
+	 * A tool call that records when a thread picks it up.
+	 */
+	private static final class ToolTask implements Callable<String> {
+
+		private final ToolCallback callback;
+
+		private final String arguments;
+
+		private final ToolContext context;
+
+		private final long submitNanos = System.nanoTime();
+
+		private final CountDownLatch started = new CountDownLatch(1);
+
+		private volatile long startNanos;
+
+		private ToolTask(ToolCallback callback, String arguments, ToolContext context) {
+
+			this.callback = callback;
+			this.arguments = arguments;
+			this.context = context;
+		}
+
+		@Override
+		public String call() {
+
+			startNanos = System.nanoTime();
+			started.countDown();
+			return callback.call(arguments, context);
+		}
+
+	}
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.tools;
+
+import com.alibaba.cloud.ai.application.resilience.DependencyGuard;
+
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+/**
+ * {@link ToolCallback} decorator running every call of the tool through the {@link DependencyGuard} of the
+ * server providing it, a failing tool opens the circuit of its server.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+public class GuardedToolCallback implements ToolCallback {
+
+	private final ToolCallback delegate;
+
+	private final DependencyGuard guard;
+
+	public GuardedToolCallback(ToolCallback delegate, DependencyGuard guard) {
+
+		this.delegate = delegate;
+		this.guard = guard;
+	}
+
+	public ToolCallback getDelegate() {
+		return delegate;
+	}
+
+	@Override
+	public ToolDefinition getToolDefinition() {
+		return delegate.getToolDefinition();
+	}
+
+	@Override
+	public ToolMetadata getToolMetadata() {
+		return delegate.getToolMetadata();
+	}
+
+	@Override
+	public String call(String toolInput) {
+
+		return guard.execute(() -> delegate.call(toolInput));
+	}
+
+	@Override
+	public String call(String toolInput, ToolContext toolContext) {
+
+		return guard.execute(() -> delegate.call(toolInput, toolContext));
+	}
+
+}
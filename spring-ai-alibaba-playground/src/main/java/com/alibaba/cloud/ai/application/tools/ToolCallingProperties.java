@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.tools;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Execution settings of the tool calls, the tool credentials are configured under the same prefix.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@ConfigurationProperties(ToolCallingProperties.PREFIX)
+public class ToolCallingProperties {
+
+	public static final String PREFIX = "spring.ai.alibaba.playground.tool-calling";
+
+	/**
+	 * Max tool calls running at the same time across all requests.
+	 */
+	private int maxConcurrency = 16;
+
+	/**
+	 * Default timeout of a single tool call.
+	 */
+	private Duration timeout = Duration.ofSeconds(30);
+
+	/**
+	 * Timeout overrides by tool name.
+	 */
+	private Map<String, Duration> timeouts = new HashMap<>();
+
+	private final Cache cache = new Cache();
+
+	private final TranslateBatch translateBatch = new TranslateBatch();
+
+	public int getMaxConcurrency() {
+		return this.maxConcurrency;
+	}
+
+	public void setMaxConcurrency(int maxConcurrency) {
+		this.maxConcurrency = maxConcurrency;
+	}
+
+	public Duration getTimeout() {
+		return this.timeout;
+	}
+
+	public void setTimeout(Duration timeout) {
+		this.timeout = timeout;
+	}
+
+	public Map<String, Duration> getTimeouts() {
+		return this.timeouts;
+	}
+
+	public void setTimeouts(Map<String, Duration> timeouts) {
+		this.timeouts = timeouts;
+	}
+
+	public Duration getTimeout(String toolName) {
+		return this.timeouts.getOrDefault(toolName, this.timeout);
+	}
+
+	public Cache getCache() {
+		return this.cache;
+	}
+
+	public TranslateBatch getTranslateBatch() {
+		return this.translateBatch;
+	}
+
+	public static class Cache {
+
+		private boolean enabled = true;
+
+		/**
+		 * Max cached tool results across all tools.
+		 */
+		private long maximumSize = 1000;
+
+		/**
+		 * Upper bound of every ttl, entries are dropped after it whatever the tool declares.
+		 */
+		private Duration maxTtl = Duration.ofHours(1);
+
+		/**
+		 * Result ttl by tool name, overrides the ttl declared by the tool. Mcp tools match by their plain name.
+		 */
+		private Map<String, Duration> ttl = new HashMap<>();
+
+		/**
+		 * Non idempotent tools that must never be cached.
+		 */
+		private Set<String> excluded = new HashSet<>();
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public long getMaximumSize() {
+			return this.maximumSize;
+		}
+
+		public void setMaximumSize(long maximumSize) {
+			this.maximumSize = maximumSize;
+		}
+
+		public Duration getMaxTtl() {
+			return this.maxTtl;
+		}
+
+		public void setMaxTtl(Duration maxTtl) {
+			this.maxTtl = maxTtl;
+		}
+
+		public Map<String, Duration> getTtl() {
+			return this.ttl;
+		}
+
+		public void setTtl(Map<String, Duration> ttl) {
+			this.ttl = ttl;
+		}
+
+		public Set<String> getExcluded() {
+			return this.excluded;
+		}
+
+		public void setExcluded(Set<String> excluded) {
+			this.excluded = excluded;
+		}
+
+	}
+
+	public static class TranslateBatch {
+
+		private boolean enabled = true;
+
+		/**
+		 * How long the first translation of a language pair waits for others to join its batch.
+		 */
+		private Duration window = Duration.ofMillis(20);
+
+		/**
+		 * Max texts sent in one request.
+		 */
+		private int maxSize = 32;
+
+		/**
+		 * Max characters of the joined query, the baidu api accepts about 6000 bytes per request.
+		 */
+		private int maxChars = 2000;
+
+		/**
+		 * Max translate requests in flight, batches are sent by a pool of this size.
+		 */
+		private int maxConcurrentRequests = 4;
+
+		/**
+		 * Max batches waiting for a free sender, further batches fail at once.
+		 */
+		private int maxQueuedRequests = 64;
+
+		/**
+		 * How long a caller waits for its translation, including the window.
+		 */
+		private Duration timeout = Duration.ofSeconds(10);
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Duration getWindow() {
+			return this.window;
+		}
+
+		public void setWindow(Duration window) {
+			this.window = window;
+		}
+
+		public int getMaxSize() {
+			return this.maxSize;
+		}
+
+		public void setMaxSize(int maxSize) {
+			this.maxSize = maxSize;
+		}
+
+		public int getMaxChars() {
+			return this.maxChars;
+		}
+
+		public void setMaxChars(int maxChars) {
+			this.maxChars = maxChars;
+		}
+
+		public int getMaxConcurrentRequests() {
+			return this.maxConcurrentRequests;
+		}
+
+		public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+			this.maxConcurrentRequests = maxConcurrentRequests;
+		}
+
+		public int getMaxQueuedRequests() {
+			return this.maxQueuedRequests;
+		}
+
+		public void setMaxQueuedRequests(int maxQueuedRequests) {
+			this.maxQueuedRequests = maxQueuedRequests;
+		}
+
+		public Duration getTimeout() {
+			return this.timeout;
+		}
+
+		public void setTimeout(Duration timeout) {
+			this.timeout = timeout;
+		}
+
+	}
+
+}
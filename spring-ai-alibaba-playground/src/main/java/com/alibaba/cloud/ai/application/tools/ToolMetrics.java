@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.tools;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.stereotype.Component;
+
+/**
+ * Micrometer meters of every tool call, tagged by tool name:
+ * <ul>
+ *     <li>{@code playground.tool.calls} timer, tagged with the outcome</li>
+ *     <li>{@code playground.tool.payload} size of the arguments and of the result in bytes</li>
+ *     <li>{@code playground.tool.errors} counter, tagged with the exception class</li>
+ *     <li>{@code playground.tool.active} gauge of the calls in flight</li>
+ * </ul>
+ * Decorate the tool before the {@link ToolResultCache}, so that the meters only record real executions and
+ * cache hits do not show up as instant calls.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@Component
+public class ToolMetrics {
+
+	public static final String CALLS = "playground.tool.calls";
+
+	public static final String PAYLOAD = "playground.tool.payload";
+
+	public static final String ERRORS = "playground.tool.errors";
+
+	public static final String ACTIVE = "playground.tool.active";
+
+	private final MeterRegistry registry;
+
+	private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+	public ToolMetrics(MeterRegistry registry) {
+
+		this.registry = registry;
+	}
+
+	public ToolCallback decorate(ToolCallback callback) {
+
+		if (callback instanceof InstrumentedToolCallback) {
+			return callback;
+		}
+
+		return new InstrumentedToolCallback(callback, metersOf(callback.getToolDefinition().name()));
+	}
+
+	public ToolCallback[] decorate(ToolCallback[] callbacks) {
+
+		return Arrays.stream(callbacks)
+				.map(this::decorate)
+				.toArray(ToolCallback[]::new);
+	}
+
+	public List<ToolSummary> summaries() {
+
+		return meters.values().stream()
+				.map(Meters::summary)
+				.sorted(Comparator.comparingDouble(ToolSummary::meanMillis).reversed())
+				.toList();
+	}
+
+	Meters metersOf(String toolName) {
+
+		return meters.computeIfAbsent(toolName, Meters::new);
+	}
+
+	/**
+	 * Latency and error summary of one tool.
+	 */
+	public record ToolSummary(
+			String tool,
+			long calls,
+			long errors,
+			int active,
+			double meanMillis,
+			double maxMillis,
+			double totalMillis,
+			double meanArgumentBytes,
+			double meanResultBytes
+	) {
+	}
+
+	final class Meters {
+
+		private final String toolName;
+
+		private final Timer success;
+
+		private final Timer failure;
+
+		private final DistributionSummary argumentSize;
+
+		private final DistributionSummary resultSize;
+
+		private final AtomicInteger active = new AtomicInteger();
+
+		private Meters(String toolName) {
+
+			this.toolName = toolName;
+			this.success = timer("success");
+			this.failure = timer("error");
+			this.argumentSize = payload("arguments");
+			this.resultSize = payload("result");
+			Gauge.builder(ACTIVE, active, AtomicInteger::get)
+					.description("Tool calls in flight")
+					.tag("tool", toolName)
+					.register(registry);
+		}
+
+		String record(String toolInput, Supplier<String> call) {
+
+			argumentSize.record(sizeOf(toolInput));
+			active.incrementAndGet();
+			long start = System.nanoTime();
+			try {
+				String result = call.get();
+				success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+				resultSize.record(sizeOf(result));
+				return result;
+			}
+			catch (RuntimeException | Error e) {
+				failure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+				Counter.builder(ERRORS)
+						.description("Failed tool calls")
+						.tag("tool", toolName)
+						.tag("exception", e.getClass().getSimpleName())
+						.register(registry)
+						.increment();
+				throw e;
+			}
+			finally {
+				active.decrementAndGet();
+			}
+		}
+
+		private ToolSummary summary() {
+
+			long calls = success.count() + failure.count();
+			double totalMillis = success.totalTime(TimeUnit.MILLISECONDS) + failure.totalTime(TimeUnit.MILLISECONDS);
+
+			return new ToolSummary(
+					toolName,
+					calls,
+					failure.count(),
+					active.get(),
+					calls == 0 ? 0 : totalMillis / calls,
+					Math.max(success.max(TimeUnit.MILLISECONDS), failure.max(TimeUnit.MILLISECONDS)),
+					totalMillis,
+					argumentSize.mean(),
+					resultSize.mean()
+			);
+		}
+
+		private Timer timer(String outcome) {
+
+			return Timer.builder(CALLS)
+					.description("Tool call latency")
+					.tag("tool", toolName)
+					.tag("outcome", outcome)
+					.register(registry);
+		}
+
+		private DistributionSummary payload(String type) {
+
+			return DistributionSummary.builder(PAYLOAD)
+					.description("Tool payload size")
+					.baseUnit("bytes")
+					.tag("tool", toolName)
+					.tag("type", type)
+					.register(registry);
+		}
+
+	}
+
+	private static long sizeOf(String payload) {
+
+		return payload == null ? 0 : payload.getBytes(StandardCharsets.UTF_8).length;
+	}
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.tools;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint {@code /actuator/tools} listing the tools by mean latency, slowest first.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@Component
+@Endpoint(id = "tools")
+public class ToolMetricsEndpoint {
+
+	private static final int DEFAULT_LIMIT = 10;
+
+	private final ToolMetrics toolMetrics;
+
+	public ToolMetricsEndpoint(ToolMetrics toolMetrics) {
+
+		this.toolMetrics = toolMetrics;
+	}
+
+	@ReadOperation
+	public List<ToolMetrics.ToolSummary> slowest(@Nullable Integer limit) {
+
+		return toolMetrics.summaries().stream()
+				.limit(limit == null || limit <= 0 ? DEFAULT_LIMIT : limit)
+				.toList();
+	}
+
+}
@@ -0,0 +1,332 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.tools;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import com.alibaba.cloud.ai.application.annotation.CacheableTool;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded ttl cache of tool results, keyed by scope, tool name and canonical json arguments. The scope tells
+ * apart the same tool served by different mcp servers or by the same server started with other envs.
+ * <p>
+ * A tool is only cached when it declares a ttl, either with {@link CacheableTool} on the tool class or with
+ * {@code spring.ai.alibaba.playground.tool-calling.cache.ttl.<tool name>}. Tools listed in
+ * {@code cache.excluded} are never cached. Concurrent misses of the same key run the tool once. Failed calls,
+ * null results and results holding a {@link CacheableTool#skipWhenPresent()} field are not kept.
+ * <p>
+ * The cache is monitored as {@code playground.tool.result-cache} (gets, puts, evictions and size), hits and
+ * misses of every tool are counted by {@code playground.tool.cache}, tagged by tool and result.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+@Component
+public class ToolResultCache {
+
+	public static final String CACHE_NAME = "playground.tool.result-cache";
+
+	public static final String TOOL_CACHE = "playground.tool.cache";
+
+	private static final Logger logger = LoggerFactory.getLogger(ToolResultCache.class);
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final ToolCallingProperties.Cache properties;
+
+	private final Cache<CacheKey, Entry> cache;
+
+	private final Map<String, ToolStats> toolStats = new ConcurrentHashMap<>();
+
+	private final MeterRegistry registry;
+
+	public ToolResultCache(ToolCallingProperties toolCallingProperties, MeterRegistry registry) {
+
+		this.properties = toolCallingProperties.getCache();
+		this.registry = registry;
+		this.cache = CacheBuilder.newBuilder()
+				.maximumSize(properties.getMaximumSize())
+				.expireAfterWrite(properties.getMaxTtl())
+				.recordStats()
+				.build();
+		GuavaCacheMetrics.monitor(registry, cache, CACHE_NAME);
+	}
+
+	/**
+	 * Wrap the callback with the cache when the tool declares a ttl and is not excluded.
+	 * @param toolClass class of the tool function, checked for {@link CacheableTool}, may be null.
+	 */
+	public ToolCallback decorate(ToolCallback callback, Class<?> toolClass) {
+
+		return decorate(callback, toolClass, "");
+	}
+
+	/**
+	 * Wrap the callback with the cache, results are only shared between callbacks of the same scope.
+	 * @param scope identity of the server providing the tool, e.g. the mcp server name and env digest.
+	 */
+	public ToolCallback decorate(ToolCallback callback, Class<?> toolClass, String scope) {
+
+		if (!properties.isEnabled() || callback instanceof CachingToolCallback) {
+			return callback;
+		}
+
+		String toolName = callback.getToolDefinition().name();
+		if (matches(properties.getExcluded(), toolName)) {
+			return callback;
+		}
+
+		Duration ttl = ttlOf(toolName, toolClass);
+		if (ttl == null || ttl.isZero() || ttl.isNegative()) {
+			return callback;
+		}
+
+		logger.debug("Cache results of tool {} for {}", toolName, ttl);
+		return new CachingToolCallback(callback, this, scope, ttl, cacheableOf(toolClass));
+	}
+
+	public ToolCallback[] decorate(ToolCallback[] callbacks) {
+
+		return Arrays.stream(callbacks)
+				.map(callback -> decorate(callback, null))
+				.toArray(ToolCallback[]::new);
+	}
+
+	String get(String scope, String toolName, String toolInput, Duration ttl, Predicate<String> cacheable,
+			Supplier<String> loader) {
+
+		CacheKey key = new CacheKey(scope, toolName, canonicalize(toolInput));
+		ToolStats stats = toolStats.computeIfAbsent(toolName, this::newToolStats);
+
+		Entry entry = cache.getIfPresent(key);
+		if (entry != null && entry.isExpired()) {
+			cache.asMap().remove(key, entry);
+		}
+
+		try {
+			boolean[] loaded = {false};
+			entry = cache.get(key, () -> {
+				loaded[0] = true;
+				return new Entry(loader.get(), System.nanoTime() + ttl.toNanos());
+			});
+
+			if (loaded[0]) {
+				stats.misses.increment();
+				if (entry.value() == null || "null".equals(entry.value()) || !cacheable.test(entry.value())) {
+					// the tools answer null or an error payload on failure, do not keep it.
+					cache.asMap().remove(key, entry);
+				}
+			}
+			else {
+				stats.hits.increment();
+			}
+			return entry.value();
+		}
+		catch (ExecutionException | UncheckedExecutionException e) {
+			// failures are not cached, rethrow as the tool would have.
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	/**
+	 * Overall cache stats.
+	 */
+	public CacheStats stats() {
+		return cache.stats();
+	}
+
+	/**
+	 * Hits and misses by tool name.
+	 */
+	public Map<String, Map<String, Long>> toolStats() {
+
+		Map<String, Map<String, Long>> result = new TreeMap<>();
+		toolStats.forEach((name, stats) -> result.put(name, Map.of(
+				"hits", stats.hits.sum(),
+				"misses", stats.misses.sum()
+		)));
+		return result;
+	}
+
+	public long size() {
+		return cache.size();
+	}
+
+	public void invalidateAll() {
+		cache.invalidateAll();
+	}
+
+	private ToolStats newToolStats(String toolName) {
+
+		ToolStats stats = new ToolStats();
+		register(toolName, "hit", stats.hits);
+		register(toolName, "miss", stats.misses);
+		return stats;
+	}
+
+	private void register(String toolName, String result, LongAdder counter) {
+
+		FunctionCounter.builder(TOOL_CACHE, counter, LongAdder::sum)
+				.description("Tool result cache lookups")
+				.tag("tool", toolName)
+				.tag("result", result)
+				.register(registry);
+	}
+
+	private Duration ttlOf(String toolName, Class<?> toolClass) {
+
+		for (Map.Entry<String, Duration> configured : properties.getTtl().entrySet()) {
+			if (matches(configured.getKey(), toolName)) {
+				return configured.getValue();
+			}
+		}
+
+		if (toolClass != null) {
+			CacheableTool cacheableTool = toolClass.getAnnotation(CacheableTool.class);
+			if (cacheableTool != null) {
+				return Duration.ofSeconds(cacheableTool.ttlSeconds());
+			}
+		}
+
+		return null;
+	}
+
+	private Predicate<String> cacheableOf(Class<?> toolClass) {
+
+		CacheableTool cacheableTool = toolClass == null ? null : toolClass.getAnnotation(CacheableTool.class);
+		if (cacheableTool == null || cacheableTool.skipWhenPresent().length == 0) {
+			return result -> true;
+		}
+
+		String[] fields = cacheableTool.skipWhenPresent();
+		return result -> !containsAny(result, fields);
+	}
+
+	private boolean containsAny(String result, String[] fields) {
+
+		try {
+			JsonNode node = objectMapper.readTree(result);
+			return Arrays.stream(fields).anyMatch(field -> node.findValue(field) != null);
+		}
+		catch (JsonProcessingException e) {
+			// not a json result, it can not hold the fields.
+			return false;
+		}
+	}
+
+	private static boolean matches(Set<String> names, String toolName) {
+
+		return names.stream().anyMatch(name -> matches(name, toolName));
+	}
+
+	/**
+	 * Mcp tool callbacks are prefixed by the client and server name, match the plain tool name as suffix.
+	 */
+	private static boolean matches(String name, String toolName) {
+
+		return toolName.equals(name) || toolName.endsWith("_" + name);
+	}
+
+	/**
+	 * Same arguments in a different key order or formatting share the cache entry.
+	 */
+	String canonicalize(String toolInput) {
+
+		if (toolInput == null) {
+			return "";
+		}
+
+		try {
+			return objectMapper.writeValueAsString(sort(objectMapper.readTree(toolInput)));
+		}
+		catch (JsonProcessingException e) {
+			return toolInput;
+		}
+	}
+
+	private JsonNode sort(JsonNode node) {
+
+		if (node instanceof ObjectNode objectNode) {
+			Map<String, JsonNode> fields = new TreeMap<>();
+			objectNode.fields().forEachRemaining(field -> fields.put(field.getKey(), field.getValue()));
+
+			ObjectNode sorted = objectMapper.createObjectNode();
+			fields.forEach((name, value) -> sorted.set(name, sort(value)));
+			return sorted;
+		}
+
+		if (node instanceof ArrayNode arrayNode) {
+			ArrayNode sorted = objectMapper.createArrayNode();
+			arrayNode.forEach(value -> sorted.add(sort(value)));
+			return sorted;
+		}
+
+		return node;
+	}
+
+	private record CacheKey(String scope, String toolName, String arguments) {
+	}
+
+	private record Entry(String value, long expiresAtNanos) {
+
+		private boolean isExpired() {
+			return System.nanoTime() - expiresAtNanos > 0;
+		}
+
+	}
+
+	private static final class ToolStats {
+
+		private final LongAdder hits = new LongAdder();
+
+		private final LongAdder misses = new LongAdder();
+
+	}
+
+}
@@ -17,13 +17,16 @@
 
 package com.alibaba.cloud.ai.application.tools;
 
+import com.alibaba.cloud.ai.application.http.OutboundHttpClientFactory;
+import com.alibaba.cloud.ai.application.resilience.ResilienceRegistry;
+
 import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.function.FunctionToolCallback;
 import org.springframework.ai.tool.metadata.ToolMetadata;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.ResponseErrorHandler;
-import org.springframework.web.client.RestClient;
 
 import java.util.List;
 
@@ -33,30 +36,59 @@ import java.util.List;
  */
 
 @Component
-public class ToolsInit {
-
-	@Value("${spring.ai.alibaba.playground.tool-calling.baidu.translate.ak}")
-	private String ak;
-
-	@Value("${spring.ai.alibaba.playground.tool-calling.baidu.translate.sk}")
-	private String sk;
+public class ToolsInit implements DisposableBean {
 
 	@Value("${spring.ai.alibaba.playground.tool-calling.baidu.map.ak}")
 	private String mapAK;
 
-	private final RestClient.Builder restClientbuilder;
+	private final OutboundHttpClientFactory outboundHttpClientFactory;
 
 	private final ResponseErrorHandler responseErrorHandler;
 
-	public ToolsInit(RestClient.Builder restClientbuilder, ResponseErrorHandler responseErrorHandler) {
+	private final ToolResultCache toolResultCache;
+
+	private final ToolMetrics toolMetrics;
+
+	private final ResilienceRegistry resilienceRegistry;
 
-		this.restClientbuilder = restClientbuilder;
+	/**
+	 * Shared by all requests, so that concurrent translations can be sent in one batch.
+	 */
+	private final BaiduTranslateTools baiduTranslateTools;
+
+	public ToolsInit(
+			@Value("${spring.ai.alibaba.playground.tool-calling.baidu.translate.ak}") String ak,
+			@Value("${spring.ai.alibaba.playground.tool-calling.baidu.translate.sk}") String sk,
+			OutboundHttpClientFactory outboundHttpClientFactory,
+			ResponseErrorHandler responseErrorHandler,
+			ToolResultCache toolResultCache,
+			ToolMetrics toolMetrics,
+			ToolCallingProperties toolCallingProperties,
+			ResilienceRegistry resilienceRegistry
+	) {
+
+		this.outboundHttpClientFactory = outboundHttpClientFactory;
 		this.responseErrorHandler = responseErrorHandler;
+		this.toolResultCache = toolResultCache;
+		this.toolMetrics = toolMetrics;
+		this.resilienceRegistry = resilienceRegistry;
+		this.baiduTranslateTools = new BaiduTranslateTools(
+				ak,
+				sk,
+				BaiduTranslateTools.DEFAULT_BASE_URL,
+				outboundHttpClientFactory.restClientBuilder("baidu-translate"),
+				responseErrorHandler,
+				toolCallingProperties.getTranslateBatch(),
+				resilienceRegistry.guard("baidu-translate")
+		);
 	}
 
 	public List<ToolCallback> getTools() {
 
-		return List.of(buildBaiduTranslateTools(), buildBaiduMapTools());
+		return List.of(
+				toolResultCache.decorate(toolMetrics.decorate(buildBaiduTranslateTools()), BaiduTranslateTools.class),
+				toolResultCache.decorate(toolMetrics.decorate(buildBaiduMapTools()), BaiduMapTools.class)
+		);
 	}
 
 	private ToolCallback buildBaiduTranslateTools() {
@@ -64,7 +96,7 @@ public class ToolsInit {
 		return FunctionToolCallback
 				.builder(
 						"BaiduTranslateService",
-						new BaiduTranslateTools(ak, sk, restClientbuilder, responseErrorHandler)
+						baiduTranslateTools
 				).description("Baidu translation function for general text translation.")
 				.inputSchema(
 						"""
@@ -114,7 +146,11 @@ public class ToolsInit {
 
 		return FunctionToolCallback.builder(
 						"BaiduMapSearchService",
-						new BaiduMapTools(mapAK)
+						new BaiduMapTools(
+								mapAK,
+								outboundHttpClientFactory.restClientBuilder("baidu-map"),
+								resilienceRegistry.guard("baidu-map")
+						)
 				).description("Search for places using Baidu Maps API or "
 						+ "Get detail information of a address and facility query with baidu map or "
 						+ "Get address information of a place with baidu map or "
@@ -163,4 +199,10 @@ public class ToolsInit {
 				.build();
 	}
 
+	@Override
+	public void destroy() {
+
+		baiduTranslateTools.close();
+	}
+
 }
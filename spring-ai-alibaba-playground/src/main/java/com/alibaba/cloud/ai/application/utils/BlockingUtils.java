@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.utils;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * The single place blocking work (model calls that block, JPA repositories, file parsing, tool
+ * calls) is moved off the caller thread. Reactive chains wrap such segments with
+ * {@link #fromCallable(Callable)} instead of a bare {@code Mono.fromCallable}, so they never run on
+ * an event loop or a {@code parallel} thread.
+ * <p>
+ * On JDK 21+ the scheduler runs every task on its own virtual thread, on older runtimes it falls
+ * back to {@link Schedulers#boundedElastic()}.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+public final class BlockingUtils {
+
+	private static final Logger logger = LoggerFactory.getLogger(BlockingUtils.class);
+
+	private static final Scheduler SCHEDULER = createScheduler();
+
+	private BlockingUtils() {
+	}
+
+	public static Scheduler scheduler() {
+		return SCHEDULER;
+	}
+
+	/**
+	 * Lazily run a blocking callable on the blocking scheduler.
+	 */
+	public static <T> Mono<T> fromCallable(Callable<? extends T> callable) {
+		return Mono.<T>fromCallable(callable).subscribeOn(SCHEDULER);
+	}
+
+	/**
+	 * Lazily run a blocking runnable on the blocking scheduler.
+	 */
+	public static Mono<Void> fromRunnable(Runnable runnable) {
+		return Mono.<Void>fromRunnable(runnable).subscribeOn(SCHEDULER);
+	}
+
+	public static boolean isVirtual() {
+		return SCHEDULER != Schedulers.boundedElastic();
+	}
+
+	private static Scheduler createScheduler() {
+
+		ExecutorService executor = newVirtualThreadExecutor();
+		if (executor == null) {
+			logger.info("Virtual threads are not available on Java {}, blocking calls use boundedElastic.",
+					Runtime.version().feature());
+			return Schedulers.boundedElastic();
+		}
+
+		logger.info("Blocking calls run on virtual threads.");
+		return Schedulers.fromExecutorService(executor, "blocking-virtual");
+	}
+
+	/**
+	 * {@code Executors.newVirtualThreadPerTaskExecutor()} looked up reflectively, the project still
+	 * compiles against Java 17.
+	 */
+	static ExecutorService newVirtualThreadExecutor() {
+
+		if (Runtime.version().feature() < 21) {
+			return null;
+		}
+
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		}
+		catch (ReflectiveOperationException | RuntimeException e) {
+			logger.debug("Create virtual thread executor failed: {}", e.getMessage());
+			return null;
+		}
+	}
+
+}
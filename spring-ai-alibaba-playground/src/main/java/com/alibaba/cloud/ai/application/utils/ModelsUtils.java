@@ -19,11 +19,13 @@ package com.alibaba.cloud.ai.application.utils;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
+import com.alibaba.cloud.ai.application.config.snapshot.ConfigSnapshots;
 import com.alibaba.cloud.ai.application.entity.dashscope.DashScopeModel;
 import com.alibaba.cloud.ai.application.entity.dashscope.DashScopeModels;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -36,7 +38,7 @@ import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 
 public final class ModelsUtils {
 
-	private final static String MODELS_FILE_PATH = "models.yaml";
+	public final static String MODELS_FILE_PATH = "models.yaml";
 
 	private static final String MODEL = "model";
 
@@ -45,21 +47,28 @@ public final class ModelsUtils {
 	private ModelsUtils() {
 	}
 
+	/**
+	 * Models are parsed once and served from the hot reloadable snapshot, the result is read-only.
+	 */
 	public static Set<Map<String, String>> getDashScopeModels() throws IOException {
 
+		return ConfigSnapshots.DASHSCOPE_MODELS.get();
+	}
+
+	public static Set<Map<String, String>> parseDashScopeModels(InputStream in) throws IOException {
+
 		ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-		InputStream resourceAsStream = ModelsUtils.class.getClassLoader().getResourceAsStream(MODELS_FILE_PATH);
-		DashScopeModels models = mapper.readValue(resourceAsStream, DashScopeModels.class);
+		DashScopeModels models = mapper.readValue(in, DashScopeModels.class);
 
 		Set<Map<String, String>> resultSet = new HashSet<>();
 		for (DashScopeModel model : models.getDashScope()) {
 			Map<String, String> modelMap = new HashMap<>();
 			modelMap.put(MODEL, model.getName());
 			modelMap.put(DESC, model.getDescription());
-			resultSet.add(modelMap);
+			resultSet.add(Collections.unmodifiableMap(modelMap));
 		}
 
-		return resultSet;
+		return Collections.unmodifiableSet(resultSet);
 	}
 
 }
@@ -1,5 +1,6 @@
 package com.alibaba.cloud.ai.ddd.book.application.service;
 
+import com.alibaba.cloud.ai.application.utils.BlockingUtils;
 import com.alibaba.cloud.ai.ddd.book.domain.model.Book;
 import com.alibaba.cloud.ai.ddd.book.domain.model.BorrowRecord;
 import com.alibaba.cloud.ai.ddd.book.domain.service.BookDomainService;
@@ -29,7 +30,7 @@ public class BookApplicationService {
      * @return 借阅记录
      */
     public Mono<BorrowRecord> borrowBook(String bookId, String studentId, String studentName) {
-        return Mono.fromCallable(() -> bookDomainService.borrowBook(bookId, studentId, studentName));
+        return BlockingUtils.fromCallable(() -> bookDomainService.borrowBook(bookId, studentId, studentName));
     }
     
     /**
@@ -39,7 +40,7 @@ public class BookApplicationService {
      * @return 空Mono
      */
     public Mono<Void> returnBook(String bookId, String studentId) {
-        return Mono.fromRunnable(() -> bookDomainService.returnBook(bookId, studentId));
+        return BlockingUtils.fromRunnable(() -> bookDomainService.returnBook(bookId, studentId));
     }
     
     /**
@@ -48,7 +49,7 @@ public class BookApplicationService {
      * @return 图书列表
      */
     public Mono<List<Book>> searchBooks(String keyword) {
-        return Mono.fromCallable(() -> bookDomainService.searchBooks(keyword));
+        return BlockingUtils.fromCallable(() -> bookDomainService.searchBooks(keyword));
     }
     
     /**
@@ -57,7 +58,7 @@ public class BookApplicationService {
      * @return 图书列表
      */
     public Mono<List<Book>> searchBooksByCategory(String category) {
-        return Mono.fromCallable(() -> bookDomainService.searchBooksByCategory(category));
+        return BlockingUtils.fromCallable(() -> bookDomainService.searchBooksByCategory(category));
     }
     
     /**
@@ -65,7 +66,7 @@ public class BookApplicationService {
      * @return 可借阅图书列表
      */
     public Mono<List<Book>> viewAvailableBooks() {
-        return Mono.fromCallable(bookDomainService::viewAvailableBooks);
+        return BlockingUtils.fromCallable(bookDomainService::viewAvailableBooks);
     }
     
     /**
@@ -74,6 +75,6 @@ public class BookApplicationService {
      * @return 图书
      */
     public Mono<Book> getBookById(String bookId) {
-        return Mono.fromCallable(() -> bookDomainService.getBookById(bookId));
+        return BlockingUtils.fromCallable(() -> bookDomainService.getBookById(bookId));
     }
 }
\ No newline at end of file
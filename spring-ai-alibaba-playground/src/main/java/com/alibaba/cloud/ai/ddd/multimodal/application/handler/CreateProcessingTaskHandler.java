@@ -17,6 +17,7 @@
 
 package com.alibaba.cloud.ai.ddd.multimodal.application.handler;
 
+import com.alibaba.cloud.ai.application.utils.BlockingUtils;
 import com.alibaba.cloud.ai.ddd.multimodal.application.command.CreateProcessingTaskCommand;
 import com.alibaba.cloud.ai.ddd.multimodal.domain.model.*;
 import com.alibaba.cloud.ai.ddd.multimodal.domain.repository.ProcessingTaskRepository;
@@ -51,7 +52,7 @@ public class CreateProcessingTaskHandler {
      * @return 创建的任务ID
      */
     public Mono<String> handle(CreateProcessingTaskCommand command) {
-        return Mono.fromCallable(() -> {
+        return BlockingUtils.fromCallable(() -> {
             logger.info("Creating processing task: {}", command);
 
             try {
@@ -17,13 +17,16 @@
 
 package com.alibaba.cloud.ai.ddd.multimodal.application.handler;
 
+import com.alibaba.cloud.ai.application.utils.BlockingUtils;
 import com.alibaba.cloud.ai.ddd.multimodal.application.command.ProcessTaskCommand;
 import com.alibaba.cloud.ai.ddd.multimodal.domain.model.ProcessingTask;
 import com.alibaba.cloud.ai.ddd.multimodal.domain.model.ProcessingTaskId;
 import com.alibaba.cloud.ai.ddd.multimodal.domain.model.ProcessingResult;
+import com.alibaba.cloud.ai.ddd.multimodal.domain.model.ProcessingStatus;
 import com.alibaba.cloud.ai.ddd.multimodal.domain.repository.ProcessingTaskRepository;
 import com.alibaba.cloud.ai.ddd.multimodal.domain.service.ProcessingEngine;
 import com.alibaba.cloud.ai.ddd.multimodal.domain.service.ProcessingOrchestrator;
+import com.alibaba.cloud.ai.ddd.multimodal.domain.service.TaskScheduler;
 import com.alibaba.cloud.ai.ddd.shared.exception.DomainException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +35,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 处理任务处理器
@@ -45,11 +49,14 @@ public class ProcessTaskHandler {
 
     private final ProcessingTaskRepository taskRepository;
     private final ProcessingOrchestrator orchestrator;
+    private final TaskScheduler taskScheduler;
 
     public ProcessTaskHandler(ProcessingTaskRepository taskRepository, 
-                             ProcessingOrchestrator orchestrator) {
+                             ProcessingOrchestrator orchestrator,
+                             TaskScheduler taskScheduler) {
         this.taskRepository = taskRepository;
         this.orchestrator = orchestrator;
+        this.taskScheduler = taskScheduler;
     }
 
     /**
@@ -61,7 +68,7 @@ public class ProcessTaskHandler {
     public Mono<ProcessingResult> handle(ProcessTaskCommand command) {
         return Mono.fromCallable(() -> ProcessingTaskId.of(command.getTaskId()))
                 .flatMap(taskId -> 
-                    Mono.fromCallable(() -> taskRepository.findById(taskId))
+                    BlockingUtils.fromCallable(() -> taskRepository.findById(taskId))
                         .flatMap(optionalTask -> {
                             if (optionalTask.isEmpty()) {
                                 return Mono.error(new DomainException("TASK_NOT_FOUND", 
@@ -87,7 +94,7 @@ public class ProcessTaskHandler {
     public Flux<ProcessingResult> handleStream(ProcessTaskCommand command) {
         return Mono.fromCallable(() -> ProcessingTaskId.of(command.getTaskId()))
                 .flatMapMany(taskId -> 
-                    Mono.fromCallable(() -> taskRepository.findById(taskId))
+                    BlockingUtils.fromCallable(() -> taskRepository.findById(taskId))
                         .flatMapMany(optionalTask -> {
                             if (optionalTask.isEmpty()) {
                                 return Flux.error(new DomainException("TASK_NOT_FOUND", 
@@ -105,83 +112,95 @@ public class ProcessTaskHandler {
 
     /**
      * 处理单个任务
+     * 按任务优先级排队，轮到该任务且对应引擎类型的工作池有空闲槽位时才开始处理，失败时由调度器退避重试
      */
     private Mono<ProcessingResult> processTask(ProcessingTask task) {
-        logger.info("Processing task: {}", task.getId());
-
-        return Mono.fromCallable(() -> {
-            // 开始处理
-            task.startProcessing();
-            taskRepository.save(task);
-            return task;
-        })
-        .flatMap(orchestrator::processTask)
-        .map(result -> {
+        logger.info("Scheduling task: {} with priority {}", task.getId(), task.getPriority());
+
+        return taskScheduler.submit(task, scheduled -> BlockingUtils.fromCallable(() -> {
+                    // 开始处理，重试时任务已处于处理中
+                    if (!task.isProcessing()) {
+                        task.startProcessing();
+                        taskRepository.save(task);
+                    }
+                    return task;
+                })
+                .flatMap(orchestrator::processTask))
+        .singleOrEmpty()
+        .flatMap(result -> BlockingUtils.fromCallable(() -> {
             // 完成处理
             task.completeProcessing(result, 0); // 处理时间将在orchestrator中计算
             taskRepository.save(task);
             
             logger.info("Successfully processed task: {}", task.getId());
             return result;
-        })
-        .onErrorResume(error -> {
+        }))
+        .onErrorResume(error -> BlockingUtils.fromRunnable(() -> {
             // 处理失败
-            task.markAsFailed(error.getMessage());
-            taskRepository.save(task);
-            return Mono.error(error);
-        });
+            markAsFailed(task, error);
+        }).then(Mono.error(error)));
     }
 
     /**
      * 流式处理任务
+     * 与同步处理一样按优先级排队，已经输出过结果的流式任务失败后不会重试
      */
     private Flux<ProcessingResult> processTaskStream(ProcessingTask task) {
-        logger.info("Processing task stream: {}", task.getId());
-
-        return Mono.fromCallable(() -> {
-            // 1. 选择处理引擎
-            ProcessingEngine engine = orchestrator.selectEngine(task)
-                .orElseThrow(() -> new DomainException("NO_SUITABLE_ENGINE", 
-                    "No suitable processing engine found for task: " + task.getId()));
-
-            // 2. 开始处理
-            task.startProcessing();
-            taskRepository.save(task);
-
-            return engine;
-        })
-        .flatMapMany(engine -> {
-            long startTime = System.currentTimeMillis();
-            
-            return engine.processStream(task)
-                .doOnComplete(() -> {
-                    // 处理完成，但没有最终结果，创建一个空结果
-                    long processingTime = System.currentTimeMillis() - startTime;
-                    ProcessingResult emptyResult = ProcessingResult.textResult("", 1.0);
-                    task.completeProcessing(emptyResult, processingTime);
-                    taskRepository.save(task);
-                    
-                    logger.info("Successfully processed task stream: {} in {}ms", 
-                               task.getId(), processingTime);
+        logger.info("Scheduling task stream: {} with priority {}", task.getId(), task.getPriority());
+
+        AtomicLong startTime = new AtomicLong();
+        return taskScheduler.submit(task, scheduled -> BlockingUtils.fromCallable(() -> {
+                    // 1. 选择处理引擎
+                    ProcessingEngine engine = orchestrator.selectEngine(task)
+                        .orElseThrow(() -> new DomainException("NO_SUITABLE_ENGINE", 
+                            "No suitable processing engine found for task: " + task.getId()));
+
+                    // 2. 开始处理，重试时任务已处于处理中
+                    if (!task.isProcessing()) {
+                        task.startProcessing();
+                        taskRepository.save(task);
+                    }
+                    startTime.set(System.currentTimeMillis());
+
+                    return engine;
                 })
-                .doOnError(error -> {
-                    // 处理失败
-                    task.markAsFailed(error.getMessage());
-                    taskRepository.save(task);
-                });
-        });
+                .flatMapMany(engine -> engine.processStream(task)))
+            .concatWith(BlockingUtils.fromRunnable(() -> {
+                // 处理完成，但没有最终结果，创建一个空结果
+                long processingTime = System.currentTimeMillis() - startTime.get();
+                ProcessingResult emptyResult = ProcessingResult.textResult("", 1.0);
+                task.completeProcessing(emptyResult, processingTime);
+                taskRepository.save(task);
+                
+                logger.info("Successfully processed task stream: {} in {}ms", 
+                           task.getId(), processingTime);
+            }).then(Mono.<ProcessingResult>empty()))
+            .onErrorResume(error -> BlockingUtils.fromRunnable(() -> {
+                // 处理失败
+                markAsFailed(task, error);
+            }).then(Mono.error(error)));
+    }
+
+    /**
+     * 标记任务失败，已取消或已完成的任务保持原状态
+     */
+    private void markAsFailed(ProcessingTask task, Throwable error) {
+        if (task.getStatus() == ProcessingStatus.CANCELLED || task.isCompleted()) {
+            return;
+        }
+        task.markAsFailed(String.valueOf(error.getMessage()));
+        taskRepository.save(task);
     }
 
     /**
      * 处理错误
      */
     private Mono<ProcessingResult> handleProcessingError(String taskId, Throwable throwable) {
-        return Mono.fromCallable(() -> {
+        return BlockingUtils.fromCallable(() -> {
             ProcessingTaskId id = ProcessingTaskId.of(taskId);
             return taskRepository.findById(id)
                 .map(task -> {
-                    task.markAsFailed(throwable.getMessage());
-                    taskRepository.save(task);
+                    markAsFailed(task, throwable);
                     return task;
                 })
                 .orElse(null);
@@ -193,12 +212,11 @@ public class ProcessTaskHandler {
      * 处理流式错误
      */
     private Flux<ProcessingResult> handleProcessingErrorStream(String taskId, Throwable throwable) {
-        return Mono.fromCallable(() -> {
+        return BlockingUtils.fromCallable(() -> {
             ProcessingTaskId id = ProcessingTaskId.of(taskId);
             return taskRepository.findById(id)
                 .map(task -> {
-                    task.markAsFailed(throwable.getMessage());
-                    taskRepository.save(task);
+                    markAsFailed(task, throwable);
                     return task;
                 })
                 .orElse(null);
@@ -17,6 +17,7 @@
 
 package com.alibaba.cloud.ai.ddd.multimodal.application.service;
 
+import com.alibaba.cloud.ai.application.utils.BlockingUtils;
 import com.alibaba.cloud.ai.ddd.multimodal.application.command.CreateProcessingTaskCommand;
 import com.alibaba.cloud.ai.ddd.multimodal.application.command.ProcessTaskCommand;
 import com.alibaba.cloud.ai.ddd.multimodal.application.handler.CreateProcessingTaskHandler;
@@ -27,6 +28,7 @@ import com.alibaba.cloud.ai.ddd.multimodal.domain.model.ProcessingTaskId;
 import com.alibaba.cloud.ai.ddd.multimodal.domain.model.ProcessingStatus;
 import com.alibaba.cloud.ai.ddd.multimodal.domain.repository.ProcessingTaskRepository;
 import com.alibaba.cloud.ai.ddd.multimodal.domain.service.ProcessingOrchestrator;
+import com.alibaba.cloud.ai.ddd.multimodal.domain.service.TaskScheduler;
 import com.alibaba.cloud.ai.ddd.shared.exception.DomainException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,15 +54,18 @@ public class MultiModalApplicationService {
     private final ProcessTaskHandler processTaskHandler;
     private final ProcessingTaskRepository taskRepository;
     private final ProcessingOrchestrator orchestrator;
+    private final TaskScheduler taskScheduler;
 
     public MultiModalApplicationService(CreateProcessingTaskHandler createTaskHandler,
                                        ProcessTaskHandler processTaskHandler,
                                        ProcessingTaskRepository taskRepository,
-                                       ProcessingOrchestrator orchestrator) {
+                                       ProcessingOrchestrator orchestrator,
+                                       TaskScheduler taskScheduler) {
         this.createTaskHandler = createTaskHandler;
         this.processTaskHandler = processTaskHandler;
         this.taskRepository = taskRepository;
         this.orchestrator = orchestrator;
+        this.taskScheduler = taskScheduler;
     }
 
     /**
@@ -155,7 +160,7 @@ public class MultiModalApplicationService {
      */
     @Transactional(readOnly = true)
     public Mono<ProcessingTask> getTask(String taskId) {
-        return Mono.fromCallable(() -> {
+        return BlockingUtils.fromCallable(() -> {
             ProcessingTaskId id = ProcessingTaskId.of(taskId);
             return taskRepository.findById(id)
                     .orElseThrow(() -> new DomainException("TASK_NOT_FOUND", 
@@ -171,7 +176,7 @@ public class MultiModalApplicationService {
      */
     @Transactional(readOnly = true)
     public Mono<List<ProcessingTask>> getUserTasks(String userId) {
-        return Mono.fromCallable(() -> taskRepository.findByUserId(userId));
+        return BlockingUtils.fromCallable(() -> taskRepository.findByUserId(userId));
     }
 
     /**
@@ -183,7 +188,7 @@ public class MultiModalApplicationService {
      */
     @Transactional(readOnly = true)
     public Mono<List<ProcessingTask>> getUserTasksByStatus(String userId, ProcessingStatus status) {
-        return Mono.fromCallable(() -> taskRepository.findByUserIdAndStatus(userId, status));
+        return BlockingUtils.fromCallable(() -> taskRepository.findByUserIdAndStatus(userId, status));
     }
 
     /**
@@ -193,7 +198,7 @@ public class MultiModalApplicationService {
      * @return 取消结果
      */
     public Mono<Void> cancelTask(String taskId) {
-        return Mono.fromCallable(() -> {
+        return BlockingUtils.fromCallable(() -> {
             ProcessingTaskId id = ProcessingTaskId.of(taskId);
             Optional<ProcessingTask> optionalTask = taskRepository.findById(id);
             
@@ -206,8 +211,11 @@ public class MultiModalApplicationService {
             taskRepository.save(task);
             
             logger.info("Cancelled task: {}", taskId);
-            return null;
-        });
+            return id;
+        })
+        // 排队中的任务出队，正在执行的任务中断执行
+        .flatMap(taskScheduler::cancelTask)
+        .then();
     }
 
     /**
@@ -217,7 +225,7 @@ public class MultiModalApplicationService {
      * @return 处理结果
      */
     public Mono<ProcessingResult> retryTask(String taskId) {
-        return Mono.fromCallable(() -> {
+        return BlockingUtils.fromCallable(() -> {
             ProcessingTaskId id = ProcessingTaskId.of(taskId);
             Optional<ProcessingTask> optionalTask = taskRepository.findById(id);
             
@@ -245,7 +253,7 @@ public class MultiModalApplicationService {
      */
     @Transactional(readOnly = true)
     public Mono<SystemStatus> getSystemStatus() {
-        return Mono.fromCallable(() -> {
+        return BlockingUtils.fromCallable(() -> {
             long pendingCount = taskRepository.countByStatus(ProcessingStatus.PENDING);
             long processingCount = taskRepository.countByStatus(ProcessingStatus.PROCESSING);
             long completedCount = taskRepository.countByStatus(ProcessingStatus.COMPLETED);
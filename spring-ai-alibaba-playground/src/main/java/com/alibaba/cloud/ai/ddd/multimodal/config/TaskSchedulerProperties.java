@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.ddd.multimodal.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 处理任务调度配置
+ * 每类处理引擎（按输入模态划分）独立配置工作池大小与等待队列长度
+ */
+@ConfigurationProperties(TaskSchedulerProperties.PREFIX)
+public class TaskSchedulerProperties {
+
+    public static final String PREFIX = "spring.ai.alibaba.playground.ddd.scheduler";
+
+    /**
+     * 老化间隔，任务每等待一个间隔，排序上相当于优先级数值减一
+     */
+    private Duration aging = Duration.ofSeconds(30);
+
+    /**
+     * 失败后的最大重试次数，业务异常和已经输出过结果的流式任务不重试
+     */
+    private int maxRetries = 2;
+
+    /**
+     * 第一次重试前的等待时间，之后每次翻倍
+     */
+    private Duration retryBackoff = Duration.ofSeconds(1);
+
+    /**
+     * 重试等待时间上限
+     */
+    private Duration maxRetryBackoff = Duration.ofSeconds(30);
+
+    /**
+     * 未单独配置的引擎类型使用的工作池
+     */
+    private Pool defaults = new Pool();
+
+    /**
+     * 按引擎类型（输入模态代码，如 IMAGE、VIDEO）配置的工作池
+     */
+    private Map<String, Pool> pools = new HashMap<>();
+
+    public Duration getAging() {
+        return aging;
+    }
+
+    public void setAging(Duration aging) {
+        this.aging = aging;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public Duration getRetryBackoff() {
+        return retryBackoff;
+    }
+
+    public void setRetryBackoff(Duration retryBackoff) {
+        this.retryBackoff = retryBackoff;
+    }
+
+    public Duration getMaxRetryBackoff() {
+        return maxRetryBackoff;
+    }
+
+    public void setMaxRetryBackoff(Duration maxRetryBackoff) {
+        this.maxRetryBackoff = maxRetryBackoff;
+    }
+
+    public Pool getDefaults() {
+        return defaults;
+    }
+
+    public void setDefaults(Pool defaults) {
+        this.defaults = defaults;
+    }
+
+    public Map<String, Pool> getPools() {
+        return pools;
+    }
+
+    public void setPools(Map<String, Pool> pools) {
+        this.pools = pools;
+    }
+
+    public Pool forEngineType(String engineType) {
+        for (Map.Entry<String, Pool> entry : pools.entrySet()) {
+            if (entry.getKey().toUpperCase(Locale.ROOT).equals(engineType)) {
+                return entry.getValue();
+            }
+        }
+        return defaults;
+    }
+
+    public static class Pool {
+
+        /**
+         * 同时执行的任务数上限
+         */
+        private int size = 4;
+
+        /**
+         * 等待执行的任务数上限（含延迟和等待重试的任务），超出后直接拒绝
+         */
+        private int maxQueue = 64;
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        public int getMaxQueue() {
+            return maxQueue;
+        }
+
+        public void setMaxQueue(int maxQueue) {
+            this.maxQueue = maxQueue;
+        }
+    }
+}
@@ -19,9 +19,13 @@ package com.alibaba.cloud.ai.ddd.multimodal.domain.service;
 
 import com.alibaba.cloud.ai.ddd.multimodal.domain.model.ProcessingTask;
 import com.alibaba.cloud.ai.ddd.multimodal.domain.model.ProcessingTaskId;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * 任务调度器领域服务接口
@@ -45,6 +49,28 @@ public interface TaskScheduler {
      */
     Mono<Void> scheduleTasks(List<ProcessingTask> tasks);
 
+    /**
+     * 按任务优先级排队执行指定的处理逻辑
+     * 订阅时入队，轮到该任务时才订阅 work；取消订阅时出队或取消正在执行的 work
+     *
+     * @param task 处理任务
+     * @param work 处理逻辑，失败重试时会再次调用
+     * @return 处理逻辑的输出
+     */
+    default <T> Flux<T> submit(ProcessingTask task, Function<ProcessingTask, ? extends Publisher<T>> work) {
+        return submit(task, Duration.ZERO, work);
+    }
+
+    /**
+     * 延迟指定时间后按任务优先级排队执行指定的处理逻辑
+     *
+     * @param task 处理任务
+     * @param delay 入队前的延迟
+     * @param work 处理逻辑，失败重试时会再次调用
+     * @return 处理逻辑的输出
+     */
+    <T> Flux<T> submit(ProcessingTask task, Duration delay, Function<ProcessingTask, ? extends Publisher<T>> work);
+
     /**
      * 取消任务调度
      *
@@ -20,6 +20,7 @@ package com.alibaba.cloud.ai.ddd.multimodal.infrastructure.external;
 import com.alibaba.cloud.ai.ddd.multimodal.domain.model.*;
 import com.alibaba.cloud.ai.ddd.multimodal.domain.service.ProcessingEngine;
 import com.alibaba.cloud.ai.application.service.SAAImageService;
+import com.alibaba.cloud.ai.application.utils.BlockingUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.mock.web.MockMultipartFile;
@@ -59,7 +60,7 @@ public class DashScopeImageProcessingEngine implements ProcessingEngine {
     public Mono<ProcessingResult> process(ProcessingTask task) {
         logger.debug("Processing task: {} with DashScope Image Engine", task.getId());
 
-        return Mono.fromCallable(() -> {
+        return BlockingUtils.fromCallable(() -> {
             try {
                 if (task.getInputModality() == ModalityType.IMAGE && 
                     task.getOutputModality() == ModalityType.TEXT) {
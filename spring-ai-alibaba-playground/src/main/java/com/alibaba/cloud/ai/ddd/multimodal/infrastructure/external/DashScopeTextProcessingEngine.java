@@ -17,6 +17,7 @@
 
 package com.alibaba.cloud.ai.ddd.multimodal.infrastructure.external;
 
+import com.alibaba.cloud.ai.application.utils.BlockingUtils;
 import com.alibaba.cloud.ai.ddd.multimodal.domain.model.*;
 import com.alibaba.cloud.ai.ddd.multimodal.domain.service.ProcessingEngine;
 import org.slf4j.Logger;
@@ -63,7 +64,7 @@ public class DashScopeTextProcessingEngine implements ProcessingEngine {
         try {
             String prompt = task.getPrompt().getContent();
             
-            return Mono.fromCallable(() -> {
+            return BlockingUtils.fromCallable(() -> {
                 String response = chatClient.prompt()
                     .user(prompt)
                     .call()
@@ -20,6 +20,7 @@ package com.alibaba.cloud.ai.ddd.multimodal.infrastructure.external;
 import com.alibaba.cloud.ai.ddd.multimodal.domain.model.*;
 import com.alibaba.cloud.ai.ddd.multimodal.domain.service.ProcessingEngine;
 import com.alibaba.cloud.ai.application.service.SAAVideoService;
+import com.alibaba.cloud.ai.application.utils.BlockingUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.mock.web.MockMultipartFile;
@@ -28,6 +29,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * DashScope视频处理引擎实现
@@ -58,7 +60,7 @@ public class DashScopeVideoProcessingEngine implements ProcessingEngine {
     public Mono<ProcessingResult> process(ProcessingTask task) {
         logger.debug("Processing task: {} with DashScope Video Engine", task.getId());
 
-        return Mono.fromCallable(() -> {
+        return BlockingUtils.fromCallable(() -> {
             try {
                 return processVideoToText(task);
             } catch (Exception e) {
@@ -122,7 +124,9 @@ public class DashScopeVideoProcessingEngine implements ProcessingEngine {
         );
 
         // 调用现有服务
-        String result = videoService.analyzeVideo(prompt, mockFile);
+        String result = videoService.analyzeVideo(prompt, mockFile)
+                .collect(Collectors.joining())
+                .block();
 
         // 创建处理结果
         Map<String, Object> metadata = Map.of(
@@ -0,0 +1,427 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.ddd.multimodal.infrastructure.scheduler;
+
+import com.alibaba.cloud.ai.ddd.multimodal.config.TaskSchedulerProperties;
+import com.alibaba.cloud.ai.ddd.multimodal.domain.model.ProcessingTask;
+import com.alibaba.cloud.ai.ddd.multimodal.domain.model.ProcessingTaskId;
+import com.alibaba.cloud.ai.ddd.multimodal.domain.service.ProcessingOrchestrator;
+import com.alibaba.cloud.ai.ddd.multimodal.domain.service.TaskScheduler;
+import com.alibaba.cloud.ai.ddd.shared.exception.DomainException;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 按优先级调度处理任务
+ * 每类处理引擎拥有独立的有界工作池与等待队列，DashScope 引擎按输入模态划分，因此以输入模态作为引擎类型。
+ * 队列按 就绪时间 + 优先级 × 老化间隔 排序：优先级数值越小越先执行，任务每多等待一个老化间隔，
+ * 相当于优先级提升一级，持续到来的高优先级任务不会饿死低优先级任务。
+ * 支持延迟执行、失败后按指数退避重新排队重试，以及排队中或执行中的取消
+ */
+@Component
+@EnableConfigurationProperties(TaskSchedulerProperties.class)
+public class PriorityTaskScheduler implements TaskScheduler, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriorityTaskScheduler.class);
+
+    private final ProcessingOrchestrator orchestrator;
+    private final TaskSchedulerProperties properties;
+    private final Clock clock;
+    private final Timer timer;
+
+    private final Map<String, Pool> pools = new HashMap<>();
+    private final PriorityQueue<Entry<?>> delayed = new PriorityQueue<>(
+            Comparator.<Entry<?>>comparingLong(entry -> entry.readyAt).thenComparingLong(entry -> entry.sequence));
+    private final Map<ProcessingTaskId, Entry<?>> entries = new HashMap<>();
+    private long sequence;
+    private boolean shutdown;
+
+    @Autowired
+    public PriorityTaskScheduler(ProcessingOrchestrator orchestrator, TaskSchedulerProperties properties) {
+        this(orchestrator, properties, Clock.systemUTC(),
+                (action, delay) -> Schedulers.parallel().schedule(action, delay.toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    PriorityTaskScheduler(ProcessingOrchestrator orchestrator, TaskSchedulerProperties properties,
+                          Clock clock, Timer timer) {
+        this.orchestrator = orchestrator;
+        this.properties = properties;
+        this.clock = clock;
+        this.timer = timer;
+    }
+
+    @Override
+    public Mono<Void> scheduleTask(ProcessingTask task) {
+        return submit(task, orchestrator::processTask).then();
+    }
+
+    @Override
+    public Mono<Void> scheduleTasks(List<ProcessingTask> tasks) {
+        // 全部入队，由各引擎的工作池限制并发
+        return Flux.fromIterable(tasks)
+                .flatMap(this::scheduleTask, Math.max(1, tasks.size()))
+                .then();
+    }
+
+    @Override
+    public <T> Flux<T> submit(ProcessingTask task, Duration delay,
+                              Function<ProcessingTask, ? extends Publisher<T>> work) {
+        return Flux.create(sink -> {
+            Entry<T> entry = new Entry<>(task, engineType(task), work, sink);
+            sink.onCancel(() -> cancel(entry));
+
+            DomainException rejected = enqueue(entry, delay);
+            if (rejected != null) {
+                sink.error(rejected);
+                return;
+            }
+            dispatch();
+        });
+    }
+
+    @Override
+    public Mono<Boolean> cancelTask(ProcessingTaskId taskId) {
+        return Mono.fromCallable(() -> {
+            Entry<?> entry;
+            synchronized (this) {
+                entry = entries.get(taskId);
+            }
+            if (entry == null || !cancel(entry)) {
+                return false;
+            }
+
+            logger.info("Cancelled scheduled task: {}", taskId);
+            entry.sink.error(new DomainException("TASK_CANCELLED", "Processing task cancelled: " + taskId));
+            return true;
+        });
+    }
+
+    @Override
+    public synchronized int getPendingTasksCount() {
+        int pending = delayed.size();
+        for (Pool pool : pools.values()) {
+            pending += pool.ready.size();
+        }
+        return pending;
+    }
+
+    @Override
+    public synchronized int getProcessingTasksCount() {
+        int running = 0;
+        for (Pool pool : pools.values()) {
+            running += pool.running;
+        }
+        return running;
+    }
+
+    @Override
+    public synchronized boolean isHealthy() {
+        if (shutdown) {
+            return false;
+        }
+        for (Pool pool : pools.values()) {
+            if (waiting(pool) >= pool.maxQueue) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized int getLoadPercentage() {
+        int running = 0;
+        int capacity = 0;
+        for (Pool pool : pools.values()) {
+            running += pool.running;
+            capacity += pool.size;
+        }
+        return capacity == 0 ? 0 : Math.min(100, running * 100 / capacity);
+    }
+
+    @Override
+    public void destroy() {
+        List<Entry<?>> remaining;
+        synchronized (this) {
+            shutdown = true;
+            remaining = new ArrayList<>(entries.values());
+        }
+
+        for (Entry<?> entry : remaining) {
+            if (cancel(entry)) {
+                entry.sink.error(new DomainException("SCHEDULER_SHUTDOWN", "Task scheduler is shut down"));
+            }
+        }
+    }
+
+    /**
+     * 将到期的延迟任务移入就绪队列，并在工作池有空闲槽位时启动排在最前面的任务
+     */
+    void dispatch() {
+        List<Entry<?>> started = new ArrayList<>();
+        synchronized (this) {
+            long now = clock.millis();
+            while (!delayed.isEmpty() && delayed.peek().readyAt <= now) {
+                ready(delayed.poll());
+            }
+
+            for (Pool pool : pools.values()) {
+                while (pool.running < pool.size && !pool.ready.isEmpty()) {
+                    Entry<?> entry = pool.ready.poll();
+                    entry.state = State.RUNNING;
+                    entry.attempts++;
+                    pool.running++;
+                    started.add(entry);
+                }
+            }
+        }
+
+        started.forEach(this::start);
+    }
+
+    private synchronized DomainException enqueue(Entry<?> entry, Duration delay) {
+        ProcessingTaskId taskId = entry.task.getId();
+        if (shutdown) {
+            return new DomainException("SCHEDULER_SHUTDOWN", "Task scheduler is shut down");
+        }
+        if (entries.containsKey(taskId)) {
+            return new DomainException("TASK_ALREADY_SCHEDULED", "Processing task already scheduled: " + taskId);
+        }
+
+        Pool pool = pool(entry.engineType);
+        if (waiting(pool) >= pool.maxQueue) {
+            return new DomainException("SCHEDULER_QUEUE_FULL",
+                    "Too many pending tasks for engine type " + entry.engineType);
+        }
+
+        entries.put(taskId, entry);
+        schedule(entry, clock.millis() + Math.max(0, delay.toMillis()));
+        return null;
+    }
+
+    private <T> void start(Entry<T> entry) {
+        logger.debug("Starting task {} on {} pool, attempt {}", entry.task.getId(), entry.engineType, entry.attempts);
+
+        Publisher<T> publisher;
+        try {
+            publisher = entry.work.apply(entry.task);
+        } catch (RuntimeException e) {
+            finish(entry, e);
+            return;
+        }
+
+        entry.running.update(Flux.from(publisher).subscribe(
+                value -> {
+                    entry.emitted = true;
+                    entry.sink.next(value);
+                },
+                error -> finish(entry, error),
+                () -> finish(entry, null)));
+    }
+
+    private void finish(Entry<?> entry, Throwable error) {
+        boolean retrying = false;
+        synchronized (this) {
+            if (entry.state != State.RUNNING) {
+                // 已被取消
+                return;
+            }
+            pool(entry.engineType).running--;
+
+            if (error != null && isRetryable(entry, error)) {
+                long backoff = backoff(entry.attempts);
+                logger.warn("Task {} failed on attempt {}, retry in {} ms: {}",
+                        entry.task.getId(), entry.attempts, backoff, error.getMessage());
+                schedule(entry, clock.millis() + backoff);
+                retrying = true;
+            } else {
+                entry.state = State.DONE;
+                entries.remove(entry.task.getId(), entry);
+            }
+        }
+
+        if (!retrying) {
+            if (error == null) {
+                entry.sink.complete();
+            } else {
+                entry.sink.error(error);
+            }
+        }
+        dispatch();
+    }
+
+    /**
+     * 出队或取消正在执行的任务
+     *
+     * @return 任务此前尚未结束时返回 true
+     */
+    private boolean cancel(Entry<?> entry) {
+        synchronized (this) {
+            switch (entry.state) {
+                case WAITING -> {
+                    if (!delayed.remove(entry)) {
+                        pool(entry.engineType).ready.remove(entry);
+                    }
+                }
+                case RUNNING -> pool(entry.engineType).running--;
+                case DONE -> {
+                    return false;
+                }
+            }
+            entry.state = State.DONE;
+            entries.remove(entry.task.getId(), entry);
+        }
+
+        entry.running.dispose();
+        dispatch();
+        return true;
+    }
+
+    private void schedule(Entry<?> entry, long readyAt) {
+        entry.state = State.WAITING;
+        entry.readyAt = readyAt;
+        entry.sequence = sequence++;
+
+        long delay = readyAt - clock.millis();
+        if (delay <= 0) {
+            ready(entry);
+        } else {
+            delayed.add(entry);
+            timer.schedule(this::dispatch, Duration.ofMillis(delay));
+        }
+    }
+
+    private void ready(Entry<?> entry) {
+        entry.rank = entry.readyAt + entry.task.getPriority() * properties.getAging().toMillis();
+        pool(entry.engineType).ready.add(entry);
+    }
+
+    /**
+     * 业务异常、已经输出过结果的任务和超过重试次数的任务不再重试
+     */
+    private boolean isRetryable(Entry<?> entry, Throwable error) {
+        return !shutdown
+                && !entry.emitted
+                && entry.attempts <= properties.getMaxRetries()
+                && !(error instanceof DomainException)
+                && !(error instanceof IllegalArgumentException);
+    }
+
+    private long backoff(int attempts) {
+        long backoff = properties.getRetryBackoff().toMillis() << Math.min(attempts - 1, 20);
+        return Math.min(backoff, properties.getMaxRetryBackoff().toMillis());
+    }
+
+    private int waiting(Pool pool) {
+        int waiting = pool.ready.size();
+        for (Entry<?> entry : delayed) {
+            if (pool(entry.engineType) == pool) {
+                waiting++;
+            }
+        }
+        return waiting;
+    }
+
+    private Pool pool(String engineType) {
+        return pools.computeIfAbsent(engineType, type -> {
+            TaskSchedulerProperties.Pool config = properties.forEngineType(type);
+            if (config.getSize() < 1 || config.getMaxQueue() < 0) {
+                throw new IllegalArgumentException("Invalid scheduler pool " + type + ": size=" + config.getSize()
+                        + ", maxQueue=" + config.getMaxQueue());
+            }
+            return new Pool(config.getSize(), config.getMaxQueue());
+        });
+    }
+
+    private static String engineType(ProcessingTask task) {
+        return task.getInputModality().getCode().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * 延迟执行的定时器，测试中由调用方推进时钟后手动 dispatch
+     */
+    @FunctionalInterface
+    interface Timer {
+
+        void schedule(Runnable action, Duration delay);
+    }
+
+    private enum State {
+        WAITING, RUNNING, DONE
+    }
+
+    private static final class Pool {
+
+        private final int size;
+        private final int maxQueue;
+        private final PriorityQueue<Entry<?>> ready = new PriorityQueue<>(
+                Comparator.<Entry<?>>comparingLong(entry -> entry.rank).thenComparingLong(entry -> entry.sequence));
+        private int running;
+
+        private Pool(int size, int maxQueue) {
+            this.size = size;
+            this.maxQueue = maxQueue;
+        }
+    }
+
+    private static final class Entry<T> {
+
+        private final ProcessingTask task;
+        private final String engineType;
+        private final Function<ProcessingTask, ? extends Publisher<T>> work;
+        private final FluxSink<T> sink;
+        private final Disposable.Swap running = Disposables.swap();
+
+        private State state = State.WAITING;
+        private long readyAt;
+        private long rank;
+        private long sequence;
+        private int attempts;
+        private volatile boolean emitted;
+
+        private Entry(ProcessingTask task, String engineType,
+                      Function<ProcessingTask, ? extends Publisher<T>> work, FluxSink<T> sink) {
+            this.task = task;
+            this.engineType = engineType;
+            this.work = work;
+            this.sink = sink;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.admission;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.alibaba.cloud.ai.application.exception.SAAAppException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionSchedulerTest {
+
+	@Test
+	void testFloodingUserDoesNotStarveOthers() {
+
+		AdmissionScheduler scheduler = newScheduler(1, 1, 100, Map.of());
+
+		List<CompletableFuture<AdmissionScheduler.Permit>> pending = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			pending.add(scheduler.submit("flood", 1));
+		}
+		for (String user : List.of("a", "b", "c")) {
+			for (int i = 0; i < 5; i++) {
+				pending.add(scheduler.submit(user, 1));
+			}
+		}
+
+		// the light users are admitted round robin with the flooding one
+		List<String> order = drain(pending);
+		List<String> first = order.subList(0, 20);
+		for (String user : List.of("flood", "a", "b", "c")) {
+			assertEquals(5, Collections.frequency(first, user), "admissions of " + user + " in " + first);
+		}
+		assertEquals(65, order.size());
+	}
+
+	@Test
+	void testWeightAndCostShareTheCapacity() {
+
+		AdmissionScheduler scheduler = newScheduler(1, 1, 100, Map.of("vip", 2.0));
+
+		List<CompletableFuture<AdmissionScheduler.Permit>> pending = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			pending.add(scheduler.submit("vip", 1));
+			pending.add(scheduler.submit("normal", 1));
+			pending.add(scheduler.submit("heavy", 2));
+		}
+
+		List<String> first = drain(pending).subList(0, 28);
+		assertEquals(16, Collections.frequency(first, "vip"));
+		assertEquals(8, Collections.frequency(first, "normal"));
+		assertEquals(4, Collections.frequency(first, "heavy"));
+	}
+
+	@Test
+	void testPerUserCapAndQueueLimit() {
+
+		AdmissionScheduler scheduler = newScheduler(8, 2, 3, Map.of());
+
+		List<CompletableFuture<AdmissionScheduler.Permit>> futures = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			futures.add(scheduler.submit("user", 1));
+		}
+		assertThrows(SAAAppException.class, () -> scheduler.submit("user", 1));
+
+		assertEquals(2, scheduler.inFlight("user"));
+		assertEquals(3, scheduler.queued("user"));
+		assertTrue(futures.get(1).isDone());
+		assertFalse(futures.get(2).isDone());
+
+		// another user still gets the free capacity
+		assertTrue(scheduler.submit("other", 1).isDone());
+
+		futures.get(0).join().release();
+		futures.get(0).join().release();
+		assertTrue(futures.get(2).isDone());
+		assertEquals(2, scheduler.inFlight("user"));
+		assertEquals(2, scheduler.queued("user"));
+	}
+
+	@Test
+	void testCancelledAndTimedOutRequestsLeaveTheQueue() throws Exception {
+
+		AdmissionProperties properties = properties(1, 1, 10, Map.of());
+		properties.setQueueTimeout(Duration.ofMillis(100));
+		AdmissionScheduler scheduler = new AdmissionScheduler(properties, new SimpleMeterRegistry());
+
+		AdmissionScheduler.Permit permit = scheduler.acquire("a", 1);
+		CompletableFuture<AdmissionScheduler.Permit> cancelled = scheduler.submit("b", 1);
+		cancelled.cancel(false);
+		assertEquals(0, scheduler.queued());
+
+		assertThrows(SAAAppException.class, () -> scheduler.acquire("c", 1));
+		assertEquals(0, scheduler.queued());
+
+		permit.release();
+		permit.release();
+		assertEquals(0, scheduler.inFlight());
+		assertTrue(scheduler.submit("d", 1).isDone());
+	}
+
+	/**
+	 * One tenant floods with many concurrent clients, a light tenant sends a few requests at a time.
+	 * The light tenant must not wait behind the backlog of the flooding one.
+	 */
+	@Test
+	void testLoadWithFloodingTenant() throws Exception {
+
+		AdmissionScheduler scheduler = newScheduler(4, 4, 1000, Map.of());
+		ExecutorService clients = Executors.newFixedThreadPool(34);
+		AtomicBoolean running = new AtomicBoolean(true);
+		Map<String, List<Long>> latencies = new HashMap<>();
+		latencies.put("flood", Collections.synchronizedList(new ArrayList<>()));
+		latencies.put("light", Collections.synchronizedList(new ArrayList<>()));
+
+		try {
+			for (int i = 0; i < 32; i++) {
+				clients.execute(() -> {
+					while (running.get()) {
+						latencies.get("flood").add(call(scheduler, "flood"));
+					}
+				});
+			}
+			Thread.sleep(100);
+
+			List<CompletableFuture<Void>> light = new ArrayList<>();
+			for (int i = 0; i < 2; i++) {
+				light.add(CompletableFuture.runAsync(() -> {
+					for (int j = 0; j < 10; j++) {
+						latencies.get("light").add(call(scheduler, "light"));
+					}
+				}, clients));
+			}
+			CompletableFuture.allOf(light.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+		}
+		finally {
+			running.set(false);
+			clients.shutdown();
+			clients.awaitTermination(10, TimeUnit.SECONDS);
+		}
+
+		double light = average(latencies.get("light"));
+		double flood = average(latencies.get("flood"));
+		assertTrue(light * 3 < flood, "light tenant waited " + light + "ms, flooding tenant " + flood + "ms");
+	}
+
+	private static long call(AdmissionScheduler scheduler, String user) {
+
+		long start = System.nanoTime();
+		AdmissionScheduler.Permit permit = scheduler.acquire(user, 1);
+		try {
+			// simulated model call
+			Thread.sleep(10);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			permit.release();
+		}
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+	}
+
+	private static double average(List<Long> values) {
+
+		synchronized (values) {
+			return values.stream().mapToLong(Long::longValue).average().orElse(0);
+		}
+	}
+
+	/**
+	 * Release the admitted requests one by one and return the users in admission order.
+	 */
+	private static List<String> drain(List<CompletableFuture<AdmissionScheduler.Permit>> pending) {
+
+		List<String> order = new ArrayList<>();
+		List<CompletableFuture<AdmissionScheduler.Permit>> remaining = new ArrayList<>(pending);
+		while (!remaining.isEmpty()) {
+			CompletableFuture<AdmissionScheduler.Permit> next = remaining.stream()
+					.filter(CompletableFuture::isDone)
+					.findFirst()
+					.orElseThrow();
+			remaining.remove(next);
+			AdmissionScheduler.Permit permit = next.join();
+			order.add(permit.getUser());
+			permit.release();
+		}
+		return order;
+	}
+
+	private static AdmissionScheduler newScheduler(int maxConcurrency, int perUser, int maxQueued, Map<String, Double> weights) {
+
+		return new AdmissionScheduler(properties(maxConcurrency, perUser, maxQueued, weights), new SimpleMeterRegistry());
+	}
+
+	private static AdmissionProperties properties(int maxConcurrency, int perUser, int maxQueued, Map<String, Double> weights) {
+
+		AdmissionProperties properties = new AdmissionProperties();
+		properties.setMaxConcurrency(maxConcurrency);
+		properties.setMaxConcurrencyPerUser(perUser);
+		properties.setMaxQueuedPerUser(maxQueued);
+		properties.setWeights(weights);
+		return properties;
+	}
+
+}
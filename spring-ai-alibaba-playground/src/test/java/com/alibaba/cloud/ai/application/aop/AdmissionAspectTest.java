@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.aop;
+
+import java.time.Duration;
+import java.util.List;
+
+import com.alibaba.cloud.ai.application.admission.AdmissionProperties;
+import com.alibaba.cloud.ai.application.admission.AdmissionScheduler;
+import com.alibaba.cloud.ai.application.annotation.Admission;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AdmissionAspectTest {
+
+	private AdmissionScheduler scheduler;
+
+	private Handlers handlers;
+
+	@BeforeEach
+	void setUp() {
+
+		AdmissionProperties properties = new AdmissionProperties();
+		properties.setMaxConcurrency(1);
+		properties.setMaxConcurrencyPerUser(1);
+		scheduler = new AdmissionScheduler(properties, new SimpleMeterRegistry());
+
+		AspectJProxyFactory factory = new AspectJProxyFactory(new Handlers());
+		factory.setProxyTargetClass(true);
+		factory.addAspect(new AdmissionAspect(new MockHttpServletRequest(), scheduler, properties));
+		handlers = factory.getProxy();
+	}
+
+	@Test
+	void testUnsubscribedStreamHoldsNoPermit() {
+
+		Flux<String> flux = handlers.stream(Flux.just("a"));
+		Mono<String> mono = handlers.single(Mono.just("a"));
+
+		assertEquals(0, scheduler.inFlight());
+		assertEquals(0, scheduler.queued());
+		assertEquals(List.of("a"), flux.collectList().block(Duration.ofSeconds(5)));
+		assertEquals("a", mono.block(Duration.ofSeconds(5)));
+		assertEquals(0, scheduler.inFlight());
+	}
+
+	@Test
+	void testPermitIsHeldUntilTheStreamTerminates() {
+
+		Sinks.Many<String> sink = Sinks.many().unicast().onBackpressureBuffer();
+		Disposable subscription = handlers.stream(sink.asFlux()).subscribe();
+		assertEquals(1, scheduler.inFlight());
+
+		// the second stream waits in the queue without blocking the caller
+		Disposable waiting = handlers.stream(Flux.just("b")).subscribe();
+		assertEquals(1, scheduler.queued());
+
+		sink.tryEmitComplete();
+		assertEquals(0, scheduler.queued());
+		assertEquals(0, scheduler.inFlight());
+
+		subscription.dispose();
+		waiting.dispose();
+	}
+
+	@Test
+	void testCancelReleasesAndLeavesTheQueue() {
+
+		Disposable holding = handlers.stream(Flux.never()).subscribe();
+		Disposable waiting = handlers.stream(Flux.just("b")).subscribe();
+		assertEquals(1, scheduler.inFlight());
+		assertEquals(1, scheduler.queued());
+
+		waiting.dispose();
+		assertEquals(0, scheduler.queued());
+
+		holding.dispose();
+		assertEquals(0, scheduler.inFlight());
+	}
+
+	public static class Handlers {
+
+		@Admission
+		public Flux<String> stream(Flux<String> flux) {
+			return flux;
+		}
+
+		@Admission
+		public Mono<String> single(Mono<String> mono) {
+			return mono;
+		}
+
+	}
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.config.rag;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.Filter;
+import org.springframework.boot.actuate.health.Status;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+class RagIngestionJobTest {
+
+	private final RecordingVectorStore vectorStore = new RecordingVectorStore();
+
+	private final RagIngestionJob job = new RagIngestionJob(
+			new VectorStoreDelegate(vectorStore, null), true, Duration.ofMillis(10));
+
+	private final RagIndexHealthIndicator healthIndicator = new RagIndexHealthIndicator(job);
+
+	@AfterEach
+	void tearDown() {
+		job.destroy();
+	}
+
+	@Test
+	void outOfServiceUntilTheCorpusIsIngested() throws InterruptedException {
+
+		assertEquals(Status.OUT_OF_SERVICE, healthIndicator.health().getStatus());
+		assertFalse(job.isReady());
+
+		job.start();
+		awaitReady();
+
+		assertEquals(Status.UP, healthIndicator.health().getStatus());
+		RagIngestionJob.Status status = job.getStatus();
+		assertTrue(status.total() > 0);
+		assertEquals(status.total(), status.ingested());
+		assertEquals(status.total(), vectorStore.documents.size());
+		assertNotNull(status.finishedAt());
+	}
+
+	@Test
+	void failedIngestionResumesFromTheLastBatch() throws InterruptedException {
+
+		// the second batch fails twice, e.g. the embedding model throttles
+		vectorStore.failures.set(2);
+		vectorStore.failAtBatch = 1;
+
+		job.start();
+		awaitReady();
+
+		RagIngestionJob.Status status = job.getStatus();
+		// nothing is stored twice
+		assertEquals(status.total(), vectorStore.documents.size());
+		assertEquals(vectorStore.documents.size(), vectorStore.documents.stream().map(Document::getId).distinct().count());
+		assertNull(status.lastError());
+	}
+
+	private void awaitReady() throws InterruptedException {
+
+		long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+		while (!job.isReady()) {
+			assertTrue(System.nanoTime() < deadline, "RAG ingestion did not finish: " + job.getStatus());
+			Thread.sleep(10);
+		}
+	}
+
+	private static class RecordingVectorStore implements VectorStore {
+
+		private final List<Document> documents = new ArrayList<>();
+
+		private final AtomicInteger failures = new AtomicInteger();
+
+		private int batches;
+
+		private volatile int failAtBatch = -1;
+
+		@Override
+		public synchronized void add(List<Document> batch) {
+
+			if (batches == failAtBatch && failures.getAndDecrement() > 0) {
+				throw new IllegalStateException("Throttled");
+			}
+			batches++;
+			documents.addAll(batch);
+		}
+
+		@Override
+		public void delete(List<String> idList) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void delete(Filter.Expression filterExpression) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public List<Document> similaritySearch(SearchRequest request) {
+			return List.of();
+		}
+
+	}
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.config.snapshot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigSnapshotTest {
+
+	private static final String FILE_NAME = "snapshot-test.yml";
+
+	@TempDir
+	Path classpath;
+
+	private URLClassLoader classLoader;
+
+	private ConfigSnapshot<String> snapshot;
+
+	@BeforeEach
+	void setUp() throws IOException {
+
+		write("version: 1");
+		classLoader = new URLClassLoader(new URL[] {classpath.toUri().toURL()}, null);
+		snapshot = new ConfigSnapshot<>(FILE_NAME, ConfigSnapshotTest::parse, classLoader);
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		classLoader.close();
+	}
+
+	@Test
+	void testReloadSwapsTheSnapshotAndNotifiesListeners() throws IOException {
+
+		List<String> published = new CopyOnWriteArrayList<>();
+		snapshot.addListener(published::add);
+
+		String first = snapshot.get();
+		write("version: 2");
+
+		assertTrue(snapshot.reload());
+		assertEquals("version: 1", first);
+		assertEquals("version: 2", snapshot.get());
+		assertEquals(List.of("version: 2"), published);
+		assertEquals(classpath.resolve(FILE_NAME), snapshot.getWatchablePath().orElseThrow());
+	}
+
+	@Test
+	void testBadFileKeepsThePreviousSnapshot() throws IOException {
+
+		List<String> published = new CopyOnWriteArrayList<>();
+		snapshot.addListener(published::add);
+		snapshot.get();
+		write("not a version");
+
+		assertFalse(snapshot.reload());
+		assertEquals("version: 1", snapshot.get());
+		assertTrue(published.isEmpty());
+
+		Files.delete(classpath.resolve(FILE_NAME));
+		assertFalse(snapshot.reload());
+		assertEquals("version: 1", snapshot.get());
+	}
+
+	@Test
+	void testReadersOnlySeeCompleteSnapshotsDuringReloads() throws Exception {
+
+		snapshot.get();
+		AtomicBoolean reloading = new AtomicBoolean(true);
+		ExecutorService readers = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Integer>> reads = new CopyOnWriteArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				reads.add(readers.submit(() -> {
+					int count = 0;
+					int last = 0;
+					while (reloading.get()) {
+						// versions only move forward, a reader never sees a missing or partial snapshot
+						int version = Integer.parseInt(snapshot.get().substring("version: ".length()));
+						assertTrue(version >= last, "version went back from " + last + " to " + version);
+						last = version;
+						count++;
+					}
+					return count;
+				}));
+			}
+
+			for (int version = 2; version <= 50; version++) {
+				write("version: " + version);
+				assertTrue(snapshot.reload());
+			}
+			reloading.set(false);
+
+			for (Future<Integer> read : reads) {
+				assertTrue(read.get(10, TimeUnit.SECONDS) > 0);
+			}
+			assertEquals("version: 50", snapshot.get());
+		}
+		finally {
+			readers.shutdownNow();
+		}
+	}
+
+	private void write(String content) throws IOException {
+
+		// replace the file in one step, like an editor saving it
+		Path temp = Files.writeString(classpath.resolve(FILE_NAME + ".tmp"), content, StandardCharsets.UTF_8);
+		Files.move(temp, classpath.resolve(FILE_NAME), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static String parse(InputStream in) throws IOException {
+
+		String content = new String(in.readAllBytes(), StandardCharsets.UTF_8).strip();
+		if (!content.startsWith("version: ")) {
+			throw new IOException("Unexpected content: " + content);
+		}
+		return content;
+	}
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.filter;
+
+import com.alibaba.cloud.ai.application.config.StaticResourceConfiguration;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+class XSSFilterTest {
+
+	private final XSSFilter filter = new XSSFilter(StaticResourceConfiguration.STATIC_PATH_PREFIXES);
+
+	@Test
+	void documentsGetTheContentSecurityPolicy() throws Exception {
+
+		assertNotNull(filter("/", "").getHeader("Content-Security-Policy"));
+		assertNotNull(filter("/index.html", "").getHeader("Content-Security-Policy"));
+		assertNotNull(filter("/api/v1/chat", "").getHeader("Content-Security-Policy"));
+	}
+
+	@Test
+	void staticResourcesAreSkipped() throws Exception {
+
+		assertNull(filter("/assets/index-C31LC2MD.js", "").getHeader("Content-Security-Policy"));
+		assertNull(filter("/genImages/1.png", "").getHeader("Content-Security-Policy"));
+		assertNull(filter("/playground/assets/index-C31LC2MD.js", "/playground").getHeader("Content-Security-Policy"));
+	}
+
+	private MockHttpServletResponse filter(String uri, String contextPath) throws Exception {
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+		request.setContextPath(contextPath);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.web.client.RestClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compare a client per call, what the baidu map tool did before, with the pooled client of the factory
+ * against a local server. The connections are counted by the remote port seen by the server.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+class OutboundHttpClientFactoryBenchmarkTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(OutboundHttpClientFactoryBenchmarkTest.class);
+
+	private static final int WARMUP = 50;
+
+	private static final int CALLS = 500;
+
+	private final Set<InetSocketAddress> connections = ConcurrentHashMap.newKeySet();
+
+	private HttpServer server;
+
+	private OutboundHttpClientFactory factory;
+
+	@BeforeEach
+	void setUp() throws IOException {
+
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/weather", this::weather);
+		server.setExecutor(Executors.newFixedThreadPool(4));
+		server.start();
+
+		OutboundHttpProperties properties = new OutboundHttpProperties();
+		// the stub server is plain http
+		properties.getDefaults().setHttp2(false);
+		factory = new OutboundHttpClientFactory(properties);
+	}
+
+	@AfterEach
+	void tearDown() {
+
+		factory.destroy();
+		server.stop(0);
+	}
+
+	@Test
+	void pooledClientReusesConnections() {
+
+		String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/weather";
+
+		Supplier<String> perCall = () -> {
+			HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+			try {
+				return httpClient.send(HttpRequest.newBuilder(URI.create(url)).GET().build(),
+						HttpResponse.BodyHandlers.ofString()).body();
+			}
+			catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			}
+		};
+
+		RestClient restClient = factory.restClientBuilder("benchmark").baseUrl(url).build();
+		Supplier<String> pooled = () -> restClient.get().retrieve().body(String.class);
+
+		Result perCallResult = run(perCall);
+		Result pooledResult = run(pooled);
+
+		logger.info("client per call: {} connections, {} us/call", perCallResult.connections(), perCallResult.micros());
+		logger.info("pooled client: {} connections, {} us/call", pooledResult.connections(), pooledResult.micros());
+
+		// every call of a new client opens its own connection, the pool keeps reusing one
+		assertEquals(CALLS, perCallResult.connections());
+		assertTrue(pooledResult.connections() <= 2, "pooled connections: " + pooledResult.connections());
+	}
+
+	private Result run(Supplier<String> call) {
+
+		for (int i = 0; i < WARMUP; i++) {
+			assertEquals("sunny", call.get());
+		}
+
+		connections.clear();
+		long start = System.nanoTime();
+		for (int i = 0; i < CALLS; i++) {
+			assertEquals("sunny", call.get());
+		}
+		long micros = (System.nanoTime() - start) / 1000 / CALLS;
+
+		return new Result(connections.size(), micros);
+	}
+
+	private void weather(HttpExchange exchange) throws IOException {
+
+		connections.add(exchange.getRemoteAddress());
+		byte[] body = "sunny".getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "text/plain");
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	private record Result(int connections, long micros) {
+	}
+
+}
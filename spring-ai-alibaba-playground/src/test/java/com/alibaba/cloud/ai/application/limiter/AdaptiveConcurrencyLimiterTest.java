@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.limiter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.cloud.ai.application.exception.SAAAppException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+	@Test
+	void testLimitConvergesToModelCapacity() throws Exception {
+
+		SimulatedModel model = new SimulatedModel(4);
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("simulated", properties(32), new SimpleMeterRegistry());
+
+		ExecutorService callers = Executors.newFixedThreadPool(32);
+		AtomicInteger failures = new AtomicInteger();
+		List<CompletableFuture<Void>> clients = new ArrayList<>();
+		try {
+			for (int i = 0; i < 32; i++) {
+				clients.add(CompletableFuture.runAsync(() -> {
+					for (int j = 0; j < 15; j++) {
+						try {
+							limiter.execute(model::call);
+						}
+						catch (RuntimeException e) {
+							failures.incrementAndGet();
+						}
+					}
+				}, callers));
+			}
+			CompletableFuture.allOf(clients.toArray(new CompletableFuture[0])).get(60, TimeUnit.SECONDS);
+		}
+		finally {
+			callers.shutdownNow();
+		}
+
+		// the initial limit overloads the model, the limit then stays around its capacity
+		assertTrue(limiter.getLimit() <= 12, "limit " + limiter.getLimit());
+		assertTrue(failures.get() < 48, "failed calls " + failures.get());
+		assertEquals(480, model.calls.get());
+		assertEquals(0, limiter.getInFlight());
+		assertEquals(0, limiter.getQueued());
+	}
+
+	@Test
+	void testThrottlingOfOneRoundTripDecreasesOnce() {
+
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("simulated", properties(16), null);
+
+		List<AdaptiveConcurrencyLimiter.Token> tokens = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			tokens.add(limiter.acquire());
+		}
+		tokens.forEach(token -> token.onError(new RuntimeException("429 Too Many Requests: Throttling.RateQuota")));
+		tokens.forEach(AdaptiveConcurrencyLimiter.Token::release);
+		assertEquals(8.0, limiter.getLimit());
+
+		AdaptiveConcurrencyLimiter.Token next = limiter.acquire();
+		next.onError(new RuntimeException("Throttling.RateQuota"));
+		next.release();
+		assertEquals(4.0, limiter.getLimit());
+
+		AdaptiveConcurrencyLimiter.Token other = limiter.acquire();
+		other.onError(new IllegalArgumentException("invalid prompt"));
+		other.release();
+		assertEquals(4.0, limiter.getLimit());
+	}
+
+	@Test
+	void testCallersQueueForFreeSlots() throws Exception {
+
+		ModelConcurrencyProperties properties = properties(1);
+		properties.setMaxLimit(1);
+		properties.setMaxWait(Duration.ofMillis(100));
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("simulated", properties, null);
+
+		AdaptiveConcurrencyLimiter.Token token = limiter.acquire();
+		CompletableFuture<AdaptiveConcurrencyLimiter.Token> waiting = limiter.acquireAsync();
+		assertFalse(waiting.isDone());
+		assertEquals(1, limiter.getQueued());
+
+		token.release();
+		token.release();
+		waiting.get(1, TimeUnit.SECONDS).release();
+		assertEquals(0, limiter.getInFlight());
+
+		AdaptiveConcurrencyLimiter.Token busy = limiter.acquire();
+		assertThrows(SAAAppException.class, limiter::acquire);
+		assertEquals(0, limiter.getQueued());
+		busy.release();
+		assertEquals(0, limiter.getInFlight());
+	}
+
+	private static ModelConcurrencyProperties properties(int initialLimit) {
+
+		ModelConcurrencyProperties properties = new ModelConcurrencyProperties();
+		properties.setInitialLimit(initialLimit);
+		return properties;
+	}
+
+	/**
+	 * Model serving {@code capacity} calls at full speed, slower beyond and throttling above twice the capacity.
+	 */
+	static class SimulatedModel {
+
+		private static final long BASE_LATENCY_MILLIS = 10;
+
+		private final int capacity;
+
+		private final AtomicInteger inFlight = new AtomicInteger();
+
+		private final AtomicInteger calls = new AtomicInteger();
+
+		SimulatedModel(int capacity) {
+			this.capacity = capacity;
+		}
+
+		String call() {
+
+			calls.incrementAndGet();
+			int current = inFlight.incrementAndGet();
+			try {
+				if (current > capacity * 2) {
+					throw new IllegalStateException("429 Too Many Requests");
+				}
+				Thread.sleep(BASE_LATENCY_MILLIS * Math.max(1, current * current / (capacity * capacity)));
+				return "ok";
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			}
+			finally {
+				inFlight.decrementAndGet();
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.mcp;
+
+import java.util.List;
+
+import ch.qos.logback.classic.Level;
+import io.modelcontextprotocol.server.McpServer;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.transport.StdioServerTransportProvider;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Local stdio mcp server used by the tests, echo the input text and exit on demand.
+ */
+public class EchoMcpServer {
+
+	private static final String TEXT_SCHEMA = """
+			{
+				"type": "object",
+				"properties": {
+					"text": {
+						"type": "string"
+					}
+				}
+			}
+			""";
+
+	public static void main(String[] args) throws InterruptedException {
+
+		// stdout is the transport, keep the logs out of it.
+		((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.OFF);
+
+		McpServer.sync(new StdioServerTransportProvider())
+				.serverInfo("echo-server", "1.0.0")
+				.capabilities(McpSchema.ServerCapabilities.builder().tools(true).build())
+				.tools(
+						new McpServerFeatures.SyncToolSpecification(
+								new McpSchema.Tool("echo", "Echo the input text", TEXT_SCHEMA),
+								(exchange, arguments) -> new McpSchema.CallToolResult(
+										List.of(new McpSchema.TextContent(String.valueOf(arguments.get("text")))),
+										false
+								)
+						),
+						new McpServerFeatures.SyncToolSpecification(
+								new McpSchema.Tool("exit", "Stop the server process", TEXT_SCHEMA),
+								(exchange, arguments) -> {
+									Thread exit = new Thread(() -> {
+										try {
+											Thread.sleep(100);
+										}
+										catch (InterruptedException ignored) {
+										}
+										System.exit(0);
+									});
+									exit.start();
+									return new McpSchema.CallToolResult(List.of(new McpSchema.TextContent("bye")), false);
+								}
+						)
+				)
+				.build();
+
+		Thread.currentThread().join();
+	}
+
+}
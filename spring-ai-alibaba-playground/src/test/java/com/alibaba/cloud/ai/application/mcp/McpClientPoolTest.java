@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.mcp;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.alibaba.cloud.ai.application.exception.SAAAppException;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.spec.McpSchema;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.mcp.client.autoconfigure.properties.McpStdioClientProperties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class McpClientPoolTest {
+
+	private McpClientPoolProperties properties;
+
+	private McpClientPool pool;
+
+	private McpStdioClientProperties.Parameters echoServer;
+
+	@BeforeEach
+	void setUp() {
+
+		properties = new McpClientPoolProperties();
+		properties.setMaxClientsPerServer(2);
+		properties.setBorrowTimeout(Duration.ofMillis(500));
+		properties.setHealthCheckInterval(Duration.ZERO);
+		properties.setRequestTimeout(Duration.ofSeconds(10));
+		pool = new McpClientPool(properties);
+
+		String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+		echoServer = new McpStdioClientProperties.Parameters(
+				java,
+				List.of("-cp", System.getProperty("java.class.path"), EchoMcpServer.class.getName()),
+				Map.of()
+		);
+	}
+
+	@AfterEach
+	void tearDown() {
+		pool.destroy();
+	}
+
+	@Test
+	void testReuseInitializedClient() {
+
+		McpSyncClient first = pool.execute(echoServer, client -> client);
+		String echo = pool.execute(echoServer, client -> callTool(client, "echo", "hello"));
+		McpSyncClient second = pool.execute(echoServer, client -> client);
+
+		assertEquals("hello", echo);
+		assertSame(first, second);
+		assertEquals(1, pool.stats().values().iterator().next());
+	}
+
+	@Test
+	void testCapClientsPerServer() throws Exception {
+
+		CountDownLatch borrowed = new CountDownLatch(2);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+
+		try {
+			List<Future<String>> holders = List.of(
+					executor.submit(() -> hold(borrowed, release)),
+					executor.submit(() -> hold(borrowed, release))
+			);
+			assertTrue(borrowed.await(30, TimeUnit.SECONDS));
+
+			assertThrows(SAAAppException.class, () -> pool.execute(echoServer, client -> client));
+
+			release.countDown();
+			for (Future<String> holder : holders) {
+				assertEquals("held", holder.get(30, TimeUnit.SECONDS));
+			}
+			assertEquals(2, pool.stats().values().iterator().next());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void testEvictIdleClients() {
+
+		pool.execute(echoServer, client -> callTool(client, "echo", "hello"));
+
+		properties.setIdleTimeout(Duration.ZERO);
+		pool.evictIdle();
+
+		assertTrue(pool.stats().isEmpty());
+		assertEquals(0, pool.poolCount());
+	}
+
+	@Test
+	void testCapServerPools() throws Exception {
+
+		properties.setMaxServers(1);
+		McpStdioClientProperties.Parameters withSecret = new McpStdioClientProperties.Parameters(
+				echoServer.command(), echoServer.args(), Map.of("API_KEY", "secret"));
+
+		McpSyncClient first = pool.execute(echoServer, client -> client);
+		String echo = pool.execute(withSecret, client -> callTool(client, "echo", "hello"));
+
+		// the idle pool of the first definition is evicted to make room for the second one.
+		assertEquals("hello", echo);
+		assertEquals(1, pool.poolCount());
+		assertNotSame(first, pool.execute(echoServer, client -> client));
+
+		CountDownLatch borrowed = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<String> holder = executor.submit(() -> hold(borrowed, release));
+			assertTrue(borrowed.await(30, TimeUnit.SECONDS));
+
+			// a pool with a borrowed client is never evicted.
+			assertThrows(SAAAppException.class, () -> pool.execute(withSecret, client -> client));
+
+			release.countDown();
+			assertEquals("held", holder.get(30, TimeUnit.SECONDS));
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void testRestartAfterServerExit() throws InterruptedException {
+
+		McpSyncClient first = pool.execute(echoServer, client -> client);
+		pool.execute(echoServer, client -> callTool(client, "exit", ""));
+		Thread.sleep(1000);
+
+		McpSyncClient second = pool.execute(echoServer, client -> client);
+		String echo = pool.execute(echoServer, client -> callTool(client, "echo", "again"));
+
+		assertNotSame(first, second);
+		assertEquals("again", echo);
+	}
+
+	private String hold(CountDownLatch borrowed, CountDownLatch release) {
+
+		return pool.execute(echoServer, client -> {
+			borrowed.countDown();
+			try {
+				release.await();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return "held";
+		});
+	}
+
+	private static String callTool(McpSyncClient client, String name, String text) {
+
+		McpSchema.CallToolResult result = client.callTool(new McpSchema.CallToolRequest(name, Map.of("text", text)));
+		return ((McpSchema.TextContent) result.content().get(0)).text();
+	}
+
+}
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.media;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+
+import org.springframework.util.unit.DataSize;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+class AnalysisCacheTest {
+
+	private static final String KEY = AnalysisCache.key("image", "qwen-vl-max-latest", "What is it?",
+			AnalysisCache.digest(new byte[] { 1, 2, 3 }));
+
+	@TempDir
+	Path directory;
+
+	private final MutableClock clock = new MutableClock();
+
+	private AnalysisCacheProperties properties;
+
+	@BeforeEach
+	void setUp() {
+
+		properties = new AnalysisCacheProperties();
+		properties.setDirectory(directory);
+		properties.setTtl(Duration.ofHours(1));
+	}
+
+	@Test
+	void promptIsNormalized() {
+
+		String digest = AnalysisCache.digest(new byte[] { 1, 2, 3 });
+		assertEquals(KEY, AnalysisCache.key("image", "qwen-vl-max-latest", "  what   IS\tit? ", digest));
+		assertNotEquals(KEY, AnalysisCache.key("image", "qwen-vl-max-latest", "What is this?", digest));
+		assertNotEquals(KEY, AnalysisCache.key("image", "qwen-vl-plus", "What is it?", digest));
+		assertNotEquals(KEY, AnalysisCache.key("video", "qwen-vl-max-latest", "What is it?", digest));
+		assertNotEquals(KEY, AnalysisCache.key("image", "qwen-vl-max-latest", "What is it?",
+				AnalysisCache.digest(new byte[] { 1, 2, 4 })));
+	}
+
+	@Test
+	void hitIsReplayedChunkByChunk() throws IOException {
+
+		AnalysisCache cache = new AnalysisCache(properties, clock);
+		AtomicInteger calls = new AtomicInteger();
+		Flux<String> source = Flux.defer(() -> {
+			calls.incrementAndGet();
+			return Flux.just("A cat ", "on a ", "sofa.");
+		});
+
+		assertEquals(List.of("A cat ", "on a ", "sofa."),
+				cache.cached(KEY, AnalysisCache.TEXT, () -> source).collectList().block());
+		assertEquals(List.of("A cat ", "on a ", "sofa."),
+				cache.cached(KEY, AnalysisCache.TEXT, () -> source).collectList().block());
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	void failedAnalysisIsNotCached() throws IOException {
+
+		AnalysisCache cache = new AnalysisCache(properties, clock);
+		AtomicInteger calls = new AtomicInteger();
+
+		assertThrows(RuntimeException.class, () -> cache.cached(KEY, AnalysisCache.TEXT, () -> {
+			calls.incrementAndGet();
+			return Flux.concat(Flux.just("partial"), Flux.error(new IllegalStateException("model failed")));
+		}).collectList().block());
+
+		assertEquals(List.of("complete"), cache.cached(KEY, AnalysisCache.TEXT, () -> {
+			calls.incrementAndGet();
+			return Flux.just("complete");
+		}).collectList().block());
+		assertEquals(2, calls.get());
+	}
+
+	@Test
+	void diskTierSurvivesRestart() throws IOException {
+
+		new AnalysisCache(properties, clock).writeDisk(KEY, List.of("first", "", "second 段落"));
+
+		AnalysisCache restarted = new AnalysisCache(properties, clock);
+		assertEquals(List.of("first", "", "second 段落"), restarted.cached(KEY, AnalysisCache.TEXT,
+				() -> Flux.error(new AssertionError("must not call the model"))).collectList().block());
+	}
+
+	@Test
+	void diskEntryExpires() throws IOException {
+
+		AnalysisCache cache = new AnalysisCache(properties, clock);
+		cache.writeDisk(KEY, List.of("result"));
+		assertEquals(Optional.of(List.of("result")), cache.readDisk(KEY));
+
+		clock.advance(Duration.ofMinutes(61));
+		assertEquals(Optional.empty(), cache.readDisk(KEY));
+		assertEquals(0, cache.diskBytes());
+	}
+
+	@Test
+	void oldestEntriesAreEvictedOverDiskSize() throws IOException {
+
+		properties.setDiskSize(DataSize.ofBytes(3000));
+		AnalysisCache cache = new AnalysisCache(properties, clock);
+
+		String chunk = "x".repeat(1000);
+		for (int i = 0; i < 4; i++) {
+			cache.writeDisk("0" + i + "key", List.of(chunk));
+			clock.advance(Duration.ofSeconds(1));
+		}
+
+		assertTrue(cache.diskBytes() <= 2700, "disk bytes " + cache.diskBytes());
+		assertEquals(Optional.empty(), cache.readDisk("00key"));
+		assertEquals(Optional.of(List.of(chunk)), cache.readDisk("03key"));
+		assertEquals(cache.diskBytes(), Files.walk(directory).filter(Files::isRegularFile).mapToLong(path -> {
+			try {
+				return Files.size(path);
+			}
+			catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		}).sum());
+	}
+
+	private static final class MutableClock extends Clock {
+
+		private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+
+	}
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.media;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+class AudioSegmenterTest {
+
+	private static final int RATE = 16000;
+
+	private static final int OVERLAP = RATE / 2;
+
+	private final AudioSegmenter segmenter = new AudioSegmenter(RATE, Duration.ofSeconds(30), Duration.ofSeconds(60),
+			Duration.ofMillis(400), Duration.ofMillis(500));
+
+	@Test
+	void cutsInsidePausesNearTheTargetLength() {
+
+		List<int[]> pauses = new ArrayList<>();
+		short[] audio = speech(180, 7, pauses);
+
+		List<AudioSegmenter.Segment> segments = segmenter.split(audio);
+
+		assertTrue(segments.size() >= 5 && segments.size() <= 7, "segments: " + segments.size());
+		assertEquals(0, segments.get(0).fromSample());
+		assertEquals(audio.length, segments.get(segments.size() - 1).toSample());
+		for (int i = 0; i < segments.size() - 1; i++) {
+			AudioSegmenter.Segment segment = segments.get(i);
+			int cut = segment.toSample() - OVERLAP;
+			assertEquals(i, segment.index());
+			assertEquals(2 * OVERLAP, segment.toSample() - segments.get(i + 1).fromSample());
+			assertTrue(pauses.stream().anyMatch(pause -> cut >= pause[0] && cut < pause[1]), "cut at " + cut);
+			assertTrue(segment.toSample() - segment.fromSample() <= 62 * RATE);
+		}
+	}
+
+	@Test
+	void cutsHardWithoutPauses() {
+
+		short[] audio = speech(150, 0, new ArrayList<>());
+
+		List<AudioSegmenter.Segment> segments = segmenter.split(audio);
+
+		assertEquals(3, segments.size());
+		assertEquals(60 * RATE + OVERLAP, segments.get(0).toSample());
+		assertEquals(60_500, segments.get(0).endMillis());
+		assertEquals(59_500, segments.get(1).startMillis());
+	}
+
+	@Test
+	void dropsSegmentsWithoutSpeech() {
+
+		short[] audio = new short[120 * RATE];
+		Random random = new Random(1);
+		for (int i = 0; i < audio.length; i++) {
+			audio[i] = (short) (random.nextGaussian() * 20);
+		}
+
+		assertTrue(segmenter.split(audio).isEmpty());
+		assertTrue(segmenter.split(new short[0]).isEmpty());
+	}
+
+	/**
+	 * Tone bursts with background noise, a pause of 800 ms follows every {@code utterance} seconds when it is positive.
+	 */
+	static short[] speech(int seconds, int utterance, List<int[]> pauses) {
+
+		short[] audio = new short[seconds * RATE];
+		Random random = new Random(42);
+		int pauseLength = RATE * 8 / 10;
+		for (int i = 0; i < audio.length; i++) {
+			int position = utterance > 0 ? i % (utterance * RATE + pauseLength) : 0;
+			boolean pause = utterance > 0 && position >= utterance * RATE;
+			double voice = pause ? 0 : 8000 * Math.sin(2 * Math.PI * (180 + 40 * Math.sin(i / 4000.0)) * i / RATE);
+			audio[i] = (short) (voice + random.nextGaussian() * 30);
+			if (pause && position == utterance * RATE) {
+				pauses.add(new int[] {i, i + pauseLength});
+			}
+		}
+		return audio;
+	}
+
+}
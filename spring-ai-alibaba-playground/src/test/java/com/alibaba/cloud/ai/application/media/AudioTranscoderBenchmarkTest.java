@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.media;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Conversion throughput of a ten second 44.1 kHz stereo recording, sequential and with more callers than
+ * concurrent transcodings allowed. The throughput is only logged, it depends on the load of the host.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+class AudioTranscoderBenchmarkTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(AudioTranscoderBenchmarkTest.class);
+
+	private static final int SECONDS = 10;
+
+	private static final int RUNS = 4;
+
+	@Test
+	void conversionThroughput() throws Exception {
+
+		byte[] wav = AudioTranscoderTest.wav(44100, 2, SECONDS, 440);
+		int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+		AudioTranscoder transcoder = new AudioTranscoder(threads);
+
+		// warm up the native libraries
+		transcoder.toPcm(new ByteArrayInputStream(wav));
+
+		for (AudioTranscoder.Format format : AudioTranscoder.Format.values()) {
+			long start = System.nanoTime();
+			for (int i = 0; i < RUNS; i++) {
+				transcoder.transcode(new ByteArrayInputStream(wav), OutputStream.nullOutputStream(), format);
+			}
+			report(format + " sequential", start, (long) wav.length * RUNS);
+
+			ExecutorService executor = Executors.newFixedThreadPool(threads * 2);
+			try {
+				start = System.nanoTime();
+				List<Future<?>> futures = new ArrayList<>();
+				for (int i = 0; i < RUNS * 2; i++) {
+					futures.add(executor.submit(() -> {
+						transcoder.transcode(new ByteArrayInputStream(wav), OutputStream.nullOutputStream(), format);
+						return null;
+					}));
+				}
+				for (Future<?> future : futures) {
+					future.get();
+				}
+				report(format + " " + threads + " at once", start, wav.length * RUNS * 2L);
+			}
+			finally {
+				executor.shutdownNow();
+			}
+		}
+
+		assertTrue(transcoder.created() <= threads);
+	}
+
+	private static void report(String name, long start, long inputBytes) {
+
+		double seconds = (System.nanoTime() - start) / 1e9;
+		double audioSeconds = (double) inputBytes / (44100 * 2 * 2);
+		double realtime = audioSeconds / seconds;
+		logger.info("{}: {} s of audio in {} s, {}x real time, {} MB/s", name, Math.round(audioSeconds),
+				String.format("%.2f", seconds), Math.round(realtime), String.format("%.1f", inputBytes / seconds / 1e6));
+	}
+
+}
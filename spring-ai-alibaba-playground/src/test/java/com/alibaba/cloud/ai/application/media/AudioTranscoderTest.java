@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.media;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+class AudioTranscoderTest {
+
+	private final AudioTranscoder transcoder = new AudioTranscoder(2);
+
+	@Test
+	void resamplesStereoToMono16k() throws IOException {
+
+		short[] samples = transcoder.toPcm(new ByteArrayInputStream(wav(44100, 2, 3, 440)));
+
+		assertEquals(3 * AudioTranscoder.SAMPLE_RATE, samples.length, AudioTranscoder.SAMPLE_RATE / 10.0);
+		int crossings = 0;
+		for (int i = 1; i < samples.length; i++) {
+			if ((samples[i - 1] < 0) != (samples[i] < 0)) {
+				crossings++;
+			}
+		}
+		assertEquals(440, crossings / 2.0 / 3, 10);
+	}
+
+	@Test
+	void writesLittleEndianPcm() throws IOException {
+
+		byte[] wav = wav(22050, 1, 1, 300);
+		short[] samples = transcoder.toPcm(new ByteArrayInputStream(wav));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		transcoder.transcode(new ByteArrayInputStream(wav), out, AudioTranscoder.Format.PCM_S16LE);
+
+		short[] written = new short[out.size() / 2];
+		ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().get(written);
+		assertArrayEquals(samples, written);
+	}
+
+	@Test
+	void encodesOggOpus() throws IOException {
+
+		byte[] wav = wav(48000, 2, 5, 440);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		transcoder.transcode(new ByteArrayInputStream(wav), out, AudioTranscoder.Format.OGG_OPUS);
+
+		byte[] opus = out.toByteArray();
+		assertEquals("OggS", new String(opus, 0, 4, StandardCharsets.US_ASCII));
+		assertTrue(opus.length < 5 * AudioTranscoder.SAMPLE_RATE * 2 / 4, "opus bytes: " + opus.length);
+	}
+
+	@Test
+	void concurrentRequestsPassTheGate() throws Exception {
+
+		byte[] wav = wav(44100, 2, 2, 440);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<short[]>> futures = new ArrayList<>();
+			for (int i = 0; i < 16; i++) {
+				futures.add(executor.submit(() -> transcoder.toPcm(new ByteArrayInputStream(wav))));
+			}
+			short[] first = futures.get(0).get();
+			for (Future<short[]> future : futures) {
+				assertTrue(Arrays.equals(first, future.get()));
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		assertTrue(transcoder.created() <= 2, "sample buffers: " + transcoder.created());
+	}
+
+	/**
+	 * A sine wave as 16 bit PCM wav.
+	 */
+	static byte[] wav(int sampleRate, int channels, int seconds, int frequency) throws IOException {
+
+		int frames = sampleRate * seconds;
+		ByteBuffer pcm = ByteBuffer.allocate(frames * channels * 2).order(ByteOrder.LITTLE_ENDIAN);
+		for (int i = 0; i < frames; i++) {
+			short sample = (short) (12000 * Math.sin(2 * Math.PI * frequency * i / sampleRate));
+			for (int channel = 0; channel < channels; channel++) {
+				pcm.putShort(sample);
+			}
+		}
+
+		AudioFormat format = new AudioFormat(sampleRate, 16, channels, true, false);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		AudioSystem.write(new AudioInputStream(new ByteArrayInputStream(pcm.array()), format, frames),
+				AudioFileFormat.Type.WAVE, out);
+		return out.toByteArray();
+	}
+
+}
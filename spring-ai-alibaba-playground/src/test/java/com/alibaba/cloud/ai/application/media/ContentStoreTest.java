@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.media;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+class ContentStoreTest {
+
+	private static final byte[] CONTENT = "the same upload".getBytes(StandardCharsets.UTF_8);
+
+	@TempDir
+	Path root;
+
+	private final MutableClock clock = new MutableClock();
+
+	private ContentStoreProperties properties;
+
+	private ContentStore store;
+
+	@BeforeEach
+	void setUp() throws IOException {
+
+		properties = new ContentStoreProperties();
+		properties.setRoot(root);
+		properties.setTtl(Duration.ofMinutes(30));
+		properties.setSweepInterval(Duration.ofHours(1));
+		store = newStore();
+	}
+
+	@AfterEach
+	void tearDown() {
+		store.destroy();
+	}
+
+	@Test
+	void keysBySha256AndStoresSameContentOnce() throws Exception {
+
+		try (ContentStore.Blob first = put(CONTENT, "a.txt"); ContentStore.Blob second = put(CONTENT, "b.txt")) {
+			assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(CONTENT)), first.key());
+			assertEquals(first.key(), second.key());
+			assertEquals(first.path(), second.path());
+			assertEquals(CONTENT.length, first.size());
+			assertArrayEquals(CONTENT, Files.readAllBytes(first.path()));
+			assertEquals(1, store.size());
+			assertEquals(1, blobFiles());
+		}
+	}
+
+	@Test
+	void evictsOnlyUnreferencedBlobsAfterTtl() throws IOException {
+
+		ContentStore.Blob kept = put(CONTENT, "a.txt");
+		ContentStore.Blob released = put("other".getBytes(StandardCharsets.UTF_8), "b.txt");
+		Path releasedPath = released.path();
+		released.close();
+		released.close();
+
+		clock.advance(Duration.ofMinutes(29));
+		assertEquals(0, store.sweep());
+
+		List<String> evicted = new ArrayList<>();
+		store.addEvictionListener(evicted::add);
+		clock.advance(Duration.ofMinutes(2));
+		assertEquals(1, store.sweep());
+		assertEquals(List.of(released.key()), evicted);
+		assertFalse(Files.exists(releasedPath));
+		assertTrue(store.acquire(released.key()).isEmpty());
+
+		assertTrue(Files.exists(kept.path()));
+		kept.close();
+		clock.advance(Duration.ofMinutes(31));
+		assertEquals(1, store.sweep());
+		assertEquals(0, blobFiles());
+	}
+
+	@Test
+	void accessRenewsTtl() throws IOException {
+
+		String key;
+		try (ContentStore.Blob blob = put(CONTENT, "a.txt")) {
+			key = blob.key();
+		}
+		clock.advance(Duration.ofMinutes(20));
+		store.acquire(key).orElseThrow().close();
+		clock.advance(Duration.ofMinutes(20));
+
+		assertEquals(0, store.sweep());
+	}
+
+	@Test
+	void derivedArtifactsAreLoadedOnceAndDroppedWithTheBlob() throws IOException {
+
+		AtomicInteger loads = new AtomicInteger();
+		ContentStore.Loader<String> loader = blob -> {
+			loads.incrementAndGet();
+			try (InputStream in = blob.openStream()) {
+				return new String(in.readAllBytes(), StandardCharsets.UTF_8).toUpperCase();
+			}
+		};
+
+		try (ContentStore.Blob blob = put(CONTENT, "a.txt")) {
+			assertEquals("THE SAME UPLOAD", blob.derived("text", loader));
+		}
+		try (ContentStore.Blob blob = put(CONTENT, "b.txt")) {
+			assertEquals("THE SAME UPLOAD", blob.derived("text", loader));
+		}
+		assertEquals(1, loads.get());
+
+		clock.advance(Duration.ofHours(1));
+		store.sweep();
+		try (ContentStore.Blob blob = put(CONTENT, "a.txt")) {
+			blob.derived("text", loader);
+		}
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void failedDerivationIsNotCached() throws IOException {
+
+		try (ContentStore.Blob blob = put(CONTENT, "a.txt")) {
+			assertThrows(IOException.class, () -> blob.derived("text", stored -> {
+				throw new IOException("parse failed");
+			}));
+			assertEquals("ok", blob.derived("text", stored -> "ok"));
+		}
+	}
+
+	@Test
+	void concurrentUploadsOfTheSameContentShareOneBlob() throws Exception {
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<ContentStore.Blob>> futures = new ArrayList<>();
+			for (int i = 0; i < 32; i++) {
+				futures.add(executor.submit(() -> put(CONTENT, "a.txt")));
+			}
+			for (Future<ContentStore.Blob> future : futures) {
+				future.get().close();
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(1, store.size());
+		assertEquals(1, blobFiles());
+		try (Stream<Path> incoming = Files.list(root.resolve("incoming"))) {
+			assertEquals(0, incoming.count());
+		}
+	}
+
+	@Test
+	void blobsSurviveRestartAndOnlyStoreDirectoriesAreTouched() throws IOException {
+
+		Path foreign = Files.writeString(root.resolve("operator.txt"), "not ours");
+		String key;
+		try (ContentStore.Blob blob = put(CONTENT, "a.txt")) {
+			key = blob.key();
+		}
+		Files.writeString(root.resolve("incoming").resolve("upload-1.part"), "interrupted");
+		store.destroy();
+
+		store = newStore();
+		assertTrue(Files.exists(foreign));
+		try (ContentStore.Blob restored = store.acquire(key).orElseThrow()) {
+			assertArrayEquals(CONTENT, Files.readAllBytes(restored.path()));
+			assertEquals(CONTENT.length, restored.size());
+		}
+		try (Stream<Path> incoming = Files.list(root.resolve("incoming"))) {
+			assertEquals(0, incoming.count());
+		}
+
+		try (ContentStore.Blob same = put(CONTENT, "b.txt")) {
+			assertEquals(key, same.key());
+		}
+		assertEquals(1, store.size());
+		assertEquals(1, blobFiles());
+	}
+
+	private ContentStore newStore() throws IOException {
+		return new ContentStore(properties, clock);
+	}
+
+	private ContentStore.Blob put(byte[] content, String fileName) throws IOException {
+		return store.put(new ByteArrayInputStream(content), "text/plain", fileName);
+	}
+
+	private long blobFiles() throws IOException {
+
+		try (Stream<Path> files = Files.walk(root.resolve("blobs"))) {
+			return files.filter(Files::isRegularFile).count();
+		}
+	}
+
+	private static final class MutableClock extends Clock {
+
+		private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+
+	}
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.media;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Base64;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bytes sent and end to end latency of a 12 megapixel phone photo, with and without normalization.
+ * The model endpoint is a local server reading the base64 payload at a fixed uplink rate. The timings are
+ * only logged, they depend on the load of the host. The test asserts the bytes saved and the cache reuse.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+class ImageNormalizerBenchmarkTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(ImageNormalizerBenchmarkTest.class);
+
+	private static final long UPLINK_BYTES_PER_SECOND = 50_000_000 / 8;
+
+	private final ImageNormalizer normalizer = new ImageNormalizer(new ImageNormalizationProperties());
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	private HttpServer server;
+
+	@BeforeEach
+	void setUp() throws IOException {
+
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/chat", this::throttledRead);
+		server.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.stop(0);
+	}
+
+	@Test
+	void normalizedImageIsSmallerAndCached() throws Exception {
+
+		byte[] photo = phonePhoto();
+
+		long start = System.nanoTime();
+		send(photo);
+		long originalMillis = (System.nanoTime() - start) / 1_000_000;
+
+		start = System.nanoTime();
+		ImageNormalizer.NormalizedImage image = normalizer.normalize(photo, "image/jpeg", "qwen-vl-max-latest");
+		long normalizeMillis = (System.nanoTime() - start) / 1_000_000;
+		send(image.content());
+		long normalizedMillis = (System.nanoTime() - start) / 1_000_000;
+
+		start = System.nanoTime();
+		ImageNormalizer.NormalizedImage cached = normalizer.normalize(photo, "image/jpeg", "qwen-vl-max-latest");
+		send(cached.content());
+		long cachedMillis = (System.nanoTime() - start) / 1_000_000;
+
+		logger.info("original: {} bytes, {} ms", photo.length, originalMillis);
+		logger.info("normalized {}x{}: {} bytes, {} ms ({} ms normalizing)", image.width(), image.height(),
+				image.content().length, normalizedMillis, normalizeMillis);
+		logger.info("normalized, cached: {} ms", cachedMillis);
+
+		assertTrue(image.content().length * 5 < photo.length, "normalized bytes: " + image.content().length);
+		assertSame(image, cached);
+	}
+
+	private void send(byte[] image) throws IOException, InterruptedException {
+
+		// the image is embedded in the request as a base64 data url
+		String body = "{\"image\":\"data:image/jpeg;base64," + Base64.getEncoder().encodeToString(image) + "\"}";
+		HttpResponse<Void> response = client.send(
+				HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/chat"))
+						.POST(HttpRequest.BodyPublishers.ofString(body))
+						.build(),
+				HttpResponse.BodyHandlers.discarding());
+		assertTrue(response.statusCode() == 200);
+	}
+
+	private void throttledRead(HttpExchange exchange) throws IOException {
+
+		byte[] buffer = new byte[64 * 1024];
+		long started = System.nanoTime();
+		long read = 0;
+		try (InputStream in = exchange.getRequestBody()) {
+			int n;
+			while ((n = in.read(buffer)) > 0) {
+				read += n;
+				long expectedNanos = read * 1_000_000_000L / UPLINK_BYTES_PER_SECOND;
+				long aheadMillis = (expectedNanos - (System.nanoTime() - started)) / 1_000_000;
+				if (aheadMillis > 0) {
+					sleep(aheadMillis);
+				}
+			}
+		}
+
+		exchange.sendResponseHeaders(200, -1);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.flush();
+		}
+	}
+
+	private static void sleep(long millis) {
+
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * 4032x3024 with sensor like noise, encoded at the quality phones use.
+	 */
+	private static byte[] phonePhoto() throws IOException {
+
+		ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+		ImageWriteParam param = writer.getDefaultWriteParam();
+		param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+		param.setCompressionQuality(0.92f);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+			writer.setOutput(stream);
+			writer.write(null, new IIOImage(ImageNormalizerTest.photo(4032, 3024), null, null), param);
+		}
+		finally {
+			writer.dispose();
+		}
+		return out.toByteArray();
+	}
+
+}
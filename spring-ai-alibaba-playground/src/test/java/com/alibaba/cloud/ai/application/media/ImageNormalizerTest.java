@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.media;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.util.MimeTypeUtils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+class ImageNormalizerTest {
+
+	private final ImageNormalizationProperties properties = new ImageNormalizationProperties();
+
+	private final ImageNormalizer normalizer = new ImageNormalizer(properties);
+
+	@Test
+	void downscalesToTheModelEdgeAsJpeg() throws IOException {
+
+		properties.getModels().put("small-model", 512);
+		byte[] png = encode(photo(2000, 1500), "png");
+
+		ImageNormalizer.NormalizedImage image = normalizer.normalize(png, "image/png", "qwen-vl-max-latest");
+		ImageNormalizer.NormalizedImage small = normalizer.normalize(png, "image/png", "small-model");
+
+		assertEquals(MimeTypeUtils.IMAGE_JPEG, image.mimeType());
+		assertEquals(1280, image.width());
+		assertEquals(960, image.height());
+		assertEquals(512, small.width());
+		assertEquals(384, small.height());
+		assertTrue(image.content().length < png.length);
+
+		BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(image.content()));
+		assertEquals(1280, decoded.getWidth());
+	}
+
+	@Test
+	void keepsSmallImagesAtTheirSize() throws IOException {
+
+		ImageNormalizer.NormalizedImage image = normalizer.normalize(encode(photo(300, 200), "png"), "image/png", null);
+
+		assertEquals(300, image.width());
+		assertEquals(200, image.height());
+	}
+
+	@Test
+	void keepsTransparencyAsPng() throws IOException {
+
+		BufferedImage transparent = new BufferedImage(1600, 800, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D graphics = transparent.createGraphics();
+		graphics.setColor(new Color(255, 0, 0, 128));
+		graphics.fillOval(100, 100, 600, 600);
+		graphics.dispose();
+
+		ImageNormalizer.NormalizedImage image = normalizer.normalize(encode(transparent, "png"), "image/png", null);
+
+		assertEquals(MimeTypeUtils.IMAGE_PNG, image.mimeType());
+		assertEquals(1280, image.width());
+		assertTrue(ImageIO.read(new ByteArrayInputStream(image.content())).getColorModel().hasAlpha());
+	}
+
+	@Test
+	void appliesAndStripsTheExifOrientation() throws IOException {
+
+		for (boolean bigEndian : new boolean[] { true, false }) {
+			byte[] jpeg = withExifOrientation(encode(photo(400, 200), "jpg"), 6, bigEndian);
+			assertEquals(6, ImageNormalizer.orientation(jpeg));
+
+			ImageNormalizer.NormalizedImage image = normalizer.normalize(jpeg, "image/jpeg", null);
+
+			// rotated 90 degrees clockwise, the way a viewer would show it
+			assertEquals(200, image.width());
+			assertEquals(400, image.height());
+			assertEquals(1, ImageNormalizer.orientation(image.content()));
+			assertFalse(new String(image.content(), StandardCharsets.ISO_8859_1).contains("Exif"));
+		}
+	}
+
+	@Test
+	void orientationMovesTheCorners() {
+
+		BufferedImage image = new BufferedImage(4, 2, BufferedImage.TYPE_INT_RGB);
+		image.setRGB(0, 0, 0xFF0000);
+
+		// top left corner goes to the top right for a clockwise rotation, to the bottom left for a counter clockwise one
+		assertEquals(0xFF0000, ImageNormalizer.orient(image, 6).getRGB(1, 0) & 0xFFFFFF);
+		assertEquals(0xFF0000, ImageNormalizer.orient(image, 8).getRGB(0, 3) & 0xFFFFFF);
+		assertEquals(0xFF0000, ImageNormalizer.orient(image, 3).getRGB(3, 1) & 0xFFFFFF);
+		assertEquals(0xFF0000, ImageNormalizer.orient(image, 2).getRGB(3, 0) & 0xFFFFFF);
+	}
+
+	@Test
+	void cachesByContent() throws IOException {
+
+		byte[] png = encode(photo(1600, 1200), "png");
+
+		ImageNormalizer.NormalizedImage first = normalizer.normalize(png, "image/png", null);
+		ImageNormalizer.NormalizedImage second = normalizer.normalize(png.clone(), "image/png", null);
+
+		assertSame(first, second);
+	}
+
+	@Test
+	void passesThroughWhatItCanNotDecode() throws IOException {
+
+		byte[] heic = "ftypheic not really an image".getBytes(StandardCharsets.US_ASCII);
+
+		ImageNormalizer.NormalizedImage image = normalizer.normalize(heic, "image/heic", null);
+
+		assertArrayEquals(heic, image.content());
+		assertEquals("image/heic", image.mimeType().toString());
+	}
+
+	static BufferedImage photo(int width, int height) {
+
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Random random = new Random(7);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int r = (x * 255 / width + random.nextInt(16)) & 0xFF;
+				int g = (y * 255 / height + random.nextInt(16)) & 0xFF;
+				int b = ((x + y) % 256 + random.nextInt(16)) & 0xFF;
+				image.setRGB(x, y, r << 16 | g << 8 | b);
+			}
+		}
+		return image;
+	}
+
+	static byte[] encode(BufferedImage image, String format) throws IOException {
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(image, format, out);
+		return out.toByteArray();
+	}
+
+	/**
+	 * Insert an APP1 segment holding a single orientation entry right after the SOI marker.
+	 */
+	static byte[] withExifOrientation(byte[] jpeg, int orientation, boolean bigEndian) {
+
+		ByteArrayOutputStream tiff = new ByteArrayOutputStream();
+		tiff.writeBytes(bigEndian ? new byte[] { 'M', 'M', 0, 42 } : new byte[] { 'I', 'I', 42, 0 });
+		write32(tiff, 8, bigEndian);
+		write16(tiff, 1, bigEndian);
+		// tag, type SHORT, count 1, value
+		write16(tiff, 0x0112, bigEndian);
+		write16(tiff, 3, bigEndian);
+		write32(tiff, 1, bigEndian);
+		write16(tiff, orientation, bigEndian);
+		write16(tiff, 0, bigEndian);
+		write32(tiff, 0, bigEndian);
+
+		byte[] payload = tiff.toByteArray();
+		int length = 2 + 6 + payload.length;
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(0xFF);
+		out.write(0xD8);
+		out.write(0xFF);
+		out.write(0xE1);
+		out.write(length >> 8);
+		out.write(length & 0xFF);
+		out.writeBytes(new byte[] { 'E', 'x', 'i', 'f', 0, 0 });
+		out.writeBytes(payload);
+		out.write(jpeg, 2, jpeg.length - 2);
+		return out.toByteArray();
+	}
+
+	private static void write16(ByteArrayOutputStream out, int value, boolean bigEndian) {
+
+		if (bigEndian) {
+			out.write(value >> 8);
+			out.write(value & 0xFF);
+		}
+		else {
+			out.write(value & 0xFF);
+			out.write(value >> 8);
+		}
+	}
+
+	private static void write32(ByteArrayOutputStream out, int value, boolean bigEndian) {
+
+		if (bigEndian) {
+			write16(out, value >>> 16, true);
+			write16(out, value & 0xFFFF, true);
+		}
+		else {
+			write16(out, value & 0xFFFF, false);
+			write16(out, value >>> 16, false);
+		}
+	}
+
+}
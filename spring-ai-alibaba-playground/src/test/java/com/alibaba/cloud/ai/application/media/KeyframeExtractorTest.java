@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.media;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.bytedeco.ffmpeg.global.avcodec;
+import org.bytedeco.javacv.FFmpegFrameRecorder;
+import org.bytedeco.javacv.Java2DFrameConverter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Keyframes of videos generated in memory, each scene is a solid color with a moving square.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+class KeyframeExtractorTest {
+
+	private static final int FPS = 10;
+
+	private final KeyframeExtractor extractor = new KeyframeExtractor(10, 0.3, Duration.ofSeconds(1),
+			Duration.ofSeconds(30), 4);
+
+	@Test
+	void oneKeyframePerScene() throws IOException {
+
+		byte[] video = video(Color.RED, Color.BLUE, Color.GREEN, Color.YELLOW);
+
+		List<KeyframeExtractor.Keyframe> keyframes = extractor.extract(new ByteArrayInputStream(video));
+
+		assertEquals(4, keyframes.size());
+		for (int scene = 0; scene < keyframes.size(); scene++) {
+			long timestamp = keyframes.get(scene).timestampMicros();
+			// each scene lasts 2 seconds, the change is seen within one analysis interval
+			assertTrue(Math.abs(timestamp - scene * 2_000_000L) <= 300_000, "scene " + scene + " at " + timestamp);
+
+			BufferedImage image = ImageIO.read(new ByteArrayInputStream(keyframes.get(scene).jpeg()));
+			assertNotNull(image);
+			assertEquals(160, image.getWidth());
+		}
+	}
+
+	@Test
+	void staticVideoYieldsOneKeyframe() throws IOException {
+
+		byte[] video = video(Color.GRAY, Color.GRAY, Color.GRAY);
+
+		assertEquals(1, extractor.extract(new ByteArrayInputStream(video)).size());
+	}
+
+	@Test
+	void keepsTheStrongestChangesWhenThereAreTooMany() throws IOException {
+
+		KeyframeExtractor limited = new KeyframeExtractor(3, 0.3, Duration.ofSeconds(1), Duration.ZERO, 4);
+		byte[] video = video(Color.RED, Color.BLUE, Color.CYAN, Color.WHITE, Color.BLACK);
+
+		List<KeyframeExtractor.Keyframe> keyframes = limited.extract(new ByteArrayInputStream(video));
+
+		assertEquals(3, keyframes.size());
+		assertEquals(0, keyframes.get(0).timestampMicros(), 300_000);
+		assertTrue(keyframes.get(1).timestampMicros() < keyframes.get(2).timestampMicros());
+	}
+
+	@Test
+	void extractsFromFileWithIndexAtTheEnd(@TempDir Path dir) throws IOException {
+
+		// mp4 writes its index after the frames, reading it needs a seekable input
+		Path file = dir.resolve("scenes.mp4");
+		record(new FFmpegFrameRecorder(file.toFile(), 160, 90), "mp4", Color.RED, Color.BLUE, Color.GREEN);
+
+		List<KeyframeExtractor.Keyframe> keyframes = extractor.extract(file);
+
+		assertEquals(3, keyframes.size());
+		assertTrue(keyframes.get(0).timestampMicros() < keyframes.get(1).timestampMicros());
+	}
+
+	/**
+	 * 2 seconds per color, matroska is written to a stream without seeking.
+	 */
+	private static byte[] video(Color... scenes) throws IOException {
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		record(new FFmpegFrameRecorder(out, 160, 90), "matroska", scenes);
+		return out.toByteArray();
+	}
+
+	private static void record(FFmpegFrameRecorder recorder, String format, Color... scenes) throws IOException {
+
+		Java2DFrameConverter converter = new Java2DFrameConverter();
+		recorder.setFormat(format);
+		recorder.setVideoCodec(avcodec.AV_CODEC_ID_MPEG4);
+		recorder.setFrameRate(FPS);
+		recorder.setGopSize(FPS);
+		recorder.start();
+
+		try {
+			for (Color color : scenes) {
+				for (int i = 0; i < 2 * FPS; i++) {
+					recorder.record(converter.convert(frame(color, i)));
+				}
+			}
+			recorder.stop();
+		}
+		finally {
+			recorder.release();
+		}
+	}
+
+	private static BufferedImage frame(Color background, int index) {
+
+		BufferedImage image = new BufferedImage(160, 90, BufferedImage.TYPE_3BYTE_BGR);
+		Graphics2D graphics = image.createGraphics();
+		graphics.setColor(background);
+		graphics.fillRect(0, 0, 160, 90);
+		graphics.setColor(Color.DARK_GRAY);
+		graphics.fillRect(index * 6, 35, 12, 12);
+		graphics.dispose();
+		return image;
+	}
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.media;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+class SceneChangeDetectorTest {
+
+	private static final long SECOND = 1_000_000;
+
+	@Test
+	void histogramDistanceIsBounded() {
+
+		float[] red = SceneChangeDetector.histogram(solid(Color.RED));
+		float[] blue = SceneChangeDetector.histogram(solid(Color.BLUE));
+
+		assertEquals(0.0, SceneChangeDetector.distance(red, red), 1e-6);
+		assertEquals(1.0, SceneChangeDetector.distance(red, blue), 1e-6);
+	}
+
+	@Test
+	void picksTheFirstFrameAndHardCuts() {
+
+		SceneChangeDetector detector = new SceneChangeDetector(0.3, SECOND, 0);
+
+		assertEquals(1.0, detector.offer(solid(Color.RED), 0));
+		assertTrue(detector.offer(solid(Color.RED), 2 * SECOND) < 0);
+		assertTrue(detector.offer(solid(Color.BLUE), 3 * SECOND) >= 0.3);
+		assertTrue(detector.offer(solid(Color.BLUE), 4 * SECOND) < 0);
+	}
+
+	@Test
+	void ignoresNoiseAndFlashes() {
+
+		SceneChangeDetector detector = new SceneChangeDetector(0.3, SECOND, 0);
+		Random random = new Random(42);
+
+		detector.offer(noisy(new Color(40, 120, 200), random), 0);
+		for (int i = 1; i < 20; i++) {
+			assertTrue(detector.offer(noisy(new Color(40, 120, 200), random), i * SECOND / 4) < 0);
+		}
+
+		// a cut shorter than the minimum interval after the last keyframe is not picked
+		SceneChangeDetector flashes = new SceneChangeDetector(0.3, SECOND, 0);
+		flashes.offer(solid(Color.RED), 0);
+		assertTrue(flashes.offer(solid(Color.WHITE), SECOND / 2) < 0);
+	}
+
+	@Test
+	void catchesSlowDriftAgainstTheLastKeyframe() {
+
+		SceneChangeDetector detector = new SceneChangeDetector(0.3, SECOND, 0);
+		detector.offer(gradient(0), 0);
+
+		int picked = 0;
+		for (int step = 1; step <= 60; step++) {
+			if (detector.offer(gradient(step * 4), step * SECOND) >= 0) {
+				picked++;
+			}
+		}
+
+		assertTrue(picked > 0, "a slow fade must eventually start a new scene");
+	}
+
+	@Test
+	void picksAFrameAfterTheMaximumGap() {
+
+		SceneChangeDetector detector = new SceneChangeDetector(0.3, SECOND, 10 * SECOND);
+		detector.offer(solid(Color.GREEN), 0);
+
+		assertTrue(detector.offer(solid(Color.GREEN), 9 * SECOND) < 0);
+		assertEquals(0.0, detector.offer(solid(Color.GREEN), 10 * SECOND), 1e-6);
+	}
+
+	private static BufferedImage solid(Color color) {
+
+		BufferedImage image = new BufferedImage(160, 90, BufferedImage.TYPE_3BYTE_BGR);
+		Graphics2D graphics = image.createGraphics();
+		graphics.setColor(color);
+		graphics.fillRect(0, 0, 160, 90);
+		graphics.dispose();
+		return image;
+	}
+
+	private static BufferedImage noisy(Color color, Random random) {
+
+		BufferedImage image = solid(color);
+		for (int y = 0; y < image.getHeight(); y++) {
+			for (int x = 0; x < image.getWidth(); x++) {
+				int noise = random.nextInt(9) - 4;
+				int r = clamp(color.getRed() + noise);
+				int g = clamp(color.getGreen() + noise);
+				int b = clamp(color.getBlue() + noise);
+				image.setRGB(x, y, (r << 16) | (g << 8) | b);
+			}
+		}
+		return image;
+	}
+
+	private static BufferedImage gradient(int shift) {
+
+		BufferedImage image = new BufferedImage(160, 90, BufferedImage.TYPE_3BYTE_BGR);
+		for (int x = 0; x < image.getWidth(); x++) {
+			int value = clamp(x + shift);
+			for (int y = 0; y < image.getHeight(); y++) {
+				image.setRGB(x, y, (value << 16) | (value << 8) | value);
+			}
+		}
+		return image;
+	}
+
+	private static int clamp(int value) {
+		return Math.max(0, Math.min(255, value));
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.media;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+class SegmentedTranscriberTest {
+
+	private final AudioSegmenter segmenter = new AudioSegmenter(SegmentedTranscriber.SAMPLE_RATE,
+			Duration.ofSeconds(30), Duration.ofSeconds(60), Duration.ofMillis(400), Duration.ofMillis(500));
+
+	@Test
+	void transcribesSegmentsConcurrentlyAndEmitsThemInOrder() {
+
+		short[] audio = AudioSegmenterTest.speech(300, 7, new ArrayList<>());
+		int segments = segmenter.split(audio).size();
+
+		AtomicInteger calls = new AtomicInteger();
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		SegmentedTranscriber.SegmentTranscriber transcriber = pcm -> {
+			int index = calls.getAndIncrement();
+			// later segments finish first, the previous segment's tail is heard again at the start
+			String text = (index > 0 ? "句" + (index - 1) + "，" : "") + "内容" + index + "句" + index + "。";
+			return Mono.just(text)
+					.delayElement(Duration.ofMillis((segments - index) * 20L))
+					.doOnSubscribe(subscription -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max))
+					.doFinally(signal -> inFlight.decrementAndGet());
+		};
+
+		List<SegmentedTranscriber.TranscriptChunk> chunks = new SegmentedTranscriber(null, "test", transcriber, segmenter, 3)
+				.transcribe(audio)
+				.collectList()
+				.block(Duration.ofSeconds(10));
+
+		assertEquals(segments, chunks.size());
+		assertTrue(maxInFlight.get() > 1 && maxInFlight.get() <= 3, "max in flight: " + maxInFlight.get());
+		String expected = "";
+		for (int i = 0; i < segments; i++) {
+			assertEquals(i, chunks.get(i).index());
+			expected += "内容" + i + "句" + i + "。";
+		}
+		assertEquals(expected, chunks.stream().map(SegmentedTranscriber.TranscriptChunk::text).collect(Collectors.joining()));
+	}
+
+	@Test
+	void segmentsArePcmOfTheirSamples() {
+
+		short[] audio = {1, -2, 3, 0x1234};
+		byte[] pcm = SegmentedTranscriber.pcm(audio, new AudioSegmenter.Segment(0, 2, 4, 0, 0));
+
+		assertEquals(4, pcm.length);
+		assertEquals(3, pcm[0]);
+		assertEquals(0, pcm[1]);
+		assertEquals(0x34, pcm[2]);
+		assertEquals(0x12, pcm[3]);
+	}
+
+}
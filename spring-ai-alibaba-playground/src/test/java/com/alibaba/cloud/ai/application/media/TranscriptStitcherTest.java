@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.media;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+class TranscriptStitcherTest {
+
+	private final TranscriptStitcher stitcher = new TranscriptStitcher(32);
+
+	@Test
+	void removesTheDuplicatedOverlapIgnoringPunctuation() {
+
+		assertEquals("我们出去玩吧", stitcher.stitch("今天天气很好。", "很好，我们出去玩吧"));
+		assertEquals("jumps over", stitcher.stitch("The quick brown fox.", "Brown fox jumps over"));
+	}
+
+	@Test
+	void keepsTextWithoutDuplicate() {
+
+		assertEquals("好的", stitcher.stitch("好", "好的"));
+		assertEquals(" at home", stitcher.stitch("the cat", "at home"));
+		assertEquals("第一段", stitcher.stitch("", "第一段"));
+		assertEquals("", stitcher.stitch("完整的句子。", ""));
+	}
+
+	@Test
+	void overlapCoveringTheWholeSegmentYieldsNothing() {
+		assertEquals("", stitcher.stitch("我们出去玩吧", "出去玩吧。"));
+	}
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.multimodal.core;
+
+import com.alibaba.cloud.ai.application.resilience.DependencyUnavailableException;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModalityBulkheadTest {
+
+    private final List<String> started = new CopyOnWriteArrayList<>();
+
+    @Test
+    void heavyTasksTakeMorePermits() {
+        ModalityBulkhead bulkhead = new ModalityBulkhead("video", 4, 8);
+        Sinks.One<String> first = Sinks.one();
+
+        bulkhead.submit(3, work("heavy", first)).subscribe();
+        bulkhead.submit(2, work("queued", Sinks.one())).subscribe();
+        bulkhead.submit(1, work("light", Sinks.one())).subscribe();
+
+        // FIFO: the light task waits behind the queued one even though a permit is free
+        assertEquals(List.of("heavy"), started);
+        assertEquals(1, bulkhead.getAvailablePermits());
+        assertEquals(2, bulkhead.getQueueSize());
+
+        first.tryEmitValue("done");
+
+        assertEquals(List.of("heavy", "queued", "light"), started);
+        assertEquals(1, bulkhead.getAvailablePermits());
+    }
+
+    @Test
+    void weightIsCappedByPermits() {
+        ModalityBulkhead bulkhead = new ModalityBulkhead("video", 2, 0);
+
+        bulkhead.submit(100, work("huge", Sinks.one())).subscribe();
+
+        assertEquals(List.of("huge"), started);
+        assertEquals(0, bulkhead.getAvailablePermits());
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() {
+        ModalityBulkhead bulkhead = new ModalityBulkhead("image", 1, 1);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+
+        bulkhead.submit(1, work("running", Sinks.one())).subscribe();
+        bulkhead.submit(1, work("queued", Sinks.one())).subscribe();
+        bulkhead.submit(1, work("rejected", Sinks.one())).subscribe(value -> { }, error::set);
+
+        assertEquals(List.of("running"), started);
+        assertInstanceOf(DependencyUnavailableException.class, error.get());
+    }
+
+    @Test
+    void cancelReleasesPermitsAndLeavesQueue() {
+        ModalityBulkhead bulkhead = new ModalityBulkhead("audio", 1, 4);
+
+        Disposable running = bulkhead.submit(1, work("running", Sinks.one())).subscribe();
+        Disposable queued = bulkhead.submit(1, work("cancelled", Sinks.one())).subscribe();
+        bulkhead.submit(1, work("next", Sinks.one())).subscribe();
+
+        queued.dispose();
+        assertEquals(1, bulkhead.getQueueSize());
+
+        running.dispose();
+        assertEquals(List.of("running", "next"), started);
+        assertEquals(0, bulkhead.getQueueSize());
+    }
+
+    @Test
+    void errorsReleasePermits() {
+        ModalityBulkhead bulkhead = new ModalityBulkhead("image", 1, 0);
+        Sinks.One<String> failing = Sinks.one();
+
+        bulkhead.submit(1, work("failing", failing)).subscribe(value -> { }, error -> { });
+        failing.tryEmitError(new IllegalStateException("boom"));
+
+        assertEquals(1, bulkhead.getAvailablePermits());
+        assertTrue(started.contains("failing"));
+    }
+
+    private Mono<String> work(String name, Sinks.One<String> result) {
+        return Mono.defer(() -> {
+            started.add(name);
+            return result.asMono();
+        });
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.resilience;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+class CircuitBreakerTest {
+
+	private final AtomicLong clock = new AtomicLong();
+
+	private final List<String> transitions = new ArrayList<>();
+
+	private CircuitBreaker circuitBreaker;
+
+	@BeforeEach
+	void setUp() {
+
+		ResilienceProperties.Dependency properties = new ResilienceProperties.Dependency();
+		properties.setSlidingWindowSize(10);
+		properties.setMinimumCalls(4);
+		properties.setFailureRateThreshold(50);
+		properties.setWaitInOpenState(Duration.ofSeconds(30));
+		properties.setPermittedCallsInHalfOpenState(2);
+
+		circuitBreaker = new CircuitBreaker(properties, clock::get, (from, to) -> transitions.add(from + "->" + to));
+	}
+
+	@Test
+	void staysClosedBelowMinimumCalls() {
+
+		call(false);
+		call(false);
+		call(false);
+
+		assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+	}
+
+	@Test
+	void opensAtFailureRateAndRejectsCalls() {
+
+		call(true);
+		call(false);
+		call(true);
+		call(false);
+
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+		assertFalse(circuitBreaker.tryAcquire());
+		assertEquals(List.of("CLOSED->OPEN"), transitions);
+	}
+
+	@Test
+	void failureRateIsComputedOnTheSlidingWindow() {
+
+		for (int i = 0; i < 20; i++) {
+			call(true);
+		}
+		for (int i = 0; i < 4; i++) {
+			call(false);
+		}
+		// 4 failures out of the last 10 calls
+		assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+		call(false);
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+	}
+
+	@Test
+	void halfOpenProbesCloseTheCircuit() {
+
+		open();
+		clock.addAndGet(Duration.ofSeconds(30).toNanos());
+
+		assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+		assertTrue(circuitBreaker.tryAcquire());
+		assertTrue(circuitBreaker.tryAcquire());
+		// only the permitted probes go through
+		assertFalse(circuitBreaker.tryAcquire());
+
+		circuitBreaker.onSuccess();
+		assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+		circuitBreaker.onSuccess();
+
+		assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+		assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), transitions);
+
+		// the failures before opening are forgotten
+		call(false);
+		assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+	}
+
+	@Test
+	void failedProbeReopensTheCircuit() {
+
+		open();
+		clock.addAndGet(Duration.ofSeconds(30).toNanos());
+
+		assertTrue(circuitBreaker.tryAcquire());
+		circuitBreaker.onFailure();
+
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+		assertFalse(circuitBreaker.tryAcquire());
+
+		clock.addAndGet(Duration.ofSeconds(29).toNanos());
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+		clock.addAndGet(Duration.ofSeconds(1).toNanos());
+		assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+	}
+
+	@Test
+	void ignoredProbeGivesItsPermitBack() {
+
+		open();
+		clock.addAndGet(Duration.ofSeconds(30).toNanos());
+
+		assertTrue(circuitBreaker.tryAcquire());
+		assertTrue(circuitBreaker.tryAcquire());
+		circuitBreaker.onIgnored();
+
+		assertTrue(circuitBreaker.tryAcquire());
+	}
+
+	private void open() {
+
+		for (int i = 0; i < 4; i++) {
+			call(false);
+		}
+		assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+	}
+
+	private void call(boolean success) {
+
+		assertTrue(circuitBreaker.tryAcquire());
+		if (success) {
+			circuitBreaker.onSuccess();
+		}
+		else {
+			circuitBreaker.onFailure();
+		}
+	}
+
+}
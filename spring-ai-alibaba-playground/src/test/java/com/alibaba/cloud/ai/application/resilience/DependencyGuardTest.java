@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.resilience;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Guard calls to a local stub server that injects failures and delays.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+class DependencyGuardTest {
+
+	private final HttpClient httpClient = HttpClient.newHttpClient();
+
+	private final AtomicInteger hits = new AtomicInteger();
+
+	private final List<String> rejections = new ArrayList<>();
+
+	private volatile int status = 200;
+
+	private volatile CountDownLatch hold = new CountDownLatch(0);
+
+	private volatile long delayMillis;
+
+	private HttpServer server;
+
+	@BeforeEach
+	void setUp() throws IOException {
+
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/search", this::search);
+		server.setExecutor(Executors.newFixedThreadPool(8));
+		server.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.stop(0);
+	}
+
+	@Test
+	void failingDependencyIsCutOffAndProbedAgain() throws InterruptedException {
+
+		ResilienceProperties.Dependency properties = properties();
+		properties.setWaitInOpenState(Duration.ofMillis(200));
+		DependencyGuard guard = newGuard(properties, false);
+
+		status = 500;
+		for (int i = 0; i < 4; i++) {
+			assertEquals("fallback", guard.execute(this::search, e -> "fallback"));
+		}
+		assertEquals(CircuitBreaker.State.OPEN, guard.getState());
+		assertEquals(4, hits.get());
+
+		// open circuit: the fallback answers without reaching the server
+		for (int i = 0; i < 10; i++) {
+			assertEquals("fallback", guard.execute(this::search, e -> "fallback"));
+		}
+		assertEquals(4, hits.get());
+		assertEquals(10, rejections.size());
+		assertThrows(DependencyUnavailableException.class, () -> guard.execute(this::search));
+
+		// the server recovers, the probes close the circuit again
+		status = 200;
+		Thread.sleep(250);
+		assertEquals(CircuitBreaker.State.HALF_OPEN, guard.getState());
+		assertEquals("ok", guard.execute(this::search, e -> "fallback"));
+		assertEquals("ok", guard.execute(this::search, e -> "fallback"));
+		assertEquals(CircuitBreaker.State.CLOSED, guard.getState());
+		assertEquals(6, hits.get());
+	}
+
+	@Test
+	void slowCallsCountAsFailures() {
+
+		ResilienceProperties.Dependency properties = properties();
+		properties.setSlowCallDuration(Duration.ofMillis(50));
+		DependencyGuard guard = newGuard(properties, false);
+
+		delayMillis = 80;
+		for (int i = 0; i < 4; i++) {
+			// the calls succeed, but only after the slow call duration
+			assertEquals("ok", guard.execute(this::search, e -> "fallback"));
+		}
+		assertEquals(CircuitBreaker.State.OPEN, guard.getState());
+	}
+
+	@Test
+	void bulkheadRejectsCallsBeyondItsCapacity() throws Exception {
+
+		ResilienceProperties.Dependency properties = properties();
+		properties.setMaxConcurrentCalls(2);
+		DependencyGuard guard = newGuard(properties, true);
+
+		hold = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			List<Future<String>> slow = new ArrayList<>();
+			for (int i = 0; i < 2; i++) {
+				slow.add(executor.submit(() -> guard.execute(this::search, e -> "fallback")));
+			}
+			while (hits.get() < 2) {
+				Thread.sleep(5);
+			}
+
+			DependencyUnavailableException rejected = assertThrows(DependencyUnavailableException.class,
+					() -> guard.execute(this::search));
+			assertEquals("bulkhead-full", rejected.getReason());
+			assertEquals(List.of("bulkhead-full"), rejections);
+
+			hold.countDown();
+			for (Future<String> future : slow) {
+				assertEquals("ok", future.get(5, TimeUnit.SECONDS));
+			}
+
+			// the slots are released, and a full bulkhead is not a failure of the dependency
+			assertEquals("ok", guard.execute(this::search));
+			assertEquals(CircuitBreaker.State.CLOSED, guard.getState());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void disabledGuardLetsEveryCallThrough() {
+
+		DependencyGuard guard = new DependencyGuard("stub", null, properties(), false, rejections::add);
+
+		status = 500;
+		for (int i = 0; i < 10; i++) {
+			assertThrows(IllegalStateException.class, () -> guard.execute(this::search));
+		}
+		assertEquals(10, hits.get());
+		assertTrue(rejections.isEmpty());
+	}
+
+	private ResilienceProperties.Dependency properties() {
+
+		ResilienceProperties.Dependency properties = new ResilienceProperties.Dependency();
+		properties.setSlidingWindowSize(10);
+		properties.setMinimumCalls(4);
+		properties.setPermittedCallsInHalfOpenState(2);
+		return properties;
+	}
+
+	private DependencyGuard newGuard(ResilienceProperties.Dependency properties, boolean withBulkhead) {
+
+		return new DependencyGuard("stub", new CircuitBreaker(properties, null), properties, withBulkhead, rejections::add);
+	}
+
+	private String search() {
+
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/search"))
+				.GET()
+				.build();
+		HttpResponse<String> response;
+		try {
+			response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+		if (response.statusCode() != 200) {
+			throw new IllegalStateException("Search failed with status " + response.statusCode());
+		}
+		return response.body();
+	}
+
+	private void search(HttpExchange exchange) throws IOException {
+
+		hits.incrementAndGet();
+		try {
+			hold.await(5, TimeUnit.SECONDS);
+			Thread.sleep(delayMillis);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		byte[] body = (status == 200 ? "ok" : "error").getBytes(StandardCharsets.UTF_8);
+		exchange.sendResponseHeaders(status, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.service;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import com.alibaba.cloud.ai.application.media.AnalysisCache;
+import com.alibaba.cloud.ai.application.media.AnalysisCacheProperties;
+import com.alibaba.cloud.ai.application.media.ImageNormalizationProperties;
+import com.alibaba.cloud.ai.application.media.ImageNormalizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.mock.web.MockMultipartFile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+class SAAImageServiceTest {
+
+	@TempDir
+	Path cacheDirectory;
+
+	private final StubChatModel stub = new StubChatModel();
+
+	private SAAImageService service;
+
+	private MockMultipartFile image;
+
+	@BeforeEach
+	void setUp() throws IOException {
+
+		AnalysisCacheProperties cacheProperties = new AnalysisCacheProperties();
+		cacheProperties.setDirectory(cacheDirectory);
+		service = new SAAImageService(stub, null, new ImageNormalizer(new ImageNormalizationProperties()),
+				new AnalysisCache(cacheProperties));
+
+		ByteArrayOutputStream png = new ByteArrayOutputStream();
+		ImageIO.write(new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB), "png", png);
+		image = new MockMultipartFile("image", "cat.png", "image/png", png.toByteArray());
+	}
+
+	@Test
+	void answerIsStreamedWhileTheModelIsGenerating() throws InterruptedException {
+
+		List<String> received = new CopyOnWriteArrayList<>();
+		CountDownLatch first = new CountDownLatch(1);
+		CountDownLatch completed = new CountDownLatch(1);
+
+		// subscribing returns at once, the upload is read and normalized on the blocking scheduler
+		service.image2Text("What is it?", image)
+				.doOnNext(chunk -> first.countDown())
+				.subscribe(received::add, e -> { }, completed::countDown);
+
+		assertTrue(stub.subscribed.await(5, TimeUnit.SECONDS));
+		stub.emit("A black ");
+		assertTrue(first.await(5, TimeUnit.SECONDS));
+		assertEquals(List.of("A black "), received);
+		assertEquals(1, completed.getCount());
+
+		stub.emit("square.");
+		stub.complete();
+		assertTrue(completed.await(5, TimeUnit.SECONDS));
+		assertEquals(List.of("A black ", "square."), received);
+	}
+
+	@Test
+	void disconnectingCancelsTheModelCall() throws InterruptedException {
+
+		Disposable subscription = service.image2Text("What is it?", image).subscribe();
+
+		assertTrue(stub.subscribed.await(5, TimeUnit.SECONDS));
+		stub.emit("A black ");
+		subscription.dispose();
+
+		assertEquals(1, stub.cancellations.get());
+	}
+
+	private static class StubChatModel implements ChatModel {
+
+		private final CountDownLatch subscribed = new CountDownLatch(1);
+
+		private final AtomicInteger cancellations = new AtomicInteger();
+
+		private final Sinks.Many<ChatResponse> sink = Sinks.many().unicast().onBackpressureBuffer();
+
+		@Override
+		public ChatResponse call(Prompt prompt) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Flux<ChatResponse> stream(Prompt prompt) {
+			return sink.asFlux()
+					.doOnSubscribe(subscription -> subscribed.countDown())
+					.doOnCancel(cancellations::incrementAndGet);
+		}
+
+		void emit(String text) {
+			sink.emitNext(new ChatResponse(List.of(new Generation(new AssistantMessage(text)))),
+					Sinks.EmitFailureHandler.FAIL_FAST);
+		}
+
+		void complete() {
+			sink.emitComplete(Sinks.EmitFailureHandler.FAIL_FAST);
+		}
+
+	}
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.singleflight;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+class SingleFlightChatModelTest {
+
+	private final StubChatModel stub = new StubChatModel();
+
+	private final SingleFlightChatModel model = new SingleFlightChatModel("stub", stub, null);
+
+	@Test
+	void identicalPromptsShareOneGeneration() {
+
+		List<String> first = new CopyOnWriteArrayList<>();
+		List<String> second = new CopyOnWriteArrayList<>();
+
+		model.stream(prompt("hello", "qwen-plus")).map(SingleFlightChatModelTest::text).subscribe(first::add);
+		model.stream(prompt("  hello\n", "qwen-plus")).map(SingleFlightChatModelTest::text).subscribe(second::add);
+
+		stub.emit("a");
+		stub.emit("b");
+		stub.complete();
+
+		assertEquals(1, stub.streams.get());
+		assertEquals(List.of("a", "b"), first);
+		assertEquals(List.of("a", "b"), second);
+		assertEquals(0, model.inFlightCount());
+	}
+
+	@Test
+	void lateSubscriberGetsTheReplay() {
+
+		List<String> early = new CopyOnWriteArrayList<>();
+		List<String> late = new CopyOnWriteArrayList<>();
+
+		model.stream(prompt("hello", "qwen-plus")).map(SingleFlightChatModelTest::text).subscribe(early::add);
+		stub.emit("a");
+		stub.emit("b");
+
+		model.stream(prompt("hello", "qwen-plus")).map(SingleFlightChatModelTest::text).subscribe(late::add);
+		assertEquals(List.of("a", "b"), late);
+
+		stub.emit("c");
+		stub.complete();
+
+		assertEquals(1, stub.streams.get());
+		assertEquals(List.of("a", "b", "c"), early);
+		assertEquals(List.of("a", "b", "c"), late);
+	}
+
+	@Test
+	void upstreamIsCancelledWhenTheLastSubscriberLeaves() {
+
+		Disposable first = model.stream(prompt("hello", "qwen-plus")).subscribe();
+		Disposable second = model.stream(prompt("hello", "qwen-plus")).subscribe();
+		stub.emit("a");
+
+		first.dispose();
+		assertEquals(0, stub.cancellations.get());
+		assertEquals(1, model.inFlightCount());
+
+		second.dispose();
+		assertEquals(1, stub.cancellations.get());
+		assertEquals(0, model.inFlightCount());
+	}
+
+	@Test
+	void finishedGenerationIsNotReused() {
+
+		model.stream(prompt("hello", "qwen-plus")).subscribe();
+		stub.emit("a");
+		stub.complete();
+
+		stub.reset();
+		model.stream(prompt("hello", "qwen-plus")).subscribe();
+
+		assertEquals(2, stub.streams.get());
+	}
+
+	@Test
+	void differentModelsOrPromptsAreNotShared() {
+
+		assertEquals(model.key(prompt("hello  world", "qwen-plus")), model.key(prompt("hello world", "qwen-plus")));
+		assertNotEquals(model.key(prompt("hello", "qwen-plus")), model.key(prompt("hello", "qwen-max")));
+		assertNotEquals(model.key(prompt("hello", "qwen-plus")), model.key(prompt("hello!", "qwen-plus")));
+		assertNotEquals(
+				new SingleFlightChatModel("other", stub, null).key(prompt("hello", "qwen-plus")),
+				model.key(prompt("hello", "qwen-plus"))
+		);
+
+		model.stream(prompt("hello", "qwen-plus")).subscribe();
+		model.stream(prompt("hello", "qwen-max")).subscribe();
+		assertEquals(2, stub.streams.get());
+		assertTrue(SingleFlightChatModel.isShareable(prompt("hello", "qwen-plus")));
+	}
+
+	private static Prompt prompt(String text, String model) {
+		return new Prompt(text, ChatOptions.builder().model(model).build());
+	}
+
+	private static String text(ChatResponse response) {
+		return response.getResult().getOutput().getText();
+	}
+
+	private static class StubChatModel implements ChatModel {
+
+		private final AtomicInteger streams = new AtomicInteger();
+
+		private final AtomicInteger cancellations = new AtomicInteger();
+
+		private volatile Sinks.Many<ChatResponse> sink = Sinks.many().multicast().onBackpressureBuffer();
+
+		@Override
+		public ChatResponse call(Prompt prompt) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Flux<ChatResponse> stream(Prompt prompt) {
+
+			streams.incrementAndGet();
+			return sink.asFlux().doOnCancel(cancellations::incrementAndGet);
+		}
+
+		void emit(String text) {
+			sink.tryEmitNext(new ChatResponse(List.of(new Generation(new AssistantMessage(text)))));
+		}
+
+		void complete() {
+			sink.tryEmitComplete();
+		}
+
+		void reset() {
+			sink = Sinks.many().multicast().onBackpressureBuffer();
+		}
+
+	}
+
+}
@@ -0,0 +1,294 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.tools;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.util.DigestUtils;
+import org.springframework.web.client.DefaultResponseErrorHandler;
+import org.springframework.web.client.RestClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BaiduTranslateBatcherTest {
+
+	private static final String APP_ID = "app";
+
+	private static final String SECRET_KEY = "secret";
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	/**
+	 * The q parameter of every request received by the stub endpoint.
+	 */
+	private final List<String> queries = new CopyOnWriteArrayList<>();
+
+	private final ExecutorService callers = Executors.newFixedThreadPool(10);
+
+	private HttpServer server;
+
+	private BaiduTranslateTools tools;
+
+	@BeforeEach
+	void setUp() throws IOException {
+
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/api/trans/vip/translate", this::translate);
+		server.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+
+		if (tools != null) {
+			tools.close();
+		}
+		server.stop(0);
+		callers.shutdownNow();
+	}
+
+	@Test
+	void testConcurrentTranslationsOfSameLanguagePairShareOneRequest() throws Exception {
+
+		tools = newTools(Duration.ofMillis(200), 32);
+
+		List<CompletableFuture<String>> results = new ArrayList<>();
+		CountDownLatch start = new CountDownLatch(1);
+		for (int i = 0; i < 10; i++) {
+			String text = "text-" + i;
+			results.add(CompletableFuture.supplyAsync(() -> {
+				await(start);
+				return translate(text, "en", "zh");
+			}, callers));
+		}
+		start.countDown();
+
+		for (int i = 0; i < 10; i++) {
+			assertEquals("zh:text-" + i, results.get(i).get());
+		}
+		assertEquals(1, queries.size());
+		assertEquals(10, queries.get(0).split("\n").length);
+	}
+
+	@Test
+	void testLanguagePairsAndFullBatchesAreSentSeparately() throws Exception {
+
+		tools = newTools(Duration.ofMillis(200), 2);
+
+		CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> translate("a", "en", "zh"), callers);
+		CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> translate("b", "en", "zh"), callers);
+		CompletableFuture<String> third = CompletableFuture.supplyAsync(() -> translate("c", "en", "zh"), callers);
+		CompletableFuture<String> other = CompletableFuture.supplyAsync(() -> translate("d", "en", "jp"), callers);
+
+		assertEquals("zh:a", first.get());
+		assertEquals("zh:b", second.get());
+		assertEquals("zh:c", third.get());
+		assertEquals("jp:d", other.get());
+		assertEquals(3, queries.size());
+	}
+
+	@Test
+	void testMultiLineTextIsTranslatedAlone() {
+
+		tools = newTools(Duration.ofMillis(20), 32);
+
+		assertEquals("zh:first\nzh:second", translate("first\nsecond", "en", "zh"));
+		assertEquals(List.of("first\nsecond"), queries);
+	}
+
+	@Test
+	void testErrorResponseIsReturnedToEveryCaller() {
+
+		tools = newTools(Duration.ofMillis(20), 32);
+
+		Map<String, String> error = tools.apply(new BaiduTranslateTools.BaiduTranslateToolRequest(
+				new BaiduTranslateTools.Request("fail", "en", "zh")), null).output().translatedTexts();
+
+		assertEquals("54003", error.get("error_code"));
+	}
+
+	@Test
+	void testSlowTranslationTimesOutWithError() {
+
+		tools = newTools(Duration.ofMillis(20), 32, Duration.ofMillis(200));
+
+		// thrown rather than answered, the result cache must not keep it.
+		IllegalStateException error = assertThrows(IllegalStateException.class, () -> tools.apply(
+				new BaiduTranslateTools.BaiduTranslateToolRequest(new BaiduTranslateTools.Request("slow", "en", "zh")), null));
+
+		assertTrue(error.getMessage().contains("timed out"));
+	}
+
+	@Test
+	void testCloseFailsPendingAndInFlightTranslations() throws Exception {
+
+		CountDownLatch sending = new CountDownLatch(1);
+		BaiduTranslateBatcher batcher = new BaiduTranslateBatcher(Duration.ofSeconds(10), 32, 2000, 1, 1, request -> {
+			sending.countDown();
+			await(new CountDownLatch(1));
+			return "{}";
+		});
+
+		CompletableFuture<BaiduTranslateTools.BaiduTranslateToolResponse> inFlight =
+				batcher.submit(new BaiduTranslateTools.Request("first\nsecond", "en", "zh"));
+		assertTrue(sending.await(5, TimeUnit.SECONDS));
+		CompletableFuture<BaiduTranslateTools.BaiduTranslateToolResponse> pending =
+				batcher.submit(new BaiduTranslateTools.Request("waiting", "en", "zh"));
+
+		batcher.close();
+
+		for (CompletableFuture<BaiduTranslateTools.BaiduTranslateToolResponse> future : List.of(inFlight, pending)) {
+			ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+			assertInstanceOf(IllegalStateException.class, e.getCause());
+		}
+		assertTrue(batcher.submit(new BaiduTranslateTools.Request("late", "en", "zh")).isCompletedExceptionally());
+	}
+
+	@Test
+	void testBatchesBeyondTheSendQueueFailAtOnce() throws Exception {
+
+		CountDownLatch release = new CountDownLatch(1);
+		BaiduTranslateBatcher batcher = new BaiduTranslateBatcher(Duration.ofSeconds(10), 1, 2000, 1, 1, request -> {
+			await(release);
+			return "{}";
+		});
+
+		try {
+			// one batch is sent, one is queued, the third does not fit.
+			batcher.submit(new BaiduTranslateTools.Request("a", "en", "zh"));
+			batcher.submit(new BaiduTranslateTools.Request("b", "en", "zh"));
+			CompletableFuture<BaiduTranslateTools.BaiduTranslateToolResponse> rejected =
+					batcher.submit(new BaiduTranslateTools.Request("c", "en", "zh"));
+
+			assertTrue(rejected.isCompletedExceptionally());
+		}
+		finally {
+			release.countDown();
+			batcher.close();
+		}
+	}
+
+	private BaiduTranslateTools newTools(Duration window, int maxSize) {
+
+		return newTools(window, maxSize, Duration.ofSeconds(10));
+	}
+
+	private BaiduTranslateTools newTools(Duration window, int maxSize, Duration timeout) {
+
+		ToolCallingProperties.TranslateBatch batch = new ToolCallingProperties.TranslateBatch();
+		batch.setWindow(window);
+		batch.setMaxSize(maxSize);
+		batch.setTimeout(timeout);
+
+		return new BaiduTranslateTools(
+				APP_ID,
+				SECRET_KEY,
+				"http://127.0.0.1:" + server.getAddress().getPort() + "/api/trans/vip/translate",
+				RestClient.builder(),
+				new DefaultResponseErrorHandler(),
+				batch,
+				null
+		);
+	}
+
+	private String translate(String q, String from, String to) {
+
+		return tools.apply(new BaiduTranslateTools.BaiduTranslateToolRequest(new BaiduTranslateTools.Request(q, from, to)), null)
+				.output().translatedTexts().get(to);
+	}
+
+	private void translate(HttpExchange exchange) throws IOException {
+
+		Map<String, String> form = new HashMap<>();
+		String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+		for (String pair : body.split("&")) {
+			String[] kv = pair.split("=", 2);
+			form.put(URLDecoder.decode(kv[0], StandardCharsets.UTF_8), URLDecoder.decode(kv[1], StandardCharsets.UTF_8));
+		}
+
+		String q = form.get("q");
+		queries.add(q);
+		String sign = DigestUtils.md5DigestAsHex((APP_ID + q + form.get("salt") + SECRET_KEY).getBytes(StandardCharsets.UTF_8));
+		assertTrue(sign.equals(form.get("sign")), "sign mismatch");
+
+		if ("slow".equals(q)) {
+			try {
+				Thread.sleep(2000);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		Object response;
+		if ("fail".equals(q)) {
+			response = Map.of("error_code", "54003", "error_msg", "Invalid Access Limit");
+		}
+		else {
+			List<Map<String, String>> results = new ArrayList<>();
+			for (String line : q.split("\n")) {
+				results.add(Map.of("src", line, "dst", form.get("to") + ":" + line));
+			}
+			response = Map.of("from", form.get("from"), "to", form.get("to"), "trans_result", results);
+		}
+
+		byte[] bytes = mapper.writeValueAsBytes(response);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+
+		try {
+			latch.await();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.tools;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentToolCallingManagerTest {
+
+	private ToolCallingProperties properties;
+
+	private ConcurrentToolCallingManager toolCallingManager;
+
+	@BeforeEach
+	void setUp() {
+
+		properties = new ToolCallingProperties();
+		toolCallingManager = new ConcurrentToolCallingManager(ToolCallingManager.builder().build(), properties);
+	}
+
+	@AfterEach
+	void tearDown() {
+		toolCallingManager.destroy();
+	}
+
+	@Test
+	void testExecuteAllToolCallsConcurrently() {
+
+		List<ToolCallback> tools = List.of(sleepTool("a", 300), sleepTool("b", 300), sleepTool("c", 300));
+
+		long start = System.currentTimeMillis();
+		ToolExecutionResult result = toolCallingManager.executeToolCalls(prompt(tools), toolCalls("c", "a", "b"));
+		long elapsed = System.currentTimeMillis() - start;
+
+		List<ToolResponseMessage.ToolResponse> responses = toolResponses(result);
+		assertEquals(List.of("c", "a", "b"), responses.stream().map(ToolResponseMessage.ToolResponse::name).toList());
+		assertEquals(List.of("id-c", "id-a", "id-b"), responses.stream().map(ToolResponseMessage.ToolResponse::id).toList());
+		assertEquals("done c", responses.get(0).responseData());
+		assertTrue(elapsed < 800, "tools should run concurrently, took " + elapsed + "ms");
+		assertFalse(result.returnDirect());
+	}
+
+	@Test
+	void testTimeoutPerTool() {
+
+		properties.setTimeouts(Map.of("slow", Duration.ofMillis(100)));
+		List<ToolCallback> tools = List.of(sleepTool("slow", 2000), sleepTool("fast", 10));
+
+		long start = System.currentTimeMillis();
+		ToolExecutionResult result = toolCallingManager.executeToolCalls(prompt(tools), toolCalls("slow", "fast"));
+		long elapsed = System.currentTimeMillis() - start;
+
+		List<ToolResponseMessage.ToolResponse> responses = toolResponses(result);
+		assertTrue(responses.get(0).responseData().contains("timed out"));
+		assertEquals("done fast", responses.get(1).responseData());
+		assertTrue(elapsed < 1000, "slow tool should time out, took " + elapsed + "ms");
+	}
+
+	@Test
+	void testTimedOutToolReturnsThreadToPool() throws Exception {
+
+		properties.setTimeouts(Map.of("stuck", Duration.ofMillis(100), "queued", Duration.ofMillis(300)));
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		ConcurrentToolCallingManager manager = new ConcurrentToolCallingManager(
+				ToolCallingManager.builder().build(), executor, properties);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		try {
+			// the only thread is held by the stuck tool until its timeout interrupts it.
+			List<ToolCallback> tools = List.of(blockingTool("stuck", interrupted), sleepTool("queued", 250));
+			ToolExecutionResult result = manager.executeToolCalls(prompt(tools), toolCalls("stuck", "queued"));
+
+			List<ToolResponseMessage.ToolResponse> responses = toolResponses(result);
+			assertTrue(responses.get(0).responseData().contains("timed out"));
+			assertTrue(interrupted.await(1, TimeUnit.SECONDS), "timed out tool should be interrupted");
+			// the queued tool waited 100ms for the thread and ran 250ms, within its timeout counted from its start.
+			assertEquals("done queued", responses.get(1).responseData());
+			assertEquals("free", executor.submit(() -> "free").get(1, TimeUnit.SECONDS));
+		}
+		finally {
+			manager.destroy();
+		}
+	}
+
+	@Test
+	void testFailedToolIsDescribed() {
+
+		List<ToolCallback> tools = List.of(failingTool("broken", new NullPointerException()),
+				failingTool("limited", new IllegalStateException("rate limited")));
+
+		ToolExecutionResult result = toolCallingManager.executeToolCalls(prompt(tools), toolCalls("broken", "limited"));
+
+		List<ToolResponseMessage.ToolResponse> responses = toolResponses(result);
+		assertEquals("Tool broken failed: NullPointerException", responses.get(0).responseData());
+		assertEquals("Tool limited failed: IllegalStateException: rate limited", responses.get(1).responseData());
+	}
+
+	private static Prompt prompt(List<ToolCallback> tools) {
+
+		return new Prompt("question", ToolCallingChatOptions.builder()
+				.toolCallbacks(tools)
+				.internalToolExecutionEnabled(false)
+				.build());
+	}
+
+	private static ChatResponse toolCalls(String... names) {
+
+		List<AssistantMessage.ToolCall> toolCalls = Arrays.stream(names)
+				.map(name -> new AssistantMessage.ToolCall("id-" + name, "function", name, "{}"))
+				.toList();
+		return new ChatResponse(List.of(new Generation(new AssistantMessage("", Map.of(), toolCalls))));
+	}
+
+	private static List<ToolResponseMessage.ToolResponse> toolResponses(ToolExecutionResult result) {
+
+		List<?> history = result.conversationHistory();
+		return ((ToolResponseMessage) history.get(history.size() - 1)).getResponses();
+	}
+
+	private static ToolCallback sleepTool(String name, long millis) {
+
+		return new ToolCallback() {
+
+			@Override
+			public ToolDefinition getToolDefinition() {
+				return ToolDefinition.builder().name(name).description(name).inputSchema("{}").build();
+			}
+
+			@Override
+			public String call(String toolInput) {
+				try {
+					Thread.sleep(millis);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return "done " + name;
+			}
+		};
+	}
+
+	private static ToolCallback failingTool(String name, RuntimeException error) {
+
+		return new ToolCallback() {
+
+			@Override
+			public ToolDefinition getToolDefinition() {
+				return ToolDefinition.builder().name(name).description(name).inputSchema("{}").build();
+			}
+
+			@Override
+			public String call(String toolInput) {
+				throw error;
+			}
+		};
+	}
+
+	private static ToolCallback blockingTool(String name, CountDownLatch interrupted) {
+
+		return new ToolCallback() {
+
+			@Override
+			public ToolDefinition getToolDefinition() {
+				return ToolDefinition.builder().name(name).description(name).inputSchema("{}").build();
+			}
+
+			@Override
+			public String call(String toolInput) {
+				try {
+					new CountDownLatch(1).await();
+				}
+				catch (InterruptedException e) {
+					interrupted.countDown();
+					Thread.currentThread().interrupt();
+				}
+				return "done " + name;
+			}
+		};
+	}
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.tools;
+
+import java.util.List;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ToolMetricsTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final ToolMetrics toolMetrics = new ToolMetrics(registry);
+
+	@Test
+	void testRecordLatencyPayloadAndErrors() {
+
+		ToolCallback tool = toolMetrics.decorate(new SleepingTool("echo", 0));
+		assertEquals("ok:abc", tool.call("abc"));
+		assertThrows(IllegalStateException.class, () -> tool.call("fail"));
+
+		assertEquals(1, registry.get(ToolMetrics.CALLS).tag("tool", "echo").tag("outcome", "success").timer().count());
+		assertEquals(1, registry.get(ToolMetrics.CALLS).tag("tool", "echo").tag("outcome", "error").timer().count());
+		assertEquals(1, registry.get(ToolMetrics.ERRORS).tag("exception", "IllegalStateException").counter().count());
+		assertEquals(7, registry.get(ToolMetrics.PAYLOAD).tag("type", "arguments").summary().totalAmount());
+		assertEquals(6, registry.get(ToolMetrics.PAYLOAD).tag("type", "result").summary().totalAmount());
+		assertEquals(0, registry.get(ToolMetrics.ACTIVE).tag("tool", "echo").gauge().value());
+	}
+
+	@Test
+	void testSummariesSortedBySlowestFirst() {
+
+		toolMetrics.decorate(new SleepingTool("fast", 0)).call("{}");
+		toolMetrics.decorate(new SleepingTool("slow", 50)).call("{}");
+
+		List<ToolMetrics.ToolSummary> summaries = new ToolMetricsEndpoint(toolMetrics).slowest(null);
+
+		assertEquals(List.of("slow", "fast"), summaries.stream().map(ToolMetrics.ToolSummary::tool).toList());
+		assertEquals(1, summaries.get(0).calls());
+	}
+
+	@Test
+	void testCacheHitsAreNotRecorded() {
+
+		ToolResultCache cache = new ToolResultCache(new ToolCallingProperties(), registry);
+		ToolCallback tool = cache.decorate(toolMetrics.decorate(new SleepingTool("cached", 0)),
+				ToolResultCacheTest.AnnotatedTool.class);
+
+		tool.call("{}");
+		tool.call("{}");
+		tool.call("{}");
+
+		assertEquals(1, registry.get(ToolMetrics.CALLS).tag("tool", "cached").timer().count());
+	}
+
+	static class SleepingTool implements ToolCallback {
+
+		private final String name;
+
+		private final long sleepMillis;
+
+		SleepingTool(String name, long sleepMillis) {
+			this.name = name;
+			this.sleepMillis = sleepMillis;
+		}
+
+		@Override
+		public ToolDefinition getToolDefinition() {
+			return ToolDefinition.builder().name(name).description(name).inputSchema("{}").build();
+		}
+
+		@Override
+		public String call(String toolInput) {
+
+			if ("fail".equals(toolInput)) {
+				throw new IllegalStateException("tool failed");
+			}
+			try {
+				Thread.sleep(sleepMillis);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return "ok:" + toolInput;
+		}
+
+	}
+
+}
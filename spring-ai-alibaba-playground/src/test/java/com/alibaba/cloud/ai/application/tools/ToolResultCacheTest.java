@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.tools;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.cloud.ai.application.annotation.CacheableTool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ToolResultCacheTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void testCacheByCanonicalArguments() {
+
+		ToolResultCache cache = new ToolResultCache(new ToolCallingProperties(), registry);
+		CountingTool tool = new CountingTool("translate");
+		ToolCallback cached = cache.decorate(tool, AnnotatedTool.class);
+
+		assertInstanceOf(CachingToolCallback.class, cached);
+		cached.call("{\"q\": \"hello\", \"to\": \"zh\"}");
+		cached.call("{\"to\":\"zh\",\"q\":\"hello\"}");
+		cached.call("{\"q\": \"world\", \"to\": \"zh\"}");
+
+		assertEquals(2, tool.calls.get());
+		assertEquals(1, cache.toolStats().get("translate").get("hits"));
+		assertEquals(2, cache.toolStats().get("translate").get("misses"));
+		assertEquals(1, registry.get(ToolResultCache.TOOL_CACHE).tag("tool", "translate").tag("result", "hit")
+				.functionCounter().count());
+		assertEquals(2, registry.get(ToolResultCache.TOOL_CACHE).tag("tool", "translate").tag("result", "miss")
+				.functionCounter().count());
+		assertEquals(1, registry.get("cache.gets").tag("cache", ToolResultCache.CACHE_NAME).tag("result", "hit")
+				.functionCounter().count());
+	}
+
+	@Test
+	void testScopesDoNotShareResults() {
+
+		ToolResultCache cache = new ToolResultCache(new ToolCallingProperties(), registry);
+		CountingTool tool = new CountingTool("translate");
+		ToolCallback first = cache.decorate(tool, AnnotatedTool.class, "baidu@env-a");
+		ToolCallback second = cache.decorate(tool, AnnotatedTool.class, "baidu@env-b");
+
+		assertEquals("translate#1", first.call("{\"q\":\"hello\"}"));
+		assertEquals("translate#2", second.call("{\"q\":\"hello\"}"));
+		assertEquals("translate#1", first.call("{\"q\":\"hello\"}"));
+	}
+
+	@Test
+	void testNotCachedWithoutTtlOrExcluded() {
+
+		ToolCallingProperties properties = new ToolCallingProperties();
+		properties.getCache().setExcluded(Set.of("translate"));
+		ToolResultCache cache = new ToolResultCache(properties, registry);
+
+		CountingTool plain = new CountingTool("booking");
+		CountingTool excluded = new CountingTool("translate");
+
+		assertSame(plain, cache.decorate(plain, null));
+		assertSame(excluded, cache.decorate(excluded, AnnotatedTool.class));
+	}
+
+	@Test
+	void testConfiguredTtlMatchesMcpToolName() throws InterruptedException {
+
+		ToolCallingProperties properties = new ToolCallingProperties();
+		properties.getCache().setTtl(Map.of("getStockInfo", Duration.ofMillis(100)));
+		ToolResultCache cache = new ToolResultCache(properties, registry);
+
+		CountingTool tool = new CountingTool("spring_ai_mcp_client_stock_getStockInfo");
+		ToolCallback cached = cache.decorate(tool, null);
+
+		cached.call("{\"stockCode\":\"600519\"}");
+		cached.call("{\"stockCode\":\"600519\"}");
+		Thread.sleep(200);
+		cached.call("{\"stockCode\":\"600519\"}");
+
+		assertEquals(2, tool.calls.get());
+	}
+
+	@Test
+	void testErrorPayloadIsNotCached() {
+
+		ToolResultCache cache = new ToolResultCache(new ToolCallingProperties(), registry);
+		RateLimitedTool tool = new RateLimitedTool("translate");
+		ToolCallback cached = cache.decorate(tool, ErrorCodeTool.class);
+
+		assertTrue(cached.call("{\"q\":\"hello\"}").contains("54003"));
+		assertEquals("{\"Response\":{\"translatedTexts\":{\"zh\":\"你好\"}}}", cached.call("{\"q\":\"hello\"}"));
+		assertEquals("{\"Response\":{\"translatedTexts\":{\"zh\":\"你好\"}}}", cached.call("{\"q\":\"hello\"}"));
+
+		assertEquals(2, tool.calls.get());
+		assertEquals(1, cache.size());
+	}
+
+	@CacheableTool(ttlSeconds = 60)
+	static class AnnotatedTool {
+	}
+
+	@CacheableTool(ttlSeconds = 60, skipWhenPresent = {"error_code", "error_msg"})
+	static class ErrorCodeTool {
+	}
+
+	/**
+	 * Answers a baidu rate limit error on the first call, the translation afterwards.
+	 */
+	static class RateLimitedTool extends CountingTool {
+
+		RateLimitedTool(String name) {
+			super(name);
+		}
+
+		@Override
+		public String call(String toolInput) {
+
+			if (calls.incrementAndGet() == 1) {
+				return "{\"Response\":{\"translatedTexts\":{\"error_code\":\"54003\",\"error_msg\":\"Invalid Access Limit\"}}}";
+			}
+			return "{\"Response\":{\"translatedTexts\":{\"zh\":\"你好\"}}}";
+		}
+
+	}
+
+	static class CountingTool implements ToolCallback {
+
+		private final String name;
+
+		final AtomicInteger calls = new AtomicInteger();
+
+		CountingTool(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public ToolDefinition getToolDefinition() {
+			return ToolDefinition.builder().name(name).description(name).inputSchema("{}").build();
+		}
+
+		@Override
+		public String call(String toolInput) {
+			return name + "#" + calls.incrementAndGet();
+		}
+
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.utils;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Count how many blocking calls, a sleep standing in for a model or JDBC round trip, are in flight at
+ * once when they run on the subscribing {@code parallel} threads as before and when they are offloaded
+ * by {@link BlockingUtils}.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+class BlockingUtilsLoadTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(BlockingUtilsLoadTest.class);
+
+	private static final long LATENCY_MILLIS = 20;
+
+	private static final int CALLS = Schedulers.DEFAULT_POOL_SIZE * 8;
+
+	@Test
+	void offloadedCallsDoNotOccupyEventLoopThreads() {
+
+		Concurrency inline = new Concurrency();
+		run(Mono::fromCallable, () -> inline.during(() -> Thread.sleep(LATENCY_MILLIS)));
+
+		// every offloaded call waits until all of them have started, only possible if they all run at once
+		Concurrency offloaded = new Concurrency();
+		CountDownLatch allStarted = new CountDownLatch(CALLS);
+		run(BlockingUtils::fromCallable, () -> offloaded.during(() -> {
+			allStarted.countDown();
+			assertTrue(allStarted.await(30, TimeUnit.SECONDS), "offloaded calls did not run concurrently");
+		}));
+
+		logger.info("{} calls, max in flight inline: {}, offloaded ({}): {}", CALLS, inline.max.get(),
+				BlockingUtils.isVirtual() ? "virtual threads" : "boundedElastic", offloaded.max.get());
+
+		// inline calls are capped by the parallel pool size, the offloaded ones all block at once
+		assertTrue(inline.max.get() <= Schedulers.DEFAULT_POOL_SIZE, "inline in flight: " + inline.max.get());
+		assertEquals(CALLS, offloaded.max.get());
+	}
+
+	private void run(Function<Callable<Integer>, Mono<Integer>> wrap, Callable<Integer> call) {
+
+		Integer total = Flux.range(0, CALLS)
+			.flatMap(i -> Mono.defer(() -> wrap.apply(call)).subscribeOn(Schedulers.parallel()), CALLS)
+			.reduce(0, Integer::sum)
+			.block(Duration.ofMinutes(1));
+
+		assertEquals(CALLS, total);
+	}
+
+	/**
+	 * Calls in flight and the highest number seen.
+	 */
+	private static final class Concurrency {
+
+		private final AtomicInteger active = new AtomicInteger();
+
+		private final AtomicInteger max = new AtomicInteger();
+
+		private Integer during(BlockingCall call) throws InterruptedException {
+
+			max.accumulateAndGet(active.incrementAndGet(), Math::max);
+			try {
+				call.run();
+				return 1;
+			}
+			finally {
+				active.decrementAndGet();
+			}
+		}
+
+	}
+
+	@FunctionalInterface
+	private interface BlockingCall {
+
+		void run() throws InterruptedException;
+
+	}
+
+}
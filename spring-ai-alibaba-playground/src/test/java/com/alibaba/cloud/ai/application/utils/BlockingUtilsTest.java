@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.application.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.alibaba.cloud.ai.ddd.book.application.service.BookApplicationService;
+import com.alibaba.cloud.ai.ddd.book.domain.model.Book;
+import com.alibaba.cloud.ai.ddd.book.domain.repository.BookRepository;
+import com.alibaba.cloud.ai.ddd.book.domain.repository.BorrowRecordRepository;
+import com.alibaba.cloud.ai.ddd.book.domain.service.BookDomainService;
+import com.alibaba.cloud.ai.ddd.book.infrastructure.repository.BookRepositoryImpl;
+import com.alibaba.cloud.ai.ddd.book.infrastructure.repository.BorrowRecordRepositoryImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * BlockHound style check without the agent: the repositories are wrapped by a detector recording
+ * every call made on a reactor non-blocking thread, and the reactive chains are subscribed from the
+ * {@code parallel} scheduler the same way a WebFlux event loop would.
+ *
+ * @author yuluo
+ * @author <a href="mailto:yuluo08290126@gmail.com">yuluo</a>
+ */
+
+class BlockingUtilsTest {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+	private final List<String> violations = new CopyOnWriteArrayList<>();
+
+	private BookDomainService domainService;
+
+	private BookApplicationService applicationService;
+
+	@BeforeEach
+	void setUp() {
+
+		domainService = new BookDomainService(
+				detect(BookRepository.class, new BookRepositoryImpl()),
+				detect(BorrowRecordRepository.class, new BorrowRecordRepositoryImpl()));
+		applicationService = new BookApplicationService(domainService);
+	}
+
+	@Test
+	void repositoriesAreNeverCalledOnNonBlockingThreads() {
+
+		List<Book> books = onParallel(applicationService.searchBooks("Java"));
+		List<Book> available = onParallel(applicationService.viewAvailableBooks());
+
+		assertFalse(books.isEmpty());
+		assertFalse(available.isEmpty());
+		assertTrue(violations.isEmpty(), "blocking calls on non-blocking threads: " + violations);
+	}
+
+	@Test
+	void detectorReportsBareFromCallable() {
+
+		onParallel(Mono.fromCallable(() -> domainService.searchBooks("Java")));
+
+		assertFalse(violations.isEmpty());
+	}
+
+	@Test
+	void offloadedCallableMayBlock() {
+
+		Mono<Long> delay = Mono.delay(Duration.ofMillis(10));
+
+		// reactor itself refuses block() on a non-blocking thread
+		assertThrows(IllegalStateException.class, () -> onParallel(Mono.fromCallable(delay::block)));
+		assertEquals(0L, onParallel(BlockingUtils.fromCallable(delay::block)));
+	}
+
+	private <T> T onParallel(Mono<T> mono) {
+		return Mono.defer(() -> mono).subscribeOn(Schedulers.parallel()).block(TIMEOUT);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T detect(Class<T> type, T delegate) {
+
+		InvocationHandler handler = (proxy, method, args) -> invoke(delegate, method, args);
+		return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler);
+	}
+
+	private Object invoke(Object delegate, Method method, Object[] args) throws Throwable {
+
+		if (Schedulers.isInNonBlockingThread()) {
+			violations.add(method.getName() + " on " + Thread.currentThread().getName());
+		}
+
+		try {
+			return method.invoke(delegate, args);
+		}
+		catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+}
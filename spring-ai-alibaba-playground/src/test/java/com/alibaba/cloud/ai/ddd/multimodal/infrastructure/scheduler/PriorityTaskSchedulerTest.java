@@ -0,0 +1,323 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.ddd.multimodal.infrastructure.scheduler;
+
+import com.alibaba.cloud.ai.ddd.multimodal.config.TaskSchedulerProperties;
+import com.alibaba.cloud.ai.ddd.multimodal.domain.model.InputContent;
+import com.alibaba.cloud.ai.ddd.multimodal.domain.model.ModalityType;
+import com.alibaba.cloud.ai.ddd.multimodal.domain.model.ProcessingPrompt;
+import com.alibaba.cloud.ai.ddd.multimodal.domain.model.ProcessingResult;
+import com.alibaba.cloud.ai.ddd.multimodal.domain.model.ProcessingTask;
+import com.alibaba.cloud.ai.ddd.multimodal.domain.model.ProcessingTaskId;
+import com.alibaba.cloud.ai.ddd.multimodal.domain.service.ProcessingEngine;
+import com.alibaba.cloud.ai.ddd.shared.exception.DomainException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PriorityTaskSchedulerTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final List<Duration> timers = new CopyOnWriteArrayList<>();
+    private final FakeEngine engine = new FakeEngine();
+    private final TaskSchedulerProperties properties = new TaskSchedulerProperties();
+
+    private PriorityTaskScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        properties.setAging(Duration.ofSeconds(10));
+        properties.setRetryBackoff(Duration.ofSeconds(1));
+        properties.getDefaults().setSize(1);
+        properties.getDefaults().setMaxQueue(2);
+        // 延迟和重试由测试推进时钟后手动 dispatch
+        scheduler = new PriorityTaskScheduler(null, properties, clock, (action, delay) -> timers.add(delay));
+    }
+
+    @Test
+    void higherPriorityRunsFirst() {
+        submit(text("running", 5));
+        submit(text("low", 9));
+        submit(text("high", 0));
+
+        assertEquals(List.of("running"), engine.started);
+        assertEquals(2, scheduler.getPendingTasksCount());
+        assertEquals(100, scheduler.getLoadPercentage());
+
+        engine.complete("running");
+        assertEquals(List.of("running", "high"), engine.started);
+
+        engine.complete("high");
+        assertEquals(List.of("running", "high", "low"), engine.started);
+    }
+
+    @Test
+    void waitingTasksAgeAheadOfNewerHigherPriorityTasks() {
+        submit(text("running", 5));
+        submit(text("old", 3));
+
+        // 等待 40s 后，优先级 3 的任务排在刚到达的优先级 0 任务之前
+        clock.advance(Duration.ofSeconds(40));
+        submit(text("new", 0));
+
+        engine.complete("running");
+        assertEquals(List.of("running", "old"), engine.started);
+
+        engine.complete("old");
+        assertEquals(List.of("running", "old", "new"), engine.started);
+    }
+
+    @Test
+    void engineTypesHaveSeparatePools() {
+        properties.getPools().put("image", pool(2, 0));
+
+        submit(text("text-1", 5));
+        submit(text("text-2", 5));
+        submit(image("image-1"));
+        submit(image("image-2"));
+
+        assertEquals(List.of("text-1", "image-1", "image-2"), engine.started);
+        assertEquals(3, scheduler.getProcessingTasksCount());
+        assertEquals(1, scheduler.getPendingTasksCount());
+    }
+
+    @Test
+    void fullQueueIsRejected() {
+        submit(text("running", 5));
+        submit(text("queued-1", 5));
+        submit(text("queued-2", 5));
+
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        scheduler.submit(text("rejected", 5), engine::process).subscribe(result -> { }, error::set);
+
+        assertEquals("SCHEDULER_QUEUE_FULL", ((DomainException) error.get()).getErrorCode());
+        assertFalse(scheduler.isHealthy());
+    }
+
+    @Test
+    void delayedTaskStartsWhenDue() {
+        scheduler.submit(text("delayed", 5), Duration.ofSeconds(5), engine::process).subscribe();
+
+        assertEquals(List.of(Duration.ofSeconds(5)), timers);
+        assertEquals(List.of(), engine.started);
+
+        clock.advance(Duration.ofSeconds(4));
+        scheduler.dispatch();
+        assertEquals(List.of(), engine.started);
+
+        clock.advance(Duration.ofSeconds(1));
+        scheduler.dispatch();
+        assertEquals(List.of("delayed"), engine.started);
+    }
+
+    @Test
+    void failedTaskIsRetriedWithBackoff() {
+        List<String> results = new CopyOnWriteArrayList<>();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        scheduler.submit(text("flaky", 5), engine::process)
+                .map(ProcessingResult::getContent)
+                .subscribe(results::add, error::set);
+
+        engine.fail("flaky", new IllegalStateException("model unavailable"));
+        assertEquals(List.of(Duration.ofSeconds(1)), timers);
+        assertEquals(1, engine.started.size());
+
+        clock.advance(Duration.ofSeconds(1));
+        scheduler.dispatch();
+        engine.fail("flaky", new IllegalStateException("model unavailable"));
+        assertEquals(List.of(Duration.ofSeconds(1), Duration.ofSeconds(2)), timers);
+
+        clock.advance(Duration.ofSeconds(2));
+        scheduler.dispatch();
+        engine.complete("flaky");
+
+        assertEquals(3, engine.started.size());
+        assertEquals(List.of("flaky"), results);
+        assertNull(error.get());
+        assertEquals(0, scheduler.getPendingTasksCount());
+    }
+
+    @Test
+    void domainErrorsAreNotRetried() {
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        scheduler.submit(text("invalid", 5), engine::process).subscribe(result -> { }, error::set);
+
+        engine.fail("invalid", new DomainException("INVALID_INPUT", "invalid"));
+
+        assertInstanceOf(DomainException.class, error.get());
+        assertEquals(List.of(), timers);
+        assertEquals(0, scheduler.getProcessingTasksCount());
+    }
+
+    @Test
+    void queuedAndRunningTasksCanBeCancelled() {
+        ProcessingTask running = text("running", 5);
+        ProcessingTask queued = text("queued", 5);
+        AtomicReference<Throwable> queuedError = new AtomicReference<>();
+        AtomicReference<Throwable> runningError = new AtomicReference<>();
+        scheduler.submit(running, engine::process).subscribe(result -> { }, runningError::set);
+        scheduler.submit(queued, engine::process).subscribe(result -> { }, queuedError::set);
+        submit(text("next", 5));
+
+        assertEquals(true, scheduler.cancelTask(queued.getId()).block());
+        assertEquals("TASK_CANCELLED", ((DomainException) queuedError.get()).getErrorCode());
+        assertEquals(List.of("running"), engine.started);
+
+        assertEquals(true, scheduler.cancelTask(running.getId()).block());
+        assertEquals("TASK_CANCELLED", ((DomainException) runningError.get()).getErrorCode());
+        assertEquals(1, engine.cancellations.get());
+        assertEquals(List.of("running", "next"), engine.started);
+
+        assertEquals(false, scheduler.cancelTask(ProcessingTaskId.generate()).block());
+    }
+
+    @Test
+    void unsubscribingReleasesTheSlot() {
+        Disposable subscription = submit(text("running", 5));
+        submit(text("next", 5));
+
+        subscription.dispose();
+
+        assertEquals(1, engine.cancellations.get());
+        assertEquals(List.of("running", "next"), engine.started);
+        assertEquals(1, scheduler.getProcessingTasksCount());
+    }
+
+    private Disposable submit(ProcessingTask task) {
+        return scheduler.submit(task, engine::process).subscribe(result -> { }, error -> { });
+    }
+
+    private static ProcessingTask text(String name, int priority) {
+        return ProcessingTask.create(ProcessingTaskId.generate(), "user", ModalityType.TEXT, ModalityType.TEXT,
+                ProcessingPrompt.of(name), List.of(), Map.of(), priority);
+    }
+
+    private static ProcessingTask image(String name) {
+        return ProcessingTask.create(ProcessingTaskId.generate(), "user", ModalityType.IMAGE, ModalityType.TEXT,
+                ProcessingPrompt.of(name), List.of(InputContent.of("cat.png", new byte[] { 1 }, "image/png")),
+                Map.of(), 5);
+    }
+
+    private static TaskSchedulerProperties.Pool pool(int size, int maxQueue) {
+        TaskSchedulerProperties.Pool pool = new TaskSchedulerProperties.Pool();
+        pool.setSize(size);
+        pool.setMaxQueue(maxQueue);
+        return pool;
+    }
+
+    /**
+     * 每次执行返回一个由测试控制结束时机的结果
+     */
+    private static final class FakeEngine implements ProcessingEngine {
+
+        private final List<String> started = new CopyOnWriteArrayList<>();
+        private final Map<String, Sinks.One<ProcessingResult>> results = new ConcurrentHashMap<>();
+        private final AtomicInteger cancellations = new AtomicInteger();
+
+        @Override
+        public boolean supports(ProcessingTask task) {
+            return true;
+        }
+
+        @Override
+        public Mono<ProcessingResult> process(ProcessingTask task) {
+            String name = task.getPrompt().getContent();
+            started.add(name);
+            Sinks.One<ProcessingResult> result = Sinks.one();
+            results.put(name, result);
+            return result.asMono().doOnCancel(cancellations::incrementAndGet);
+        }
+
+        @Override
+        public Flux<ProcessingResult> processStream(ProcessingTask task) {
+            return process(task).flux();
+        }
+
+        @Override
+        public int getPriority() {
+            return 0;
+        }
+
+        @Override
+        public String getEngineName() {
+            return "fake";
+        }
+
+        @Override
+        public long estimateProcessingTime(ProcessingTask task) {
+            return 0;
+        }
+
+        @Override
+        public boolean isHealthy() {
+            return true;
+        }
+
+        void complete(String name) {
+            results.get(name).tryEmitValue(ProcessingResult.textResult(name, 1.0));
+        }
+
+        void fail(String name, Throwable error) {
+            results.get(name).tryEmitError(error);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
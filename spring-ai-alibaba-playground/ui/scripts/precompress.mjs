@@ -0,0 +1,49 @@
+// Write brotli and gzip variants next to the built assets, so the server sends them as they are
+// instead of compressing on every request. Only text assets worth compressing get a variant.
+import { readdir, readFile, stat, writeFile } from "node:fs/promises";
+import { join, extname } from "node:path";
+import { brotliCompressSync, constants, gzipSync } from "node:zlib";
+
+const COMPRESSIBLE = new Set([".js", ".mjs", ".css", ".html", ".svg", ".json", ".txt", ".map", ".wasm"]);
+const MIN_SIZE = 1024;
+
+const dir = process.argv[2] ?? "dist";
+
+async function* files(path) {
+  for (const entry of await readdir(path, { withFileTypes: true })) {
+    const child = join(path, entry.name);
+    if (entry.isDirectory()) {
+      yield* files(child);
+    } else {
+      yield child;
+    }
+  }
+}
+
+let written = 0;
+for await (const file of files(dir)) {
+  if (!COMPRESSIBLE.has(extname(file)) || (await stat(file)).size < MIN_SIZE) {
+    continue;
+  }
+
+  const content = await readFile(file);
+  const variants = {
+    ".br": brotliCompressSync(content, {
+      params: {
+        [constants.BROTLI_PARAM_QUALITY]: constants.BROTLI_MAX_QUALITY,
+        [constants.BROTLI_PARAM_SIZE_HINT]: content.length
+      }
+    }),
+    ".gz": gzipSync(content, { level: 9 })
+  };
+
+  for (const [suffix, compressed] of Object.entries(variants)) {
+    // a variant larger than the original is never worth sending
+    if (compressed.length < content.length) {
+      await writeFile(file + suffix, compressed);
+      written++;
+    }
+  }
+}
+
+console.log(`precompressed ${written} variants in ${dir}`);
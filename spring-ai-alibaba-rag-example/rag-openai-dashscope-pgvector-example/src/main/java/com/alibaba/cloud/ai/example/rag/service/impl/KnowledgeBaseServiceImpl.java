@@ -28,17 +28,24 @@ import org.springframework.ai.reader.tika.TikaDocumentReader;
 import org.springframework.ai.transformer.splitter.TokenTextSplitter;
 import org.springframework.ai.vectorstore.SearchRequest;
 import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.ai.vectorstore.filter.FilterExpressionBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 import reactor.core.publisher.Flux;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -51,6 +58,11 @@ public class KnowledgeBaseServiceImpl implements KnowledgeBaseService {
 
     private static final Logger logger = LoggerFactory.getLogger(KnowledgeBaseServiceImpl.class);
 
+    /**
+     * 文档片段元数据中记录源文件内容的 SHA-256
+     */
+    private static final String CONTENT_SHA256 = "content_sha256";
+
     private final VectorStore vectorStore;
     private final ChatClient chatClient;
 
@@ -117,13 +129,25 @@ public class KnowledgeBaseServiceImpl implements KnowledgeBaseService {
 
         logger.info("开始处理文件上传: fileName={}, fileSize={}", file.getOriginalFilename(),  file.getSize());
 
+        String fileName = file.getOriginalFilename();
+        Path tempFile = null;
         try {
-            // 创建临时文件
-            Path tempFile = Files.createTempFile("upload_", "_" + file.getOriginalFilename());
-            Files.copy(file.getInputStream(), tempFile, StandardCopyOption.REPLACE_EXISTING);
+            // 边写临时文件边计算内容摘要，临时文件名只保留扩展名
+            String extension = StringUtils.getFilenameExtension(fileName);
+            tempFile = Files.createTempFile("upload_", extension == null ? "" : "." + extension);
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String contentKey = HexFormat.of().formatHex(digest.digest());
+
+            // 相同内容已导入过时不再重复解析和向量化
+            if (isIngested(contentKey)) {
+                logger.info("文件内容已导入，跳过: fileName={}, sha256={}", fileName, contentKey);
+                return String.format("文件 %s 的内容已导入，无需重复处理", fileName);
+            }
 
             List<Document> documents;
-            String fileName = file.getOriginalFilename();
 
             // 根据文件类型选择合适的文档读取器
             if (fileName.toLowerCase().endsWith(".pdf")) {
@@ -137,22 +161,47 @@ public class KnowledgeBaseServiceImpl implements KnowledgeBaseService {
                 documents = tikaReader.get();
                 logger.info("使用Tika读取器处理文件: {}", fileName);
             }
+            for (Document document : documents) {
+                document.getMetadata().put(CONTENT_SHA256, contentKey);
+            }
             // 添加文档到向量存储
             vectorStore.add(documents);
 
-            // 清理临时文件
-            Files.deleteIfExists(tempFile);
-
             logger.info("文件处理完成: fileName={}, documentsCount={}", fileName,  documents.size());
 
             return String.format("成功处理文件 %s，共生成 %d 个文档片段", fileName, documents.size());
 
-        } catch (IOException e) {
-            logger.error("文件处理失败: fileName={}, error={}", file.getOriginalFilename(),  e.getMessage(), e);
+        } catch (IOException | NoSuchAlgorithmException | RuntimeException e) {
+            logger.error("文件处理失败: fileName={}, error={}", fileName,  e.getMessage(), e);
             return "文件处理失败: " + e.getMessage();
+        } finally {
+            // 无论成功与否都清理临时文件
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException e) {
+                    logger.warn("临时文件清理失败: {}", tempFile, e);
+                }
+            }
         }
     }
 
+    /**
+     * 按元数据中的内容摘要查询向量存储，存在片段即说明相同内容已导入，重启后依然有效
+     *
+     * @param contentKey 文件内容的 SHA-256
+     * @return 是否已导入
+     */
+    private boolean isIngested(String contentKey) {
+        SearchRequest searchRequest = SearchRequest.builder()
+                .query(contentKey)
+                .topK(1)
+                .similarityThresholdAll()
+                .filterExpression(new FilterExpressionBuilder().eq(CONTENT_SHA256, contentKey).build())
+                .build();
+        return !vectorStore.similaritySearch(searchRequest).isEmpty();
+    }
+
     /**
      * {@inheritDoc}
      */